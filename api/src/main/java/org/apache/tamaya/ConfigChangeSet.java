@@ -31,13 +31,41 @@ import java.util.*;
  */
 public final class ConfigChangeSet implements Serializable{
 
-    private static final long serialVersionUID = 1l;
+    /** Version 2 stores the changes in columnar form, instead of a map of change events. */
+    private static final long serialVersionUID = 2L;
+    /** Kind flag for added entries, i.e. entries without old value. */
+    private static final byte ADDED = 1;
+    /** Kind flag for removed entries, i.e. entries without new value. */
+    private static final byte REMOVED = 2;
+    /** Kind flag for updated entries, i.e. entries with old and new value. */
+    private static final byte UPDATED = 4;
+    /** Empty String array. */
+    private static final String[] NO_VALUES = new String[0];
+
     /** The base property provider/configuration. */
     private PropertySource propertySource;
     /** The base version, usable for optimistic locking. */
     private String baseVersion;
-    /** The recorded changes. */
-    private Map<String,PropertyChangeEvent> changes = new HashMap<>();
+    /** The keys changed, sorted. */
+    private String[] keys;
+    /** The old values, with the same index as the keys. */
+    private String[] oldValues;
+    /** The new values, with the same index as the keys. */
+    private String[] newValues;
+    /**
+     * The sources of the changes recorded, with the same index as the keys, or null, if all changes were recorded
+     * with the base property provider/configuration as source. Like the source of a {@link PropertyChangeEvent}
+     * the sources are not serialized.
+     */
+    private transient Object[] sources;
+    /** The kind flags of the changes, with the same index as the keys. */
+    private byte[] kinds;
+    /** The number of removed entries. */
+    private int removedSize;
+    /** The number of added entries. */
+    private int addedSize;
+    /** The number of updated entries. */
+    private int updatedSize;
 
     /**
      * Get an empty change set for the given provider.
@@ -49,13 +77,54 @@ public final class ConfigChangeSet implements Serializable{
     }
 
     /**
-     * Constructor used by {@link ConfigChangeSetBuilder}.
+     * Constructor used by {@link ConfigChangeSetBuilder}. The changes are stored in a compact columnar form, if
+     * multiple changes are passed for the same key, the last one wins.
      * @param propertySource The base property provider/configuration, not null.
      * @param changes The recorded changes, not null.
      */
     ConfigChangeSet(PropertySource propertySource, Collection<PropertyChangeEvent> changes) {
         this.propertySource = Objects.requireNonNull(propertySource);
-        changes.forEach((c) -> this.changes.put(c.getPropertyName(), c));
+        PropertyChangeEvent[] events = changes.toArray(new PropertyChangeEvent[changes.size()]);
+        // stable sort, so the last change of a key can be evaluated
+        Arrays.sort(events, (e1, e2) -> e1.getPropertyName().compareTo(e2.getPropertyName()));
+        int size = 0;
+        for (int i = 0; i < events.length; i++) {
+            if (i + 1 < events.length && events[i].getPropertyName().equals(events[i + 1].getPropertyName())) {
+                continue;
+            }
+            events[size++] = events[i];
+        }
+        this.keys = size == 0 ? NO_VALUES : new String[size];
+        this.oldValues = size == 0 ? NO_VALUES : new String[size];
+        this.newValues = size == 0 ? NO_VALUES : new String[size];
+        this.kinds = new byte[size];
+        for (int i = 0; i < size; i++) {
+            PropertyChangeEvent evt = events[i];
+            keys[i] = evt.getPropertyName();
+            oldValues[i] = Objects.toString(evt.getOldValue(), null);
+            newValues[i] = Objects.toString(evt.getNewValue(), null);
+            if (evt.getSource() != propertySource) {
+                if (sources == null) {
+                    sources = new Object[size];
+                    Arrays.fill(sources, propertySource);
+                }
+                sources[i] = evt.getSource();
+            }
+            byte kind = 0;
+            if (oldValues[i] == null) {
+                kind |= ADDED;
+                addedSize++;
+            }
+            if (newValues[i] == null) {
+                kind |= REMOVED;
+                removedSize++;
+            }
+            if (kind == 0) {
+                kind = UPDATED;
+                updatedSize++;
+            }
+            kinds[i] = kind;
+        }
     }
 
     /**
@@ -75,11 +144,24 @@ public final class ConfigChangeSet implements Serializable{
     }
 
     /**
-     * Get the changes recorded.
+     * Get the changes recorded. The events are created on access, ordered by key, so they are equal but not
+     * identical to the events passed to the change set. Each event keeps the source it was recorded with, values
+     * are returned as Strings. For change sets deserialized the source is the base property provider/configuration.
      * @return the recorded changes, never null.
      */
     public Collection<PropertyChangeEvent> getEvents(){
-        return Collections.unmodifiableCollection(this.changes.values());
+        return new AbstractList<PropertyChangeEvent>() {
+            @Override
+            public PropertyChangeEvent get(int index) {
+                Object source = sources == null ? propertySource : sources[index];
+                return new PropertyChangeEvent(source, keys[index], oldValues[index], newValues[index]);
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
     }
 
     /**
@@ -87,7 +169,7 @@ public final class ConfigChangeSet implements Serializable{
      * @return the number current removed entries.
      */
     public int getRemovedSize() {
-        return (int) this.changes.values().stream().filter((e) -> e.getNewValue() == null).count();
+        return removedSize;
     }
 
     /**
@@ -95,7 +177,7 @@ public final class ConfigChangeSet implements Serializable{
      * @return the number current added entries.
      */
     public int getAddedSize() {
-        return (int) this.changes.values().stream().filter((e) -> e.getOldValue() == null).count();
+        return addedSize;
     }
 
     /**
@@ -103,7 +185,7 @@ public final class ConfigChangeSet implements Serializable{
      * @return the number current updated entries.
      */
     public int getUpdatedSize() {
-        return (int) this.changes.values().stream().filter((e) -> e.getOldValue()!=null && e.getNewValue()!=null).count();
+        return updatedSize;
     }
 
 
@@ -113,8 +195,7 @@ public final class ConfigChangeSet implements Serializable{
      * @return true, if the given key was removed.
      */
     public boolean isRemoved(String key) {
-        PropertyChangeEvent change = this.changes.get(key);
-        return change != null && change.getNewValue() == null;
+        return hasKind(key, REMOVED);
     }
 
     /**
@@ -123,8 +204,7 @@ public final class ConfigChangeSet implements Serializable{
      * @return true, if the given key was added.
      */
     public boolean isAdded(String key) {
-        PropertyChangeEvent change = this.changes.get(key);
-        return change != null && change.getOldValue() == null;
+        return hasKind(key, ADDED);
     }
 
     /**
@@ -133,8 +213,7 @@ public final class ConfigChangeSet implements Serializable{
      * @return true, if the given key was updated.
      */
     public boolean isUpdated(String key) {
-        PropertyChangeEvent change = this.changes.get(key);
-        return change != null && change.getOldValue() != null && change.getNewValue() != null;
+        return hasKind(key, UPDATED);
     }
 
     /**
@@ -143,8 +222,18 @@ public final class ConfigChangeSet implements Serializable{
      * @return true, if the given key was added, or updated BUT NOT removed.
      */
     public boolean containsKey(String key) {
-        PropertyChangeEvent change = this.changes.get(key);
-        return change != null && change.getNewValue() != null;
+        int index = Arrays.binarySearch(this.keys, key);
+        return index >= 0 && newValues[index] != null;
+    }
+
+    /**
+     * Access the new value of a changed key.
+     * @param key the target key, not null.
+     * @return the new value, or null, if the key was removed or not changed at all.
+     */
+    public String getNewValue(String key) {
+        int index = Arrays.binarySearch(this.keys, key);
+        return index >= 0 ? newValues[index] : null;
     }
 
     /**
@@ -152,7 +241,12 @@ public final class ConfigChangeSet implements Serializable{
      * @return tru, if the change set is empty.
      */
     public boolean isEmpty(){
-        return this.changes.isEmpty();
+        return this.keys.length == 0;
+    }
+
+    private boolean hasKind(String key, byte kind) {
+        int index = Arrays.binarySearch(this.keys, key);
+        return index >= 0 && (kinds[index] & kind) != 0;
     }
 
 
@@ -161,7 +255,7 @@ public final class ConfigChangeSet implements Serializable{
         return "ConfigChangeSet{" +
                 "properties=" + propertySource +
                 ", baseVersion=" + baseVersion +
-                ", changes=" + changes +
+                ", changes=" + getEvents() +
                 '}';
     }
 }
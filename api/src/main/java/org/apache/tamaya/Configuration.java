@@ -20,7 +20,6 @@ package org.apache.tamaya;
 
 import org.apache.tamaya.spi.ConfigChangeSetCallback;
 import org.apache.tamaya.spi.ConfigurationFactorySpi;
-import org.apache.tamaya.spi.ConfigurationSpi;
 import org.apache.tamaya.spi.ServiceContext;
 
 import java.util.*;
@@ -216,30 +215,32 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
         return Optional.empty();
     }
 
-//    /**
-//     * Get the property with the given key as type {@code Class<T>}.
-//     * <p>
-//     * If {@code Class<T>} is not one current
-//     * {@code Boolean, Short, Integer, Long, Float, Double, BigInteger,
-//     * BigDecimal, String} , an according adapter must be
-//     * available to perform the conversion from {@link String} to
-//     * {@code Class<T>}.
-//     *
-//     * @param key     the property's absolute, or relative path, e.g. {@code
-//     *                a/b/c/d.myProperty}.
-//     * @param adapter the PropertyAdapter to perform the conversion from
-//     *                {@link String} to {@code Class<T>}, not {@code null}.
-//     * @return the property value, never null.
-//     * @throws ConfigException if the keys could not be converted to the required target
-//     *                                  type, or no such property exists.
-//     */
-//    default <T> DynamicValue<T> getAdaptedDynamicValue(String key, PropertyAdapter<T> adapter){
-//        Optional<String> value = get(key);
-//        if(value.isPresent()) {
-//            return DynamicValue.ofNullable(getName()+':' + key, adapter.adapt(value.get()));
-//        }
-//        return DynamicValue.empty(getName()+':' + key);
-//    }
+    /**
+     * Get the property with the given key as type {@code Class<T>}. The value returned is registered for changes
+     * of this configuration, which are applied to it depending on its
+     * {@link org.apache.tamaya.DynamicValue.UpdatePolicy}, by default {@code IMMEDIATE}. The value is only
+     * weakly referenced by the configuration.
+     * <p>
+     * If {@code Class<T>} is not one current
+     * {@code Boolean, Short, Integer, Long, Float, Double, BigInteger,
+     * BigDecimal, String} , an according adapter must be
+     * available to perform the conversion from {@link String} to
+     * {@code Class<T>}.
+     *
+     * @param key     the property's absolute, or relative path, e.g. {@code
+     *                a/b/c/d.myProperty}.
+     * @param adapter the PropertyAdapter to perform the conversion from
+     *                {@link String} to {@code Class<T>}, not {@code null}.
+     * @return the property value, never null.
+     * @throws ConfigException if the keys could not be converted to the required target
+     *                                  type, or no such property exists.
+     */
+    default <T> DynamicValue<T> getAdaptedDynamicValue(String key, PropertyAdapter<T> adapter){
+        DynamicValue<T> dynamicValue = DynamicValue.ofNullable(getName()+':' + key, getAdapted(key, adapter).orElse(null));
+        dynamicValue.setUpdatePolicy(DynamicValue.UpdatePolicy.IMMEDIATE);
+        DynamicValueUpdater.register(this, key, adapter, dynamicValue);
+        return dynamicValue;
+    }
 
 
     /**
@@ -258,20 +259,22 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
         return getAdapted(key, PropertyAdapter.getInstance(type));
     }
 
-//    /**
-//     * Get the property value as {@link org.apache.tamaya.DynamicValue}. This will implicitly require a corresponding {@link
-//     * PropertyAdapter} that is capable of converting the String value to the current required type T.
-//     *
-//     * @param key          the property's absolute, or relative path, e.g. {@code
-//     *                     a/b/c/d.myProperty}.
-//     * @param type         The target type required, not null.
-//     * @return the dynamic value instance, never null.
-//     * @throws ConfigException if the keys could not be converted to the required target
-//     *                                  type.
-//     */
-//    default <T> DynamicValue<T> getDynamicValue(String key, Class<T> type){
-//        return getAdaptedDynamicValue(key, PropertyAdapter.getInstance(type));
-//    }
+    /**
+     * Get the property value as {@link org.apache.tamaya.DynamicValue}, which is updated on changes of this
+     * configuration. This will implicitly require a corresponding {@link
+     * PropertyAdapter} that is capable of converting the String value to the current required type T.
+     *
+     * @param key          the property's absolute, or relative path, e.g. {@code
+     *                     a/b/c/d.myProperty}.
+     * @param type         The target type required, not null.
+     * @return the dynamic value instance, never null.
+     * @throws ConfigException if the keys could not be converted to the required target
+     *                                  type.
+     * @see #getAdaptedDynamicValue(String, PropertyAdapter)
+     */
+    default <T> DynamicValue<T> getDynamicValue(String key, Class<T> type){
+        return getAdaptedDynamicValue(key, PropertyAdapter.getInstance(type));
+    }
 
     /**
      * Extension point for adjusting configuration.
@@ -303,7 +306,7 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
      * @return true, if such a configuration is defined.
      */
     public static boolean isAvailable(String name){
-        return ServiceContext.getInstance().getSingleton(ConfigurationSpi.class).isConfigurationAvailable(name);
+        return SpiSingletons.CONFIGURATION_SPI.get().isConfigurationAvailable(name);
     }
 
     /**
@@ -324,7 +327,7 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
      * @throws ConfigException if no such configuration is defined.
      */
     public static Configuration current(String name){
-        return ServiceContext.getInstance().getSingleton(ConfigurationSpi.class).getConfiguration(name);
+        return SpiSingletons.CONFIGURATION_SPI.get().getConfiguration(name);
     }
 
     /**
@@ -334,7 +337,7 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
      * @throws ConfigException if no such configuration is defined.
      */
     public static Configuration current(){
-        return ServiceContext.getInstance().getSingleton(ConfigurationSpi.class).getConfiguration();
+        return SpiSingletons.CONFIGURATION_SPI.get().getConfiguration();
     }
 
     /**
@@ -349,7 +352,7 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
      * @throws ConfigException if the configuration could not be resolved.
      */
     public static <T> T createTemplate(Class<T> type, Configuration... configurations){
-        return ServiceContext.getInstance().getSingleton(ConfigurationSpi.class).createTemplate(type, configurations);
+        return SpiSingletons.CONFIGURATION_SPI.get().createTemplate(type, configurations);
     }
 
     /**
@@ -363,7 +366,7 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
      * @throws ConfigException if the configuration could not be resolved.
      */
     public static void configure(Object instance, Configuration... configurations){
-        ServiceContext.getInstance().getSingleton(ConfigurationSpi.class).configure(instance, configurations);
+        SpiSingletons.CONFIGURATION_SPI.get().configure(instance, configurations);
     }
 
     /**
@@ -376,7 +379,7 @@ public interface Configuration extends PropertyMapSupplier,PropertySource {
      * @return the evaluated config expression.
      */
     public static String evaluateValue(String expression, Configuration... configurations){
-        return ServiceContext.getInstance().getSingleton(ConfigurationSpi.class).evaluateValue(expression, configurations);
+        return SpiSingletons.CONFIGURATION_SPI.get().evaluateValue(expression, configurations);
     }
 
 }
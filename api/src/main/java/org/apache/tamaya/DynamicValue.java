@@ -25,6 +25,8 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -40,15 +42,18 @@ import java.util.logging.Logger;
  * This class is
  * <ul>
  *     <li>Serializable, when also the item stored is serializable</li>
- *     <li>Thread safe</li>
+ *     <li>Thread safe, all state transitions are performed atomically without locking. Listeners are kept in a
+ *     lock-free list of weak references.</li>
  * </ul>
  */
 public final class DynamicValue<T> implements Serializable{
 
+    private static final long serialVersionUID = -2071172847144537443L;
+
     /**
      * Policy to control how new values are applied to this instance.
      */
-    enum UpdatePolicy{
+    public enum UpdatePolicy{
         /** New values are applied immedately and registered listeners are informed about the change. */
         IMMEDIATE,
         /** New values or not applied, but stored in the newValue property. Explcit call to #commit
@@ -71,13 +76,11 @@ public final class DynamicValue<T> implements Serializable{
     /**
      * Policy that defines how new values are applied, be default it is applied initially once, but never updated anymore.
      */
-    private UpdatePolicy updatePolicy = UpdatePolicy.NEVER;
-    /** The current value, never null. */
-    private transient Optional<T> value;
-    /** The new value, or null. */
-    private transient Optional<T> newValue;
+    private volatile UpdatePolicy updatePolicy = UpdatePolicy.NEVER;
+    /** The current state, containing the current value and the new value not yet committed. */
+    private transient AtomicReference<State<T>> state;
     /** List of listeners that listen for changes. */
-    private transient WeakList<Consumer<PropertyChangeEvent>> listeners;
+    private transient WeakList<Consumer<PropertyChangeEvent>> listeners = new WeakList<>();
 
     /**
      * Returns an empty {@code Optional} instance.  No value is present for this
@@ -92,8 +95,7 @@ public final class DynamicValue<T> implements Serializable{
      * @return an empty {@code Optional}
      */
     public static <T> DynamicValue<T> empty(String propertyName) {
-        DynamicValue v = new DynamicValue<T>(propertyName, null);
-        return v;
+        return new DynamicValue<T>(propertyName, Optional.empty());
     }
 
     /**
@@ -103,7 +105,7 @@ public final class DynamicValue<T> implements Serializable{
      */
     private DynamicValue(String propertyName, Optional<T> item){
         this.propertyName = Objects.requireNonNull(propertyName);
-        this.value = item;
+        this.state = new AtomicReference<>(new State<>(Objects.requireNonNull(item), null));
     }
 
     /**
@@ -114,7 +116,7 @@ public final class DynamicValue<T> implements Serializable{
      * @return a new instance, never null
      */
     public static <T> DynamicValue<T> of(String propertyName, T value){
-        return new DynamicValue(propertyName, Optional.of(value));
+        return new DynamicValue<>(propertyName, Optional.of(value));
     }
 
     /**
@@ -146,15 +148,18 @@ public final class DynamicValue<T> implements Serializable{
      * Commits a new value that has not been committed yet, make it the new value of the instance. On change any registered listeners will be triggered.
      */
     public void commit(){
-        synchronized (value){
-            if(newValue!=null){
-                PropertyChangeEvent evt = new PropertyChangeEvent(this, propertyName, value.orElse(null), newValue.orElse(null));
-                value = newValue;
-                newValue = null;
-                for(Consumer<PropertyChangeEvent> consumer: listeners.get()){
-                    consumer.accept(evt);
-                }
+        State<T> current;
+        do {
+            current = state.get();
+            if (current.newValue == null) {
+                return;
             }
+        } while (!state.compareAndSet(current, new State<>(current.newValue, null)));
+        Optional<T> oldValue = current.value;
+        Optional<T> nv = current.newValue;
+        if(!oldValue.equals(nv)) {
+            PropertyChangeEvent evt = new PropertyChangeEvent(this, propertyName, oldValue.orElse(null), nv.orElse(null));
+            listeners.forEach(consumer -> consumer.accept(evt));
         }
     }
 
@@ -162,7 +167,7 @@ public final class DynamicValue<T> implements Serializable{
      * Discards a new value that was published. No listeners will be informed.
      */
     public void discard(){
-        newValue = null;
+        setPending(null);
     }
 
 
@@ -180,10 +185,7 @@ public final class DynamicValue<T> implements Serializable{
      * @param l the listner, not null
      */
     public void addListener(Consumer<PropertyChangeEvent> l) {
-        if(listeners==null){
-            listeners = new WeakList<>();
-        }
-        listeners.add(l);
+        listeners.add(Objects.requireNonNull(l));
     }
 
     /**
@@ -191,9 +193,7 @@ public final class DynamicValue<T> implements Serializable{
      * @param l the listner to be removed, not null
      */
     public void removeListener(Consumer<PropertyChangeEvent> l) {
-        if(listeners!=null){
-            listeners.remove(l);
-        }
+        listeners.remove(l);
     }
 
     /**
@@ -206,7 +206,7 @@ public final class DynamicValue<T> implements Serializable{
      * @see DynamicValue#isPresent()
      */
     public T get() {
-        return value.get();
+        return value().get();
     }
 
     /**
@@ -217,18 +217,18 @@ public final class DynamicValue<T> implements Serializable{
     public void setNewValue(T newValue){
         switch(this.updatePolicy){
             case IMMEDIATE:
-                this.newValue = Optional.ofNullable(newValue);
+                setPending(Optional.ofNullable(newValue));
                 commit();
                 break;
             case EXPLCIT:
-                this.newValue = Optional.ofNullable(newValue);
+                setPending(Optional.ofNullable(newValue));
                 break;
             case LOG_AND_DISCARD:
                 Logger.getLogger(getClass().getName()).info("Discard change on " + this + ", newValue="+newValue);
-                this.newValue = null;
+                setPending(null);
                 break;
             case NEVER:
-                this.newValue = null;
+                setPending(null);
                 break;
         }
 
@@ -247,7 +247,7 @@ public final class DynamicValue<T> implements Serializable{
      * @return the uncommitted new value, or null.
      */
     public T getNewValue(){
-        Optional<T> nv = newValue;
+        Optional<T> nv = state.get().newValue;
         if(nv!=null){
             return nv.orElse(null);
         }
@@ -260,7 +260,7 @@ public final class DynamicValue<T> implements Serializable{
      * @return {@code true} if there is a value present, otherwise {@code false}
      */
     public boolean isPresent() {
-        return value.isPresent();
+        return value().isPresent();
     }
 
     /**
@@ -272,7 +272,7 @@ public final class DynamicValue<T> implements Serializable{
      * null
      */
     public void ifPresent(Consumer<? super T> consumer) {
-        value.ifPresent(consumer);
+        value().ifPresent(consumer);
     }
 
     /**
@@ -291,7 +291,7 @@ public final class DynamicValue<T> implements Serializable{
         if (!isPresent())
             return this;
         else
-            return predicate.test(value.get()) ? this : empty(propertyName);
+            return predicate.test(value().get()) ? this : empty(propertyName);
     }
 
     /**
@@ -328,7 +328,7 @@ public final class DynamicValue<T> implements Serializable{
         if (!isPresent())
             return empty(propertyName);
         else {
-            return DynamicValue.ofNullable(propertyName, mapper.apply(value.get()));
+            return DynamicValue.ofNullable(propertyName, mapper.apply(value().get()));
         }
     }
 
@@ -354,7 +354,7 @@ public final class DynamicValue<T> implements Serializable{
         if (!isPresent())
             return empty(propertyName);
         else {
-            return Objects.requireNonNull(mapper.apply(value.get()));
+            return Objects.requireNonNull(mapper.apply(value().get()));
         }
     }
 
@@ -366,7 +366,7 @@ public final class DynamicValue<T> implements Serializable{
      * @return the value, if present, otherwise {@code other}
      */
     public T orElse(T other) {
-        return value.orElse(other);
+        return value().orElse(other);
     }
 
     /**
@@ -380,7 +380,7 @@ public final class DynamicValue<T> implements Serializable{
      * null
      */
     public T orElseGet(Supplier<? extends T> other) {
-        return value.orElseGet(other);
+        return value().orElseGet(other);
     }
 
     /**
@@ -400,7 +400,7 @@ public final class DynamicValue<T> implements Serializable{
      * {@code exceptionSupplier} is null
      */
     public <X extends Throwable> T orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
-        return value.orElseThrow(exceptionSupplier);
+        return value().orElseThrow(exceptionSupplier);
     }
 
     /**
@@ -408,7 +408,18 @@ public final class DynamicValue<T> implements Serializable{
      * @return the corresponding Optional value.
      */
     public Optional<T> toOptional(){
-        return value;
+        return value();
+    }
+
+    private Optional<T> value(){
+        return state.get().value;
+    }
+
+    private void setPending(Optional<T> pending){
+        State<T> current;
+        do {
+            current = state.get();
+        } while (!state.compareAndSet(current, new State<>(current.value, pending)));
     }
 
     /**
@@ -417,13 +428,8 @@ public final class DynamicValue<T> implements Serializable{
      * @throws IOException if serialization fails.
      */
     private void writeObject(ObjectOutputStream oos)throws IOException {
-        oos.writeObject(updatePolicy);
-        if(isPresent()) {
-            oos.writeObject(this.value.get());
-        }
-        else{
-            oos.writeObject(null);
-        }
+        oos.defaultWriteObject();
+        oos.writeObject(value().orElse(null));
     }
 
     /**
@@ -432,67 +438,81 @@ public final class DynamicValue<T> implements Serializable{
      * @throws IOException if deserialization fails.
      * @throws ClassNotFoundException
      */
+    @SuppressWarnings("unchecked")
     private void readObject(ObjectInputStream ois) throws IOException, ClassNotFoundException {
-        this.updatePolicy = (UpdatePolicy)ois.readObject();
-        if(isPresent()) {
-            this.value = Optional.of((T) ois.readObject());
+        ois.defaultReadObject();
+        this.state = new AtomicReference<>(new State<>(Optional.ofNullable((T) ois.readObject()), null));
+        this.listeners = new WeakList<>();
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicValue{" +
+                "propertyName=" + propertyName +
+                ", value=" + value() +
+                ", updatePolicy=" + updatePolicy +
+                '}';
+    }
+
+
+    /**
+     * Immutable state of a value, transitions are performed atomically by replacing the whole state.
+     * @param <T> the type
+     */
+    private static final class State<T>{
+        /** The current value, never null. */
+        final Optional<T> value;
+        /** The new value, or null. */
+        final Optional<T> newValue;
+
+        State(Optional<T> value, Optional<T> newValue){
+            this.value = value;
+            this.newValue = newValue;
         }
-        newValue = null;
     }
 
 
     /**
-     * Simple helper that allows keeping the listeners registered as weak references, hereby avoiding any
+     * Simple lock-free helper that allows keeping the listeners registered as weak references, hereby avoiding any
      * memory leaks.
      * @param <T> the type
      */
-    private class WeakList<T>{
-        List<WeakReference<T>> refs = new LinkedList<>();
+    private static final class WeakList<T>{
+        private final Queue<WeakReference<T>> refs = new ConcurrentLinkedQueue<>();
 
         /**
          * Adds a new instance.
          * @param t the new instance, not null.
          */
         void add(T t){
-            refs.add(new WeakReference(t));
+            refs.add(new WeakReference<>(t));
         }
 
         /**
-         * Removes a instance.
+         * Removes a instance, hereby also removing any references already discarded by the GC.
          * @param t the instance to be removed.
          */
         void remove(T t){
-            synchronized (refs){
-                for(Iterator<WeakReference<T>> iterator = refs.iterator();iterator.hasNext();){
-                    WeakReference<T> ref = iterator.next();
-                    T instance = ref.get();
-                    if(instance==null || instance == t){
-                        iterator.remove();
-                        break;
-                    }
-                }
-            }
+            refs.removeIf(ref -> {
+                T instance = ref.get();
+                return instance == null || instance == t;
+            });
         }
 
-
         /**
-         * Access a list (copy) of the current instances that were not discarded by the GC.
-         * @return the list of accessible items.
+         * Calls the given action for all current instances that were not discarded by the GC, without creating
+         * a copy of the list.
+         * @param action the action, not null.
          */
-        public List<T> get() {
-            synchronized (refs) {
-                List<T> res = new ArrayList<>();
-                for (Iterator<WeakReference<T>> iterator = refs.iterator(); iterator.hasNext(); ) {
-                    WeakReference<T> ref = iterator.next();
-                    T instance = ref.get();
-                    if(instance==null){
-                        iterator.remove();
-                    }
-                    else{
-                        res.add(instance);
-                    }
+        void forEach(Consumer<T> action) {
+            for (Iterator<WeakReference<T>> iterator = refs.iterator(); iterator.hasNext(); ) {
+                T instance = iterator.next().get();
+                if(instance==null){
+                    iterator.remove();
+                }
+                else{
+                    action.accept(instance);
                 }
-                return res;
             }
         }
     }
@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya;
+
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Callback that propagates changes to the {@link org.apache.tamaya.DynamicValue}s of a configuration. A single
+ * instance is registered per configuration, which keeps the values weakly, indexed by their keys, so registering
+ * a value does not depend on the number of values already registered. Values garbage collected are purged whenever
+ * a value is registered or a change is applied. The configurations themselves are also only weakly referenced.
+ */
+final class DynamicValueUpdater implements ConfigChangeSetCallback {
+
+    /** The updaters registered, per configuration (by identity). */
+    private static final Map<ConfigurationKey, DynamicValueUpdater> UPDATERS = new HashMap<>();
+    /** Queue of configurations garbage collected. */
+    private static final ReferenceQueue<Configuration> CLEARED_CONFIGURATIONS = new ReferenceQueue<>();
+
+    /** The values registered, by their keys. */
+    private final Map<String, Queue<Binding<?>>> bindings = new ConcurrentHashMap<>();
+    /** Queue of values garbage collected. */
+    private final ReferenceQueue<DynamicValue<?>> clearedValues = new ReferenceQueue<>();
+
+    private DynamicValueUpdater() {
+    }
+
+    /**
+     * Registers a value to be updated with the changes of the given key of a configuration.
+     *
+     * @param configuration the configuration, not null.
+     * @param key the key, not null.
+     * @param adapter the adapter converting the new values, not null.
+     * @param value the value, only weakly referenced, not null.
+     * @param <T> the value type.
+     */
+    static <T> void register(Configuration configuration, String key, PropertyAdapter<T> adapter, DynamicValue<T> value) {
+        DynamicValueUpdater updater;
+        synchronized (UPDATERS) {
+            for (Reference<?> ref = CLEARED_CONFIGURATIONS.poll(); ref != null; ref = CLEARED_CONFIGURATIONS.poll()) {
+                UPDATERS.remove(ref);
+            }
+            updater = UPDATERS.get(new ConfigurationKey(configuration, null));
+            if (updater == null) {
+                updater = new DynamicValueUpdater();
+                UPDATERS.put(new ConfigurationKey(configuration, CLEARED_CONFIGURATIONS), updater);
+                configuration.registerForUpdate(updater);
+            }
+        }
+        updater.add(key, adapter, value);
+    }
+
+    /**
+     * Access the number of values registered, including values collected but not yet purged.
+     *
+     * @return the number of values.
+     */
+    int size() {
+        return bindings.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    /**
+     * Access the updater registered for a configuration.
+     *
+     * @param configuration the configuration, not null.
+     * @return the updater, or null.
+     */
+    static DynamicValueUpdater of(Configuration configuration) {
+        synchronized (UPDATERS) {
+            return UPDATERS.get(new ConfigurationKey(configuration, null));
+        }
+    }
+
+    private <T> void add(String key, PropertyAdapter<T> adapter, DynamicValue<T> value) {
+        purge();
+        bindings.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>())
+                .add(new Binding<>(key, adapter, value, clearedValues));
+    }
+
+    private void purge() {
+        for (Reference<?> ref = clearedValues.poll(); ref != null; ref = clearedValues.poll()) {
+            Binding<?> binding = (Binding<?>) ref;
+            Queue<Binding<?>> queue = bindings.get(binding.key);
+            if (queue != null) {
+                queue.remove(binding);
+                if (queue.isEmpty()) {
+                    bindings.remove(binding.key, queue);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onChange(ConfigChangeSet changeSet) {
+        purge();
+        for (PropertyChangeEvent evt : changeSet.getEvents()) {
+            Queue<Binding<?>> queue = bindings.get(evt.getPropertyName());
+            if (queue != null) {
+                for (Binding<?> binding : queue) {
+                    binding.apply(changeSet);
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicValueUpdater{" +
+                "keys=" + bindings.keySet() +
+                '}';
+    }
+
+    /**
+     * Weak reference to a value, with the key and adapter used for updating it.
+     * @param <T> the value type.
+     */
+    private static final class Binding<T> extends WeakReference<DynamicValue<T>> {
+        private final String key;
+        private final PropertyAdapter<T> adapter;
+
+        @SuppressWarnings("unchecked")
+        Binding(String key, PropertyAdapter<T> adapter, DynamicValue<T> value, ReferenceQueue<DynamicValue<?>> queue) {
+            super(Objects.requireNonNull(value), (ReferenceQueue<? super DynamicValue<T>>) (ReferenceQueue<?>) queue);
+            this.key = key;
+            this.adapter = Objects.requireNonNull(adapter);
+        }
+
+        void apply(ConfigChangeSet changeSet) {
+            DynamicValue<T> value = get();
+            if (value == null) {
+                return;
+            }
+            if (changeSet.isRemoved(key)) {
+                value.setNewValue(null);
+            } else if (changeSet.containsKey(key)) {
+                value.setNewValue(adapter.adapt(changeSet.getNewValue(key)));
+            }
+        }
+    }
+
+    /**
+     * Weak key comparing configurations by identity.
+     */
+    private static final class ConfigurationKey extends WeakReference<Configuration> {
+        private final int hash;
+
+        ConfigurationKey(Configuration configuration, ReferenceQueue<Configuration> queue) {
+            super(Objects.requireNonNull(configuration), queue);
+            this.hash = System.identityHashCode(configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ConfigurationKey)) {
+                return false;
+            }
+            Configuration configuration = get();
+            return configuration != null && configuration == ((ConfigurationKey) obj).get();
+        }
+    }
+}
@@ -20,8 +20,6 @@ package org.apache.tamaya;
 
 
 import org.apache.tamaya.annotation.WithPropertyAdapter;
-import org.apache.tamaya.spi.PropertyAdapterSpi;
-import org.apache.tamaya.spi.ServiceContext;
 
 /**
  * Interface for an property that converts a configured String into something else.
@@ -49,7 +47,7 @@ public interface PropertyAdapter<T>{
      * @return any adapter replaced with the new adapter, or null.
      */
     public static <T> PropertyAdapter<T> register(Class<T> targetType, PropertyAdapter<T> adapter){
-        return ServiceContext.getInstance().getSingleton(PropertyAdapterSpi.class).register(targetType, adapter);
+        return SpiSingletons.PROPERTY_ADAPTER_SPI.get().register(targetType, adapter);
     }
 
     /**
@@ -58,7 +56,7 @@ public interface PropertyAdapter<T>{
      * @return true, if the given target type is supported.
      */
     public static boolean isTargetTypeSupported(Class<?> targetType){
-        return ServiceContext.getInstance().getSingleton(PropertyAdapterSpi.class).isTargetTypeSupported(targetType);
+        return SpiSingletons.PROPERTY_ADAPTER_SPI.get().isTargetTypeSupported(targetType);
     }
 
     /**
@@ -69,7 +67,7 @@ public interface PropertyAdapter<T>{
      * @throws org.apache.tamaya.ConfigException if the target type is not supported.
      */
     public static  <T> PropertyAdapter<T> getInstance(Class<T> targetType){
-        return ServiceContext.getInstance().getSingleton(PropertyAdapterSpi.class).getPropertyAdapter(targetType, null);
+        return SpiSingletons.PROPERTY_ADAPTER_SPI.get().getPropertyAdapter(targetType, null);
     }
 
     /**
@@ -83,7 +81,7 @@ public interface PropertyAdapter<T>{
      * instantiated.
      */
     public static  <T> PropertyAdapter<T> getInstance(Class<T> targetType, WithPropertyAdapter annotation){
-        return ServiceContext.getInstance().getSingleton(PropertyAdapterSpi.class).getPropertyAdapter(targetType, annotation);
+        return SpiSingletons.PROPERTY_ADAPTER_SPI.get().getPropertyAdapter(targetType, annotation);
     }
 
 }
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya;
+
+import org.apache.tamaya.spi.ConfigurationSpi;
+import org.apache.tamaya.spi.PropertyAdapterSpi;
+import org.apache.tamaya.spi.ServiceSingleton;
+
+/**
+ * Constant handles to the singleton services used by the static accessors of this package, so the hot paths
+ * do not need to look up the {@link org.apache.tamaya.spi.ServiceContext} on each call.
+ */
+final class SpiSingletons {
+
+    /** The {@link ConfigurationSpi} in use. */
+    static final ServiceSingleton<ConfigurationSpi> CONFIGURATION_SPI = ServiceSingleton.of(ConfigurationSpi.class);
+    /** The {@link PropertyAdapterSpi} in use. */
+    static final ServiceSingleton<PropertyAdapterSpi> PROPERTY_ADAPTER_SPI = ServiceSingleton.of(PropertyAdapterSpi.class);
+
+    private SpiSingletons() {
+    }
+}
@@ -23,8 +23,12 @@ import org.apache.tamaya.PropertyAdapter;
 import org.apache.tamaya.PropertySource;
 import org.apache.tamaya.annotation.WithPropertyAdapter;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -45,6 +49,24 @@ public interface ConfigurationSpi {
      */
     boolean isConfigurationAvailable(String name);
 
+    /**
+     * Access the names of the configurations defined. By default no names are known.
+     * @return the names of the configurations defined, never null.
+     */
+    default Set<String> getConfigurationNames(){
+        return Collections.emptySet();
+    }
+
+    /**
+     * Allows to check if a configuration with a given name is already loaded, i.e. was accessed before.
+     * By default this is the same as {@link #isConfigurationAvailable(String)}.
+     * @param name the configuration's name, not null, not empty.
+     * @return true, if such a configuration is loaded.
+     */
+    default boolean isConfigurationLoaded(String name){
+        return isConfigurationAvailable(name);
+    }
+
     /**
      * Access a configuration by name.
      * @param name the configuration's name, not null, not empty.
@@ -95,4 +117,40 @@ public interface ConfigurationSpi {
      */
     String evaluateValue(String expression, Configuration... configurations);
 
+    /**
+     * Initializes the given configurations in the background, e.g. during application boot.
+     *
+     * @param names the names of the configurations to be initialized. If none are passed, the default
+     *              configuration is initialized.
+     * @return a future, completed when all configurations are initialized, never null.
+     * @see #preload(java.util.Collection, String...)
+     */
+    default CompletableFuture<Void> preload(String... names){
+        return preload(Collections.emptySet(), names);
+    }
+
+    /**
+     * Initializes the given configurations in the background, e.g. during application boot, and warms the given
+     * keys, so later accesses do not pay for lazy initialization. Implementations may initialize the
+     * configurations in parallel. The default implementation initializes them one after the other, using the
+     * common fork join pool.
+     *
+     * @param keys  the keys to be accessed on each of the configurations, not null. Values containing
+     *              expressions are evaluated.
+     * @param names the names of the configurations to be initialized. If none are passed, the default
+     *              configuration is initialized.
+     * @return a future, completed when all configurations are initialized, never null. If a configuration could
+     * not be initialized, the future completes exceptionally.
+     */
+    default CompletableFuture<Void> preload(Collection<String> keys, String... names){
+        return CompletableFuture.runAsync(() -> {
+            for(String name:names.length==0?new String[]{"default"}:names){
+                Configuration config = getConfiguration(name);
+                for(String key:keys){
+                    config.get(key).filter(v -> v.contains("${")).ifPresent(v -> evaluateValue(v, config));
+                }
+            }
+        });
+    }
+
 }
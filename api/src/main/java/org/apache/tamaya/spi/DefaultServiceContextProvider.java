@@ -18,6 +18,9 @@
  */
 package org.apache.tamaya.spi;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
@@ -25,27 +28,40 @@ import java.util.logging.Logger;
 
 /**
  * This class implements the (default) {@link ServiceContext} interface and hereby uses the JDK
- * {@link java.util.ServiceLoader} to load the services required.
+ * {@link java.util.ServiceLoader} to load the services required. Service types listed in the build time
+ * {@link ServiceIndex} are created from the index, merged with the implementations of modules built without
+ * the index.
+ * <p>
+ * Services are loaded and cached separately for each thread context class loader, so applications sharing this
+ * class in a container see their own services. The tables are held weakly keyed by class loader and are dropped
+ * once the class loader has been collected. Note that services defined by a class loader itself keep their class
+ * loader reachable, so containers must call {@link #release(ClassLoader)} when an application is undeployed.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 class DefaultServiceContextProvider implements ServiceContext {
-    /** List current services loaded, per class. */
-	private final ConcurrentHashMap<Class, List<Object>> servicesLoaded = new ConcurrentHashMap<>();
-    /** Singletons. */
-    private final ConcurrentHashMap<Class, Optional<?>> singletons = new ConcurrentHashMap<>();
+    /** The service tables, per class loader. */
+    private final ConcurrentHashMap<LoaderKey, ServiceTable> tables = new ConcurrentHashMap<>();
+    /** Queue of the class loaders collected. */
+    private final ReferenceQueue<ClassLoader> releasedLoaders = new ReferenceQueue<>();
+    /** The table accessed last, the fast path for the common case of a single class loader. */
+    private volatile ServiceTable lastTable;
 
     @Override
     public <T> Optional<T> getService(Class<T> serviceType) {
-		Optional<T> cached = (Optional<T>)singletons.get(serviceType);
+        ServiceTable table = getTable();
+		Optional<T> cached = (Optional<T>)table.singletons.get(serviceType);
         if(cached==null) {
-            List<? extends T> services = getServices(serviceType, Collections.emptyList());
+            List<? extends T> services = getServices(table, serviceType, Collections.emptyList());
             if (services.isEmpty()) {
                 cached = Optional.empty();
             }
             else{
                 cached = Optional.of(services.get(0));
             }
-            singletons.put(serviceType, cached);
+            Optional<T> previous = (Optional<T>)table.singletons.putIfAbsent(serviceType, cached);
+            if(previous!=null){
+                cached = previous;
+            }
         }
         return cached;
     }
@@ -63,33 +79,94 @@ class DefaultServiceContextProvider implements ServiceContext {
      */
     @Override
     public <T> List<? extends T> getServices(final Class<T> serviceType, final List<? extends T> defaultList) {
-        List<T> found = (List<T>) servicesLoaded.get(serviceType);
+        return getServices(getTable(), serviceType, defaultList);
+    }
+
+    private <T> List<? extends T> getServices(ServiceTable table, final Class<T> serviceType, final List<? extends T> defaultList) {
+        List<T> found = (List<T>) table.servicesLoaded.get(serviceType);
         if (found != null) {
             return found;
         }
-        return loadServices(serviceType, defaultList);
+        return loadServices(table, serviceType, defaultList);
+    }
+
+    @Override
+    public void release(ClassLoader classLoader) {
+        ServiceTable table = tables.remove(new LoaderKey(Objects.requireNonNull(classLoader), null));
+        if (table != null && lastTable == table) {
+            lastTable = null;
+        }
+        expungeReleasedLoaders();
+    }
+
+    /**
+     * Evaluates the service table of the current thread context class loader.
+     *
+     * @return the table, never null.
+     */
+    private ServiceTable getTable() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = DefaultServiceContextProvider.class.getClassLoader();
+        }
+        ServiceTable table = lastTable;
+        if (table != null && table.key.get() == classLoader) {
+            return table;
+        }
+        expungeReleasedLoaders();
+        LoaderKey key = new LoaderKey(classLoader, releasedLoaders);
+        table = tables.get(key);
+        if (table == null) {
+            table = new ServiceTable(key, ServiceIndex.load(classLoader));
+            ServiceTable previous = tables.putIfAbsent(key, table);
+            if (previous != null) {
+                table = previous;
+            }
+        }
+        lastTable = table;
+        return table;
+    }
+
+    /**
+     * Removes the tables of all class loaders collected meanwhile.
+     */
+    private void expungeReleasedLoaders() {
+        Reference<? extends ClassLoader> ref;
+        while ((ref = releasedLoaders.poll()) != null) {
+            tables.remove(ref);
+        }
     }
 
     /**
      * Loads and registers services.
      *
+     * @param   table        the service table of the current class loader.
      * @param   serviceType  The service type.
      * @param   <T>          the concrete type.
      * @param   defaultList  the list current items returned, if no services were found.
      *
      * @return  the items found, never {@code null}.
      */
-    private <T> List<? extends T> loadServices(final Class<T> serviceType, final List<? extends T> defaultList) {
+    private <T> List<? extends T> loadServices(ServiceTable table, final Class<T> serviceType, final List<? extends T> defaultList) {
+        ClassLoader classLoader = table.key.get();
+        if (classLoader == null) {
+            return defaultList;
+        }
         try {
             List<T> services = new ArrayList<>();
-            for (T t : ServiceLoader.load(serviceType)) {
-                services.add(t);
+            if(table.serviceIndex.contains(serviceType)){
+                services.addAll(table.serviceIndex.createServices(serviceType, classLoader));
+            }
+            else {
+                for (T t : ServiceLoader.load(serviceType, classLoader)) {
+                    services.add(t);
+                }
             }
             if(services.isEmpty()){
                 services.addAll(defaultList);
             }
             services = Collections.unmodifiableList(services);
-            final List<T> previousServices = (List<T>) servicesLoaded.putIfAbsent(serviceType, (List<Object>)services);
+            final List<T> previousServices = (List<T>) table.servicesLoaded.putIfAbsent(serviceType, (List<Object>)services);
             return previousServices != null ? previousServices : services;
         } catch (Exception e) {
             Logger.getLogger(DefaultServiceContextProvider.class.getName()).log(Level.WARNING,
@@ -98,4 +175,52 @@ class DefaultServiceContextProvider implements ServiceContext {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * The services loaded for one class loader.
+     */
+    private static final class ServiceTable {
+        /** The (weak) key of the class loader. */
+        final LoaderKey key;
+        /** The build time service index of the class loader. */
+        final ServiceIndex serviceIndex;
+        /** List current services loaded, per class. */
+        final ConcurrentHashMap<Class, List<Object>> servicesLoaded = new ConcurrentHashMap<>();
+        /** Singletons. */
+        final ConcurrentHashMap<Class, Optional<?>> singletons = new ConcurrentHashMap<>();
+
+        ServiceTable(LoaderKey key, ServiceIndex serviceIndex) {
+            this.key = key;
+            this.serviceIndex = serviceIndex;
+        }
+    }
+
+    /**
+     * Weak, identity based key of a class loader.
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader> {
+        private final int hash;
+
+        LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof LoaderKey)) {
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return classLoader != null && classLoader == ((LoaderKey) o).get();
+        }
+    }
+
+}
@@ -89,6 +89,16 @@ public interface ServiceContext {
         return getServices(serviceType, Collections.emptyList());
     }
 
+    /**
+     * Releases the services loaded for the given class loader, e.g. when the application using it is undeployed.
+     * Services keep the class loader defining them reachable, so contexts caching services per class loader must
+     * drop them here, allowing the class loader to be garbage collected. The default implementation does nothing.
+     *
+     * @param classLoader the class loader, not null.
+     */
+    default void release(ClassLoader classLoader) {
+    }
+
     /**
      * Get the current {@link ServiceContext}. If necessary the {@link ServiceContext} will be laziliy loaded.
      *
@@ -19,23 +19,20 @@
 package org.apache.tamaya.spi;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * This singleton provides access to the services available in the current {@link ServiceContext}. The
  * behaviour can be adapted, by calling {@link ServiceContextManager#set(ServiceContext)} before accessing any
- * services.
+ * services. Access is lock-free, reading the context in use is a single volatile read.
  */
 final class ServiceContextManager {
     /**
      * The ServiceProvider used.
      */
-    private static volatile ServiceContext serviceContextProviderDelegate;
-    /**
-     * The shared lock instance user.
-     */
-    private static final Object LOCK = new Object();
+    private static final AtomicReference<ServiceContext> serviceContextProviderDelegate = new AtomicReference<>();
 
     /**
      * Private singletons constructor.
@@ -65,36 +62,33 @@ final class ServiceContextManager {
      * @param serviceContextProvider the new {@link ServiceContext}, not null.
      */
     public static ServiceContext set(ServiceContext serviceContextProvider) {
-        ServiceContext currentContext = ServiceContextManager.serviceContextProviderDelegate;
         Objects.requireNonNull(serviceContextProvider);
-        synchronized (LOCK) {
-            if (ServiceContextManager.serviceContextProviderDelegate == null) {
-                ServiceContextManager.serviceContextProviderDelegate = serviceContextProvider;
-                Logger.getLogger(ServiceContextManager.class.getName())
-                        .log(Level.INFO, "Using ServiceProvider: " + serviceContextProvider.getClass().getName());
-            } else {
-                Logger.getLogger(ServiceContextManager.class.getName())
-                        .log(Level.WARNING, "Replacing ServiceProvider " + ServiceContextManager.serviceContextProviderDelegate.getClass().getName() + " with: " + serviceContextProvider.getClass().getName());
-                ServiceContextManager.serviceContextProviderDelegate = serviceContextProvider;
-            }
+        ServiceContext currentContext = serviceContextProviderDelegate.getAndSet(serviceContextProvider);
+        if (currentContext == null) {
+            Logger.getLogger(ServiceContextManager.class.getName())
+                    .log(Level.INFO, "Using ServiceProvider: " + serviceContextProvider.getClass().getName());
+        } else {
+            Logger.getLogger(ServiceContextManager.class.getName())
+                    .log(Level.WARNING, "Replacing ServiceProvider " + currentContext.getClass().getName() + " with: " + serviceContextProvider.getClass().getName());
         }
         return currentContext;
     }
 
     /**
-     * Ge {@link ServiceContext}. If necessary the {@link ServiceContext} will be laziliy loaded.
+     * Ge {@link ServiceContext}. If necessary the {@link ServiceContext} will be laziliy loaded. If several threads
+     * race for loading the default context, the first one installed wins.
      *
      * @return the {@link ServiceContext} used.
      */
     public static ServiceContext getServiceContext() {
-        if (serviceContextProviderDelegate == null) {
-            synchronized (LOCK) {
-                if (serviceContextProviderDelegate == null) {
-                    serviceContextProviderDelegate = loadDefaultServiceProvider();
-                }
+        ServiceContext context = serviceContextProviderDelegate.get();
+        if (context == null) {
+            context = loadDefaultServiceProvider();
+            if (!serviceContextProviderDelegate.compareAndSet(null, context)) {
+                context = serviceContextProviderDelegate.get();
             }
         }
-        return serviceContextProviderDelegate;
+        return context;
     }
 
-}
\ No newline at end of file
+}
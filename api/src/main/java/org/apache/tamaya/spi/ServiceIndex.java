@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only view on the service index generated at build time. The index, located at
+ * {@code META-INF/tamaya/services.idx}, lists the service implementations of a module per service type, already
+ * sorted by the ordinals evaluated at build time. All indexes visible to a class loader are read once, with a
+ * single resource lookup. Service types not contained in any index are expected to be loaded by the caller using
+ * the {@link java.util.ServiceLoader}.
+ * <p>
+ * Modules not built with the index may still contribute services for types listed in the index. When the index
+ * is read, a single lookup of the {@code META-INF/services/} directory checks for classpath roots without an
+ * index. Only if there are any, the service files of an indexed type are still looked up, and the implementations
+ * registered by these roots are appended to the indexed ones, in classpath order. Archives without directory
+ * entries are not detected by this lookup, the index must be disabled if such archives contribute services.
+ * Since the ordinals evaluated at build time do not cover the implementations appended, nor ordinal providers
+ * only present at runtime, callers that order services must still sort the services created.
+ * <p>
+ * The index can be disabled by setting the system property {@code tamaya.services.index.disabled} to
+ * {@code true}.
+ */
+public final class ServiceIndex {
+    /** The resource location of the index. */
+    public static final String INDEX_LOCATION = "META-INF/tamaya/services.idx";
+    /** System property for disabling the index. */
+    public static final String DISABLED_PROPERTY = "tamaya.services.index.disabled";
+    /** The resource location of the JDK service files. */
+    private static final String SERVICES_LOCATION = "META-INF/services/";
+
+    private static final Logger LOG = Logger.getLogger(ServiceIndex.class.getName());
+
+    /** The implementation class names, sorted by ordinal, per service type. */
+    private final Map<String, List<String>> services;
+    /** The classpath roots providing an index. */
+    private final Set<String> indexedRoots;
+    /** Flag, if there are classpath roots with service files, but without an index. */
+    private final boolean unindexedRoots;
+
+    private ServiceIndex(Map<String, List<String>> services, Set<String> indexedRoots, boolean unindexedRoots) {
+        this.services = services;
+        this.indexedRoots = indexedRoots;
+        this.unindexedRoots = unindexedRoots;
+    }
+
+    /**
+     * Reads all indexes visible to the given class loader. If the same service type is listed by several
+     * indexes, the entries are merged and sorted by ordinal, entries with the same ordinal keep the classpath
+     * order.
+     *
+     * @param classLoader the class loader, or null for using the class loader of this class.
+     * @return the index, never null. If no index is present or the index is disabled, an empty index is returned.
+     */
+    public static ServiceIndex load(ClassLoader classLoader) {
+        if (classLoader == null) {
+            classLoader = ServiceIndex.class.getClassLoader();
+        }
+        if (Boolean.getBoolean(DISABLED_PROPERTY)) {
+            return new ServiceIndex(Collections.emptyMap(), Collections.emptySet(), true);
+        }
+        Map<String, List<IndexEntry>> entries = new HashMap<>();
+        Set<String> roots = new HashSet<>();
+        boolean unindexedRoots;
+        try {
+            Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                roots.add(getRoot(url, INDEX_LOCATION));
+                Properties props = new Properties();
+                try (InputStream is = url.openStream()) {
+                    props.load(is);
+                }
+                for (String type : props.stringPropertyNames()) {
+                    List<IndexEntry> typeEntries = entries.computeIfAbsent(type, t -> new ArrayList<>());
+                    for (String entry : props.getProperty(type).split(",")) {
+                        IndexEntry indexEntry = IndexEntry.parse(entry.trim(), url);
+                        if (indexEntry != null && !typeEntries.contains(indexEntry)) {
+                            typeEntries.add(indexEntry);
+                        }
+                    }
+                }
+            }
+            unindexedRoots = !roots.isEmpty() && hasUnindexedRoots(classLoader, roots);
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "Failed to read service index, using ServiceLoader.", e);
+            return new ServiceIndex(Collections.emptyMap(), Collections.emptySet(), true);
+        }
+        Map<String, List<String>> services = new HashMap<>();
+        entries.forEach((type, typeEntries) -> {
+            typeEntries.sort(Comparator.comparingInt(e -> e.ordinal));
+            List<String> names = new ArrayList<>(typeEntries.size());
+            typeEntries.forEach(e -> names.add(e.className));
+            services.put(type, Collections.unmodifiableList(names));
+        });
+        return new ServiceIndex(services, roots, unindexedRoots);
+    }
+
+    /**
+     * Checks if the class loader has classpath roots with service files, but without an index.
+     *
+     * @param classLoader the class loader, not null.
+     * @param roots the classpath roots providing an index, not null.
+     * @return true, if the service files of indexed types must still be looked up.
+     * @throws IOException if the services directories could not be looked up.
+     */
+    private static boolean hasUnindexedRoots(ClassLoader classLoader, Set<String> roots) throws IOException {
+        Enumeration<URL> urls = classLoader.getResources(SERVICES_LOCATION);
+        while (urls.hasMoreElements()) {
+            if (!roots.contains(getRoot(urls.nextElement(), SERVICES_LOCATION))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Evaluates the classpath root of a resource.
+     *
+     * @param url the resource URL, not null.
+     * @param location the location of the resource, relative to its root, not null.
+     * @return the root, never null.
+     */
+    private static String getRoot(URL url, String location) {
+        String path = url.toExternalForm();
+        return path.endsWith(location) ? path.substring(0, path.length() - location.length()) : path;
+    }
+
+    /**
+     * Checks if the index contains no entries at all.
+     *
+     * @return true, if no index was found.
+     */
+    public boolean isEmpty() {
+        return services.isEmpty();
+    }
+
+    /**
+     * Checks if the given service type is listed by the index.
+     *
+     * @param serviceType the service type, not null.
+     * @return true, if the index lists the given type.
+     */
+    public boolean contains(Class<?> serviceType) {
+        return services.containsKey(serviceType.getName());
+    }
+
+    /**
+     * Access the implementation class names of a service type, sorted by ordinal.
+     *
+     * @param serviceType the service type, not null.
+     * @return the implementation class names, never null.
+     */
+    public List<String> getServiceNames(Class<?> serviceType) {
+        return services.getOrDefault(serviceType.getName(), Collections.emptyList());
+    }
+
+    /**
+     * Access the implementation class names of a service type, as listed by the index, followed by the
+     * implementations registered by classpath roots without an index.
+     *
+     * @param serviceType the service type, not null.
+     * @param classLoader the class loader the index was loaded from, not null.
+     * @return the implementation class names, never null.
+     * @throws IOException if the service files could not be read.
+     */
+    public List<String> getServiceNames(Class<?> serviceType, ClassLoader classLoader) throws IOException {
+        if (!unindexedRoots) {
+            return getServiceNames(serviceType);
+        }
+        List<String> names = new ArrayList<>(getServiceNames(serviceType));
+        String location = SERVICES_LOCATION + serviceType.getName();
+        Enumeration<URL> urls = classLoader.getResources(location);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            if (indexedRoots.contains(getRoot(url, location))) {
+                continue;
+            }
+            try (InputStream is = url.openStream()) {
+                for (String name : parseServiceNames(is)) {
+                    if (!names.contains(name)) {
+                        names.add(name);
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Creates the services listed for the given type, in order of their build time ordinals, followed by the
+     * implementations registered by classpath roots without an index. Implementations that cannot be loaded are
+     * logged and ignored.
+     *
+     * @param serviceType the service type, not null.
+     * @param classLoader the class loader the index was loaded from, not null.
+     * @param <T>         the service type.
+     * @return the service instances, never null.
+     * @throws IOException if the service files could not be read.
+     */
+    public <T> List<T> createServices(Class<T> serviceType, ClassLoader classLoader) throws IOException {
+        List<String> names = getServiceNames(serviceType, classLoader);
+        List<T> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            try {
+                Class<?> type = Class.forName(name, true, classLoader);
+                result.add(serviceType.cast(type.getDeclaredConstructor().newInstance()));
+            } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+                LOG.log(Level.WARNING, "Failed to load indexed service " + name + " of type " + serviceType.getName(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parses a JDK service file.
+     *
+     * @param is the input stream, not null.
+     * @return the implementation names in order of declaration, never null.
+     * @throws IOException if reading failed.
+     */
+    private static List<String> parseServiceNames(InputStream is) throws IOException {
+        List<String> result = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (!line.isEmpty() && !result.contains(line)) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceIndex{" +
+                "services=" + services +
+                '}';
+    }
+
+    /**
+     * One implementation entry of the index.
+     */
+    private static final class IndexEntry {
+        final String className;
+        final int ordinal;
+
+        private IndexEntry(String className, int ordinal) {
+            this.className = className;
+            this.ordinal = ordinal;
+        }
+
+        static IndexEntry parse(String entry, URL source) {
+            if (entry.isEmpty()) {
+                return null;
+            }
+            int sep = entry.lastIndexOf(':');
+            if (sep < 0) {
+                return new IndexEntry(entry, 0);
+            }
+            try {
+                return new IndexEntry(entry.substring(0, sep), Integer.parseInt(entry.substring(sep + 1)));
+            } catch (NumberFormatException e) {
+                LOG.warning("Invalid service index entry '" + entry + "' in " + source);
+                return null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IndexEntry && className.equals(((IndexEntry) o).className);
+        }
+
+        @Override
+        public int hashCode() {
+            return className.hashCode();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import java.lang.ref.WeakReference;
+import java.util.Objects;
+
+/**
+ * Typed constant handle to a singleton service, meant to be held in a {@code static final} field, e.g.
+ * <pre>
+ *     private static final ServiceSingleton&lt;ConfigurationSpi&gt; SPI = ServiceSingleton.of(ConfigurationSpi.class);
+ *     ...
+ *     SPI.get().getConfiguration();
+ * </pre>
+ * The handle remembers the service returned by {@link ServiceContext#getSingleton(Class)} together with the
+ * {@link ServiceContext} and the thread context class loader it was evaluated for. As long as both do not change,
+ * {@link #get()} only reads a few fields and compares them by identity, otherwise the service is looked up again.
+ * The service is only weakly referenced, so a handle held in a static field does not keep the services of a
+ * released class loader reachable.
+ *
+ * @param <T> the service type.
+ */
+public final class ServiceSingleton<T> {
+    /** The service type. */
+    private final Class<T> serviceType;
+    /** The service evaluated last. */
+    private volatile Binding<T> binding;
+
+    private ServiceSingleton(Class<T> serviceType) {
+        this.serviceType = Objects.requireNonNull(serviceType);
+    }
+
+    /**
+     * Creates a new handle.
+     *
+     * @param serviceType the service type, not null.
+     * @param <T>         the service type.
+     * @return the new handle, never null.
+     */
+    public static <T> ServiceSingleton<T> of(Class<T> serviceType) {
+        return new ServiceSingleton<>(serviceType);
+    }
+
+    /**
+     * Access the service type.
+     *
+     * @return the service type, never null.
+     */
+    public Class<T> getServiceType() {
+        return serviceType;
+    }
+
+    /**
+     * Access the singleton service, as returned by {@code ServiceContext.getInstance().getSingleton(type)}.
+     *
+     * @return the service, never null.
+     * @throws IllegalStateException if no such service is available.
+     */
+    public T get() {
+        ServiceContext context = ServiceContextManager.getServiceContext();
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Binding<T> current = binding;
+        if (current != null && current.matches(context, classLoader)) {
+            T service = current.service.get();
+            if (service != null) {
+                return service;
+            }
+        }
+        T service = context.getSingleton(serviceType);
+        binding = new Binding<>(context, classLoader, service);
+        return service;
+    }
+
+    @Override
+    public String toString() {
+        return "ServiceSingleton{" +
+                "serviceType=" + serviceType.getName() +
+                '}';
+    }
+
+    /**
+     * A service evaluated for a given context and class loader.
+     */
+    private static final class Binding<T> {
+        final ServiceContext context;
+        final WeakReference<ClassLoader> classLoader;
+        final WeakReference<T> service;
+
+        Binding(ServiceContext context, ClassLoader classLoader, T service) {
+            this.context = context;
+            this.classLoader = classLoader == null ? null : new WeakReference<>(classLoader);
+            this.service = new WeakReference<>(service);
+        }
+
+        boolean matches(ServiceContext context, ClassLoader classLoader) {
+            if (this.context != context) {
+                return false;
+            }
+            if (this.classLoader == null) {
+                return classLoader == null;
+            }
+            return classLoader != null && this.classLoader.get() == classLoader;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya;
+
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConfigChangeSet}.
+ */
+public class ConfigChangeSetTest {
+
+    @Test
+    public void testChangeKinds(){
+        ConfigChangeSet changeSet = createChangeSet();
+        assertFalse(changeSet.isEmpty());
+        assertTrue(changeSet.isUpdated("a"));
+        assertFalse(changeSet.isAdded("a"));
+        assertTrue(changeSet.isRemoved("b"));
+        assertTrue(changeSet.isAdded("c"));
+        assertFalse(changeSet.isUpdated("d"));
+        assertEquals(1, changeSet.getUpdatedSize());
+        assertEquals(1, changeSet.getRemovedSize());
+        assertEquals(1, changeSet.getAddedSize());
+        assertTrue(changeSet.containsKey("a"));
+        assertFalse(changeSet.containsKey("b"));
+        assertEquals("10", changeSet.getNewValue("a"));
+        assertNull(changeSet.getNewValue("b"));
+        assertNull(changeSet.getNewValue("d"));
+    }
+
+    @Test
+    public void testEventsOrderedByKeyLastChangeWins(){
+        ConfigChangeSet changeSet = createChangeSet();
+        List<String> changes = new ArrayList<>();
+        for (PropertyChangeEvent evt : changeSet.getEvents()) {
+            changes.add(evt.getPropertyName() + '=' + evt.getOldValue() + "->" + evt.getNewValue());
+        }
+        assertEquals(Arrays.asList("a=1->10", "b=2->null", "c=null->4"), changes);
+        assertEquals("4", changeSet.getNewValue("c"));
+    }
+
+    @Test
+    public void testEventsKeepTheirSource(){
+        PropertySource source = new MapPropertySource("test", new HashMap<>());
+        PropertySource other = new MapPropertySource("other", new HashMap<>());
+        ConfigChangeSet changeSet = new ConfigChangeSet(source, Arrays.asList(
+                new PropertyChangeEvent(other, "a", null, "1"),
+                new PropertyChangeEvent(source, "b", null, "2")));
+        List<Object> sources = new ArrayList<>();
+        for (PropertyChangeEvent evt : changeSet.getEvents()) {
+            sources.add(evt.getSource());
+        }
+        assertEquals(Arrays.asList(other, source), sources);
+    }
+
+    @Test
+    public void testEmptyChangeSet(){
+        ConfigChangeSet changeSet = ConfigChangeSet.emptyChangeSet(PropertySource.EMPTY_PROPERTYSOURCE);
+        assertTrue(changeSet.isEmpty());
+        assertEquals(0, changeSet.getEvents().size());
+        assertFalse(changeSet.containsKey("a"));
+    }
+
+    @Test
+    public void testSerialization() throws Exception{
+        assertEquals(2L, ObjectStreamClass.lookup(ConfigChangeSet.class).getSerialVersionUID());
+        ConfigChangeSet changeSet = createChangeSet();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(changeSet);
+        }
+        ConfigChangeSet read;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            read = (ConfigChangeSet) ois.readObject();
+        }
+        assertEquals("test", read.getPropertySource().getName());
+        assertEquals(changeSet.getEvents().size(), read.getEvents().size());
+        assertTrue(read.isUpdated("a"));
+        assertTrue(read.isRemoved("b"));
+        assertTrue(read.isAdded("c"));
+        assertEquals("4", read.getNewValue("c"));
+        assertEquals(1, read.getAddedSize());
+        assertEquals(1, read.getRemovedSize());
+        assertEquals(1, read.getUpdatedSize());
+    }
+
+    private static ConfigChangeSet createChangeSet(){
+        Map<String, String> map = new HashMap<>();
+        map.put("a", "1");
+        map.put("b", "2");
+        map.put("d", "5");
+        PropertySource source = new MapPropertySource("test", map);
+        return new ConfigChangeSet(source, Arrays.asList(
+                new PropertyChangeEvent(source, "c", null, "3"),
+                new PropertyChangeEvent(source, "b", "2", null),
+                new PropertyChangeEvent(source, "a", "1", "10"),
+                new PropertyChangeEvent(source, "c", null, "4")));
+    }
+
+    private static final class MapPropertySource implements PropertySource, Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private final String name;
+        private final HashMap<String, String> properties;
+
+        MapPropertySource(String name, Map<String, String> properties){
+            this.name = name;
+            this.properties = new HashMap<>(properties);
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Optional<String> get(String key) {
+            return Optional.ofNullable(properties.get(key));
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public void update(ConfigChangeSet changeSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerForUpdate(ConfigChangeSetCallback callback) {
+        }
+
+        @Override
+        public void removeForUpdate(ConfigChangeSetCallback callback) {
+        }
+    }
+
+}
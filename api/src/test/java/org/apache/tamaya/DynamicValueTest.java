@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya;
+
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DynamicValue} and the updates applied by {@link Configuration#getAdaptedDynamicValue}.
+ */
+public class DynamicValueTest {
+
+    @Test
+    public void testUpdatePolicies(){
+        DynamicValue<String> value = DynamicValue.of("test:a", "1");
+        List<String> changes = new ArrayList<>();
+        value.addListener(evt -> changes.add(evt.getOldValue() + "->" + evt.getNewValue()));
+        value.setNewValue("2");
+        assertEquals("1", value.get());
+        value.setUpdatePolicy(DynamicValue.UpdatePolicy.EXPLCIT);
+        value.setNewValue("2");
+        assertEquals("1", value.get());
+        assertEquals("2", value.getNewValue());
+        assertEquals("2", value.commitAndGet());
+        value.setUpdatePolicy(DynamicValue.UpdatePolicy.IMMEDIATE);
+        value.setNewValue(null);
+        assertFalse(value.isPresent());
+        assertEquals(2, changes.size());
+        assertEquals("1->2", changes.get(0));
+        assertEquals("2->null", changes.get(1));
+    }
+
+    @Test
+    public void testValuesFollowConfigurationChanges(){
+        TestConfiguration config = new TestConfiguration();
+        DynamicValue<String> a = config.getAdaptedDynamicValue("a", v -> v);
+        DynamicValue<Integer> b = config.getAdaptedDynamicValue("b", Integer::valueOf);
+        assertEquals("1", a.get());
+        assertEquals(Integer.valueOf(2), b.get());
+        config.fire(ConfigChangeSetBuilder.of(config).put("b", "20").remove("a").build());
+        assertFalse(a.isPresent());
+        assertEquals(Integer.valueOf(20), b.get());
+    }
+
+    @Test
+    public void testSingleUpdaterPerConfiguration(){
+        TestConfiguration config = new TestConfiguration();
+        List<DynamicValue<String>> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(config.getAdaptedDynamicValue("a", v -> v));
+        }
+        assertEquals(1, config.callbacks.size());
+        assertEquals(1000, DynamicValueUpdater.of(config).size());
+        config.fire(ConfigChangeSetBuilder.of(config).put("a", "changed").build());
+        for (DynamicValue<String> value : values) {
+            assertEquals("changed", value.get());
+        }
+    }
+
+    @Test
+    public void testCollectedValuesArePurged() throws InterruptedException{
+        TestConfiguration config = new TestConfiguration();
+        for (int i = 0; i < 1000; i++) {
+            config.getAdaptedDynamicValue("a", v -> v);
+        }
+        DynamicValueUpdater updater = DynamicValueUpdater.of(config);
+        for (int i = 0; i < 50 && updater.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(20L);
+            config.getAdaptedDynamicValue("b", v -> v);
+        }
+        assertTrue("Values not purged: " + updater.size(), updater.size() <= 1);
+    }
+
+    /**
+     * Simple configuration, that keeps its callbacks, so changes can be fired.
+     */
+    private static final class TestConfiguration implements Configuration {
+
+        private final Map<String, String> properties = new HashMap<>();
+        private final List<ConfigChangeSetCallback> callbacks = new CopyOnWriteArrayList<>();
+
+        TestConfiguration(){
+            properties.put("a", "1");
+            properties.put("b", "2");
+        }
+
+        void fire(ConfigChangeSet changeSet){
+            for (ConfigChangeSetCallback callback : callbacks) {
+                callback.onChange(changeSet);
+            }
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public Optional<String> get(String key) {
+            return Optional.ofNullable(properties.get(key));
+        }
+
+        @Override
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        @Override
+        public void update(ConfigChangeSet changeSet) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void registerForUpdate(ConfigChangeSetCallback callback) {
+            callbacks.add(callback);
+        }
+
+        @Override
+        public void removeForUpdate(ConfigChangeSetCallback callback) {
+            callbacks.remove(callback);
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DefaultServiceContextProvider}.
+ */
+public class DefaultServiceContextProviderTest {
+
+    @Test
+    public void testServicesLoadedPerClassLoader() throws Exception{
+        DefaultServiceContextProvider provider = new DefaultServiceContextProvider();
+        try (URLClassLoader classLoader = createClassLoader()) {
+            List<? extends Runnable> services = getServices(provider, classLoader);
+            assertEquals(1, services.size());
+            assertTrue(services.get(0) instanceof ServiceA);
+            assertSame(services, getServices(provider, classLoader));
+            assertTrue(provider.getServices(Runnable.class).isEmpty());
+        }
+    }
+
+    @Test
+    public void testRelease() throws Exception{
+        DefaultServiceContextProvider provider = new DefaultServiceContextProvider();
+        try (URLClassLoader classLoader = createClassLoader()) {
+            List<? extends Runnable> services = getServices(provider, classLoader);
+            List<? extends Runnable> defaultServices = provider.getServices(Runnable.class);
+            provider.release(classLoader);
+            List<? extends Runnable> reloaded = getServices(provider, classLoader);
+            assertEquals(1, reloaded.size());
+            assertNotSame(services, reloaded);
+            assertNotSame(services.get(0), reloaded.get(0));
+            assertSame(defaultServices, provider.getServices(Runnable.class));
+        }
+    }
+
+    private static List<? extends Runnable> getServices(ServiceContext context, ClassLoader classLoader){
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return context.getServices(Runnable.class);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    private static URLClassLoader createClassLoader() throws Exception{
+        Path root = Files.createTempDirectory("services");
+        Path file = root.resolve("META-INF/services/" + Runnable.class.getName());
+        Files.createDirectories(file.getParent());
+        Files.write(file, ServiceA.class.getName().getBytes(StandardCharsets.UTF_8));
+        return new URLClassLoader(new URL[]{root.toUri().toURL()}, DefaultServiceContextProviderTest.class.getClassLoader());
+    }
+
+    public static final class ServiceA implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.spi;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ServiceIndex}.
+ */
+public class ServiceIndexTest {
+
+    private static final String SERVICE_FILE = "META-INF/services/" + Runnable.class.getName();
+
+    @Test
+    public void testIndexedServices() throws Exception{
+        Path indexed = createIndexedRoot();
+        try (URLClassLoader classLoader = createClassLoader(indexed)) {
+            ServiceIndex index = ServiceIndex.load(classLoader);
+            assertTrue(index.contains(Runnable.class));
+            assertFalse(index.contains(Comparable.class));
+            assertEquals(Arrays.asList(ServiceB.class.getName(), ServiceA.class.getName()),
+                    index.getServiceNames(Runnable.class, classLoader));
+        }
+    }
+
+    @Test
+    public void testMixedIndexedAndNonIndexedServices() throws Exception{
+        Path indexed = createIndexedRoot();
+        Path plain = Files.createTempDirectory("plain");
+        write(plain, SERVICE_FILE, ServiceC.class.getName() + "\n" + ServiceA.class.getName() + "\n");
+        try (URLClassLoader classLoader = createClassLoader(indexed, plain)) {
+            ServiceIndex index = ServiceIndex.load(classLoader);
+            assertEquals(Arrays.asList(ServiceB.class.getName(), ServiceA.class.getName(), ServiceC.class.getName()),
+                    index.getServiceNames(Runnable.class, classLoader));
+            List<Runnable> services = index.createServices(Runnable.class, classLoader);
+            assertEquals(3, services.size());
+            assertTrue(services.get(2) instanceof ServiceC);
+        }
+    }
+
+    @Test
+    public void testServiceFilesNotLookedUpWithoutNonIndexedRoots() throws Exception{
+        Path indexed = createIndexedRoot();
+        try (RecordingClassLoader classLoader = new RecordingClassLoader(indexed)) {
+            ServiceIndex index = ServiceIndex.load(classLoader);
+            assertEquals(Arrays.asList(ServiceB.class.getName(), ServiceA.class.getName()),
+                    index.getServiceNames(Runnable.class, classLoader));
+            assertFalse(classLoader.lookups.contains(SERVICE_FILE));
+        }
+        Path plain = Files.createTempDirectory("plain");
+        write(plain, SERVICE_FILE, ServiceC.class.getName() + "\n");
+        try (RecordingClassLoader classLoader = new RecordingClassLoader(indexed, plain)) {
+            ServiceIndex index = ServiceIndex.load(classLoader);
+            assertEquals(Arrays.asList(ServiceB.class.getName(), ServiceA.class.getName(), ServiceC.class.getName()),
+                    index.getServiceNames(Runnable.class, classLoader));
+            assertTrue(classLoader.lookups.contains(SERVICE_FILE));
+        }
+    }
+
+    @Test
+    public void testDisabledIndex() throws Exception{
+        Path indexed = createIndexedRoot();
+        System.setProperty(ServiceIndex.DISABLED_PROPERTY, "true");
+        try (URLClassLoader classLoader = createClassLoader(indexed)) {
+            ServiceIndex index = ServiceIndex.load(classLoader);
+            assertTrue(index.isEmpty());
+            assertFalse(index.contains(Runnable.class));
+        } finally {
+            System.clearProperty(ServiceIndex.DISABLED_PROPERTY);
+        }
+    }
+
+    private static Path createIndexedRoot() throws IOException {
+        Path root = Files.createTempDirectory("indexed");
+        write(root, SERVICE_FILE, ServiceA.class.getName() + "\n" + ServiceB.class.getName() + "\n");
+        write(root, ServiceIndex.INDEX_LOCATION, "# test index\n" + Runnable.class.getName() + '='
+                + ServiceB.class.getName() + ":-1," + ServiceA.class.getName() + ":0\n");
+        return root;
+    }
+
+    private static void write(Path root, String location, String content) throws IOException {
+        Path file = root.resolve(location);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static URLClassLoader createClassLoader(Path... roots) throws IOException {
+        return new URLClassLoader(toUrls(roots), ServiceIndexTest.class.getClassLoader());
+    }
+
+    private static URL[] toUrls(Path... roots) throws IOException {
+        URL[] urls = new URL[roots.length];
+        for (int i = 0; i < roots.length; i++) {
+            urls[i] = roots[i].toUri().toURL();
+        }
+        return urls;
+    }
+
+    /**
+     * Class loader without parent, recording the resources looked up.
+     */
+    private static final class RecordingClassLoader extends URLClassLoader {
+        private final List<String> lookups = new ArrayList<>();
+
+        RecordingClassLoader(Path... roots) throws IOException {
+            super(toUrls(roots), null);
+        }
+
+        @Override
+        public Enumeration<URL> getResources(String name) throws IOException {
+            lookups.add(name);
+            return super.getResources(name);
+        }
+    }
+
+    public static final class ServiceA implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static final class ServiceB implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static final class ServiceC implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+}
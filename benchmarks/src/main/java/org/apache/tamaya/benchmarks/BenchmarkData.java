@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Synthetic configuration data shared by the benchmarks, structured like typical configuration keys, i.e. with
+ * several levels of areas, together with the {@link Cursor} state the benchmarks use for cycling through the
+ * keys. The class is public, since JMH requires the classes enclosing state classes to be public.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates the keys of a synthetic configuration.
+     *
+     * @param prefix the prefix of all keys, not null.
+     * @param count  the number of keys.
+     * @return the keys, never null.
+     */
+    static String[] keys(String prefix, int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = prefix + "area" + (i % 100) + ".sub" + (i % 7) + ".key" + i;
+        }
+        return keys;
+    }
+
+    /**
+     * Creates a synthetic configuration, mapping each key to a distinct value.
+     *
+     * @param keys the keys, not null.
+     * @return the configuration map, never null.
+     */
+    static Map<String, String> map(String[] keys) {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], "value" + i);
+        }
+        return map;
+    }
+
+    /**
+     * Creates keys not contained in a configuration created by {@link #keys(String, int)} with the same prefix.
+     *
+     * @param prefix the prefix of all keys, not null.
+     * @param count  the number of keys.
+     * @return the keys, never null.
+     */
+    static String[] missingKeys(String prefix, int count) {
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = prefix + "area" + (i % 100) + ".missing" + i;
+        }
+        return keys;
+    }
+
+    /**
+     * The index of the next key accessed, per thread.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int index;
+
+        int next(int length) {
+            int current = index;
+            index = current + 1 == length ? 0 : current + 1;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks matching the given patterns once per thread count, so contention on the shared paths
+ * shows up along with the single threaded numbers. The thread counts are read from the system property
+ * {@code tamaya.benchmark.threads} as a comma separated list, by default {@code 1,4,16}. Usage:
+ * <pre>
+ *     java -Dtamaya.benchmark.threads=1,8 -cp target/benchmarks.jar org.apache.tamaya.benchmarks.BenchmarkRunner PropertySourceGet
+ * </pre>
+ * Without patterns all benchmarks are run.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String... patterns) throws RunnerException {
+        for (String threads : System.getProperty("tamaya.benchmark.threads", "1,4,16").split(",")) {
+            OptionsBuilder options = new OptionsBuilder();
+            for (String pattern : patterns) {
+                options.include(pattern);
+            }
+            if (patterns.length == 0) {
+                options.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+            }
+            options.threads(Integer.parseInt(threads.trim()));
+            new Runner(options.build()).run();
+        }
+    }
+}
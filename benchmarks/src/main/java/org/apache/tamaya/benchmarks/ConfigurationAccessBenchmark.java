@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.spi.ConfigurationSpi;
+import org.apache.tamaya.spi.ServiceContext;
+import org.apache.tamaya.spi.ServiceSingleton;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the hot path of configuration access, {@code Configuration.current().get(key)}, and the singleton
+ * service lookup it is based on. Run with {@code -t} to measure contention, e.g. {@code -t 8}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigurationAccessBenchmark {
+
+    private static final ServiceSingleton<ConfigurationSpi> CONFIGURATION_SPI =
+            ServiceSingleton.of(ConfigurationSpi.class);
+
+    @Param({"java.version", "tamaya.benchmark.missing"})
+    private String key;
+
+    @Setup
+    public void setup() {
+        // make sure the configuration is loaded before measuring
+        Configuration.current().get(key);
+    }
+
+    @Benchmark
+    public Optional<String> currentGet() {
+        return Configuration.current().get(key);
+    }
+
+    @Benchmark
+    public ConfigurationSpi serviceContextSingleton() {
+        return ServiceContext.getInstance().getSingleton(ConfigurationSpi.class);
+    }
+
+    @Benchmark
+    public ConfigurationSpi serviceSingletonHandle() {
+        return CONFIGURATION_SPI.get();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.integration.se.ConfiguredSystemProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@code System.getProperty} with {@link ConfiguredSystemProperties} installed, for existing and missing
+ * keys, compared to the plain JDK system properties. The number of additional system properties is
+ * parameterized, since the configured system properties are backed by the default configuration, which includes
+ * them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfiguredSystemPropertiesBenchmark {
+
+    private static final String PREFIX = "tamaya.benchmark.";
+
+    @Param({"true", "false"})
+    private boolean installed;
+
+    @Param({"0", "1000"})
+    private int keyCount;
+
+    private String[] keys;
+    private String[] missingKeys;
+
+    @Setup
+    public void setup() {
+        keys = BenchmarkData.keys(PREFIX, Math.max(1, keyCount));
+        missingKeys = BenchmarkData.missingKeys(PREFIX, keys.length);
+        BenchmarkData.map(keys).forEach(System::setProperty);
+        if (installed) {
+            ConfiguredSystemProperties.install();
+        }
+        System.getProperty(keys[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (installed) {
+            ConfiguredSystemProperties.uninstall();
+        }
+        for (String key : keys) {
+            System.clearProperty(key);
+        }
+    }
+
+    @Benchmark
+    public String getProperty(BenchmarkData.Cursor cursor) {
+        return System.getProperty(keys[cursor.next(keys.length)]);
+    }
+
+    /**
+     * Reads the same keys with 32 threads, so contention on the context resolution and the property reads shows.
+     */
+    @Benchmark
+    @Threads(32)
+    public String getPropertyContended(BenchmarkData.Cursor cursor) {
+        return System.getProperty(keys[cursor.next(keys.length)]);
+    }
+
+    @Benchmark
+    public String getMissingProperty(BenchmarkData.Cursor cursor) {
+        return System.getProperty(missingKeys[cursor.next(missingKeys.length)], "default");
+    }
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.core.internal.el.DefaultExpressionEvaluator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link org.apache.tamaya.core.internal.el.DefaultExpressionEvaluator#evaluate}, for literal values,
+ * single expressions, multiple expressions mixed with literal text and escaped expressions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExpressionEvaluatorBenchmark {
+
+    @Param({"a literal value without expressions",
+            "${sys:java.version}",
+            "java ${sys:java.version} running in ${sys:user.dir} as ${sys:user.name}",
+            "\\${sys:java.version} is ${sys:java.version}"})
+    private String expression;
+
+    private DefaultExpressionEvaluator evaluator;
+
+    @Setup
+    public void setup() {
+        evaluator = new DefaultExpressionEvaluator();
+        evaluator.evaluate(expression);
+    }
+
+    @Benchmark
+    public String evaluate() {
+        return evaluator.evaluate(expression);
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.core.internal.resources.io.PathMatchingResourcePatternResolver;
+import org.apache.tamaya.core.properties.ConfigurationFormat;
+import org.apache.tamaya.core.resource.Resource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link ConfigurationFormat#readConfiguration(Resource)} for each format, reading all resources of
+ * the format on a synthetic classpath, see {@link SyntheticClasspath}. The resources are resolved in advance, so
+ * only reading and parsing is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatParsingBenchmark {
+
+    @Param({"10", "50"})
+    private int jarCount;
+
+    @Param({"2"})
+    private int filesPerFormat;
+
+    @Param({"50"})
+    private int entriesPerFile;
+
+    @Param({"properties", "xml-properties", "ini"})
+    private String format;
+
+    private SyntheticClasspath classpath;
+    private URLClassLoader classLoader;
+    private Resource[] resources;
+    private ConfigurationFormat configurationFormat;
+
+    @Setup
+    public void setup() throws IOException {
+        classpath = new SyntheticClasspath(jarCount, filesPerFormat, entriesPerFile);
+        classLoader = classpath.newClassLoader();
+        String extension = "xml-properties".equals(format) ? "xml" : format;
+        resources = new PathMatchingResourcePatternResolver(classLoader)
+                .getResources("classpath:META-INF/cfg/**/*." + extension);
+        configurationFormat = ConfigurationFormat.of(format);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+        classpath.close();
+    }
+
+    @Benchmark
+    public void readConfiguration(Blackhole blackhole) {
+        for (Resource resource : resources) {
+            blackhole.consume(configurationFormat.readConfiguration(resource));
+        }
+    }
+
+}
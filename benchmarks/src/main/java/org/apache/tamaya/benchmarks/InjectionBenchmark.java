@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.annotation.ConfiguredProperty;
+import org.apache.tamaya.annotation.DefaultValue;
+import org.apache.tamaya.core.internal.inject.ConfigurationInjector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the annotation driven configuration: injecting a new instance using
+ * {@link org.apache.tamaya.core.internal.inject.ConfigurationInjector#configure}, creating template proxies and
+ * calling a template's methods.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InjectionBenchmark {
+
+    private BenchmarkTemplate template;
+
+    /**
+     * Bean configured by injection.
+     */
+    public static class BenchmarkBean {
+        @ConfiguredProperty(keys = "java.version")
+        String javaVersion;
+
+        @ConfiguredProperty(keys = {"tamaya.benchmark.missing", "user.dir"})
+        String userDir;
+
+        @ConfiguredProperty(keys = "tamaya.benchmark.int")
+        @DefaultValue("42")
+        int intValue;
+
+        @ConfiguredProperty(keys = "tamaya.benchmark.long")
+        @DefaultValue("4242")
+        long longValue;
+
+        @ConfiguredProperty(keys = "tamaya.benchmark.expression")
+        @DefaultValue("${sys:java.version}")
+        String expression;
+    }
+
+    /**
+     * Template interface, implemented by a proxy.
+     */
+    public interface BenchmarkTemplate {
+        @ConfiguredProperty(keys = "java.version")
+        String javaVersion();
+
+        @ConfiguredProperty(keys = "tamaya.benchmark.int")
+        @DefaultValue("42")
+        int intValue();
+
+        @ConfiguredProperty(keys = "tamaya.benchmark.expression")
+        @DefaultValue("${sys:java.version}")
+        String expression();
+    }
+
+    @Setup
+    public void setup() {
+        ConfigurationInjector.configure(new BenchmarkBean());
+        template = Configuration.createTemplate(BenchmarkTemplate.class);
+        template.javaVersion();
+    }
+
+    @Benchmark
+    public BenchmarkBean configure() {
+        BenchmarkBean bean = new BenchmarkBean();
+        ConfigurationInjector.configure(bean);
+        return bean;
+    }
+
+    @Benchmark
+    public BenchmarkTemplate createTemplate() {
+        return Configuration.createTemplate(BenchmarkTemplate.class);
+    }
+
+    @Benchmark
+    public String templateString() {
+        return template.javaVersion();
+    }
+
+    @Benchmark
+    public int templateInt() {
+        return template.intValue();
+    }
+
+    @Benchmark
+    public String templateExpression() {
+        return template.expression();
+    }
+
+}
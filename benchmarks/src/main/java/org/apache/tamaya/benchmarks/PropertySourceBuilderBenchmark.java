@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.PropertySource;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks property sources assembled by {@link org.apache.tamaya.core.properties.PropertySourceBuilder} chains
+ * of varying depth: assembling the chain, resolving all its properties and accessing single keys. Each level
+ * of the chain overrides a tenth of the keys, every third level additionally filters the keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertySourceBuilderBenchmark {
+
+    private static final String PREFIX = "tamaya.benchmark.";
+
+    @Param({"1", "4", "16"})
+    private int depth;
+
+    @Param({"100", "10000"})
+    private int keyCount;
+
+    private String[] keys;
+    private Map<String, String> base;
+    private Map<String, String>[] overrides;
+    private PropertySource chain;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        keys = BenchmarkData.keys(PREFIX, keyCount);
+        base = BenchmarkData.map(keys);
+        overrides = new Map[depth];
+        int overrideCount = Math.max(1, keyCount / 10);
+        for (int i = 0; i < depth; i++) {
+            int from = (i * overrideCount) % keyCount;
+            overrides[i] = BenchmarkData.map(Arrays.copyOfRange(keys, from, Math.min(keyCount, from + overrideCount)));
+        }
+        chain = buildChain();
+        chain.get(keys[0]);
+    }
+
+    @Benchmark
+    public PropertySource buildChain() {
+        PropertySourceBuilder builder = PropertySourceBuilder.of("chain").addMap(base);
+        for (int i = 0; i < depth; i++) {
+            builder.addMap(overrides[i]);
+            if (i % 3 == 2) {
+                builder.filter(k -> k.startsWith(PREFIX));
+            }
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<String, String> getProperties() {
+        return chain.getProperties();
+    }
+
+    @Benchmark
+    public Optional<String> get(BenchmarkData.Cursor cursor) {
+        return chain.get(keys[cursor.next(keys.length)]);
+    }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.PropertySource;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.apache.tamaya.core.properties.PropertySourceDiff;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.beans.PropertyChangeEvent;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the evaluation of the changes between two large property sources, that only differ in a few
+ * entries, as it is typical for configuration reloads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertySourceDiffBenchmark {
+
+    @Param({"10000", "50000"})
+    private int keyCount;
+
+    @Param({"1", "100"})
+    private int changeCount;
+
+    private PropertySource oldState;
+    private PropertySource newState;
+    private PropertySourceDiff.Snapshot oldSnapshot;
+    private PropertySourceDiff.Snapshot newSnapshot;
+
+    @Setup
+    public void setup() {
+        Map<String, String> oldMap = new HashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            oldMap.put("area" + (i % 100) + ".sub" + (i % 7) + ".key" + i, "value" + i);
+        }
+        Map<String, String> newMap = new HashMap<>(oldMap);
+        Random random = new Random(42L);
+        for (int i = 0; i < changeCount; i++) {
+            int index = random.nextInt(keyCount);
+            newMap.put("area" + (index % 100) + ".sub" + (index % 7) + ".key" + index, "changed" + i);
+        }
+        oldState = PropertySourceBuilder.of("old").addMap(oldMap).build();
+        newState = PropertySourceBuilder.of("new").addMap(newMap).build();
+        oldSnapshot = PropertySourceDiff.snapshot(oldState);
+        newSnapshot = PropertySourceDiff.snapshot(newState);
+    }
+
+    /**
+     * The comparison as implemented before, materializing both maps and looking up each key in the other source.
+     */
+    @Benchmark
+    public Collection<PropertyChangeEvent> compareFullMaps() {
+        List<PropertyChangeEvent> changes = new ArrayList<>();
+        for (Map.Entry<String, String> en : newState.getProperties().entrySet()) {
+            Optional<String> val = oldState.get(en.getKey());
+            if (!val.isPresent()) {
+                changes.add(new PropertyChangeEvent(newState, en.getKey(), null, en.getValue()));
+            } else if (!val.get().equals(en.getValue())) {
+                changes.add(new PropertyChangeEvent(newState, en.getKey(), val.get(), en.getValue()));
+            }
+        }
+        for (Map.Entry<String, String> en : oldState.getProperties().entrySet()) {
+            if (!newState.get(en.getKey()).isPresent()) {
+                changes.add(new PropertyChangeEvent(newState, en.getKey(), en.getValue(), null));
+            }
+        }
+        return changes;
+    }
+
+    @Benchmark
+    public void compareSources(Blackhole blackhole) {
+        PropertySourceDiff.compare(newState, oldState).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void compareWithPreviousSnapshot(Blackhole blackhole) {
+        PropertySourceDiff.compare(PropertySourceDiff.snapshot(newState), oldSnapshot).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void compareSnapshots(Blackhole blackhole) {
+        PropertySourceDiff.compare(newSnapshot, oldSnapshot).forEach(blackhole::consume);
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.PropertySource;
+import org.apache.tamaya.core.properties.AggregationPolicy;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.apache.tamaya.core.properties.PropertySourceFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@code PropertySource.get} for each type of property source provided by
+ * {@link org.apache.tamaya.core.properties.PropertySourceFactory}, for existing and missing keys. The keys accessed
+ * are cycled per thread, so the lookups are not served from a single cache line. Use
+ * {@link BenchmarkRunner} or {@code -t} to vary the number of threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PropertySourceGetBenchmark {
+
+    private static final String PREFIX = "tamaya.benchmark.";
+
+    @Param({"map", "freezed", "aggregated", "mutable", "intersected", "subtracted", "filtered", "valueFiltered",
+            "replacing", "delegating", "contextual", "buildable", "system", "environment"})
+    private String sourceType;
+
+    @Param({"100", "10000"})
+    private int keyCount;
+
+    private PropertySource source;
+    private String[] keys;
+    private String[] missingKeys;
+
+    @Setup
+    public void setup() {
+        keys = BenchmarkData.keys(PREFIX, keyCount);
+        missingKeys = BenchmarkData.missingKeys(PREFIX, keyCount);
+        Map<String, String> map = BenchmarkData.map(keys);
+        PropertySource base = PropertySourceFactory.fromMap("base", map);
+        switch (sourceType) {
+            case "map":
+                source = base;
+                break;
+            case "freezed":
+                source = PropertySourceFactory.freezed("freezed", base);
+                break;
+            case "aggregated":
+                source = PropertySourceFactory.aggregate("aggregated", AggregationPolicy.OVERRIDE,
+                        Arrays.asList(base, PropertySourceFactory.fromMap("overrides",
+                                BenchmarkData.map(Arrays.copyOf(keys, Math.max(1, keyCount / 10))))));
+                break;
+            case "mutable":
+                source = PropertySourceFactory.mutable("mutable", base);
+                break;
+            case "intersected":
+                source = PropertySourceFactory.intersected("intersected", AggregationPolicy.OVERRIDE,
+                        Arrays.asList(base, PropertySourceFactory.fromMap("copy", new HashMap<>(map))));
+                break;
+            case "subtracted":
+                source = PropertySourceFactory.subtracted("subtracted", base, Collections.singletonList(
+                        PropertySourceFactory.fromMap("subtrahend", BenchmarkData.map(missingKeys))));
+                break;
+            case "filtered":
+                source = PropertySourceFactory.filtered("filtered", k -> k.startsWith(PREFIX), base);
+                break;
+            case "valueFiltered":
+                source = PropertySourceFactory.filterValues("valueFiltered", (k, v) -> v.trim(), base);
+                break;
+            case "replacing":
+                source = PropertySourceFactory.replacing("replacing", base,
+                        BenchmarkData.map(Arrays.copyOf(keys, Math.max(1, keyCount / 10))));
+                break;
+            case "delegating":
+                source = PropertySourceFactory.delegating("delegating",
+                        PropertySourceFactory.fromMap("child", BenchmarkData.map(Arrays.copyOf(keys, keyCount / 2))),
+                        map);
+                break;
+            case "contextual":
+                source = PropertySourceFactory.contextual("contextual", () -> base,
+                        () -> Thread.currentThread().getContextClassLoader());
+                break;
+            case "buildable":
+                source = PropertySourceFactory.build("buildable", base);
+                break;
+            case "system":
+                map.forEach(System::setProperty);
+                source = PropertySourceFactory.fromSystemProperties();
+                break;
+            case "environment":
+                // the environment cannot be extended, so its existing keys are accessed
+                source = PropertySourceFactory.fromEnvironmentProperties();
+                keys = System.getenv().keySet().toArray(new String[0]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown source type: " + sourceType);
+        }
+        // initialize lazily evaluated sources before measuring
+        source.get(keys[0]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if ("system".equals(sourceType)) {
+            for (String key : keys) {
+                System.clearProperty(key);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<String> getExisting(BenchmarkData.Cursor cursor) {
+        return source.get(keys[cursor.next(keys.length)]);
+    }
+
+    @Benchmark
+    public Optional<String> getMissing(BenchmarkData.Cursor cursor) {
+        return source.get(missingKeys[cursor.next(missingKeys.length)]);
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.internal.config.FallbackSimpleConfigProvider;
+import org.apache.tamaya.core.internal.resources.io.PathMatchingResourcePatternResolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the startup path against a synthetic classpath, see {@link SyntheticClasspath}: loading the default
+ * configuration with {@link FallbackSimpleConfigProvider#reload()} and resolving the resource patterns it uses
+ * with {@link PathMatchingResourcePatternResolver#getResources(String)}. Parsing is measured separately by
+ * {@link FormatParsingBenchmark}. The annotations define the warm mode, use {@link StartupBenchmarkRunner} to run
+ * in single shot mode in fresh JVMs as well, including allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    /** The patterns resolved by {@link FallbackSimpleConfigProvider}, for all classpath entries. */
+    private static final String[] PATTERNS = {
+            "classpath:META-INF/cfg/default/**/*.xml", "classpath:META-INF/cfg/default/**/*.properties",
+            "classpath:META-INF/cfg/default/**/*.ini",
+            "classpath:META-INF/cfg/config/**/*.xml", "classpath:META-INF/cfg/config/**/*.properties",
+            "classpath:META-INF/cfg/config/**/*.ini"};
+
+    @Param({"10", "50"})
+    private int jarCount;
+
+    @Param({"2"})
+    private int filesPerFormat;
+
+    @Param({"50"})
+    private int entriesPerFile;
+
+    private SyntheticClasspath classpath;
+    private URLClassLoader classLoader;
+
+    @Setup
+    public void setup() {
+        classpath = new SyntheticClasspath(jarCount, filesPerFormat, entriesPerFile);
+        classLoader = classpath.newClassLoader();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+        classpath.close();
+    }
+
+    @Benchmark
+    public Configuration reload() {
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            FallbackSimpleConfigProvider provider = new FallbackSimpleConfigProvider();
+            provider.reload();
+            return provider.getConfiguration();
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    @Benchmark
+    public void getResources(Blackhole blackhole) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        for (String pattern : PATTERNS) {
+            blackhole.consume(resolver.getResources(pattern));
+        }
+    }
+
+}
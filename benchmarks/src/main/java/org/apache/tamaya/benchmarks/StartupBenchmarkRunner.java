@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the {@link StartupBenchmark} and the {@link FormatParsingBenchmark} in cold and/or warm mode, reporting the allocation rates along with the
+ * durations. In cold mode each benchmark is executed once per fresh JVM, which is repeated in a number of forks,
+ * so class loading and interpretation are included, as on a real startup. Usage:
+ * <pre>
+ *     java -cp target/benchmarks.jar org.apache.tamaya.benchmarks.StartupBenchmarkRunner [cold|warm|both] [forks]
+ * </pre>
+ * By default both modes are run, the cold mode with 20 forks.
+ */
+public final class StartupBenchmarkRunner {
+
+    private StartupBenchmarkRunner() {
+    }
+
+    public static void main(String... args) throws RunnerException {
+        String mode = args.length > 0 ? args[0] : "both";
+        int forks = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        if ("cold".equals(mode) || "both".equals(mode)) {
+            new Runner(options()
+                    .mode(Mode.SingleShotTime)
+                    .warmupIterations(0)
+                    .measurementIterations(1)
+                    .forks(forks)
+                    .build()).run();
+        }
+        if ("warm".equals(mode) || "both".equals(mode)) {
+            new Runner(options().build()).run();
+        }
+    }
+
+    private static ChainedOptionsBuilder options() {
+        return new OptionsBuilder()
+                .include(StartupBenchmark.class.getName())
+                .include(FormatParsingBenchmark.class.getName())
+                .addProfiler(GCProfiler.class);
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Properties;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Generates a synthetic classpath of jar files, each containing configuration files in {@code .properties},
+ * {@code .xml} and {@code .ini} format below {@code META-INF/cfg/default/} and {@code META-INF/cfg/config/}, along
+ * with unrelated entries, as found in typical application jars. The content is deterministic, so runs are
+ * comparable.
+ */
+final class SyntheticClasspath implements AutoCloseable {
+
+    /** The number of unrelated entries per jar, e.g. classes. */
+    private static final int OTHER_ENTRIES = 200;
+
+    private final Path directory;
+    private final URL[] urls;
+
+    /**
+     * Creates the jars in a new temporary directory.
+     *
+     * @param jarCount        the number of jars.
+     * @param filesPerFormat  the number of configuration files per format and jar.
+     * @param entriesPerFile  the number of entries per configuration file.
+     */
+    SyntheticClasspath(int jarCount, int filesPerFormat, int entriesPerFile) {
+        try {
+            this.directory = Files.createTempDirectory("tamaya-benchmark-classpath");
+            this.urls = new URL[jarCount];
+            for (int jar = 0; jar < jarCount; jar++) {
+                Path file = directory.resolve("lib" + jar + ".jar");
+                writeJar(file, jar, filesPerFormat, entriesPerFile);
+                urls[jar] = file.toUri().toURL();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeJar(Path file, int jar, int filesPerFormat, int entriesPerFile) throws IOException {
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(file))) {
+            // directory entries are written as by the jar tool, resolving root directories depends on them
+            putDirectories(out, "com/", "com/example/", "com/example/lib" + jar + "/");
+            for (int i = 0; i < OTHER_ENTRIES; i++) {
+                if (i < 10) {
+                    putDirectories(out, "com/example/lib" + jar + "/pkg" + i + "/");
+                }
+                out.putNextEntry(new JarEntry("com/example/lib" + jar + "/pkg" + (i % 10) + "/Type" + i + ".class"));
+                out.write(new byte[64]);
+            }
+            putDirectories(out, "META-INF/", "META-INF/cfg/");
+            for (String area : new String[]{"default", "config"}) {
+                putDirectories(out, "META-INF/cfg/" + area + "/", "META-INF/cfg/" + area + "/lib" + jar + "/");
+                for (int f = 0; f < filesPerFormat; f++) {
+                    String base = "META-INF/cfg/" + area + "/lib" + jar + "/module" + f;
+                    String prefix = "lib" + jar + "." + area + ".module" + f;
+                    out.putNextEntry(new JarEntry(base + ".properties"));
+                    properties(prefix, entriesPerFile).store(out, null);
+                    out.putNextEntry(new JarEntry(base + ".xml"));
+                    properties(prefix, entriesPerFile).storeToXML(new NonClosingOutputStream(out), null);
+                    out.putNextEntry(new JarEntry(base + ".ini"));
+                    out.write(ini(prefix, entriesPerFile).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+    }
+
+    private static void putDirectories(JarOutputStream out, String... directories) throws IOException {
+        for (String directory : directories) {
+            out.putNextEntry(new JarEntry(directory));
+            out.closeEntry();
+        }
+    }
+
+    private static Properties properties(String prefix, int entries) {
+        Properties properties = new Properties();
+        for (int i = 0; i < entries; i++) {
+            properties.setProperty(prefix + ".section" + (i % 5) + ".key" + i, "value " + i);
+        }
+        return properties;
+    }
+
+    private static String ini(String prefix, int entries) {
+        StringBuilder b = new StringBuilder("# synthetic configuration\n");
+        for (int section = 0; section < 5; section++) {
+            b.append('[').append(prefix).append(".section").append(section).append("]\n");
+            for (int i = section; i < entries; i += 5) {
+                b.append("key").append(i).append("=value ").append(i).append('\n');
+            }
+        }
+        return b.toString();
+    }
+
+    /**
+     * Creates a new class loader for the jars, without parent, so only the synthetic configuration is found.
+     *
+     * @return the new class loader, never null.
+     */
+    URLClassLoader newClassLoader() {
+        return new URLClassLoader(urls, null);
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stream not closing the underlying jar stream, since {@link java.util.Properties#storeToXML} closes it.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.benchmarks;
+
+import org.apache.tamaya.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks typed access, {@code Configuration.current().get(key, type)}, including the lookup current the
+ * {@link org.apache.tamaya.PropertyAdapter} and the conversion. The values are provided as system properties, which
+ * are part of the default configuration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypedGetBenchmark {
+
+    private static final String KEY = "tamaya.benchmark.typed";
+
+    @Param({"java.lang.String", "java.lang.Boolean", "java.lang.Integer", "java.lang.Long", "java.lang.Double",
+            "java.math.BigDecimal"})
+    private String typeName;
+
+    private Class<?> type;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        type = Class.forName(typeName);
+        System.setProperty(KEY, Boolean.class.equals(type) ? "true" : "1234");
+        Configuration.current().get(KEY, type);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty(KEY);
+    }
+
+    @Benchmark
+    public Optional<?> get() {
+        return Configuration.current().get(KEY, type);
+    }
+
+    @Benchmark
+    public Optional<String> getString() {
+        return Configuration.current().get(KEY);
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.resources.io;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks matching the entries of a large synthetic jar listing against the patterns used for finding
+ * configuration resources, comparing the uncompiled matching of {@link AntPathMatcher} with
+ * {@link AntPathPattern}. Located in the matcher's package, since both classes are package private. The times
+ * reported are per entry, run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AntPathMatcherBenchmark {
+
+    /** The number of entries in the listing. */
+    private static final int ENTRIES = 100_000;
+
+    /** The root entry path, as it is cut off when scanning a jar for a pattern below it. */
+    private static final String ROOT = "META-INF/";
+
+    @Param({"**/*.properties", "cfg/**/*.xml", "cfg/*/lib?/module*.ini"})
+    private String pattern;
+
+    private String[] entries;
+    private AntPathMatcher matcher;
+    private AntPathPattern compiled;
+
+    @Setup
+    public void setup() {
+        List<String> listing = new ArrayList<>(ENTRIES);
+        for (int i = 0; listing.size() < ENTRIES; i++) {
+            listing.add("com/example/lib" + (i % 50) + "/pkg" + (i % 10) + "/Type" + i + ".class");
+            if (i % 10 == 0) {
+                listing.add("com/example/lib" + (i % 50) + "/pkg" + (i % 10) + "/");
+            }
+            if (i % 20 == 0) {
+                String area = i % 40 == 0 ? "default" : "config";
+                String base = ROOT + "cfg/" + area + "/lib" + (i % 9) + "/module" + i;
+                listing.add(base + ".properties");
+                listing.add(base + ".xml");
+                listing.add(base + ".ini");
+            }
+            if (i % 100 == 0) {
+                listing.add(ROOT + "maven/org.example/lib" + i + "/pom.properties");
+            }
+        }
+        entries = listing.subList(0, ENTRIES).toArray(new String[ENTRIES]);
+        matcher = new AntPathMatcher();
+        compiled = matcher.compile(pattern);
+    }
+
+    /**
+     * Jar scanning as done before, creating the relative path for each entry and tokenizing it.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int scanUncompiled() {
+        int matches = 0;
+        int rootLength = ROOT.length();
+        for (String entry : entries) {
+            if (entry.startsWith(ROOT) && matcher.doMatch(pattern, entry.substring(rootLength), true, null)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Jar scanning with the pattern compiled once, matching the entries in place.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int scanCompiled() {
+        int matches = 0;
+        int rootLength = ROOT.length();
+        for (String entry : entries) {
+            if (entry.startsWith(ROOT) && compiled.matches(entry, rootLength)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Matching through {@link AntPathMatcher#match}, which looks up the compiled pattern per call.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int matchEntries() {
+        int matches = 0;
+        for (String entry : entries) {
+            if (matcher.match(pattern, entry)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Matching the full entries with the uncompiled matching, for comparison with {@link #matchEntries()}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public int doMatchEntries() {
+        int matches = 0;
+        for (String entry : entries) {
+            if (matcher.doMatch(pattern, entry, true, null)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.buildtools;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Annotation processor writing the injection index, {@code META-INF/tamaya/injection.idx}, of a module. The index
+ * contains a descriptor for each configured type of the module, i.e. each type annotated with {@code DefaultAreas}
+ * or declaring members annotated with {@code ConfiguredProperty} or {@code ConfiguredProperties}. A descriptor
+ * lists the members to be injected, so {@code ConfiguredType} can look them up directly instead of scanning all
+ * declared fields and methods for annotations. Since the index lists all configured types of a module, types
+ * of the module missing in the index are known not to be configured at all.
+ * <p>
+ * Each line of the index has the form {@code binaryTypeName=kind:member,...}, with kind being {@code field},
+ * {@code setter} (annotated template methods without parameters) or {@code callback} (void methods annotated
+ * with {@code ObservesConfigChange}, taking a single {@code PropertyChangeSet}).
+ * <p>
+ * On incremental builds the entries of the types not compiled again are taken over from the existing index.
+ * <p>
+ * The processor is registered as a service, so it is active whenever this module is on the compile classpath,
+ * e.g. as a {@code provided} dependency. Annotations are matched by name, so the processor does not depend on
+ * the api module.
+ */
+@SupportedAnnotationTypes("*")
+public final class InjectionIndexProcessor extends AbstractProcessor {
+    /** The location of the index, relative to the classes directory. */
+    public static final String INDEX_LOCATION = "META-INF/tamaya/injection.idx";
+
+    private static final String DEFAULT_AREAS = "org.apache.tamaya.annotation.DefaultAreas";
+    private static final String CONFIGURED_PROPERTY = "org.apache.tamaya.annotation.ConfiguredProperty";
+    private static final String CONFIGURED_PROPERTIES = "org.apache.tamaya.annotation.ConfiguredProperties";
+    private static final String OBSERVES_CONFIG_CHANGE = "org.apache.tamaya.annotation.ObservesConfigChange";
+    private static final String NO_CONFIG = "org.apache.tamaya.annotation.NoConfig";
+    private static final String PROPERTY_CHANGE_SET = "org.apache.tamaya.core.properties.PropertyChangeSet";
+
+    /** The configured types found, by binary name. */
+    private final SortedMap<String, TypeElement> configuredTypes = new TreeMap<>();
+    /** The binary names of all types compiled. */
+    private final Set<String> compiledTypes = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getRootElements()) {
+            if (element instanceof TypeElement) {
+                scanType((TypeElement) element);
+            }
+        }
+        if (roundEnv.processingOver() && !compiledTypes.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the given type, or any of its nested types, is configured, using the same rules as
+     * {@code ConfiguredType.isConfigured}.
+     *
+     * @param type the type, not null.
+     */
+    private void scanType(TypeElement type) {
+        String name = processingEnv.getElementUtils().getBinaryName(type).toString();
+        compiledTypes.add(name);
+        boolean configured = hasAnnotation(type, DEFAULT_AREAS);
+        for (Element member : type.getEnclosedElements()) {
+            if (member instanceof TypeElement) {
+                scanType((TypeElement) member);
+            } else if ((member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD)
+                    && (hasAnnotation(member, CONFIGURED_PROPERTY) || hasAnnotation(member, CONFIGURED_PROPERTIES))) {
+                configured = true;
+            }
+        }
+        if (configured) {
+            configuredTypes.put(name, type);
+        }
+    }
+
+    private void writeIndex() {
+        SortedMap<String, String> entries = readExistingIndex();
+        entries.keySet().removeAll(compiledTypes);
+        for (Map.Entry<String, TypeElement> en : configuredTypes.entrySet()) {
+            entries.put(en.getKey(), String.join(",", getMembers(en.getValue())));
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    INDEX_LOCATION, configuredTypes.values().toArray(new Element[configuredTypes.size()]));
+            try (Writer writer = file.openWriter()) {
+                writer.write("# Generated by " + getClass().getName() + ", do not edit.\n");
+                for (Map.Entry<String, String> en : entries.entrySet()) {
+                    writer.write(en.getKey() + '=' + en.getValue() + '\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + INDEX_LOCATION + ": " + e);
+        }
+    }
+
+    /**
+     * Reads the index written by a previous build, if any.
+     *
+     * @return the entries of the existing index, never null.
+     */
+    private SortedMap<String, String> readExistingIndex() {
+        SortedMap<String, String> entries = new TreeMap<>();
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_LOCATION);
+            Properties props = new Properties();
+            try (Reader reader = file.openReader(true)) {
+                props.load(reader);
+            }
+            for (String name : props.stringPropertyNames()) {
+                entries.put(name, props.getProperty(name));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // no index written yet
+        }
+        return entries;
+    }
+
+    /**
+     * Evaluates the members to be injected, using the same rules as {@code ConfiguredType}.
+     *
+     * @param type the configured type, not null.
+     * @return the member descriptors, never null.
+     */
+    private List<String> getMembers(TypeElement type) {
+        List<String> members = new ArrayList<>();
+        boolean template = type.getKind().isInterface();
+        for (Element member : type.getEnclosedElements()) {
+            if (hasAnnotation(member, NO_CONFIG)) {
+                continue;
+            }
+            if (member.getKind() == ElementKind.FIELD) {
+                members.add("field:" + member.getSimpleName());
+            } else if (member.getKind() == ElementKind.METHOD) {
+                ExecutableElement method = (ExecutableElement) member;
+                if (template && !method.isDefault()) {
+                    continue;
+                }
+                if (hasAnnotation(method, OBSERVES_CONFIG_CHANGE)) {
+                    if (method.getParameters().size() == 1 && method.getReturnType().getKind() == TypeKind.VOID
+                            && isType(method.getParameters().get(0).asType(), PROPERTY_CHANGE_SET)) {
+                        members.add("callback:" + method.getSimpleName());
+                    }
+                } else if ((hasAnnotation(method, CONFIGURED_PROPERTY) || hasAnnotation(method, CONFIGURED_PROPERTIES))
+                        && method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+                    members.add("setter:" + method.getSimpleName());
+                }
+            }
+        }
+        return members;
+    }
+
+    private boolean isType(TypeMirror type, String typeName) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        return erased.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().contentEquals(typeName);
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
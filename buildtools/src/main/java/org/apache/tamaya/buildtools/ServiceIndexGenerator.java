@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.buildtools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Build time generator for the Tamaya service index. The generator reads all {@code META-INF/services} files
+ * of a compiled module, evaluates the ordinal of each service implementation in the same way as the runtime
+ * {@code DefaultServiceComparator} does and writes one index file, {@code META-INF/tamaya/services.idx}, where
+ * the implementations of each service type are already sorted by ordinal. At runtime
+ * {@code org.apache.tamaya.spi.ServiceIndex} reads the index files of all modules with one resource lookup. The
+ * build time order is only a default, services are still sorted by their ordinals at runtime.
+ * <p>
+ * The generator is run in the {@code process-classes} (and {@code process-test-classes}) phase with the module's
+ * classpath as context class loader, e.g. using the {@code exec-maven-plugin}. Arguments are the classes directory
+ * to be indexed and optionally the index file to be written.
+ * <p>
+ * Ordinals are evaluated without depending on the core module: registered {@code OrdinalProvider} services are
+ * asked first, thereafter implementations of {@code Orderable} are instantiated and asked for their order,
+ * all other services have ordinal 0.
+ */
+public final class ServiceIndexGenerator {
+    /** The location of the index, relative to the classes directory. */
+    public static final String INDEX_LOCATION = "META-INF/tamaya/services.idx";
+    /** The location of the JDK service files, relative to the classes directory. */
+    private static final String SERVICES_LOCATION = "META-INF/services";
+    /** The name of the ordinal provider SPI. */
+    private static final String ORDINAL_PROVIDER = "org.apache.tamaya.core.spi.OrdinalProvider";
+    /** The name of the orderable SPI. */
+    private static final String ORDERABLE = "org.apache.tamaya.core.spi.Orderable";
+
+    /** The class loader used for evaluating the ordinals. */
+    private final ClassLoader classLoader;
+    /** The ordinal providers found on the classpath, sorted by their own order. */
+    private final List<Object> ordinalProviders = new ArrayList<>();
+
+    /**
+     * Creates a new generator.
+     * @param classLoader the class loader with the module's classpath, not null.
+     */
+    public ServiceIndexGenerator(ClassLoader classLoader) {
+        this.classLoader = Objects.requireNonNull(classLoader);
+        for (String name : readServiceNames(ORDINAL_PROVIDER)) {
+            ordinalProviders.add(newInstance(name));
+        }
+        ordinalProviders.sort(Comparator.comparingInt(this::getOrderableOrdinal));
+    }
+
+    /**
+     * Entry point, used by the build.
+     * @param args the classes directory to be indexed and optionally the target index file.
+     * @throws IOException if reading the service files or writing the index failed.
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("Usage: ServiceIndexGenerator <classesDir> [<indexFile>]");
+        }
+        Path classesDir = Paths.get(args[0]);
+        Path indexFile = args.length > 1 ? Paths.get(args[1]) : classesDir.resolve(INDEX_LOCATION);
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = ServiceIndexGenerator.class.getClassLoader();
+        }
+        new ServiceIndexGenerator(cl).generate(classesDir, indexFile);
+    }
+
+    /**
+     * Creates the index for all service files in the given classes directory. If the directory does not contain
+     * any service files no index is written.
+     * @param classesDir the classes directory, not null.
+     * @param indexFile the index file to be written, not null.
+     * @throws IOException if reading the service files or writing the index failed.
+     */
+    public void generate(Path classesDir, Path indexFile) throws IOException {
+        Path servicesDir = classesDir.resolve(SERVICES_LOCATION);
+        if (!Files.isDirectory(servicesDir)) {
+            return;
+        }
+        SortedMap<String, List<String>> index = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(servicesDir)) {
+            for (Path file : files) {
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                List<String> services;
+                try (InputStream is = Files.newInputStream(file)) {
+                    services = parseServiceNames(is);
+                }
+                if (!services.isEmpty()) {
+                    index.put(file.getFileName().toString(), services);
+                }
+            }
+        }
+        if (index.isEmpty()) {
+            return;
+        }
+        Files.createDirectories(indexFile.getParent());
+        try (Writer writer = Files.newBufferedWriter(indexFile, StandardCharsets.ISO_8859_1)) {
+            writer.write("# Tamaya service index, generated by " + getClass().getName() + ", do not edit.\n");
+            writer.write("# <service type>=<implementation>:<ordinal>,...\n");
+            for (Map.Entry<String, List<String>> en : index.entrySet()) {
+                writer.write(en.getKey());
+                writer.write('=');
+                writer.write(toIndexEntry(en.getValue()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Evaluates the ordinals of the given implementations and creates the index entry, sorted by ordinal.
+     * Implementations with the same ordinal keep the order of the service file.
+     * @param services the implementation class names, not null.
+     * @return the index entry, never null.
+     */
+    private String toIndexEntry(List<String> services) {
+        List<String> names = new ArrayList<>(services);
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (String name : names) {
+            ordinals.put(name, getOrdinal(name));
+        }
+        names.sort(Comparator.comparingInt(ordinals::get));
+        StringBuilder b = new StringBuilder();
+        for (String name : names) {
+            if (b.length() > 0) {
+                b.append(',');
+            }
+            b.append(name).append(':').append(ordinals.get(name));
+        }
+        return b.toString();
+    }
+
+    /**
+     * Evaluates the ordinal of a service implementation, following the rules of {@code DefaultServiceComparator}.
+     * @param className the implementation class name, not null.
+     * @return the ordinal, 0 if not defined.
+     */
+    private int getOrdinal(String className) {
+        Class<?> type;
+        try {
+            type = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("Service implementation not found: " + className, e);
+        }
+        for (Object provider : ordinalProviders) {
+            try {
+                Method m = provider.getClass().getMethod("getOrdinal", Class.class);
+                OptionalInt ord = (OptionalInt) m.invoke(provider, type);
+                if (ord != null && ord.isPresent()) {
+                    return ord.getAsInt();
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to evaluate ordinal of " + className + " with " + provider, e);
+            }
+        }
+        if (isOrderable(type)) {
+            return getOrderableOrdinal(newInstance(className));
+        }
+        return 0;
+    }
+
+    /**
+     * Evaluates the order of an {@code Orderable} instance.
+     * @param instance the instance, may be null.
+     * @return the order, or 0, if the instance is not orderable.
+     */
+    private int getOrderableOrdinal(Object instance) {
+        if (instance == null || !isOrderable(instance.getClass())) {
+            return 0;
+        }
+        try {
+            return (Integer) instance.getClass().getMethod("order").invoke(instance);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to evaluate order of " + instance, e);
+        }
+    }
+
+    /**
+     * Checks if the given type implements {@code Orderable}.
+     * @param type the type, not null.
+     * @return true, if the type is orderable.
+     */
+    private boolean isOrderable(Class<?> type) {
+        try {
+            return Class.forName(ORDERABLE, false, classLoader).isAssignableFrom(type);
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates a new instance of the given class.
+     * @param className the class name, not null.
+     * @return the new instance, never null.
+     * @throws IllegalStateException if the class could not be instantiated.
+     */
+    private Object newInstance(String className) {
+        try {
+            return Class.forName(className, true, classLoader).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            throw new IllegalStateException("Failed to instantiate service: " + className, e);
+        }
+    }
+
+    /**
+     * Reads all implementation names registered for the given service type on the classpath.
+     * @param serviceType the service type name, not null.
+     * @return the implementation names, never null.
+     */
+    private List<String> readServiceNames(String serviceType) {
+        List<String> result = new ArrayList<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(SERVICES_LOCATION + '/' + serviceType);
+            while (urls.hasMoreElements()) {
+                try (InputStream is = urls.nextElement().openStream()) {
+                    for (String name : parseServiceNames(is)) {
+                        if (!result.contains(name)) {
+                            result.add(name);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read services of type " + serviceType, e);
+        }
+        return result;
+    }
+
+    /**
+     * Parses a JDK service file.
+     * @param is the input stream, not null.
+     * @return the implementation names in order of declaration, never null.
+     * @throws IOException if reading failed.
+     */
+    private static List<String> parseServiceNames(InputStream is) throws IOException {
+        List<String> result = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            line = line.trim();
+            if (!line.isEmpty() && !result.contains(line)) {
+                result.add(line);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.buildtools;
+
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link InjectionIndexProcessor}.
+ */
+public class InjectionIndexProcessorTest {
+
+    /** The annotations and types matched by name, the api and core modules are not visible here. */
+    private static final String[] API_SOURCES = {
+            "org.apache.tamaya.annotation.ConfiguredProperty",
+            "package org.apache.tamaya.annotation; public @interface ConfiguredProperty {}",
+            "org.apache.tamaya.annotation.DefaultAreas",
+            "package org.apache.tamaya.annotation; public @interface DefaultAreas {}",
+            "org.apache.tamaya.annotation.ObservesConfigChange",
+            "package org.apache.tamaya.annotation; public @interface ObservesConfigChange {}",
+            "org.apache.tamaya.annotation.NoConfig",
+            "package org.apache.tamaya.annotation; public @interface NoConfig {}",
+            "org.apache.tamaya.core.properties.PropertyChangeSet",
+            "package org.apache.tamaya.core.properties; public class PropertyChangeSet {}"};
+
+    @Test
+    public void testMembersIndexed() throws Exception {
+        Path classesDir = Files.createTempDirectory("classes");
+        compile(classesDir,
+                "test.Bean", "package test;\n"
+                        + "import org.apache.tamaya.annotation.*;\n"
+                        + "import org.apache.tamaya.core.properties.PropertyChangeSet;\n"
+                        + "public class Bean {\n"
+                        + "  @ConfiguredProperty String a;\n"
+                        + "  String b;\n"
+                        + "  @NoConfig String c;\n"
+                        + "  @ObservesConfigChange void changed(PropertyChangeSet changes) {}\n"
+                        + "  @ObservesConfigChange void wrongType(String changes) {}\n"
+                        + "  @ObservesConfigChange String wrongReturn(PropertyChangeSet changes) { return null; }\n"
+                        + "  @ObservesConfigChange void wrongCount(PropertyChangeSet changes, String x) {}\n"
+                        + "  void plain(PropertyChangeSet changes) {}\n"
+                        + "}",
+                "test.Template", "package test;\n"
+                        + "import org.apache.tamaya.annotation.*;\n"
+                        + "public interface Template {\n"
+                        + "  @ConfiguredProperty String value();\n"
+                        + "  @ConfiguredProperty default String defaultValue() { return null; }\n"
+                        + "}");
+        Properties index = readIndex(classesDir);
+        assertEquals(2, index.size());
+        assertEquals("field:a,field:b,callback:changed", index.getProperty("test.Bean"));
+        assertEquals("setter:defaultValue", index.getProperty("test.Template"));
+    }
+
+    @Test
+    public void testConfiguredTypesOnly() throws Exception {
+        Path classesDir = Files.createTempDirectory("classes");
+        compile(classesDir,
+                "test.Outer", "package test;\n"
+                        + "import org.apache.tamaya.annotation.*;\n"
+                        + "public class Outer {\n"
+                        + "  String a;\n"
+                        + "  @DefaultAreas static class Inner { String b; }\n"
+                        + "}",
+                "test.Plain", "package test; public class Plain { String c; }");
+        Properties index = readIndex(classesDir);
+        assertEquals(Collections.singleton("test.Outer$Inner"), index.stringPropertyNames());
+        assertEquals("field:b", index.getProperty("test.Outer$Inner"));
+    }
+
+    @Test
+    public void testIncrementalBuildKeepsOtherTypes() throws Exception {
+        Path classesDir = Files.createTempDirectory("classes");
+        Path indexFile = classesDir.resolve(InjectionIndexProcessor.INDEX_LOCATION);
+        Files.createDirectories(indexFile.getParent());
+        Files.write(indexFile, ("test.Other=field:x\ntest.Bean=field:removed\n").getBytes(StandardCharsets.UTF_8));
+        compile(classesDir,
+                "test.Bean", "package test; public class Bean { String a; }",
+                "test.Configured", "package test;\n"
+                        + "@org.apache.tamaya.annotation.DefaultAreas public class Configured { String a; }");
+        Properties index = readIndex(classesDir);
+        assertEquals("field:x", index.getProperty("test.Other"));
+        assertEquals("field:a", index.getProperty("test.Configured"));
+        assertNull(index.getProperty("test.Bean"));
+    }
+
+    @Test
+    public void testNoIndexWithoutConfiguredTypes() throws Exception {
+        Path classesDir = Files.createTempDirectory("classes");
+        compile(classesDir, "test.Plain", "package test; public class Plain { String c; }");
+        assertFalse(Files.exists(classesDir.resolve(InjectionIndexProcessor.INDEX_LOCATION)));
+    }
+
+    /**
+     * Runs the processor on the given sources, together with the annotation sources.
+     *
+     * @param classesDir the output directory, not null.
+     * @param sources pairs of type names and sources.
+     */
+    private static void compile(Path classesDir, String... sources) {
+        List<JavaFileObject> files = new ArrayList<>();
+        List<String> all = new ArrayList<>(Arrays.asList(API_SOURCES));
+        all.addAll(Arrays.asList(sources));
+        for (int i = 0; i < all.size(); i += 2) {
+            files.add(new Source(all.get(i), all.get(i + 1)));
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                Arrays.asList("-proc:only", "-d", classesDir.toString()), null, files);
+        task.setProcessors(Collections.singletonList(new InjectionIndexProcessor()));
+        assertTrue(task.call());
+    }
+
+    private static Properties readIndex(Path classesDir) throws IOException {
+        Properties index = new Properties();
+        try (InputStream is = Files.newInputStream(classesDir.resolve(InjectionIndexProcessor.INDEX_LOCATION))) {
+            index.load(is);
+        }
+        return index;
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String content;
+
+        Source(String typeName, String content) {
+            super(URI.create("string:///" + typeName.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.buildtools;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.OptionalInt;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests for {@link ServiceIndexGenerator}.
+ */
+public class ServiceIndexGeneratorTest {
+
+    @Test
+    public void testIndexSortedByOrdinal() throws Exception{
+        Path classesDir = Files.createTempDirectory("classes");
+        write(classesDir, "META-INF/services/" + Runnable.class.getName(), "# services\n"
+                + ServiceA.class.getName() + "\n" + ServiceB.class.getName() + " # ordinal 1\n"
+                + ServiceC.class.getName() + "\n");
+        Path providerRoot = Files.createTempDirectory("provider");
+        write(providerRoot, "META-INF/services/org.apache.tamaya.core.spi.OrdinalProvider",
+                TestOrdinalProvider.class.getName() + "\n");
+        Path indexFile = classesDir.resolve(ServiceIndexGenerator.INDEX_LOCATION);
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{providerRoot.toUri().toURL()},
+                getClass().getClassLoader())) {
+            new ServiceIndexGenerator(classLoader).generate(classesDir, indexFile);
+        }
+        Properties index = new Properties();
+        try (InputStream is = Files.newInputStream(indexFile)) {
+            index.load(is);
+        }
+        assertEquals(1, index.size());
+        assertEquals(ServiceA.class.getName() + ":0," + ServiceC.class.getName() + ":0,"
+                + ServiceB.class.getName() + ":1", index.getProperty(Runnable.class.getName()));
+    }
+
+    @Test
+    public void testNoIndexWithoutServices() throws Exception{
+        Path classesDir = Files.createTempDirectory("classes");
+        Path indexFile = classesDir.resolve(ServiceIndexGenerator.INDEX_LOCATION);
+        new ServiceIndexGenerator(getClass().getClassLoader()).generate(classesDir, indexFile);
+        assertFalse(Files.exists(indexFile));
+    }
+
+    private static void write(Path root, String location, String content) throws IOException {
+        Path file = root.resolve(location);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Ordinal provider, matching the {@code OrdinalProvider} SPI of the core module, which is not visible here.
+     */
+    public static final class TestOrdinalProvider {
+        public OptionalInt getOrdinal(Class<?> type) {
+            return type == ServiceB.class ? OptionalInt.of(1) : OptionalInt.empty();
+        }
+    }
+
+    public static final class ServiceA implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static final class ServiceB implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+    public static final class ServiceC implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+
+}
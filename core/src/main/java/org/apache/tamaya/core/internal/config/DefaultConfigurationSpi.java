@@ -19,32 +19,76 @@
 package org.apache.tamaya.core.internal.config;
 
 import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
 
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
+import org.apache.tamaya.PropertyAdapter;
 import org.apache.tamaya.core.internal.el.DefaultExpressionEvaluator;
 import org.apache.tamaya.core.internal.inject.ConfigTemplateInvocationHandler;
 import org.apache.tamaya.core.internal.inject.ConfigurationInjector;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
 import org.apache.tamaya.core.spi.ConfigurationProviderSpi;
 import org.apache.tamaya.core.spi.ExpressionEvaluator;
 import org.apache.tamaya.spi.ConfigurationSpi;
+import org.apache.tamaya.spi.PropertyAdapterSpi;
 import org.apache.tamaya.spi.ServiceContext;
 
 
 /**
- * Default SPI that implements the behaviour of {@link org.apache.tamaya.spi.ConfigurationSpi}.
+ * Default SPI that implements the behaviour of {@link org.apache.tamaya.spi.ConfigurationSpi}. The
+ * {@link Configuration} instances are evaluated once per name and handed out unchanged, so accessing them is a
+ * simple lookup. Reloading, see {@link #reload(String)}, replaces the configuration behind the instance handed out
+ * and publishes the differences to the callbacks registered on it.
+ * <p>
+ * Providers are registered by name only, the configurations they provide are initialized on first access of the
+ * corresponding name. The time needed for initializing each configuration is logged, so expensive providers
+ * can be identified easily. Unless switched off, lookups, cache accesses and reload durations are recorded in
+ * {@link org.apache.tamaya.core.metrics.ConfigMetrics}.
+ * <p>
+ * The instances handed out wrap the configurations of the providers, so they are never identical to the
+ * instance returned by {@link ConfigurationProviderSpi#getConfiguration()}. With metrics enabled the wrapper
+ * also counts the lookups, see {@link MeteredConfiguration}.
  */
 @SuppressWarnings("unchecked")
 public class DefaultConfigurationSpi implements ConfigurationSpi {
 
     private static final String DEFAULT_CONFIG_NAME = "default";
+    /** The target types whose adapters are resolved on preload, regardless of the adapter SPI in use. */
+    private static final Class<?>[] PRELOADED_TARGET_TYPES = {Boolean.class, Character.class, Byte.class,
+            Short.class, Integer.class, Long.class, Float.class, Double.class};
+
+    private static final Logger LOG = Logger.getLogger(DefaultConfigurationSpi.class.getName());
+
+    private static final ConfigMetrics METRICS = ConfigMetrics.getInstance();
 
     private Map<String, ConfigurationProviderSpi> configProviders = new ConcurrentHashMap<>();
 
+    /** The configurations handed out, per name. */
+    private final Map<String, Configuration> configurations = new ConcurrentHashMap<>();
+
+    /** The reloadable configurations behind the configurations handed out, per name. */
+    private final Map<String, ReloadableConfiguration> reloadables = new ConcurrentHashMap<>();
+
+    /** The default configuration, the fast path for {@link org.apache.tamaya.Configuration#current()}. */
+    private final AtomicReference<Configuration> defaultConfiguration = new AtomicReference<>();
+
     private ExpressionEvaluator expressionEvaluator = loadEvaluator();
 
     private ExpressionEvaluator loadEvaluator() {
@@ -93,17 +137,156 @@ public class DefaultConfigurationSpi implements ConfigurationSpi {
         return spi != null;
     }
 
+    @Override
+    public Set<String> getConfigurationNames() {
+        Set<String> names = new TreeSet<>(configProviders.keySet());
+        names.add(DEFAULT_CONFIG_NAME);
+        return names;
+    }
+
+    @Override
+    public boolean isConfigurationLoaded(String name) {
+        return configurations.containsKey(name);
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        Configuration config = defaultConfiguration.get();
+        if (config == null) {
+            return getConfiguration(DEFAULT_CONFIG_NAME);
+        }
+        METRICS.recordConfigCacheHit();
+        return config;
+    }
+
     @Override
     public Configuration getConfiguration(String name) {
+        Configuration config = configurations.get(name);
+        if (config != null) {
+            METRICS.recordConfigCacheHit();
+            return config;
+        }
+        METRICS.recordConfigCacheLoad();
+        // not using computeIfAbsent, since providers may access other configurations while loading.
+        ConfigurationProviderSpi provider = getProvider(name);
+        long start = System.nanoTime();
+        ReloadableConfiguration reloadable = new ReloadableConfiguration(loadConfiguration(provider, name));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOG.info(() -> "Initialized configuration '" + name + "' provided by " + provider.getClass().getName()
+                + " in " + millis + " ms.");
+        ReloadableConfiguration previousReloadable = reloadables.putIfAbsent(name, reloadable);
+        if (previousReloadable != null) {
+            reloadable = previousReloadable;
+        }
+        config = MeteredConfiguration.of(name, reloadable);
+        Configuration previous = configurations.putIfAbsent(name, config);
+        if (previous != null) {
+            config = previous;
+        }
+        if (DEFAULT_CONFIG_NAME.equals(name)) {
+            defaultConfiguration.compareAndSet(null, config);
+        }
+        return config;
+    }
+
+    /**
+     * Initializes the given configurations in parallel, using a bounded executor with at most one thread per
+     * available processor. Along with the configurations the {@link PropertyAdapterSpi} is initialized and the
+     * adapters of the boxed primitive types, as well as of all types registered with the
+     * {@link DefaultPropertyAdapterSpi}, are resolved. The executor is shut down, once all configurations are
+     * initialized.
+     *
+     * @param keys  the keys to be accessed on each of the configurations, not null. Values containing
+     *              expressions are evaluated.
+     * @param names the names of the configurations to be initialized. If none are passed, the default
+     *              configuration is initialized.
+     * @return a future, completed when all configurations are initialized, never null.
+     */
+    @Override
+    public CompletableFuture<Void> preload(Collection<String> keys, String... names) {
+        String[] targets = names.length == 0 ? new String[]{DEFAULT_CONFIG_NAME} : names.clone();
+        List<String> keyList = new ArrayList<>(keys);
+        int threads = Math.min(targets.length + 1, Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread thread = new Thread(r, "tamaya-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[targets.length + 1];
+        futures[0] = CompletableFuture.runAsync(this::preloadAdapters, executor);
+        for (int i = 0; i < targets.length; i++) {
+            String name = targets[i];
+            futures[i + 1] = CompletableFuture.runAsync(() -> preloadKeys(getConfiguration(name), keyList), executor);
+        }
+        return CompletableFuture.allOf(futures).whenComplete((r, e) -> executor.shutdown());
+    }
+
+    private void preloadAdapters() {
+        Set<Class<?>> targetTypes = new LinkedHashSet<>(Arrays.asList(PRELOADED_TARGET_TYPES));
+        PropertyAdapterSpi adapterSpi = ServiceContext.getInstance().getSingleton(PropertyAdapterSpi.class);
+        if (adapterSpi instanceof DefaultPropertyAdapterSpi) {
+            targetTypes.addAll(((DefaultPropertyAdapterSpi) adapterSpi).getTargetTypes());
+        }
+        for (Class<?> targetType : targetTypes) {
+            PropertyAdapter.getInstance(targetType);
+        }
+    }
+
+    private void preloadKeys(Configuration config, List<String> keys) {
+        for (String key : keys) {
+            config.get(key).filter(v -> v.contains("${")).ifPresent(v -> evaluateValue(v, config));
+        }
+    }
+
+    /**
+     * Reloads the given configuration. The provider is reloaded and the configuration behind the instance handed
+     * out is replaced atomically, so subsequent accesses see the new configuration. The differences to the previous
+     * configuration are published as {@link org.apache.tamaya.ConfigChangeSet} to the callbacks registered on the
+     * instance handed out, e.g. to update its {@link org.apache.tamaya.DynamicValue}s. The duration is recorded
+     * under the configuration's name.
+     *
+     * @param name the configuration's name, not null.
+     * @throws ConfigException if no such configuration is available.
+     */
+    public void reload(String name) {
+        ConfigurationProviderSpi provider = getProvider(name);
+        long start = System.nanoTime();
+        provider.reload();
+        ReloadableConfiguration reloadable = reloadables.get(name);
+        if (reloadable == null) {
+            getConfiguration(name);
+        } else {
+            reloadable.reload(loadConfiguration(provider, name));
+        }
+        METRICS.recordReload(name, System.nanoTime() - start);
+    }
+
+    /**
+     * Reloads all configurations accessed so far.
+     *
+     * @see #reload(String)
+     */
+    public void reload() {
+        configurations.keySet().forEach(this::reload);
+    }
+
+    private ConfigurationProviderSpi getProvider(String name) {
         ConfigurationProviderSpi provider = configProviders.get(name);
         if (provider == null) {
             if (DEFAULT_CONFIG_NAME.equals(name)) {
                 provider = new FallbackSimpleConfigProvider();
-                configProviders.put(DEFAULT_CONFIG_NAME, provider);
+                ConfigurationProviderSpi previous = configProviders.putIfAbsent(DEFAULT_CONFIG_NAME, provider);
+                if (previous != null) {
+                    provider = previous;
+                }
             } else {
                 throw new ConfigException("No such config: " + name);
             }
         }
+        return provider;
+    }
+
+    private Configuration loadConfiguration(ConfigurationProviderSpi provider, String name) {
         Configuration config = provider.getConfiguration();
         if (config == null) {
             throw new ConfigException("No such config: " + name);
@@ -111,6 +294,4 @@ public class DefaultConfigurationSpi implements ConfigurationSpi {
         return config;
     }
 
-
-
 }
@@ -27,7 +27,9 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.Currency;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.tamaya.ConfigException;
@@ -161,6 +163,19 @@ public class DefaultPropertyAdapterSpi implements PropertyAdapterSpi {
         return null;
     }
 
+    /**
+     * Access the target types an adapter is currently registered for.
+     *
+     * @return a copy of the target types, never null.
+     */
+    Set<Class<?>> getTargetTypes() {
+        Set<Class<?>> targetTypes = new HashSet<>();
+        for (Class<?> targetType : adapters.keySet()) {
+            targetTypes.add(targetType);
+        }
+        return targetTypes;
+    }
+
     @Override
     public boolean isTargetTypeSupported(Class<?> targetType){
         return adapters.containsKey(targetType);
@@ -31,11 +31,10 @@ import org.apache.tamaya.Configuration;
  */
 public class EnvPropertiesConfigProvider implements ConfigurationProviderSpi{
 
-    private Configuration envConfig;
-
-    public EnvPropertiesConfigProvider(){
-        envConfig = Configuration.from(PropertySourceBuilder.of("environment.properties").addEnvironmentProperties().build());
-    }
+    /**
+     * The configuration, created on first access.
+     */
+    private volatile Configuration envConfig;
 
     @Override
     public String getConfigName(){
@@ -44,7 +43,12 @@ public class EnvPropertiesConfigProvider implements ConfigurationProviderSpi{
 
     @Override
     public Configuration getConfiguration(){
-        return envConfig;
+        Configuration config = envConfig;
+        if(config==null){
+            config = Configuration.from(PropertySourceBuilder.of("environment.properties").addEnvironmentProperties().build());
+            envConfig = config;
+        }
+        return config;
     }
 
     @Override
@@ -35,6 +35,7 @@ import java.util.Objects;
 
 import org.apache.log4j.Logger;
 import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
 import org.apache.tamaya.core.spi.ConfigurationProviderSpi;
 
 /**
@@ -44,6 +45,8 @@ import org.apache.tamaya.core.spi.ConfigurationProviderSpi;
  * This listener will wait to events and wait to one second to watch again.
  * <p>If new file was created or modified will commit from this file.</p>
  * <p>If a file was removed then the listener will load using all files left.</p>
+ * <p>The duration of each update, including reading the files changed, is recorded as reload of the configuration
+ * in {@link ConfigMetrics}.</p>
  * @author otaviojava
  */
 class FileChangeListener implements Runnable {
@@ -58,10 +61,14 @@ class FileChangeListener implements Runnable {
 
     private Path directory;
 
+    private String configName;
+
     private FileReader fileReader = new FileReader();
 
-    public FileChangeListener(FileChangeObserver observer, Map<String, String> mapConfiguration, Path directory) {
+    public FileChangeListener(FileChangeObserver observer, Map<String, String> mapConfiguration, Path directory,
+                              String configName) {
         this.observer = observer;
+        this.configName = Objects.requireNonNull(configName);
         this.configurationMap = mapConfiguration;
         this.directory = directory;
         this.watchService = getWatchService();
@@ -91,6 +98,7 @@ class FileChangeListener implements Runnable {
     private void watchFolder() {
         try {
             WatchKey watckKey = watchService.take();
+            long start = System.nanoTime();
             boolean needUpdate = false;
             for (WatchEvent<?> event : watckKey.pollEvents()) {
                 Path keyDirectory = (Path) watckKey.watchable();
@@ -101,6 +109,7 @@ class FileChangeListener implements Runnable {
 
             if (needUpdate) {
                 observer.update(configurationMap);
+                ConfigMetrics.getInstance().recordReload(configName, System.nanoTime() - start);
             }
             watckKey.reset();
             Thread.sleep(1_000L);
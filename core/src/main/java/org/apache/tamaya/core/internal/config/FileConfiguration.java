@@ -33,7 +33,7 @@ import org.apache.tamaya.Configuration;
  */
 class FileConfiguration implements Configuration, FileChangeObserver {
 
-	private Map<String, String> configurationMap;
+	private volatile Map<String, String> configurationMap;
 
 	public FileConfiguration(Map<String, String> configurationMap) {
         this.configurationMap = configurationMap;
@@ -56,9 +56,7 @@ class FileConfiguration implements Configuration, FileChangeObserver {
 
     @Override
     public void update(Map<String, String> configurationMap) {
-        synchronized (this) {
-            this.configurationMap = configurationMap;
-        }
+        this.configurationMap = configurationMap;
     }
 
     @Override
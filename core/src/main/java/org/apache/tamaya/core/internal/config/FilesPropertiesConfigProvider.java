@@ -49,18 +49,41 @@ public class FilesPropertiesConfigProvider implements ConfigurationProviderSpi,
 
     private Map<String, String> configurationMap = Collections.emptyMap();
 
-    private ExecutorService executor = Executors.newSingleThreadExecutor();
+    private ExecutorService executor;
 
     private List<FileChangeObserver> fileChangeObservers = new ArrayList<>();
 
+    /**
+     * The configuration handed out, updated in place on changes.
+     */
+    private final FileConfiguration configuration = new FileConfiguration(Collections.emptyMap());
+
+    /**
+     * Flag, if the directory was read and is watched.
+     */
+    private volatile boolean initialized;
+
     public FilesPropertiesConfigProvider() {
-        Path directory = getDirectory();
-        if (Objects.nonNull(directory)) {
-            configurationMap = new FileReader().runFiles(directory);
-            Runnable runnable = new FileChangeListener(this, configurationMap, directory);
-            executor.execute(runnable);
-        } else {
-            executor.shutdown();
+        fileChangeObservers.add(configuration);
+    }
+
+    /**
+     * Reads the directory and starts watching it, on first access of the configuration.
+     */
+    private void initialize() {
+        if (initialized) {
+            return;
+        }
+        synchronized (this) {
+            if (!initialized) {
+                Path directory = getDirectory();
+                if (Objects.nonNull(directory)) {
+                    readFiles(directory);
+                    executor = Executors.newSingleThreadExecutor();
+                    executor.execute(new FileChangeListener(this, configurationMap, directory, DEFAULT_CONFIG_NAME));
+                }
+                initialized = true;
+            }
         }
     }
 
@@ -93,17 +116,31 @@ public class FilesPropertiesConfigProvider implements ConfigurationProviderSpi,
 
     @Override
     public Configuration getConfiguration() {
-      return new FileConfiguration(Collections.unmodifiableMap(configurationMap));
+      initialize();
+      return configuration;
     }
 
     @Override
     public void reload() {
+        if (!initialized) {
+            initialize();
+            return;
+        }
         Path directory = getDirectory();
         if (Objects.nonNull(directory)) {
-            configurationMap = new FileReader().runFiles(directory);
+            readFiles(directory);
         }
     }
 
+    /**
+     * Reads all files of the directory and updates the configuration. Its duration is part of the reload recorded
+     * by {@link DefaultConfigurationSpi#reload(String)}, updates of the file watcher are recorded by the
+     * {@link FileChangeListener}.
+     */
+    private void readFiles(Path directory) {
+        update(new FileReader().runFiles(directory));
+    }
+
     @Override
     public void update(Map<String, String> configurationMap) {
         synchronized (this) {
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.config;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.apache.tamaya.ConfigChangeSet;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.PropertyAdapter;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+import org.apache.tamaya.core.metrics.HotKeyProfiler;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+
+/**
+ * Configuration counting the lookups on the wrapped configuration, as hits (a value was found) and misses. The
+ * counters are resolved once when wrapping, so each lookup only adds a striped increment. Lookups are also passed
+ * to the {@link org.apache.tamaya.core.metrics.HotKeyProfiler}, along with the type requested, if known.
+ */
+final class MeteredConfiguration implements Configuration {
+
+    private final Configuration delegate;
+
+    private final ConfigMetrics.LookupCounters counters;
+
+    private final HotKeyProfiler profiler;
+
+    MeteredConfiguration(String name, Configuration delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.counters = ConfigMetrics.getInstance().getLookupCounters(name);
+        this.profiler = ConfigMetrics.getInstance().getHotKeyProfiler();
+    }
+
+    /**
+     * Wraps the given configuration, if metrics are enabled.
+     *
+     * @param name   the configuration's name, as registered.
+     * @param config the configuration, not null.
+     * @return the configuration to be handed out, never null.
+     */
+    static Configuration of(String name, Configuration config) {
+        if (!ConfigMetrics.getInstance().isEnabled() || config instanceof MeteredConfiguration) {
+            return config;
+        }
+        return new MeteredConfiguration(name, config);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        return lookup(key, String.class);
+    }
+
+    @Override
+    public <T> Optional<T> get(String key, Class<T> type) {
+        return adapt(lookup(key, type), PropertyAdapter.getInstance(type));
+    }
+
+    @Override
+    public <T> Optional<T> getAdapted(String key, PropertyAdapter<T> adapter) {
+        // the adapter's target type is erased, so the read is profiled without type
+        return adapt(lookup(key, null), adapter);
+    }
+
+    private Optional<String> lookup(String key, Class<?> type) {
+        Optional<String> value = delegate.get(key);
+        if (value.isPresent()) {
+            counters.hit();
+        } else {
+            counters.miss();
+        }
+        profiler.sample(key, type);
+        return value;
+    }
+
+    private static <T> Optional<T> adapt(Optional<String> value, PropertyAdapter<T> adapter) {
+        if (value.isPresent()) {
+            return Optional.ofNullable(adapter.adapt(value.get()));
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return delegate.getProperties();
+    }
+
+    @Override
+    public boolean isScannable() {
+        return delegate.isScannable();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public void update(ConfigChangeSet changeSet) {
+        delegate.update(changeSet);
+    }
+
+    @Override
+    public void registerForUpdate(ConfigChangeSetCallback callback) {
+        delegate.registerForUpdate(callback);
+    }
+
+    @Override
+    public void removeForUpdate(ConfigChangeSetCallback callback) {
+        delegate.removeForUpdate(callback);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.tamaya.ConfigChangeSet;
+import org.apache.tamaya.ConfigChangeSetBuilder;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.PropertyAdapter;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+import org.apache.tamaya.core.properties.PropertySourceDiff;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+
+/**
+ * Configuration handed out by {@link DefaultConfigurationSpi}, delegating to the configuration currently provided.
+ * The instance stays the same across reloads: on reload the delegate is replaced and the differences are
+ * published as a {@link ConfigChangeSet} to the callbacks registered, so subscribers such as
+ * {@link org.apache.tamaya.DynamicValue}s see the reloaded values. Changes published by the delegate itself are
+ * forwarded to the callbacks as well.
+ */
+final class ReloadableConfiguration implements Configuration {
+
+    private final List<ConfigChangeSetCallback> callbacks = new CopyOnWriteArrayList<>();
+
+    private final ConfigChangeSetCallback forwarder = this::publish;
+
+    private volatile Configuration delegate;
+
+    ReloadableConfiguration(Configuration delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+        delegate.registerForUpdate(forwarder);
+    }
+
+    /**
+     * Replaces the delegate and publishes the differences to the old delegate to the callbacks registered.
+     *
+     * @param newDelegate the configuration reloaded, not null.
+     * @return the changes published, never null.
+     */
+    synchronized ConfigChangeSet reload(Configuration newDelegate) {
+        Objects.requireNonNull(newDelegate);
+        Configuration oldDelegate = this.delegate;
+        if (newDelegate == oldDelegate) {
+            return ConfigChangeSet.emptyChangeSet(this);
+        }
+        // evaluated before the swap, so the builder reads the old values from this instance
+        ConfigChangeSetBuilder builder = ConfigChangeSetBuilder.of(this);
+        PropertySourceDiff.compare(newDelegate, oldDelegate).forEach(evt -> {
+            if (evt.getNewValue() == null) {
+                builder.remove(evt.getPropertyName());
+            } else {
+                builder.put(evt.getPropertyName(), (String) evt.getNewValue());
+            }
+        });
+        ConfigChangeSet changeSet = builder.build();
+        oldDelegate.removeForUpdate(forwarder);
+        newDelegate.registerForUpdate(forwarder);
+        this.delegate = newDelegate;
+        if (!changeSet.isEmpty()) {
+            publish(changeSet);
+        }
+        return changeSet;
+    }
+
+    private void publish(ConfigChangeSet changeSet) {
+        ConfigMetrics metrics = ConfigMetrics.getInstance();
+        for (ConfigChangeSetCallback callback : callbacks) {
+            if (!metrics.isEnabled()) {
+                callback.onChange(changeSet);
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                callback.onChange(changeSet);
+            } finally {
+                metrics.recordListenerDispatch(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> Optional<T> get(String key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> Optional<T> getAdapted(String key, PropertyAdapter<T> adapter) {
+        return delegate.getAdapted(key, adapter);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return delegate.getProperties();
+    }
+
+    @Override
+    public boolean isScannable() {
+        return delegate.isScannable();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate.isEmpty();
+    }
+
+    @Override
+    public void update(ConfigChangeSet changeSet) {
+        delegate.update(changeSet);
+    }
+
+    @Override
+    public void registerForUpdate(ConfigChangeSetCallback callback) {
+        callbacks.add(Objects.requireNonNull(callback));
+    }
+
+    @Override
+    public void removeForUpdate(ConfigChangeSetCallback callback) {
+        callbacks.remove(callback);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -31,11 +31,10 @@ import org.apache.tamaya.Configuration;
  */
 public class SystemPropertiesConfigProvider implements ConfigurationProviderSpi{
 
-    private Configuration systemConfig;
-
-    public SystemPropertiesConfigProvider(){
-        systemConfig = Configuration.from(PropertySourceBuilder.of("system.properties").addSystemProperties().build());
-    }
+    /**
+     * The configuration, created on first access.
+     */
+    private volatile Configuration systemConfig;
 
     @Override
     public String getConfigName(){
@@ -44,7 +43,12 @@ public class SystemPropertiesConfigProvider implements ConfigurationProviderSpi{
 
     @Override
     public Configuration getConfiguration(){
-        return systemConfig;
+        Configuration config = systemConfig;
+        if(config==null){
+            config = Configuration.from(PropertySourceBuilder.of("system.properties").addSystemProperties().build());
+            systemConfig = config;
+        }
+        return config;
     }
 
     @Override
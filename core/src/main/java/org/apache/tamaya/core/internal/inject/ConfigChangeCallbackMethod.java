@@ -23,7 +23,7 @@ import org.apache.tamaya.Configuration;
 
 import java.lang.reflect.Method;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.function.BiConsumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,9 +44,9 @@ public final class ConfigChangeCallbackMethod {
                         m.getParameterTypes()[0].equals(PropertyChangeSet.class)).get();
     }
 
-    public Consumer<PropertyChangeSet> createConsumer(Object instance, Configuration... configurations){
+    public BiConsumer<Object, PropertyChangeSet> createConsumer(Configuration... configurations){
         // TODO consider also environment !
-        return event -> {
+        return (instance, event) -> {
             for(Configuration cfg:configurations){
                 if(event.getPropertySource().getName().equals(cfg.getName())){
                     return;
@@ -20,14 +20,20 @@ package org.apache.tamaya.core.internal.inject;
 
 import java.lang.reflect.Field;
 import java.util.Collection;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.annotation.ConfiguredProperties;
 import org.apache.tamaya.annotation.ConfiguredProperty;
 import org.apache.tamaya.annotation.DefaultAreas;
+import org.apache.tamaya.annotation.LoadPolicy;
+import org.apache.tamaya.annotation.WithLoadPolicy;
 import org.apache.tamaya.core.internal.Utils;
 
 /**
@@ -43,6 +49,21 @@ public class ConfiguredField {
      */
     private Field annotatedField;
 
+    /**
+     * The configuration keys this field depends on.
+     */
+    private Set<String> configuredKeys = new LinkedHashSet<>();
+
+    /**
+     * The configuration keys this field depends on, per configuration name.
+     */
+    private Map<String, Set<String>> configuredKeysByConfig = new HashMap<>();
+
+    /**
+     * Flag, if changes of the configuration should be reinjected.
+     */
+    private boolean updatable;
+
     /**
      * Models a configured field and provides mechanisms for injection.
      *
@@ -51,6 +72,10 @@ public class ConfiguredField {
     public ConfiguredField(Field field) {
         Objects.requireNonNull(field);
         this.annotatedField = field;
+        evaluateConfiguredKeys();
+        WithLoadPolicy loadPolicy = Utils.getAnnotation(WithLoadPolicy.class, field, field.getDeclaringClass());
+        this.updatable = loadPolicy != null &&
+                (loadPolicy.value() == LoadPolicy.MANAGED || loadPolicy.value() == LoadPolicy.SILENT);
     }
 
     /**
@@ -97,30 +122,57 @@ public class ConfiguredField {
      * This method checks if the given (qualified) configuration key is referenced fromMap this field.
      * This is useful to determine, if a key changed in a configuration should trigger any change events
      * on the related instances.
+     * <p>
+     * A field without any {@link ConfiguredProperty} annotation is injected from the {@code default}
+     * configuration using the keys derived from its name, so it matches these keys for the configuration
+     * named {@code default}.
      *
+     * @param configName the name of the configuration changed, not null.
      * @param key the (qualified) configuration key, not null.
      * @return true, if the key is referenced.
      */
     public boolean matchesKey(String configName, String key) {
+        Set<String> keys = this.configuredKeysByConfig.get(configName);
+        return keys != null && keys.contains(key);
+    }
+
+    /**
+     * Access all configuration keys this field depends on, regardless of the configuration they are read from.
+     *
+     * @return the keys, never null.
+     */
+    public Set<String> getConfiguredKeys() {
+        return this.configuredKeys;
+    }
+
+    /**
+     * Checks if configuration changes should be reinjected into this field, as defined by the
+     * {@link org.apache.tamaya.annotation.WithLoadPolicy} in place.
+     *
+     * @return true, if the field should be updated on changes.
+     */
+    public boolean isUpdatable() {
+        return this.updatable;
+    }
+
+    private void evaluateConfiguredKeys() {
+        DefaultAreas areasAnnot = this.annotatedField.getDeclaringClass().getAnnotation(DefaultAreas.class);
         Collection<ConfiguredProperty> configuredProperties = Utils.getAnnotations(this.annotatedField, ConfiguredProperty.class,
-                ConfiguredProperties.class );
-        for(ConfiguredProperty prop: configuredProperties){
-            String currentName = prop.config().trim();
-            if(currentName.isEmpty()){
-                if(!"default".equals(configName)){
-                    continue;
-                }
-            }
-            else if(!currentName.equals(configName)){
-                continue;
-            }
-            DefaultAreas areasAnnot = this.annotatedField.getDeclaringClass().getAnnotation(DefaultAreas.class);
-            List<String> keys = InjectionUtils.evaluateKeys(this.annotatedField, areasAnnot, prop);
-            if( keys.contains(key)){
-                return true;
-            }
+                ConfiguredProperties.class);
+        if (configuredProperties.isEmpty()) {
+            addKeys("default", InjectionUtils.evaluateKeys(this.annotatedField, areasAnnot));
         }
-        return false;
+        for (ConfiguredProperty prop : configuredProperties) {
+            String configName = prop.config().trim();
+            addKeys(configName.isEmpty() ? "default" : configName,
+                    InjectionUtils.evaluateKeys(this.annotatedField, areasAnnot, prop));
+        }
+        this.configuredKeys = Collections.unmodifiableSet(this.configuredKeys);
+    }
+
+    private void addKeys(String configName, Collection<String> keys) {
+        this.configuredKeys.addAll(keys);
+        this.configuredKeysByConfig.computeIfAbsent(configName, n -> new LinkedHashSet<>()).addAll(keys);
     }
 
 }
@@ -20,11 +20,12 @@ package org.apache.tamaya.core.internal.inject;
 
 import java.lang.reflect.Method;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Consumer;
+import java.util.Set;
 
-import org.apache.tamaya.core.properties.PropertyChangeSet;
 import org.apache.tamaya.ConfigException;
 import org.apache.tamaya.Configuration;
 import org.apache.tamaya.annotation.*;
@@ -42,6 +43,11 @@ public class ConfiguredSetterMethod {
      */
     private Method setterMethod;
 
+    /**
+     * The configuration keys this method depends on.
+     */
+    private Set<String> configuredKeys;
+
     /**
      * Models a configured field and provides mechanisms for injection.
      *
@@ -51,23 +57,9 @@ public class ConfiguredSetterMethod {
         this.setterMethod = Optional.of(method).filter(
                 (m) -> void.class.equals(m.getReturnType()) &&
                         m.getParameterCount() == 1).get();
+        this.configuredKeys = evaluateConfiguredKeys();
     }
 
-    public Consumer<PropertyChangeSet> createConsumer(Object instance, Configuration... configurations){
-        // TODO consider environment as well
-        return event -> {
-            for(Configuration cfg:configurations){
-                if(event.getPropertySource().getName().equals(cfg.getName())){
-                    // ignore these changes, since this config is overridden.
-                    return;
-                }
-            }
-            String configValue = InjectionUtils.getConfigValue(setterMethod, configurations);
-            applyValue(instance,configValue, false, configurations);
-        };
-    }
-
-
     /**
      * Evaluate the initial keys fromMap the configuration and applyChanges it to the field.
      *
@@ -117,18 +109,28 @@ public class ConfiguredSetterMethod {
      * @return true, if the key is referenced.
      */
     public boolean matchesKey(String key) {
+        return this.configuredKeys.contains(key);
+    }
+
+    /**
+     * Access all configuration keys this method depends on.
+     *
+     * @return the keys, never null.
+     */
+    public Set<String> getConfiguredKeys() {
+        return this.configuredKeys;
+    }
+
+    private Set<String> evaluateConfiguredKeys() {
+        Set<String> keys = new LinkedHashSet<>();
         DefaultAreas areasAnnot = this.setterMethod.getDeclaringClass().getAnnotation(DefaultAreas.class);
         Collection<ConfiguredProperty> configuredProperties =
                 Utils.getAnnotations(this.setterMethod, ConfiguredProperty.class, ConfiguredProperties.class);
         for(ConfiguredProperty prop: configuredProperties) {
-            if (InjectionUtils.evaluateKeys(this.setterMethod, areasAnnot, prop).contains(key)) {
-                return true;
-            }
-        }
-        if (InjectionUtils.evaluateKeys(this.setterMethod, areasAnnot).contains(key)) {
-            return true;
+            keys.addAll(InjectionUtils.evaluateKeys(this.setterMethod, areasAnnot, prop));
         }
-        return false;
+        keys.addAll(InjectionUtils.evaluateKeys(this.setterMethod, areasAnnot));
+        return Collections.unmodifiableSet(keys);
     }
 
 
@@ -18,9 +18,12 @@
  */
 package org.apache.tamaya.core.internal.inject;
 
+import java.beans.PropertyChangeEvent;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.apache.tamaya.core.properties.PropertyChangeSet;
 import org.apache.tamaya.ConfigException;
@@ -35,6 +38,8 @@ import org.apache.tamaya.core.internal.Utils;
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 public class ConfiguredType {
+
+    private static final Logger LOG = Logger.getLogger(ConfiguredType.class.getName());
     /**
      * A list with all annotated instance variables.
      */
@@ -47,6 +52,14 @@ public class ConfiguredType {
      * A list with all callback methods listening to config changes.
      */
     private List<ConfigChangeCallbackMethod> callbackMethods = new ArrayList<>();
+    /**
+     * Reverse index from configuration keys to the fields, whose values must be reinjected on change.
+     */
+    private Map<String, List<ConfiguredField>> fieldsByKey = new HashMap<>();
+    /**
+     * Reverse index from configuration keys to the setter methods, that must be recalled on change.
+     */
+    private Map<String, List<ConfiguredSetterMethod>> settersByKey = new HashMap<>();
     /**
      * The basic type.
      */
@@ -61,8 +74,48 @@ public class ConfiguredType {
 
     public ConfiguredType(Class type) {
         this.type = Objects.requireNonNull(type);
-        initFields(type);
-        initMethods(type);
+        InjectionIndex.Descriptor descriptor = InjectionIndex.getDescriptor(type);
+        // types not listed by the index may still be configured explicitly, so their members are scanned
+        if (descriptor == null || !descriptor.isConfigured() || !initMembers(type, descriptor)) {
+            initFields(type);
+            initMethods(type);
+        }
+        initKeyIndex();
+    }
+
+    /**
+     * Initializes the configured members as listed by the injection index, looking up each member directly
+     * instead of scanning all declared members.
+     *
+     * @param type the instance type.
+     * @param descriptor the descriptor of the type, not null.
+     * @return false, if the descriptor does not match the type, e.g. because the index is outdated.
+     */
+    private boolean initMembers(Class type, InjectionIndex.Descriptor descriptor) {
+        try {
+            for (String fieldName : descriptor.fields) {
+                Field f = type.getDeclaredField(fieldName);
+                configuredFields.add(new ConfiguredField(f));
+            }
+            for (String methodName : descriptor.setters) {
+                Method m = type.getDeclaredMethod(methodName);
+                addPropertySetter(m, Utils.getAnnotations(m, ConfiguredProperty.class, ConfiguredProperties.class));
+            }
+            for (String methodName : descriptor.callbacks) {
+                addObserverMethod(type.getDeclaredMethod(methodName, PropertyChangeSet.class));
+            }
+            return true;
+        } catch (NoSuchFieldException | NoSuchMethodException e) {
+            LOG.log(Level.WARNING, "Injection index does not match " + type.getName() + ", scanning members.", e);
+            configuredFields.clear();
+            configuredSetterMethods.clear();
+            callbackMethods.clear();
+            return false;
+        } catch (ConfigException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ConfigException("Failed to initialized configured type: " + type.getName(), e);
+        }
     }
 
     private void initFields(Class type) {
@@ -109,6 +162,21 @@ public class ConfiguredType {
         }
     }
 
+    private void initKeyIndex() {
+        for (ConfiguredField field : configuredFields) {
+            if (field.isUpdatable()) {
+                for (String key : field.getConfiguredKeys()) {
+                    fieldsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(field);
+                }
+            }
+        }
+        for (ConfiguredSetterMethod method : configuredSetterMethods) {
+            for (String key : method.getConfiguredKeys()) {
+                settersByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(method);
+            }
+        }
+    }
+
     private boolean addPropertySetter(Method m, Collection<ConfiguredProperty> propertiesAnnots) {
         if (!propertiesAnnots.isEmpty()) {
             if (m.getParameterTypes().length == 0) {
@@ -162,12 +230,55 @@ public class ConfiguredType {
         }
         for (ConfiguredSetterMethod method : configuredSetterMethods) {
             method.applyInitialValue(instance, configurations);
-            // TODO, if method should be recalled on changes, corresponding callbacks could be registered here
-            WeakConfigListenerManager.of().registerConsumer(instance, method.createConsumer(instance, configurations));
+        }
+        // Register the instance (weakly) for the keys its members depend on
+        Set<String> keys = new HashSet<>(fieldsByKey.keySet());
+        keys.addAll(settersByKey.keySet());
+        if (!keys.isEmpty()) {
+            WeakConfigListenerManager.of().registerConsumer(instance, keys,
+                    (i, change) -> applyChanges(i, change, configurations));
         }
         // Register callbacks for this intance (weakly)
         for (ConfigChangeCallbackMethod callback : callbackMethods) {
-            WeakConfigListenerManager.of().registerConsumer(instance, callback.createConsumer(instance, configurations));
+            WeakConfigListenerManager.of().registerConsumer(instance, Collections.emptySet(),
+                    callback.createConsumer(configurations));
+        }
+    }
+
+    /**
+     * Reinjects the configured members of an instance, that depend on any of the keys changed. Members not
+     * affected by the change are not evaluated.
+     *
+     * @param instance       The instance to be updated.
+     * @param change         the change set, not null.
+     * @param configurations Configuration instances that replace configuration served by services.
+     */
+    void applyChanges(Object instance, PropertyChangeSet change, Configuration... configurations) {
+        for (Configuration cfg : configurations) {
+            if (change.getPropertySource().getName().equals(cfg.getName())) {
+                // ignore these changes, since this config is overridden.
+                return;
+            }
+        }
+        Set<ConfiguredField> fields = new LinkedHashSet<>();
+        Set<ConfiguredSetterMethod> methods = new LinkedHashSet<>();
+        for (PropertyChangeEvent evt : change.getEvents()) {
+            fields.addAll(fieldsByKey.getOrDefault(evt.getPropertyName(), Collections.emptyList()));
+            methods.addAll(settersByKey.getOrDefault(evt.getPropertyName(), Collections.emptyList()));
+        }
+        for (ConfiguredField field : fields) {
+            try {
+                field.applyInitialValue(instance, configurations);
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Failed to reinject changed configuration on " + instance, e);
+            }
+        }
+        for (ConfiguredSetterMethod method : methods) {
+            try {
+                method.applyInitialValue(instance, configurations);
+            } catch (Exception e) {
+                LOG.log(Level.SEVERE, "Failed to reinject changed configuration on " + instance, e);
+            }
         }
     }
 
@@ -186,30 +297,32 @@ public class ConfiguredType {
         return true;
     }
 
+    /**
+     * Checks if the given type is configured, i.e. annotated with {@link DefaultAreas} or declaring members
+     * annotated with {@link ConfiguredProperty} or {@link ConfiguredProperties}. For types of modules built
+     * with the injection index no annotations are scanned.
+     *
+     * @param type the type, not null.
+     * @return true, if instances of the type must be configured.
+     */
     public static boolean isConfigured(Class type) {
+        InjectionIndex.Descriptor descriptor = InjectionIndex.getDescriptor(type);
+        if (descriptor != null) {
+            return descriptor.isConfigured();
+        }
         if (type.getAnnotation(DefaultAreas.class) != null) {
             return true;
         }
-        // if no class level annotation is there we might have field level annotations only
-        for (Field field : type.getDeclaredFields()) {
-            if (field.isAnnotationPresent(ConfiguredProperties.class)) {
-                return true;
-            }
-        }
-        // if no class level annotation is there we might have method level annotations only
-        for (Method method : type.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(ConfiguredProperties.class)) {
-                return true;
-            }
-        }
+        // if no class level annotation is there we might have field or method level annotations only
         for (Field field : type.getDeclaredFields()) {
-            if (field.isAnnotationPresent(ConfiguredProperty.class)) {
+            if (field.isAnnotationPresent(ConfiguredProperty.class)
+                    || field.isAnnotationPresent(ConfiguredProperties.class)) {
                 return true;
             }
         }
-        // if no class level annotation is there we might have method level annotations only
         for (Method method : type.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(ConfiguredProperty.class)) {
+            if (method.isAnnotationPresent(ConfiguredProperty.class)
+                    || method.isAnnotationPresent(ConfiguredProperties.class)) {
                 return true;
             }
         }
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.inject;
+
+import java.lang.reflect.Member;
+import java.util.*;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.PropertyAdapter;
+import org.apache.tamaya.annotation.ConfiguredProperty;
+import org.apache.tamaya.annotation.DefaultAreas;
+import org.apache.tamaya.annotation.DefaultValue;
+import org.apache.tamaya.annotation.WithPropertyAdapter;
+
+/**
+ * Resolves the configured value of a single injection point. Keys, configuration names, default value and the
+ * {@link org.apache.tamaya.PropertyAdapter} are evaluated once, when the resolver is created, so resolving
+ * a value only performs the lookups on the configuration. This is used by injection frameworks that manage
+ * injection points themselves, e.g. by CDI producers, and should be cached per injection point.
+ * <p>
+ * The lookup rules are the same as for {@link org.apache.tamaya.core.internal.inject.ConfiguredField}. The
+ * configurations are accessed on each resolution, so reloaded configurations are reflected.
+ */
+public final class ConfiguredValueResolver<T> {
+
+    private static final Map<Class<?>, Class<?>> BOXED_TYPES = new HashMap<>();
+
+    static {
+        BOXED_TYPES.put(boolean.class, Boolean.class);
+        BOXED_TYPES.put(byte.class, Byte.class);
+        BOXED_TYPES.put(char.class, Character.class);
+        BOXED_TYPES.put(short.class, Short.class);
+        BOXED_TYPES.put(int.class, Integer.class);
+        BOXED_TYPES.put(long.class, Long.class);
+        BOXED_TYPES.put(float.class, Float.class);
+        BOXED_TYPES.put(double.class, Double.class);
+    }
+
+    /** The configured member. */
+    private final Member member;
+    /** The configuration names to be looked up, with the same index as the keys, null for the default one. */
+    private final String[] configNames;
+    /** The keys to be looked up, per configuration. */
+    private final String[][] keys;
+    /** The default value, or null. */
+    private final String defaultValue;
+    /** The adapter, or null, if no conversion is required. */
+    private final PropertyAdapter<T> adapter;
+
+    /**
+     * Creates a new resolver.
+     *
+     * @param member the configured member, used for evaluating the default keys, not null.
+     * @param properties the {@link ConfiguredProperty} annotations present, not null.
+     * @param defaultValue the {@link DefaultValue} annotation, or null.
+     * @param adapterAnnot the {@link WithPropertyAdapter} annotation, or null.
+     * @param targetType the target type, not null.
+     * @throws ConfigException if the target type is not supported.
+     */
+    @SuppressWarnings("unchecked")
+    public ConfiguredValueResolver(Member member, Collection<ConfiguredProperty> properties, DefaultValue defaultValue,
+                                   WithPropertyAdapter adapterAnnot, Class<T> targetType) {
+        this.member = Objects.requireNonNull(member);
+        DefaultAreas areasAnnot = member.getDeclaringClass().getAnnotation(DefaultAreas.class);
+        if (properties.isEmpty()) {
+            this.configNames = new String[]{null};
+            this.keys = new String[][]{toArray(InjectionUtils.evaluateKeys(member, areasAnnot))};
+        } else {
+            this.configNames = new String[properties.size()];
+            this.keys = new String[properties.size()][];
+            int i = 0;
+            for (ConfiguredProperty prop : properties) {
+                String name = prop.config().trim();
+                this.configNames[i] = name.isEmpty() ? null : name;
+                this.keys[i++] = toArray(InjectionUtils.evaluateKeys(member, areasAnnot, prop));
+            }
+        }
+        this.defaultValue = defaultValue == null ? null : defaultValue.value();
+        Class<T> type = (Class<T>) BOXED_TYPES.getOrDefault(Objects.requireNonNull(targetType), targetType);
+        this.adapter = String.class.equals(type) && adapterAnnot == null ? null :
+                PropertyAdapter.getInstance(type, adapterAnnot);
+    }
+
+    private static String[] toArray(List<String> keys) {
+        return keys.toArray(new String[keys.size()]);
+    }
+
+    /**
+     * Evaluates the current configured value, without type conversion.
+     *
+     * @return the value, or null.
+     */
+    public String resolveValue() {
+        String configValue = null;
+        for (int i = 0; i < configNames.length; i++) {
+            Configuration config = configNames[i] == null ? Configuration.current() :
+                    Configuration.current(configNames[i]);
+            configValue = null;
+            for (String key : keys[i]) {
+                configValue = config.get(key).orElse(null);
+                if (configValue != null) {
+                    break;
+                }
+            }
+            if (configValue != null) {
+                // net step perform expression resolution, if any
+                configValue = Configuration.evaluateValue(configValue, config);
+            }
+        }
+        if (configValue == null) {
+            return defaultValue;
+        }
+        return configValue;
+    }
+
+    /**
+     * Evaluates the current configured value and converts it to the target type.
+     *
+     * @return the value, or null.
+     * @throws ConfigException if the value could not be converted.
+     */
+    @SuppressWarnings("unchecked")
+    public T resolve() {
+        String configValue = resolveValue();
+        if (adapter == null) {
+            return (T) configValue;
+        }
+        try {
+            return adapter.adapt(configValue);
+        } catch (Exception e) {
+            throw new ConfigException("Failed to convert configured value for: " + member, e);
+        }
+    }
+
+    /**
+     * Access the keys looked up, in the order they are evaluated.
+     *
+     * @return the keys, never null.
+     */
+    public List<String> getKeys() {
+        List<String> result = new ArrayList<>();
+        for (String[] configKeys : keys) {
+            result.addAll(Arrays.asList(configKeys));
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfiguredValueResolver{" +
+                "member=" + member +
+                ", keys=" + getKeys() +
+                '}';
+    }
+}
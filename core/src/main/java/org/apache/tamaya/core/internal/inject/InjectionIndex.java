@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Read-only view on the injection index generated at compile time by the {@code InjectionIndexProcessor} of the
+ * buildtools module. The index, located at {@code META-INF/tamaya/injection.idx}, contains a descriptor for each
+ * configured type of a module, listing the members to be injected. The indexes visible to a class loader are read
+ * once, with a single resource lookup.
+ * <p>
+ * Since an index lists all configured types of its module, a type located in an indexed module (jar or classes
+ * directory) but missing in the index is known not to be configured. Types of modules without index have to
+ * be scanned as before.
+ * <p>
+ * The index can be disabled by setting the system property {@code tamaya.injection.index.disabled} to
+ * {@code true}. The property is read once per class loader, when its index is loaded.
+ */
+final class InjectionIndex {
+    /** The resource location of the index. */
+    static final String INDEX_LOCATION = "META-INF/tamaya/injection.idx";
+    /** System property for disabling the index. */
+    static final String DISABLED_PROPERTY = "tamaya.injection.index.disabled";
+
+    private static final Logger LOG = Logger.getLogger(InjectionIndex.class.getName());
+    /** The indexes read, per class loader. */
+    private static final Map<ClassLoader, InjectionIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+    /** Index used for the bootstrap class loader, or if the index is disabled. */
+    private static final InjectionIndex EMPTY = new InjectionIndex(Collections.emptySet(), Collections.emptyMap());
+
+    /** The locations of the indexed modules, as returned by the code source. */
+    private final Set<String> indexedLocations;
+    /** The descriptors, by binary type name. */
+    private final Map<String, Descriptor> descriptors;
+
+    private InjectionIndex(Set<String> indexedLocations, Map<String, Descriptor> descriptors) {
+        this.indexedLocations = indexedLocations;
+        this.descriptors = descriptors;
+    }
+
+    /**
+     * Evaluates the descriptor of the given type.
+     *
+     * @param type the type, not null.
+     * @return the descriptor, {@link Descriptor#NOT_CONFIGURED} if the type is located in an indexed module but
+     * not listed, or null, if the module of the type is not indexed.
+     */
+    static Descriptor getDescriptor(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        InjectionIndex index = INDEXES.get(classLoader);
+        if (index == null) {
+            index = load(classLoader);
+            INDEXES.put(classLoader, index);
+        }
+        if (index.indexedLocations.isEmpty()) {
+            return null;
+        }
+        Descriptor descriptor = index.descriptors.get(type.getName());
+        if (descriptor != null) {
+            return descriptor;
+        }
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null
+                && index.indexedLocations.contains(codeSource.getLocation().toExternalForm())) {
+            return Descriptor.NOT_CONFIGURED;
+        }
+        return null;
+    }
+
+    private static InjectionIndex load(ClassLoader classLoader) {
+        if (Boolean.getBoolean(DISABLED_PROPERTY)) {
+            return EMPTY;
+        }
+        Set<String> locations = new HashSet<>();
+        Map<String, Descriptor> descriptors = new HashMap<>();
+        try {
+            Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+            while (urls.hasMoreElements()) {
+                URL url = urls.nextElement();
+                Properties props = new Properties();
+                try (InputStream is = url.openStream()) {
+                    props.load(is);
+                }
+                for (String typeName : props.stringPropertyNames()) {
+                    descriptors.putIfAbsent(typeName, new Descriptor(props.getProperty(typeName)));
+                }
+                locations.add(getModuleLocation(url));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.log(Level.WARNING, "Failed to read injection index, scanning configured types.", e);
+            return EMPTY;
+        }
+        return new InjectionIndex(locations, descriptors);
+    }
+
+    /**
+     * Evaluates the location of the module containing the given index, in the form returned by
+     * {@link java.security.CodeSource#getLocation()}.
+     *
+     * @param indexUrl the index URL, not null.
+     * @return the module location.
+     */
+    private static String getModuleLocation(URL indexUrl) {
+        String location = indexUrl.toExternalForm();
+        location = location.substring(0, location.length() - INDEX_LOCATION.length());
+        if (location.startsWith("jar:") && location.endsWith("!/")) {
+            location = location.substring("jar:".length(), location.length() - "!/".length());
+        }
+        return location;
+    }
+
+    /**
+     * Descriptor of a configured type, listing the names of the members to be injected.
+     */
+    static final class Descriptor {
+        /** Descriptor of types not configured. */
+        static final Descriptor NOT_CONFIGURED = new Descriptor(null);
+
+        final List<String> fields = new ArrayList<>();
+        final List<String> setters = new ArrayList<>();
+        final List<String> callbacks = new ArrayList<>();
+
+        private Descriptor(String members) {
+            if (members == null) {
+                return;
+            }
+            for (String entry : members.split(",")) {
+                String member = entry.trim();
+                int sep = member.indexOf(':');
+                if (sep < 0) {
+                    continue;
+                }
+                String name = member.substring(sep + 1);
+                switch (member.substring(0, sep)) {
+                    case "field":
+                        fields.add(name);
+                        break;
+                    case "setter":
+                        setters.add(name);
+                        break;
+                    case "callback":
+                        callbacks.add(name);
+                        break;
+                    default:
+                        LOG.finest(() -> "Ignoring unknown injection index entry: " + member);
+                }
+            }
+        }
+
+        boolean isConfigured() {
+            return this != NOT_CONFIGURED;
+        }
+    }
+}
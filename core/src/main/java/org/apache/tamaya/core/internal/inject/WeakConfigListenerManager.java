@@ -18,54 +18,112 @@
  */
 package org.apache.tamaya.core.internal.inject;
 
+import org.apache.tamaya.PropertySource;
 import org.apache.tamaya.core.properties.PropertyChangeSet;
+import org.apache.tamaya.core.properties.PropertyChangeSetBuilder;
 
-import java.util.Map;
-import java.util.WeakHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.StampedLock;
+import java.beans.PropertyChangeEvent;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Simple listener container that only holds weak references on the listeners.
+ * Simple listener container that only holds weak references on the instances listening. Listeners are indexed by
+ * the configuration keys they depend on, so a change only reaches the listeners affected. Listeners registered
+ * without keys receive all changes. Change sets published in rapid succession are coalesced, so each listener
+ * gets at most one delivery per property source for all changes queued meanwhile.
+ * <p>
+ * Dispatch does not hold any global lock. Changes are delivered asynchronously, not on the thread publishing them,
+ * but on dedicated daemon threads, by default a single one, configurable with {@code tamaya.listeners.threads}.
+ * Deliveries to the same listener never run concurrently and keep the order the changes were published in.
+ * Exceptions thrown by a listener are logged and do not affect other listeners. Note that a listener blocking
+ * delays the delivery to the other listeners, unless more than one thread is configured.
  */
 public final class WeakConfigListenerManager{
 
+    /** System property defining the number of threads delivering the changes. */
+    public static final String THREADS_PROPERTY = "tamaya.listeners.threads";
+
     private static final WeakConfigListenerManager INSTANCE = new WeakConfigListenerManager();
 
     private static final Logger LOG = Logger.getLogger(WeakConfigListenerManager.class.getName());
-    private StampedLock lock = new StampedLock();
-    private Map<Object,Consumer<PropertyChangeSet>> listenerReferences = new WeakHashMap<>();
+    /** All registrations currently known. */
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    /** Registrations indexed by the configuration keys they depend on. */
+    private final Map<String, Set<Registration>> keyIndex = new ConcurrentHashMap<>();
+    /** Registrations that listen to any change. */
+    private final Set<Registration> wildcardRegistrations = ConcurrentHashMap.newKeySet();
+    /** Queue of registrations, whose instances were garbage collected. */
+    private final ReferenceQueue<Object> collectedQueue = new ReferenceQueue<>();
+    /** The executor used for delivering the change sets. */
+    private final Executor executor;
 
     /** Private singleton constructor. */
-    private WeakConfigListenerManager(){}
+    private WeakConfigListenerManager(){
+        this(Executors.newFixedThreadPool(Math.max(1, Integer.getInteger(THREADS_PROPERTY, 1)), r -> {
+            Thread thread = new Thread(r, "tamaya-config-listeners");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Creates a new instance delivering the changes using the given executor.
+     * @param executor the executor, not null.
+     */
+    WeakConfigListenerManager(Executor executor){
+        this.executor = Objects.requireNonNull(executor);
+    }
 
     public static WeakConfigListenerManager of(){
         return INSTANCE;
     }
 
     /**
-     * Registers the given consumer for the instance. If a consumer already exists for this instance the given
-     * consumer is appended.
+     * Registers the given consumer for the instance, listening to all changes. Note that the consumer is held
+     * with a strong reference, so it should not reference the instance itself.
      * @param instance the instance, not null.
      * @param listener the consumer.
      */
     public void registerConsumer(Object instance, Consumer<PropertyChangeSet> listener){
-        Lock writeLock = lock.asWriteLock();
-        try {
-            writeLock.lock();
-            Consumer<PropertyChangeSet> l = listenerReferences.get(instance);
-            if (l == null) {
-                listenerReferences.put(instance, listener);
-            } else {
-                listenerReferences.put(instance, l.andThen(listener));
+        Objects.requireNonNull(listener);
+        registerConsumer(instance, Collections.emptySet(), (i, change) -> listener.accept(change));
+    }
+
+    /**
+     * Registers the given consumer for the instance. The consumer will only be called for changes that contain
+     * at least one of the given keys. If no keys are passed, the consumer is called for all changes.
+     * @param instance the instance, not null. The instance is only weakly referenced.
+     * @param keys the configuration keys the consumer depends on, not null.
+     * @param listener the consumer, called with the (still reachable) instance and the coalesced change set.
+     */
+    public void registerConsumer(Object instance, Collection<String> keys, BiConsumer<Object, PropertyChangeSet> listener){
+        purgeCollected();
+        Registration reg = new Registration(Objects.requireNonNull(instance), keys, Objects.requireNonNull(listener),
+                collectedQueue);
+        registrations.add(reg);
+        if (reg.keys.isEmpty()) {
+            wildcardRegistrations.add(reg);
+        } else {
+            // adding within compute, so a concurrent removal never drops the set after the registration was added
+            for (String key : reg.keys) {
+                keyIndex.compute(key, (k, regs) -> {
+                    Set<Registration> result = regs == null ? ConcurrentHashMap.newKeySet() : regs;
+                    result.add(reg);
+                    return result;
+                });
             }
         }
-        finally{
-            writeLock.unlock();
-        }
     }
 
     /**
@@ -73,35 +131,54 @@ public final class WeakConfigListenerManager{
      * @param instance the instance, not null.
      */
     public void unregisterConsumer(Object instance) {
-        Lock writeLock = lock.asWriteLock();
-        try {
-            writeLock.lock();
-            listenerReferences.remove(instance);
-        }
-        finally{
-            writeLock.unlock();
+        Objects.requireNonNull(instance);
+        for (Registration reg : registrations) {
+            if (reg.get() == instance) {
+                remove(reg);
+            }
         }
+        purgeCollected();
     }
 
     /**
-     * Publishes a change event to all consumers registered.
+     * Publishes a change event to all consumers registered, that depend on at least one of the keys changed.
      * @param change the change event, not null.
      */
     public void publishChangeEvent(PropertyChangeSet change){
-        Lock readLock = lock.asReadLock();
-        try{
-            readLock.lock();
-            listenerReferences.values().parallelStream().forEach(l -> {
-                try{
-                    l.accept(change);
-                }
-                catch(Exception e){
-                    LOG.log(Level.SEVERE, "ConfigChangeListener failed: " + l.getClass().getName(), e);
-                }
-            });
+        Objects.requireNonNull(change);
+        purgeCollected();
+        if (change.isEmpty()) {
+            return;
+        }
+        Set<Registration> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        targets.addAll(wildcardRegistrations);
+        for (PropertyChangeEvent evt : change.getEvents()) {
+            Set<Registration> regs = keyIndex.get(evt.getPropertyName());
+            if (regs != null) {
+                targets.addAll(regs);
+            }
+        }
+        for (Registration reg : targets) {
+            reg.enqueue(change);
+        }
+    }
+
+    private void remove(Registration reg) {
+        if (registrations.remove(reg)) {
+            wildcardRegistrations.remove(reg);
+            for (String key : reg.keys) {
+                keyIndex.computeIfPresent(key, (k, regs) -> {
+                    regs.remove(reg);
+                    return regs.isEmpty() ? null : regs;
+                });
+            }
         }
-        finally{
-            readLock.unlock();
+    }
+
+    private void purgeCollected() {
+        Reference<?> ref;
+        while ((ref = collectedQueue.poll()) != null) {
+            remove((Registration) ref);
         }
     }
 
@@ -109,9 +186,67 @@ public final class WeakConfigListenerManager{
     @Override
     public String toString(){
         return "WeakConfigListenerManager{" +
-                "listenerReferences=" + listenerReferences +
+                "registrations=" + registrations.size() +
+                ", keys=" + keyIndex.size() +
                 '}';
     }
 
+    /**
+     * A single registration, weakly referencing the instance listening and queueing the change sets not yet
+     * delivered.
+     */
+    private final class Registration extends WeakReference<Object> implements Runnable {
+        private final Set<String> keys;
+        private final BiConsumer<Object, PropertyChangeSet> listener;
+        private final Queue<PropertyChangeSet> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Registration(Object instance, Collection<String> keys, BiConsumer<Object, PropertyChangeSet> listener,
+                     ReferenceQueue<Object> queue) {
+            super(instance, queue);
+            this.keys = Collections.unmodifiableSet(new HashSet<>(keys));
+            this.listener = listener;
+        }
+
+        void enqueue(PropertyChangeSet change) {
+            pending.add(change);
+            schedule();
+        }
+
+        private void schedule() {
+            if (!pending.isEmpty() && scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Map<PropertySource, PropertyChangeSetBuilder> merged = new IdentityHashMap<>();
+                PropertyChangeSet change;
+                while ((change = pending.poll()) != null) {
+                    merged.computeIfAbsent(change.getPropertySource(), PropertyChangeSetBuilder::of)
+                            .addChanges(change);
+                }
+                Object instance = get();
+                if (instance == null) {
+                    return;
+                }
+                for (PropertyChangeSetBuilder builder : merged.values()) {
+                    if (builder.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        listener.accept(instance, builder.build());
+                    } catch (Exception e) {
+                        LOG.log(Level.SEVERE, "ConfigChangeListener failed: " + listener.getClass().getName(), e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                schedule();
+            }
+        }
+    }
 
 }
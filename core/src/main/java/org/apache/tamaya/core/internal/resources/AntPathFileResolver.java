@@ -41,16 +41,18 @@ public class AntPathFileResolver implements PathResolver {
     public Collection<Resource> resolve(ClassLoader classLoader, Collection<String> expressions){
         PathMatchingResourcePatternResolver resolver = PathMatchingResourcePatternResolver.of(classLoader);
         List<Resource> result = new ArrayList<>();
+        try {
+            // resolves all expressions in one pass over the jars and directories
+            resolver.getResources(expressions).values().forEach((resources) -> result.addAll(Arrays.asList(resources)));
+            return result;
+        }
+        catch(IOException e){
+            LOG.log(Level.FINE, "Failed to load resource expressions together, resolving them one by one: " + expressions, e);
+            result.clear();
+        }
         expressions.forEach((expression) -> {
             try {
-                Resource[] resources = resolver.getResources(expression);
-                for (Resource res : resources) {
-                    try {
-                        result.add(res);
-                    } catch (Exception e) {
-                        LOG.log(Level.FINE, "URI could not be extracted from Resource: " + res.toString(), e);
-                    }
-                }
+                result.addAll(Arrays.asList(resolver.getResources(expression)));
             }
             catch(IOException e){
                 LOG.log(Level.FINE, "Failed to load resource expression: " + expression, e);
@@ -19,12 +19,14 @@ package org.apache.tamaya.core.internal.resources.io;
 import org.apache.tamaya.core.resource.Resource;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.jar.JarEntry;
 
 /**
  * Abstract base class for resources which resolve URLs into File references,
@@ -91,6 +93,10 @@ abstract class AbstractFileResolvingResource extends AbstractResource {
 				// Proceed with file system resolution...
 				return getFile().exists();
 			}
+			else if (JarFilePool.getInstance().isPooled(url)) {
+				// Look up the entry in the shared jar file...
+				return JarFilePool.getInstance().getEntry(url) != null;
+			}
 			else {
 				// Try a URL connection content-length header...
 				URLConnection con = url.openConnection();
@@ -152,6 +158,14 @@ abstract class AbstractFileResolvingResource extends AbstractResource {
 			// Proceed with file system resolution...
 			return getFile().length();
 		}
+		else if (JarFilePool.getInstance().isPooled(url)) {
+			// Look up the entry in the shared jar file...
+			JarEntry entry = JarFilePool.getInstance().getEntry(url);
+			if (entry == null) {
+				throw new FileNotFoundException(getDescription() + " does not exist");
+			}
+			return entry.getSize();
+		}
 		else {
 			// Try a URL connection content-length header...
 			URLConnection con = url.openConnection();
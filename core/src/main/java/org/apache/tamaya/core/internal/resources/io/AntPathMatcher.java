@@ -65,6 +65,8 @@ class AntPathMatcher {
 
 	final Map<String, AntPathStringMatcher> stringMatcherCache = new ConcurrentHashMap<>(256);
 
+	private final Map<String, AntPathPattern> compiledPatternCache = new ConcurrentHashMap<>(256);
+
 
 	/**
 	 * Create a new instance with the {@link #DEFAULT_PATH_SEPARATOR}.
@@ -93,6 +95,7 @@ class AntPathMatcher {
 	public void setPathSeparator(String pathSeparator) {
 		this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
 		this.pathSeparatorPatternCache = new PathSeparatorPatternCache(this.pathSeparator);
+		this.compiledPatternCache.clear();
 	}
 
 	/**
@@ -101,6 +104,7 @@ class AntPathMatcher {
 	 */
 	public void setTrimTokens(boolean trimTokens) {
 		this.trimTokens = trimTokens;
+		this.compiledPatternCache.clear();
 	}
 
 	/**
@@ -122,6 +126,7 @@ class AntPathMatcher {
 		this.cachePatterns = false;
 		this.tokenizedPatternCache.clear();
 		this.stringMatcherCache.clear();
+		this.compiledPatternCache.clear();
 	}
 
 
@@ -130,13 +135,57 @@ class AntPathMatcher {
 	}
 
 	public boolean match(String pattern, String path) {
+		if (this.pathSeparator.length() == 1) {
+			return getCompiledPattern(pattern).matches(path);
+		}
 		return doMatch(pattern, path, true, null);
 	}
 
 	public boolean matchStart(String pattern, String path) {
+		if (this.pathSeparator.length() == 1) {
+			return getCompiledPattern(pattern).matchesStart(path);
+		}
 		return doMatch(pattern, path, false, null);
 	}
 
+	/**
+	 * Compile the given pattern, for matching many paths against it without
+	 * any allocations per path, see {@link AntPathPattern}.
+	 * @param pattern the pattern to compile
+	 * @return the compiled pattern, matching as {@link #match} does
+	 * @throws IllegalStateException if the path separator is not a single character
+	 */
+	public AntPathPattern compile(String pattern) {
+		if (this.pathSeparator.length() != 1) {
+			throw new IllegalStateException("Patterns can only be compiled for single character separators: " +
+					this.pathSeparator);
+		}
+		return getCompiledPattern(pattern);
+	}
+
+	/**
+	 * Build or retrieve an {@link AntPathPattern} for the given pattern, using the
+	 * same caching strategy as {@link #getStringMatcher(String)}.
+	 */
+	private AntPathPattern getCompiledPattern(String pattern) {
+		AntPathPattern compiled = null;
+		Boolean cachePatterns = this.cachePatterns;
+		if (cachePatterns == null || cachePatterns) {
+			compiled = this.compiledPatternCache.get(pattern);
+		}
+		if (compiled == null) {
+			compiled = new AntPathPattern(pattern, this.pathSeparator.charAt(0), this.trimTokens);
+			if (cachePatterns == null && this.compiledPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
+				deactivatePatternCache();
+				return compiled;
+			}
+			if (cachePatterns == null || cachePatterns) {
+				this.compiledPatternCache.put(pattern, compiled);
+			}
+		}
+		return compiled;
+	}
+
 	/**
 	 * Actually match the given {@code path} against the given {@code pattern}.
 	 * @param pattern the pattern to match against
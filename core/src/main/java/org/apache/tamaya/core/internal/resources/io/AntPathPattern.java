@@ -0,0 +1,337 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.resources.io;
+
+/**
+ * Ant-style path pattern compiled for matching many paths against it, as done when scanning jar files. Paths are
+ * matched in place, using index ranges of their segments, so matching does not create any substrings or arrays.
+ * The results are the same as those of {@link AntPathMatcher#match(String, String)} and
+ * {@link AntPathMatcher#matchStart(String, String)} with the same separator and trimming settings.
+ * <p>
+ * Each pattern segment is classified on compilation: literals, {@code *}, {@code **}, suffix patterns like
+ * {@code *.properties}, prefix patterns like {@code config*} and general wildcards are matched directly, only
+ * segments containing URI template variables are delegated to a regular expression. Patterns of the form
+ * {@code **}{@code /*.ext}, the most common form used for finding configuration resources, only compare the end
+ * of the path.
+ * <p>
+ * Instances are immutable and thread-safe. Create them using {@link AntPathMatcher#compile(String)}.
+ */
+final class AntPathPattern {
+
+    private static final byte LITERAL = 0;
+    private static final byte ANY = 1;
+    private static final byte DOUBLE_STAR = 2;
+    private static final byte SUFFIX = 3;
+    private static final byte PREFIX = 4;
+    private static final byte WILDCARD = 5;
+    private static final byte TEMPLATE = 6;
+
+    private final String pattern;
+    private final char separator;
+    private final boolean trimTokens;
+    /** Flag, if the pattern starts with the separator. */
+    private final boolean absolute;
+    /** Flag, if the pattern ends with the separator. */
+    private final boolean directory;
+    /** The kind of each segment. */
+    private final byte[] types;
+    /** The literal, suffix, prefix or wildcard of each segment, as required by its kind. */
+    private final String[] values;
+    /** The matchers of segments containing template variables, null for other segments. */
+    private final AntPathMatcher.AntPathStringMatcher[] templates;
+    /** The suffix of a pattern of the form {@code **}{@code /*.ext}, null for other patterns. */
+    private final String anyPathSuffix;
+
+    AntPathPattern(String pattern, char separator, boolean trimTokens) {
+        this.pattern = pattern;
+        this.separator = separator;
+        this.trimTokens = trimTokens;
+        this.absolute = !pattern.isEmpty() && pattern.charAt(0) == separator;
+        this.directory = !pattern.isEmpty() && pattern.charAt(pattern.length() - 1) == separator;
+        String[] segments = StringUtils.tokenizeToStringArray(pattern, String.valueOf(separator), trimTokens, true);
+        this.types = new byte[segments.length];
+        this.values = new String[segments.length];
+        this.templates = new AntPathMatcher.AntPathStringMatcher[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            compileSegment(i, segments[i]);
+        }
+        this.anyPathSuffix = types.length == 2 && types[0] == DOUBLE_STAR && types[1] == SUFFIX ? values[1] : null;
+    }
+
+    private void compileSegment(int index, String segment) {
+        int star = segment.indexOf('*');
+        if (segment.indexOf('{') >= 0) {
+            types[index] = TEMPLATE;
+            templates[index] = new AntPathMatcher.AntPathStringMatcher(segment);
+        } else if ("**".equals(segment)) {
+            types[index] = DOUBLE_STAR;
+        } else if (star < 0 && segment.indexOf('?') < 0) {
+            types[index] = LITERAL;
+            values[index] = segment;
+        } else if ("*".equals(segment)) {
+            types[index] = ANY;
+        } else if (segment.indexOf('?') < 0 && segment.lastIndexOf('*') == star && star == 0) {
+            types[index] = SUFFIX;
+            values[index] = segment.substring(1);
+        } else if (segment.indexOf('?') < 0 && segment.lastIndexOf('*') == star && star == segment.length() - 1) {
+            types[index] = PREFIX;
+            values[index] = segment.substring(0, star);
+        } else {
+            types[index] = WILDCARD;
+            values[index] = segment;
+        }
+    }
+
+    /**
+     * @return the pattern as passed on compilation.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Checks if the given path matches this pattern.
+     *
+     * @param path the path, not null.
+     * @return true, if the path matches.
+     */
+    public boolean matches(String path) {
+        return matches(path, 0, true);
+    }
+
+    /**
+     * Checks if the part of the given path starting at {@code offset} matches this pattern, as
+     * {@code matches(path.substring(offset))} would, but without creating the substring.
+     *
+     * @param path   the path, not null.
+     * @param offset the index, where the relative path to be matched starts.
+     * @return true, if the relative path matches.
+     */
+    public boolean matches(String path, int offset) {
+        return matches(path, offset, true);
+    }
+
+    /**
+     * Checks if the given path matches the start of this pattern, i.e. if paths below it could match.
+     *
+     * @param path the path, not null.
+     * @return true, if the path matches the start of this pattern.
+     */
+    public boolean matchesStart(String path) {
+        return matches(path, 0, false);
+    }
+
+    private boolean matches(String path, int offset, boolean fullMatch) {
+        int length = path.length();
+        if ((offset < length && path.charAt(offset) == separator) != absolute) {
+            return false;
+        }
+        if (anyPathSuffix != null && fullMatch) {
+            return lastSegmentEndsWith(path, offset, anyPathSuffix);
+        }
+        int count = types.length;
+        int p = 0;
+        int pos = offset;
+        long segment = nextSegment(path, pos);
+        // match all segments up to the first **
+        while (p < count && segment >= 0 && types[p] != DOUBLE_STAR) {
+            if (!matchSegment(p, path, start(segment), end(segment))) {
+                return false;
+            }
+            p++;
+            pos = end(segment);
+            segment = nextSegment(path, pos);
+        }
+        if (segment < 0) {
+            // path is exhausted
+            boolean pathIsDirectory = length > offset && path.charAt(length - 1) == separator;
+            if (p == count) {
+                return directory == pathIsDirectory;
+            }
+            if (!fullMatch) {
+                return true;
+            }
+            if (p == count - 1 && types[p] == ANY && pathIsDirectory) {
+                return true;
+            }
+            return onlyDoubleStars(p);
+        }
+        if (p == count) {
+            return false;
+        }
+        if (!fullMatch) {
+            // path start definitely matches due to the **
+            return true;
+        }
+        // match the rest, backtracking to the last ** on mismatch
+        int starP = -1;
+        int starPos = -1;
+        while (segment >= 0) {
+            if (p < count && types[p] == DOUBLE_STAR) {
+                starP = p++;
+                starPos = pos;
+            } else if (p < count && matchSegment(p, path, start(segment), end(segment))) {
+                p++;
+                pos = end(segment);
+                segment = nextSegment(path, pos);
+            } else if (starP >= 0) {
+                p = starP + 1;
+                starPos = end(nextSegment(path, starPos));
+                pos = starPos;
+                segment = nextSegment(path, pos);
+            } else {
+                return false;
+            }
+        }
+        return onlyDoubleStars(p);
+    }
+
+    private boolean onlyDoubleStars(int from) {
+        for (int i = from; i < types.length; i++) {
+            if (types[i] != DOUBLE_STAR) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Evaluates the next segment of the path, skipping separators and, if trimming, whitespace only segments.
+     *
+     * @return the start and end index of the (trimmed) segment, packed into a long, or -1 if there is none.
+     */
+    private long nextSegment(String path, int pos) {
+        int length = path.length();
+        while (pos < length) {
+            if (path.charAt(pos) == separator) {
+                pos++;
+                continue;
+            }
+            int end = path.indexOf(separator, pos);
+            if (end < 0) {
+                end = length;
+            }
+            int start = pos;
+            if (trimTokens) {
+                while (start < end && path.charAt(start) <= ' ') {
+                    start++;
+                }
+                while (end > start && path.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+                if (start == end) {
+                    pos = path.indexOf(separator, pos);
+                    if (pos < 0) {
+                        return -1;
+                    }
+                    continue;
+                }
+            }
+            return ((long) start << 32) | end;
+        }
+        return -1;
+    }
+
+    private static int start(long segment) {
+        return (int) (segment >>> 32);
+    }
+
+    private static int end(long segment) {
+        return (int) segment;
+    }
+
+    private boolean lastSegmentEndsWith(String path, int offset, String suffix) {
+        int end = path.length();
+        while (end > offset) {
+            char c = path.charAt(end - 1);
+            if (c == separator || (trimTokens && c <= ' ')) {
+                end--;
+            } else {
+                break;
+            }
+        }
+        if (end == offset) {
+            return false;
+        }
+        int start = Math.max(offset, path.lastIndexOf(separator, end - 1) + 1);
+        if (trimTokens) {
+            while (start < end && path.charAt(start) <= ' ') {
+                start++;
+            }
+        }
+        return end - start >= suffix.length() && path.startsWith(suffix, end - suffix.length());
+    }
+
+    private boolean matchSegment(int index, String path, int start, int end) {
+        String value = values[index];
+        switch (types[index]) {
+            case LITERAL:
+                return end - start == value.length() && path.startsWith(value, start);
+            case ANY:
+                return true;
+            case SUFFIX:
+                return end - start >= value.length() && path.startsWith(value, end - value.length());
+            case PREFIX:
+                return end - start >= value.length() && path.startsWith(value, start);
+            case WILDCARD:
+                return matchWildcard(value, path, start, end);
+            case TEMPLATE:
+                return templates[index].matchStrings(path.substring(start, end), null);
+            default:
+                // ** is handled by the caller
+                return false;
+        }
+    }
+
+    /**
+     * Matches a segment containing {@code *} and {@code ?} wildcards, backtracking to the last {@code *} on
+     * mismatch.
+     */
+    private static boolean matchWildcard(String wildcard, String path, int start, int end) {
+        int w = 0;
+        int s = start;
+        int starW = -1;
+        int starS = -1;
+        int length = wildcard.length();
+        while (s < end) {
+            char c = w < length ? wildcard.charAt(w) : 0;
+            if (w < length && c == '*') {
+                starW = w++;
+                starS = s;
+            } else if (w < length && (c == '?' || c == path.charAt(s))) {
+                w++;
+                s++;
+            } else if (starW >= 0) {
+                w = starW + 1;
+                s = ++starS;
+            } else {
+                return false;
+            }
+        }
+        while (w < length && wildcard.charAt(w) == '*') {
+            w++;
+        }
+        return w == length;
+    }
+
+    @Override
+    public String toString() {
+        return "AntPathPattern{" + pattern + '}';
+    }
+}
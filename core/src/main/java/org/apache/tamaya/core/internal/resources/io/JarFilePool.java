@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.resources.io;
+
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool of reference counted {@link JarFile} handles, shared by the jar scanning of
+ * {@link PathMatchingResourcePatternResolver} and the access of jar entries by {@link UrlResource}, so a jar
+ * file is opened, and its central directory parsed, only once, instead of once per scan and entry read.
+ * <p>
+ * Handles not in use are kept open until they were idle for {@code tamaya.resources.jarFiles.idleTimeout}
+ * milliseconds (default 10000), or more than {@code tamaya.resources.jarFiles.maxOpen} (default 64) jar files
+ * are open, closing the least recently used ones first. Handles in use are never closed, so the maximum can be
+ * exceeded temporarily. Setting the maximum to 0 turns the pool off. Only jar files in the local file system
+ * are pooled, for other URLs the callers fall back to {@link java.net.URLConnection}.
+ * <p>
+ * The pool is registered as {@link ConfigMetrics.MeteredCache}, a hit being an access of a jar file already
+ * open, and an eviction the closing of a jar file that was idle.
+ */
+final class JarFilePool implements ConfigMetrics.MeteredCache {
+
+    /** System property defining the maximum number of jar files kept open. */
+    static final String MAX_OPEN_PROPERTY = "tamaya.resources.jarFiles.maxOpen";
+    /** System property defining the milliseconds, after which jar files not in use are closed. */
+    static final String IDLE_TIMEOUT_PROPERTY = "tamaya.resources.jarFiles.idleTimeout";
+
+    private static final Logger LOG = Logger.getLogger(JarFilePool.class.getName());
+
+    private static final JarFilePool INSTANCE = new JarFilePool(Integer.getInteger(MAX_OPEN_PROPERTY, 64),
+            Long.getLong(IDLE_TIMEOUT_PROPERTY, 10_000L));
+
+    private final int maxOpen;
+    private final long idleTimeoutNanos;
+
+    /** The open jar files, by canonical path, in access order, guarded by this instance. */
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Flag, if closing the idle jar files is scheduled, guarded by this instance. */
+    private boolean purgeScheduled;
+    private ScheduledExecutorService purgeExecutor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    JarFilePool(int maxOpen, long idleTimeoutMillis) {
+        this.maxOpen = maxOpen;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        if (maxOpen > 0) {
+            ConfigMetrics.getInstance().registerCache(this);
+        }
+    }
+
+    /**
+     * Access the shared pool.
+     * @return the pool, never null.
+     */
+    static JarFilePool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks if the given jar URL, in the form {@code jar:file:<path>!/<entry>}, is read using the pool.
+     * @param url the URL, not null.
+     * @return true, if the entry can be read using {@link #getInputStream(URL)} and {@link #getEntry(URL)}.
+     */
+    boolean isPooled(URL url) {
+        if (maxOpen <= 0 || !ResourceUtils.URL_PROTOCOL_JAR.equals(url.getProtocol())) {
+            return false;
+        }
+        String urlFile = url.getFile();
+        int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        // jar roots, nested jars and encoded entry names are left to the URL connection
+        return separatorIndex != -1 && urlFile.startsWith(ResourceUtils.FILE_URL_PREFIX)
+                && urlFile.length() > separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length()
+                && urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR, separatorIndex + 1) == -1
+                && urlFile.indexOf('%', separatorIndex) == -1;
+    }
+
+    /**
+     * Acquires a handle for the given jar file. The handle must be closed after use.
+     * @param jarFileUrl the URL of the jar file, starting with {@code file:}, not null.
+     * @return the handle, never null.
+     * @throws IOException if the jar file cannot be opened.
+     */
+    Handle acquire(String jarFileUrl) throws IOException {
+        File file;
+        try {
+            file = new File(ResourceUtils.toURI(jarFileUrl).getSchemeSpecificPart());
+        }
+        catch (URISyntaxException ex) {
+            // Fallback for URLs that are not valid URIs (should hardly ever happen).
+            file = new File(jarFileUrl.substring(ResourceUtils.FILE_URL_PREFIX.length()));
+        }
+        String key = file.getCanonicalPath();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hits.increment();
+                entry.references++;
+                return new Handle(entry);
+            }
+        }
+        misses.increment();
+        // opened outside the lock, parsing the central directory may take a while
+        JarFile jarFile = new JarFile(file);
+        Entry entry;
+        List<JarFile> toClose = new ArrayList<>();
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null) {
+                toClose.add(jarFile);
+            }
+            else {
+                entry = new Entry(key, jarFile);
+                entries.put(key, entry);
+                evictIdle(toClose, false);
+            }
+            entry.references++;
+        }
+        close(toClose);
+        return new Handle(entry);
+    }
+
+    /**
+     * Opens an input stream for the entry of the given jar URL. The jar file is released when the stream
+     * is closed.
+     * @param url the jar URL, as accepted by {@link #isPooled(URL)}, not null.
+     * @return the input stream, never null.
+     * @throws FileNotFoundException if the entry does not exist.
+     * @throws IOException if the jar file cannot be read.
+     */
+    InputStream getInputStream(URL url) throws IOException {
+        String urlFile = url.getFile();
+        int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        String entryName = urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length());
+        Handle handle = acquire(urlFile.substring(0, separatorIndex));
+        try {
+            JarEntry entry = handle.getJarFile().getJarEntry(entryName);
+            if (entry == null) {
+                throw new FileNotFoundException("JAR entry " + entryName + " not found in " + handle.getJarFile().getName());
+            }
+            return new FilterInputStream(handle.getJarFile().getInputStream(entry)) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    }
+                    finally {
+                        handle.close();
+                    }
+                }
+            };
+        }
+        catch (IOException | RuntimeException ex) {
+            handle.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Looks up the entry of the given jar URL.
+     * @param url the jar URL, as accepted by {@link #isPooled(URL)}, not null.
+     * @return the entry, or null, if it does not exist.
+     * @throws IOException if the jar file cannot be read.
+     */
+    JarEntry getEntry(URL url) throws IOException {
+        String urlFile = url.getFile();
+        int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+        try (Handle handle = acquire(urlFile.substring(0, separatorIndex))) {
+            return handle.getJarFile().getJarEntry(urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length()));
+        }
+    }
+
+    /**
+     * Closes all jar files currently not in use.
+     */
+    void clear() {
+        List<JarFile> toClose = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+                Entry entry = iterator.next();
+                if (entry.references == 0) {
+                    iterator.remove();
+                    toClose.add(entry.jarFile);
+                }
+            }
+        }
+        close(toClose);
+    }
+
+    private void release(Entry entry) {
+        List<JarFile> toClose = new ArrayList<>();
+        synchronized (this) {
+            if (--entry.references > 0) {
+                return;
+            }
+            entry.idleSince = System.nanoTime();
+            evictIdle(toClose, false);
+            if (!purgeScheduled && entries.containsKey(entry.key)) {
+                schedulePurge();
+            }
+        }
+        close(toClose);
+    }
+
+    /**
+     * Removes idle entries, while more than the maximum number of jar files are open, or if {@code timedOut}
+     * is set, the ones idle for longer than the timeout. Must be called holding the lock.
+     */
+    private void evictIdle(List<JarFile> toClose, boolean timedOut) {
+        long now = System.nanoTime();
+        int size = entries.size();
+        for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            Entry entry = iterator.next();
+            if (entry.references == 0 && (size > maxOpen || (timedOut && now - entry.idleSince >= idleTimeoutNanos))) {
+                iterator.remove();
+                toClose.add(entry.jarFile);
+                evictions.increment();
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Schedules closing the jar files timed out. Must be called holding the lock.
+     */
+    private void schedulePurge() {
+        if (purgeExecutor == null) {
+            purgeExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "tamaya-jar-files");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        purgeScheduled = true;
+        purgeExecutor.schedule(this::purge, idleTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void purge() {
+        List<JarFile> toClose = new ArrayList<>();
+        synchronized (this) {
+            purgeScheduled = false;
+            evictIdle(toClose, true);
+            if (entries.values().stream().anyMatch(e -> e.references == 0)) {
+                schedulePurge();
+            }
+        }
+        close(toClose);
+    }
+
+    private static void close(List<JarFile> jarFiles) {
+        for (JarFile jarFile : jarFiles) {
+            try {
+                jarFile.close();
+            }
+            catch (IOException e) {
+                LOG.log(Level.FINEST, e, () -> "Failed to close jar file: " + jarFile.getName());
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "jar-files";
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    @Override
+    public synchronized int getSize() {
+        return entries.size();
+    }
+
+    /**
+     * A jar file open, with the number of handles in use.
+     */
+    private static final class Entry {
+        private final String key;
+        private final JarFile jarFile;
+        /** The number of handles not closed, guarded by the pool. */
+        private int references;
+        /** The time the last handle was closed, guarded by the pool. */
+        private long idleSince;
+
+        Entry(String key, JarFile jarFile) {
+            this.key = key;
+            this.jarFile = jarFile;
+        }
+    }
+
+    /**
+     * Handle of a pooled jar file, the jar file must not be closed directly, but by closing the handle.
+     */
+    final class Handle implements AutoCloseable {
+        private final Entry entry;
+        private boolean closed;
+
+        private Handle(Entry entry) {
+            this.entry = entry;
+        }
+
+        /**
+         * Access the jar file.
+         * @return the jar file, never null.
+         */
+        JarFile getJarFile() {
+            return entry.jarFile;
+        }
+
+        /**
+         * Releases the jar file, closing it when idle for long enough. Calling this method more than once has
+         * no effect.
+         */
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(entry);
+            }
+        }
+    }
+}
@@ -23,6 +23,13 @@ import java.lang.reflect.Method;
 import java.net.JarURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
@@ -248,6 +255,102 @@ public final class PathMatchingResourcePatternResolver{
         }
     }
 
+    /**
+     * Resolve several location patterns at once. Other than calling {@link #getResources(String)} for each pattern,
+     * the patterns are grouped by their root directory, and each jar file and directory found is enumerated only
+     * once, matching every entry against all patterns in the same pass. Patterns below different roots, that are
+     * located in the same jar file, share its enumeration as well.
+     * @param locationPatterns the location patterns to resolve
+     * @return the resources found per location pattern, in the order of the patterns given
+     * @throws IOException in case current I/O errors
+     */
+    public Map<String, Resource[]> getResources(Collection<String> locationPatterns) throws IOException {
+        // each root found gets its own result set per pattern, so the order is the same as for single patterns
+        Map<String, List<Set<Resource>>> results = new LinkedHashMap<>();
+        Map<String, List<String>> patternsByRootDir = new LinkedHashMap<>();
+        for (String locationPattern : locationPatterns) {
+            Objects.requireNonNull(locationPattern, "Location pattern must not be null");
+            if (results.containsKey(locationPattern)) {
+                continue;
+            }
+            List<Set<Resource>> patternResults = new ArrayList<>();
+            results.put(locationPattern, patternResults);
+            if (isPathPattern(locationPattern)) {
+                patternsByRootDir.computeIfAbsent(determineRootDir(locationPattern), k -> new ArrayList<>())
+                        .add(locationPattern);
+            }
+            else {
+                patternResults.add(new LinkedHashSet<>(Arrays.asList(getResources(locationPattern))));
+            }
+        }
+        Map<String, List<JarMatch>> jarMatches = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> group : patternsByRootDir.entrySet()) {
+            String rootDirPath = group.getKey();
+            List<String> patterns = group.getValue();
+            for (Resource rootDirResource : getResources(rootDirPath)) {
+                rootDirResource = resolveRootDirResource(rootDirResource);
+                List<Set<Resource>> rootResults = new ArrayList<>(patterns.size());
+                List<String> subPatterns = new ArrayList<>(patterns.size());
+                for (String pattern : patterns) {
+                    Set<Resource> rootResult = new LinkedHashSet<>(8);
+                    results.get(pattern).add(rootResult);
+                    rootResults.add(rootResult);
+                    subPatterns.add(pattern.substring(rootDirPath.length()));
+                }
+                if (rootDirResource.getURL().getProtocol().startsWith(ResourceUtils.URL_PROTOCOL_VFS)) {
+                    for (int i = 0; i < subPatterns.size(); i++) {
+                        rootResults.get(i).addAll(VfsResourceMatchingDelegate.findMatchingResources(
+                                rootDirResource, subPatterns.get(i), getPathMatcher()));
+                    }
+                }
+                else if (isJarResource(rootDirResource)) {
+                    String urlFile = rootDirResource.getURL().getFile();
+                    int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+                    for (int i = 0; i < subPatterns.size(); i++) {
+                        if (separatorIndex == -1) {
+                            // no jar file to be shared
+                            rootResults.get(i).addAll(doFindPathMatchingJarResources(rootDirResource, subPatterns.get(i)));
+                            continue;
+                        }
+                        // the entry path is still URL encoded, other than the one returned by the connection
+                        jarMatches.computeIfAbsent(urlFile.substring(0, separatorIndex), k -> new ArrayList<>())
+                                .add(new JarMatch(rootDirResource, decodeEntryPath(
+                                        urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length())),
+                                        getPathMatcher().compile(subPatterns.get(i)), rootResults.get(i)));
+                    }
+                }
+                else {
+                    doFindPathMatchingFileResources(rootDirResource, subPatterns, rootResults);
+                }
+            }
+        }
+        for (List<JarMatch> matches : jarMatches.values()) {
+            doFindPathMatchingJarResources(matches.get(0).rootDirResource, matches);
+        }
+        Map<String, Resource[]> resources = new LinkedHashMap<>();
+        results.forEach((locationPattern, patternResults) -> {
+            Set<Resource> result = new LinkedHashSet<>(16);
+            patternResults.forEach(result::addAll);
+            logger.finest(() -> "Resolved location pattern [" + locationPattern + "] to resources " + result);
+            resources.put(locationPattern, result.toArray(new Resource[result.size()]));
+        });
+        return resources;
+    }
+
+    /**
+     * Checks if the given location is a pattern, that must be resolved by matching paths.
+     * @param locationPattern the location to check
+     * @return true, if paths must be matched for resolving the location
+     */
+    private boolean isPathPattern(String locationPattern) {
+        if (locationPattern.startsWith(CLASSPATH_ALL_URL_PREFIX)) {
+            return getPathMatcher().isPattern(locationPattern.substring(CLASSPATH_ALL_URL_PREFIX.length()));
+        }
+        // Only look for a pattern after a prefix here
+        // (to not get fooled by a pattern symbol in a strange prefix).
+        return getPathMatcher().isPattern(locationPattern.substring(locationPattern.indexOf(':') + 1));
+    }
+
     /**
      * Find all class location resources with the given location via the ClassLoader.
      * Delegates to {@link #doFindAllClassPathResources(String)}.
@@ -445,14 +548,62 @@ public final class PathMatchingResourcePatternResolver{
      */
     protected Set<Resource> doFindPathMatchingJarResources(Resource rootDirResource, String subPattern)
             throws IOException {
+        Set<Resource> result = new LinkedHashSet<>(8);
+        // compiled once, so the entries are matched in place, creating substrings for matches only
+        doFindPathMatchingJarResources(rootDirResource,
+                Collections.singletonList(new JarMatch(rootDirResource, null, getPathMatcher().compile(subPattern), result)));
+        return result;
+    }
+
+    /**
+     * Decodes the entry path of a jar URL, e.g. {@code conf%20dir/} to {@code conf dir/}, the same way as the
+     * {@link JarURLConnection} does.
+     * @param entryPath the URL encoded entry path
+     * @return the entry path, as used by the jar file
+     * @throws IOException if the entry path is not a valid URL path
+     */
+    private static String decodeEntryPath(String entryPath) throws IOException {
+        if (entryPath.indexOf('%') == -1) {
+            return entryPath;
+        }
+        try {
+            return ResourceUtils.toURI(ResourceUtils.FILE_URL_PREFIX + "/" + entryPath).getPath().substring(1);
+        }
+        catch (URISyntaxException ex) {
+            throw new IOException("Invalid jar entry path: " + entryPath, ex);
+        }
+    }
+
+    /**
+     * Enumerates the entries of a jar file once, adding the entries matching to the results of the given
+     * matches.
+     * @param rootDirResource the root directory used for opening the jar file
+     * @param matches the root entry paths and patterns to match, all located in the same jar file. A root entry
+     * path not set is evaluated from {@code rootDirResource}.
+     * @throws IOException in case current I/O errors
+     */
+    private void doFindPathMatchingJarResources(Resource rootDirResource, List<JarMatch> matches)
+            throws IOException {
 
-        URLConnection con = rootDirResource.getURL().openConnection();
+        URL rootDirUrl = rootDirResource.getURL();
+        boolean pooled = JarFilePool.getInstance().isPooled(rootDirUrl);
+        URLConnection con = pooled ? null : rootDirUrl.openConnection();
         JarFile jarFile;
         String jarFileUrl;
         String rootEntryPath;
         boolean newJarFile = false;
+        JarFilePool.Handle pooledJarFile = null;
 
-        if (con instanceof JarURLConnection) {
+        if (pooled) {
+            // Local jar file, shared with other scans and the reading of the entries found.
+            String urlFile = rootDirUrl.getFile();
+            int separatorIndex = urlFile.indexOf(ResourceUtils.JAR_URL_SEPARATOR);
+            jarFileUrl = urlFile.substring(0, separatorIndex);
+            rootEntryPath = urlFile.substring(separatorIndex + ResourceUtils.JAR_URL_SEPARATOR.length());
+            pooledJarFile = JarFilePool.getInstance().acquire(jarFileUrl);
+            jarFile = pooledJarFile.getJarFile();
+        }
+        else if (con instanceof JarURLConnection) {
             // Should usually be the case for traditional JAR files.
             JarURLConnection jarCon = (JarURLConnection) con;
             ResourceUtils.useCachesIfNecessary(jarCon);
@@ -483,28 +634,26 @@ public final class PathMatchingResourcePatternResolver{
 
         try {
             logger.finest("Looking for matching resources in jar file [" + jarFileUrl + "]");
-            if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
-                // Root entry path must end with slash to allow for proper matching.
-                // The Sun JRE does not return a slash here, but BEA JRockit does.
-                rootEntryPath = rootEntryPath + "/";
+            for (JarMatch match : matches) {
+                match.setRootEntryPath(match.rootEntryPath != null ? match.rootEntryPath : rootEntryPath);
             }
-            Set<Resource> result = new LinkedHashSet<>(8);
             for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
                 JarEntry entry = entries.nextElement();
                 String entryPath = entry.getName();
-                if (entryPath.startsWith(rootEntryPath)) {
-                    String relativePath = entryPath.substring(rootEntryPath.length());
-                    if (getPathMatcher().match(subPattern, relativePath)) {
-                        result.add(rootDirResource.createRelative(relativePath));
+                for (JarMatch match : matches) {
+                    if (entryPath.startsWith(match.rootEntryPath) && match.pattern.matches(entryPath, match.rootEntryPath.length())) {
+                        match.result.add(match.rootDirResource.createRelative(entryPath.substring(match.rootEntryPath.length())));
                     }
                 }
             }
-            return result;
         }
         finally {
             // Close jar file, but only if freshly obtained -
             // not from JarURLConnection, which might cache the file reference.
-            if (newJarFile) {
+            if (pooledJarFile != null) {
+                pooledJarFile.close();
+            }
+            else if (newJarFile) {
                 jarFile.close();
             }
         }
@@ -552,6 +701,41 @@ public final class PathMatchingResourcePatternResolver{
         return doFindMatchingFileSystemResources(rootDir, subPattern);
     }
 
+    /**
+     * Find all resources in the file system that match any of the given location patterns
+     * via the Ant-style PathMatcher, walking the directory tree only once.
+     * @param rootDirResource the root directory as Resource
+     * @param subPatterns the sub patterns to match (below the root directory)
+     * @param results the sets to add the matching resources to, with the same index as the patterns
+     * @throws IOException in case current I/O errors
+     */
+    private void doFindPathMatchingFileResources(Resource rootDirResource, List<String> subPatterns,
+                                                 List<Set<Resource>> results) throws IOException {
+        File rootDir;
+        try {
+            rootDir = rootDirResource.getFile().getAbsoluteFile();
+        }
+        catch (IOException ex) {
+            logger.log(Level.WARNING, ex, () -> "Cannot search for matching files underneath " + rootDirResource +
+                        " because it does not correspond to a directory in the file system");
+            return;
+        }
+        logger.finest(() -> "Looking for matching resources in directory tree [" + rootDir.getPath() + "]");
+        if (!isSearchableDirectory(rootDir)) {
+            return;
+        }
+        List<Set<File>> matchingFiles = new ArrayList<>(subPatterns.size());
+        for (int i = 0; i < subPatterns.size(); i++) {
+            matchingFiles.add(new LinkedHashSet<>(8));
+        }
+        walkMatchingFiles(rootDir, subPatterns, matchingFiles);
+        for (int i = 0; i < matchingFiles.size(); i++) {
+            for (File file : matchingFiles.get(i)) {
+                results.get(i).add(new FileSystemResource(file));
+            }
+        }
+    }
+
     /**
      * Find all resources in the file system that match the given location pattern
      * via the Ant-style PathMatcher.
@@ -579,65 +763,227 @@ public final class PathMatchingResourcePatternResolver{
      * @throws IOException if directory contents could not be retrieved
      */
     protected Set<File> retrieveMatchingFiles(File rootDir, String pattern) throws IOException {
+        if (!isSearchableDirectory(rootDir)) {
+            return Collections.emptySet();
+        }
+        Set<File> result = new LinkedHashSet<>(8);
+        walkMatchingFiles(rootDir, Collections.singletonList(pattern), Collections.singletonList(result));
+        return result;
+    }
+
+    /**
+     * Checks if the given root directory exists and can be searched for matching files.
+     * @param rootDir the directory to start from
+     * @return true, if the directory can be searched
+     */
+    private boolean isSearchableDirectory(File rootDir) {
         if (!rootDir.exists()) {
             // Silently skip non-existing directories.
             logger.finest(() -> "Skipping [" + rootDir.getAbsolutePath() + "] because it does not exist");
-            return Collections.emptySet();
+            return false;
         }
         if (!rootDir.isDirectory()) {
             // Complain louder if it exists but is no directory.
             logger.log(Level.WARNING, () -> "Skipping [" + rootDir.getAbsolutePath() + "] because it does not denote a directory");
-            return Collections.emptySet();
+            return false;
         }
         if (!rootDir.canRead()) {
             logger.log(Level.WARNING, () -> "Cannot search for matching files underneath directory [" + rootDir.getAbsolutePath() +
                     "] because the application is not allowed to read the directory");
-            return Collections.emptySet();
+            return false;
         }
+        return true;
+    }
+
+    /**
+     * Prepends the path of the root directory to the given pattern.
+     * @param rootDir the directory to start from
+     * @param pattern the pattern, relative to the root directory
+     * @return the pattern to match the absolute file paths against
+     */
+    private String toFullPattern(File rootDir, String pattern) {
         String fullPattern = StringUtils.replace(rootDir.getAbsolutePath(), File.separator, "/");
         if (!pattern.startsWith("/")) {
             fullPattern += "/";
         }
-        fullPattern = fullPattern + StringUtils.replace(pattern, File.separator, "/");
-        Set<File> result = new LinkedHashSet<>(8);
-        doRetrieveMatchingFiles(fullPattern, rootDir, result);
-        return result;
+        return fullPattern + StringUtils.replace(pattern, File.separator, "/");
     }
 
     /**
-     * Recursively retrieve files that match the given pattern,
-     * adding them to the given result list.
-     * @param fullPattern the pattern to match against,
-     * with prepended root directory path
-     * @param dir the current directory
-     * @param result the Set current matching File instances to add to
-     * @throws IOException if directory contents could not be retrieved
+     * Retrieve the files that match any of the given patterns, walking the directory tree
+     * below the root directory once. The walk starts at the deepest directory all patterns begin
+     * with literally, and skips the subdirectories no pattern can match files in. The attributes
+     * of each file are read only once, by the walk itself.
+     * @param rootDir the directory to start from
+     * @param patterns the patterns to match against, relative to the root directory
+     * @param results the Sets of matching File instances to add to, with the same index as the patterns
+     * @throws IOException if the directory tree could not be walked
      */
-    protected void doRetrieveMatchingFiles(String fullPattern, File dir, Set<File> result) throws IOException {
-        logger.finest(() -> "Searching directory [" + dir.getAbsolutePath() +
-                "] for files matching pattern [" + fullPattern + "]");
-        File[] dirContents = dir.listFiles();
-        if (dirContents == null) {
-            logger.log(Level.WARNING, () -> "Could not retrieve contents current directory [" + dir.getAbsolutePath() + "]");
+    private void walkMatchingFiles(File rootDir, List<String> patterns, List<Set<File>> results) throws IOException {
+        List<String> fullPatterns = new ArrayList<>(patterns.size());
+        String prefix = null;
+        for (String pattern : patterns) {
+            fullPatterns.add(toFullPattern(rootDir, pattern));
+            String literalDirs = getLiteralDirectories(StringUtils.replace(pattern, File.separator, "/"));
+            prefix = prefix == null ? literalDirs : getCommonDirectories(prefix, literalDirs);
+        }
+        Path root = rootDir.getAbsoluteFile().toPath();
+        Path start = prefix == null || prefix.isEmpty() ? root : root.resolve(prefix);
+        if (!Files.isDirectory(start)) {
+            logger.finest(() -> "Skipping [" + start + "] because it does not exist");
             return;
         }
-        for (File content : dirContents) {
-            String currPath = StringUtils.replace(content.getAbsolutePath(), File.separator, "/");
-            if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
-                if (!content.canRead()) {
-                   logger.finest(() -> "Skipping subdirectory [" + dir.getAbsolutePath() +
-                                "] because the application is not allowed to read the directory");
-                }
-                else {
-                    doRetrieveMatchingFiles(fullPattern, content, result);
+        logger.finest(() -> "Searching directory [" + start + "] for files matching patterns " + fullPatterns);
+        Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE,
+                new PatternFileVisitor(root, start, fullPatterns, results));
+    }
+
+    /**
+     * Evaluates the directories a pattern starts with, that do not contain any wildcards.
+     * @param pattern the pattern, relative to the root directory
+     * @return the directories, ending with a slash, or an empty String
+     */
+    private static String getLiteralDirectories(String pattern) {
+        int start = pattern.startsWith("/") ? 1 : 0;
+        int end = start;
+        for (int slash = pattern.indexOf('/', start); slash != -1; slash = pattern.indexOf('/', slash + 1)) {
+            for (int i = end; i < slash; i++) {
+                char c = pattern.charAt(i);
+                if (c == '*' || c == '?' || c == '{') {
+                    return pattern.substring(start, end);
                 }
             }
-            if (getPathMatcher().match(fullPattern, currPath)) {
-                result.add(content);
+            end = slash + 1;
+        }
+        return pattern.substring(start, end);
+    }
+
+    /**
+     * Evaluates the directories both given directory paths start with.
+     * @param dirs1 the first directories, ending with a slash, or empty
+     * @param dirs2 the second directories, ending with a slash, or empty
+     * @return the common directories, ending with a slash, or an empty String
+     */
+    private static String getCommonDirectories(String dirs1, String dirs2) {
+        int end = 0;
+        int length = Math.min(dirs1.length(), dirs2.length());
+        for (int i = 0; i < length && dirs1.charAt(i) == dirs2.charAt(i); i++) {
+            if (dirs1.charAt(i) == '/') {
+                end = i + 1;
             }
         }
+        return dirs1.substring(0, end);
     }
 
+    /**
+     * A root entry path and compiled pattern to be matched against the entries of a jar file, together with
+     * the set collecting the resources matching.
+     */
+    private static final class JarMatch {
+
+        private final Resource rootDirResource;
+
+        private String rootEntryPath;
+
+        private final AntPathPattern pattern;
+
+        private final Set<Resource> result;
+
+        JarMatch(Resource rootDirResource, String rootEntryPath, AntPathPattern pattern, Set<Resource> result) {
+            this.rootDirResource = rootDirResource;
+            this.rootEntryPath = rootEntryPath;
+            this.pattern = pattern;
+            this.result = result;
+        }
+
+        void setRootEntryPath(String rootEntryPath) {
+            if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+                // Root entry path must end with slash to allow for proper matching.
+                // The Sun JRE does not return a slash here, but BEA JRockit does.
+                rootEntryPath = rootEntryPath + "/";
+            }
+            this.rootEntryPath = rootEntryPath;
+        }
+    }
+
+    /**
+     * Visitor collecting the files matching any of the given patterns, skipping the directories
+     * no pattern can match files in. Matching directories are added after their contents.
+     */
+    private final class PatternFileVisitor extends SimpleFileVisitor<Path> {
+
+        private final Path rootDir;
+
+        private final Path startDir;
+
+        private final List<String> fullPatterns;
+
+        private final List<Set<File>> results;
+
+        PatternFileVisitor(Path rootDir, Path startDir, List<String> fullPatterns, List<Set<File>> results) {
+            this.rootDir = rootDir;
+            this.startDir = startDir;
+            this.fullPatterns = fullPatterns;
+            this.results = results;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            if (dir.equals(startDir)) {
+                return FileVisitResult.CONTINUE;
+            }
+            String dirPath = toMatchedPath(dir) + "/";
+            for (String fullPattern : fullPatterns) {
+                if (getPathMatcher().matchStart(fullPattern, dirPath)) {
+                    return FileVisitResult.CONTINUE;
+                }
+            }
+            addIfMatching(dir);
+            return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            addIfMatching(file);
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            if (exc instanceof FileSystemLoopException) {
+                logger.finest(() -> "Skipping [" + file + "] because it links to a parent directory");
+            }
+            else {
+                logger.finest(() -> "Skipping contents of [" + file + "] because it could not be read: " + exc);
+                addIfMatching(file);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            if (exc != null) {
+                logger.log(Level.WARNING, () -> "Could not retrieve contents of directory [" + dir + "]: " + exc);
+            }
+            if (!dir.equals(rootDir)) {
+                addIfMatching(dir);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        private void addIfMatching(Path path) {
+            String matchedPath = toMatchedPath(path);
+            for (int i = 0; i < fullPatterns.size(); i++) {
+                if (getPathMatcher().match(fullPatterns.get(i), matchedPath)) {
+                    results.get(i).add(path.toFile());
+                }
+            }
+        }
+
+        private String toMatchedPath(Path path) {
+            return File.separatorChar == '/' ? path.toString() : path.toString().replace(File.separatorChar, '/');
+        }
+    }
 
     /**
      * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
@@ -152,13 +152,18 @@ public class UrlResource extends AbstractFileResolvingResource {
     /**
      * This implementation opens an InputStream for the given URL.
      * It sets the "UseCaches" flag to {@code false},
-     * mainly to avoid jar file locking on Windows.
+     * mainly to avoid jar file locking on Windows. Entries of local
+     * jar files are read using the shared {@link JarFilePool}.
      * @see java.net.URL#openConnection()
      * @see java.net.URLConnection#setUseCaches(boolean)
      * @see java.net.URLConnection#getInputStream()
      */
     @Override
     public InputStream getInputStream()throws IOException {
+        if (JarFilePool.getInstance().isPooled(this.url)) {
+            // Entry of a local jar file, read without opening the jar file again.
+            return JarFilePool.getInstance().getInputStream(this.url);
+        }
         URLConnection con = null;
         try {
             con = this.url.openConnection();
@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects runtime metrics of the configuration system: lookup counts per configuration, hits and misses
+ * of caching layers, durations of reloads and of dispatching change events to listeners. All
+ * counters are striped {@link java.util.concurrent.atomic.LongAdder}s, held directly by the components recording
+ * them, so the lookup path is not burdened with map accesses.
+ * <p>
+ * Lookups are counted on the configurations handed out by the default {@link org.apache.tamaya.spi.ConfigurationSpi}
+ * only, lookups on property sources, or on configurations created directly, e.g. by
+ * {@link org.apache.tamaya.Configuration#from(org.apache.tamaya.PropertySource)}, are not counted. This keeps the
+ * counts per configuration exact, since composite property sources delegate each lookup to several sources.
+ * <p>
+ * Metrics are enabled by default and can be switched off by setting the system property
+ * {@code tamaya.metrics.enabled} to {@code false}, in which case no recording takes place at all. The
+ * configurations are then handed out without the counting wrapper.
+ */
+public final class ConfigMetrics {
+
+    /** System property to switch metrics off. */
+    public static final String ENABLED_PROPERTY = "tamaya.metrics.enabled";
+
+    private static final ConfigMetrics INSTANCE = new ConfigMetrics(
+            !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY)));
+
+    private final boolean enabled;
+
+    private final Map<String, LookupCounters> lookups = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyHistogram> reloads = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram listenerDispatch = new LatencyHistogram();
+
+    private final HotKeyProfiler hotKeyProfiler = new HotKeyProfiler();
+
+    private final LongAdder configCacheHits = new LongAdder();
+
+    private final LongAdder configCacheLoads = new LongAdder();
+
+    /** The caches registered, weakly referenced, so registration does not prevent them being collected. */
+    private final Map<MeteredCache, Boolean> caches = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private ConfigMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Access the shared metrics instance.
+     *
+     * @return the metrics, never null.
+     */
+    public static ConfigMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Checks if metrics are recorded.
+     *
+     * @return true, if metrics are enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Access the lookup counters of the given configuration, creating them on first access. Callers are
+     * expected to keep the instance returned, instead of accessing it on each lookup.
+     *
+     * @param configName the configuration's name, not null.
+     * @return the counters, never null.
+     */
+    public LookupCounters getLookupCounters(String configName) {
+        return lookups.computeIfAbsent(configName, LookupCounters::new);
+    }
+
+    /**
+     * Access the lookup counters of all configurations accessed so far.
+     *
+     * @return the counters, by configuration name, never null.
+     */
+    public Map<String, LookupCounters> getLookupCounters() {
+        return Collections.unmodifiableMap(new TreeMap<>(lookups));
+    }
+
+    /**
+     * Records a configuration being served from the configuration cache.
+     */
+    public void recordConfigCacheHit() {
+        if (enabled) {
+            configCacheHits.increment();
+        }
+    }
+
+    /**
+     * Records a configuration being loaded, because it was not cached yet.
+     */
+    public void recordConfigCacheLoad() {
+        if (enabled) {
+            configCacheLoads.increment();
+        }
+    }
+
+    /**
+     * @return the number of configuration accesses served by the configuration cache.
+     */
+    public long getConfigCacheHitCount() {
+        return configCacheHits.sum();
+    }
+
+    /**
+     * @return the number of configurations loaded on access.
+     */
+    public long getConfigCacheLoadCount() {
+        return configCacheLoads.sum();
+    }
+
+    /**
+     * Records the duration of a configuration reload.
+     *
+     * @param configName the name of the configuration reloaded, not null.
+     * @param nanos      the duration in nanoseconds.
+     */
+    public void recordReload(String configName, long nanos) {
+        if (enabled) {
+            reloads.computeIfAbsent(configName, n -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    /**
+     * Access the reload durations recorded so far.
+     *
+     * @return the reload durations, by configuration name, never null.
+     */
+    public Map<String, LatencyHistogram> getReloadHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<>(reloads));
+    }
+
+    /**
+     * Records the duration of dispatching a change event to a single listener.
+     *
+     * @param nanos the duration in nanoseconds.
+     */
+    public void recordListenerDispatch(long nanos) {
+        if (enabled) {
+            listenerDispatch.record(nanos);
+        }
+    }
+
+    /**
+     * @return the durations of dispatching change events to listeners, never null.
+     */
+    public LatencyHistogram getListenerDispatchHistogram() {
+        return listenerDispatch;
+    }
+
+    /**
+     * Access the profiler for the keys read most frequently, off unless a sample rate is set.
+     *
+     * @return the profiler, never null.
+     */
+    public HotKeyProfiler getHotKeyProfiler() {
+        return hotKeyProfiler;
+    }
+
+    /**
+     * Registers a cache, so its statistics are published along with the other metrics. Registration is a no-op,
+     * if metrics are disabled.
+     *
+     * @param cache the cache, not null.
+     */
+    public void registerCache(MeteredCache cache) {
+        if (enabled) {
+            caches.put(cache, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Access the caches registered, that are still reachable.
+     *
+     * @return the caches, never null.
+     */
+    public Set<MeteredCache> getCaches() {
+        synchronized (caches) {
+            return Collections.unmodifiableSet(new HashSet<>(caches.keySet()));
+        }
+    }
+
+    /**
+     * Resets all counters, histograms and the hot keys recorded. The statistics of registered caches are not
+     * affected.
+     */
+    public void reset() {
+        lookups.values().forEach(LookupCounters::reset);
+        reloads.values().forEach(LatencyHistogram::reset);
+        listenerDispatch.reset();
+        hotKeyProfiler.reset();
+        configCacheHits.reset();
+        configCacheLoads.reset();
+    }
+
+    /**
+     * Lookup counters of a single configuration.
+     */
+    public static final class LookupCounters {
+        private final String configName;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        LookupCounters(String configName) {
+            this.configName = configName;
+        }
+
+        /**
+         * @return the configuration's name.
+         */
+        public String getConfigName() {
+            return configName;
+        }
+
+        /**
+         * Records a lookup returning a value.
+         */
+        public void hit() {
+            hits.increment();
+        }
+
+        /**
+         * Records a lookup returning no value.
+         */
+        public void miss() {
+            misses.increment();
+        }
+
+        /**
+         * @return the number of lookups returning a value.
+         */
+        public long getHitCount() {
+            return hits.sum();
+        }
+
+        /**
+         * @return the number of lookups returning no value.
+         */
+        public long getMissCount() {
+            return misses.sum();
+        }
+
+        /**
+         * @return the number of lookups.
+         */
+        public long getLookupCount() {
+            return hits.sum() + misses.sum();
+        }
+
+        void reset() {
+            hits.reset();
+            misses.reset();
+        }
+
+        @Override
+        public String toString() {
+            return "LookupCounters{" +
+                    "configName='" + configName + '\'' +
+                    ", hits=" + getHitCount() +
+                    ", misses=" + getMissCount() +
+                    '}';
+        }
+    }
+
+    /**
+     * Implemented by caches, that publish their statistics.
+     */
+    public interface MeteredCache {
+        /**
+         * @return the cache's name, not null.
+         */
+        String getName();
+
+        /**
+         * @return the number of accesses served by the cache.
+         */
+        long getHitCount();
+
+        /**
+         * @return the number of accesses not served by the cache.
+         */
+        long getMissCount();
+
+        /**
+         * @return the number of entries evicted.
+         */
+        long getEvictionCount();
+
+        /**
+         * @return the number of entries cached.
+         */
+        int getSize();
+    }
+}
@@ -0,0 +1,436 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Sampling profiler for the keys read from the configurations. A fraction of the reads, as defined by the
+ * sample rate, is recorded into a fixed size Space-Saving sketch, which keeps the most frequently read keys with
+ * an upper bound of the overestimation of their counts. For each key kept the classes reading it and the
+ * types it was converted to are counted as well.
+ * <p>
+ * The profiler is off by default, it can be enabled by setting the system property
+ * {@code tamaya.metrics.hotkeys.sampleRate} to a value between 0 and 1, or calling {@link #setSampleRate(double)}
+ * at runtime. The number of keys kept is set by {@code tamaya.metrics.hotkeys.capacity}, by default 128.
+ * <p>
+ * Reads not sampled only cost a volatile read and a thread local random number. Reads sampled evaluate their
+ * calling class from a stack trace, which costs some microseconds, so a rate of 1 slows down every read
+ * noticeably; in production rates of 0.01 or below should be used. Sampled reads are buffered in stripes selected
+ * by the reading thread and added to the sketch in batches, so concurrent readers rarely contend on the sketch.
+ * Adding a key not kept yet scans all keys kept for the one to be evicted, i.e. takes time linear in the capacity.
+ */
+public final class HotKeyProfiler {
+
+    /** System property defining the initial sample rate. */
+    public static final String SAMPLE_RATE_PROPERTY = "tamaya.metrics.hotkeys.sampleRate";
+    /** System property defining the number of keys kept. */
+    public static final String CAPACITY_PROPERTY = "tamaya.metrics.hotkeys.capacity";
+
+    private static final Logger LOG = Logger.getLogger(HotKeyProfiler.class.getName());
+
+    private static final int DEFAULT_CAPACITY = 128;
+    /** The number of reads buffered per stripe before they are added to the sketch. */
+    private static final int BUFFER_SIZE = 32;
+    /** The number of distinct callers and types tracked per key, further ones are counted as other. */
+    private static final int MAX_DETAILS = 8;
+    private static final String OTHER = "<other>";
+    /** Type recorded for reads converted by an adapter, whose target type is not known. */
+    private static final String ADAPTER = "<adapter>";
+    /** Frames skipped when evaluating the caller of a read. */
+    private static final String[] SKIPPED_FRAMES = {
+            HotKeyProfiler.class.getName(),
+            "org.apache.tamaya.core.internal.config.MeteredConfiguration",
+            "org.apache.tamaya.Configuration",
+            "org.apache.tamaya.PropertySource",
+            Thread.class.getName()
+    };
+
+    private final int capacity;
+
+    /** Record one read of {@code sampleInterval} reads, 0 if off. */
+    private volatile int sampleInterval;
+
+    /** The keys monitored, guarded by this instance. */
+    private final Map<String, Counter> counters = new HashMap<>();
+
+    /** The reads not yet added to the sketch, the number of stripes is a power of two. */
+    private final SampleBuffer[] buffers;
+
+    HotKeyProfiler() {
+        this(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY), readSampleRate());
+    }
+
+    HotKeyProfiler(int capacity, double sampleRate) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1;
+        this.buffers = new SampleBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            buffers[i] = new SampleBuffer();
+        }
+        setSampleRate(sampleRate);
+    }
+
+    private static double readSampleRate() {
+        String rate = System.getProperty(SAMPLE_RATE_PROPERTY);
+        if (rate == null) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(rate);
+        } catch (NumberFormatException e) {
+            LOG.log(Level.WARNING, "Invalid " + SAMPLE_RATE_PROPERTY + ": " + rate + ", hot key profiling is off.", e);
+            return 0.0;
+        }
+    }
+
+    /**
+     * Sets the fraction of reads recorded. The rate is rounded to one of every n reads.
+     *
+     * @param sampleRate the sample rate, between 0 (off) and 1 (all reads).
+     */
+    public void setSampleRate(double sampleRate) {
+        if (sampleRate < 0.0 || sampleRate > 1.0 || Double.isNaN(sampleRate)) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1: " + sampleRate);
+        }
+        this.sampleInterval = sampleRate == 0.0 ? 0 : (int) Math.min(Integer.MAX_VALUE, Math.round(1.0 / sampleRate));
+    }
+
+    /**
+     * @return the fraction of reads recorded, 0 if off.
+     */
+    public double getSampleRate() {
+        int interval = this.sampleInterval;
+        return interval == 0 ? 0.0 : 1.0 / interval;
+    }
+
+    /**
+     * @return the number of keys kept.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Records a read, if it is sampled.
+     *
+     * @param key  the key read, not null.
+     * @param type the type the value is converted to, or null, if it is converted by a
+     *             {@link org.apache.tamaya.PropertyAdapter} passed by the caller.
+     */
+    public void sample(String key, Class<?> type) {
+        int interval = this.sampleInterval;
+        if (interval == 0 || (interval > 1 && ThreadLocalRandom.current().nextInt(interval) != 0)) {
+            return;
+        }
+        record(key, type == null ? ADAPTER : type.getName(), findCaller(), interval);
+    }
+
+    private static String findCaller() {
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        for (StackTraceElement frame : stack) {
+            if (!isSkipped(frame.getClassName())) {
+                return frame.getClassName();
+            }
+        }
+        return OTHER;
+    }
+
+    private static boolean isSkipped(String className) {
+        for (String skipped : SKIPPED_FRAMES) {
+            if (className.equals(skipped)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a read, weighted with the current sample interval, so the counts estimate the reads. The read is
+     * buffered in the stripe of the current thread, the buffer is added to the sketch once it is full.
+     */
+    void record(String key, String type, String caller, long weight) {
+        SampleBuffer buffer = buffers[(int) Thread.currentThread().getId() & (buffers.length - 1)];
+        synchronized (buffer) {
+            if (buffer.add(key, type, caller, weight)) {
+                drain(buffer);
+            }
+        }
+    }
+
+    /**
+     * Adds the reads buffered to the sketch. The caller must hold the lock of the buffer, the locks are always
+     * acquired in the order buffer, sketch.
+     */
+    private void drain(SampleBuffer buffer) {
+        synchronized (this) {
+            for (int i = 0; i < buffer.size; i++) {
+                add(buffer.keys[i], buffer.types[i], buffer.callers[i], buffer.weights[i]);
+            }
+        }
+        buffer.clear();
+    }
+
+    private void drainAll() {
+        for (SampleBuffer buffer : buffers) {
+            synchronized (buffer) {
+                drain(buffer);
+            }
+        }
+    }
+
+    /**
+     * Adds a read to the sketch, guarded by this instance.
+     */
+    private void add(String key, String type, String caller, long weight) {
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            long error = 0;
+            if (counters.size() >= capacity) {
+                Counter min = null;
+                for (Counter c : counters.values()) {
+                    if (min == null || c.count < min.count) {
+                        min = c;
+                    }
+                }
+                counters.remove(min.key);
+                error = min.count;
+            }
+            counter = new Counter(key, error);
+            counters.put(key, counter);
+        }
+        counter.count += weight;
+        counter.callers.add(caller, weight);
+        counter.types.add(type, weight);
+    }
+
+    /**
+     * Access the keys read most frequently.
+     *
+     * @param n the maximal number of keys returned.
+     * @return the keys, ordered by estimated reads descending, never null.
+     */
+    public List<HotKey> getTopKeys(int n) {
+        drainAll();
+        synchronized (this) {
+            return getTopCounters(n);
+        }
+    }
+
+    private List<HotKey> getTopCounters(int n) {
+        List<Counter> sorted = new ArrayList<>(counters.values());
+        sorted.sort((c1, c2) -> Long.compare(c2.count, c1.count));
+        List<HotKey> result = new ArrayList<>(Math.min(n, sorted.size()));
+        for (Counter counter : sorted.subList(0, Math.max(0, Math.min(n, sorted.size())))) {
+            result.add(new HotKey(counter.key, counter.count, counter.error,
+                    counter.callers.toMap(), counter.types.toMap()));
+        }
+        return result;
+    }
+
+    /**
+     * Creates a readable report of the keys read most frequently.
+     *
+     * @param n the maximal number of keys reported.
+     * @return the report, never null.
+     */
+    public String dump(int n) {
+        StringBuilder b = new StringBuilder("Hot configuration keys (sample rate ").append(getSampleRate())
+                .append(", capacity ").append(capacity).append("):\n");
+        for (HotKey hotKey : getTopKeys(n)) {
+            b.append("  ").append(hotKey.getKey()).append(": ~").append(hotKey.getCount())
+                    .append(" reads (+/- ").append(hotKey.getError()).append(")\n")
+                    .append("    callers: ").append(hotKey.getCallers()).append('\n')
+                    .append("    types:   ").append(hotKey.getTypes()).append('\n');
+        }
+        return b.toString();
+    }
+
+    /**
+     * Clears all keys recorded, the sample rate is not changed.
+     */
+    public void reset() {
+        for (SampleBuffer buffer : buffers) {
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+        synchronized (this) {
+            counters.clear();
+        }
+    }
+
+    /**
+     * A key read frequently, as estimated by the profiler.
+     */
+    public static final class HotKey {
+        private final String key;
+        private final long count;
+        private final long error;
+        private final Map<String, Long> callers;
+        private final Map<String, Long> types;
+
+        HotKey(String key, long count, long error, Map<String, Long> callers, Map<String, Long> types) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+            this.callers = callers;
+            this.types = types;
+        }
+
+        /**
+         * @return the key.
+         */
+        public String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the estimated number of reads, at most {@link #getError()} too high.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the maximal overestimation of {@link #getCount()}.
+         */
+        public long getError() {
+            return error;
+        }
+
+        /**
+         * @return the estimated reads by calling class, never null.
+         */
+        public Map<String, Long> getCallers() {
+            return callers;
+        }
+
+        /**
+         * @return the estimated reads by target type, never null.
+         */
+        public Map<String, Long> getTypes() {
+            return types;
+        }
+
+        @Override
+        public String toString() {
+            return "HotKey{" +
+                    "key='" + key + '\'' +
+                    ", count=" + count +
+                    ", error=" + error +
+                    ", callers=" + callers +
+                    ", types=" + types +
+                    '}';
+        }
+    }
+
+    /**
+     * Reads sampled but not yet added to the sketch, guarded by this instance.
+     */
+    private static final class SampleBuffer {
+        final String[] keys = new String[BUFFER_SIZE];
+        final String[] types = new String[BUFFER_SIZE];
+        final String[] callers = new String[BUFFER_SIZE];
+        final long[] weights = new long[BUFFER_SIZE];
+        int size;
+
+        /**
+         * Buffers a read.
+         *
+         * @return true, if the buffer is full.
+         */
+        boolean add(String key, String type, String caller, long weight) {
+            keys[size] = key;
+            types[size] = type;
+            callers[size] = caller;
+            weights[size++] = weight;
+            return size == BUFFER_SIZE;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0, size, null);
+            Arrays.fill(types, 0, size, null);
+            Arrays.fill(callers, 0, size, null);
+            size = 0;
+        }
+    }
+
+    private static final class Counter {
+        final String key;
+        final long error;
+        long count;
+        final Details callers = new Details();
+        final Details types = new Details();
+
+        Counter(String key, long error) {
+            this.key = key;
+            this.error = error;
+            this.count = error;
+        }
+    }
+
+    /**
+     * Counts per name, bounded to {@link #MAX_DETAILS} names.
+     */
+    private static final class Details {
+        private final String[] names = new String[MAX_DETAILS + 1];
+        private final long[] counts = new long[MAX_DETAILS + 1];
+        private int size;
+
+        void add(String name, long weight) {
+            for (int i = 0; i < size; i++) {
+                if (names[i].equals(name)) {
+                    counts[i] += weight;
+                    return;
+                }
+            }
+            if (size < MAX_DETAILS) {
+                names[size] = name;
+                counts[size++] = weight;
+            } else {
+                names[MAX_DETAILS] = OTHER;
+                counts[MAX_DETAILS] += weight;
+            }
+        }
+
+        Map<String, Long> toMap() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(names[i], counts[i]);
+            }
+            if (names[MAX_DETAILS] != null) {
+                map.put(OTHER, counts[MAX_DETAILS]);
+            }
+            return Collections.unmodifiableMap(map);
+        }
+    }
+}
@@ -20,9 +20,11 @@ package org.apache.tamaya.core.properties;
 
 import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.apache.tamaya.ConfigChangeSet;
 import org.apache.tamaya.PropertySource;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
 import org.apache.tamaya.spi.ConfigChangeSetCallback;
 
 /**
@@ -41,7 +43,7 @@ public abstract class AbstractPropertySource implements PropertySource, Serializ
      */
     private volatile Set<String> sources = new HashSet<>();
 
-    private volatile Set<ConfigChangeSetCallback> callbacks = new LinkedHashSet<>();
+    private final Set<ConfigChangeSetCallback> callbacks = new CopyOnWriteArraySet<>();
 
     /**
      * Constructor.
@@ -89,7 +91,19 @@ public abstract class AbstractPropertySource implements PropertySource, Serializ
     @Override
     public void update(ConfigChangeSet changeSet) {
         //TODO how do we want to update this guy?
-        this.callbacks.parallelStream().forEach((c) -> c.onChange(changeSet));
+        ConfigMetrics metrics = ConfigMetrics.getInstance();
+        if (!metrics.isEnabled()) {
+            this.callbacks.parallelStream().forEach((c) -> c.onChange(changeSet));
+            return;
+        }
+        this.callbacks.parallelStream().forEach((c) -> {
+            long start = System.nanoTime();
+            try {
+                c.onChange(changeSet);
+            } finally {
+                metrics.recordListenerDispatch(System.nanoTime() - start);
+            }
+        });
     }
 
     @Override
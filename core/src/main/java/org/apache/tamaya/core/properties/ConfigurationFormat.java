@@ -19,8 +19,6 @@
 package org.apache.tamaya.core.properties;
 
 import org.apache.tamaya.core.resource.Resource;
-import org.apache.tamaya.core.spi.ConfigurationFormatSpi;
-import org.apache.tamaya.spi.ServiceContext;
 
 import java.util.Collection;
 import java.util.Map;
@@ -65,7 +63,7 @@ public interface ConfigurationFormat{
      * not available for the given environment.
      */
     public static ConfigurationFormat of(String formatName){
-        return ServiceContext.getInstance().getSingleton(ConfigurationFormatSpi.class).getFormat(formatName);
+        return SpiSingletons.CONFIGURATION_FORMAT_SPI.get().getFormat(formatName);
     }
 
     /**
@@ -74,7 +72,7 @@ public interface ConfigurationFormat{
      * @return a collection current the keys current the registered {@link ConfigurationFormat} instances.
      */
     public static Collection<String> getFormatNames(){
-        return ServiceContext.getInstance().getSingleton(ConfigurationFormatSpi.class).getFormatNames();
+        return SpiSingletons.CONFIGURATION_FORMAT_SPI.get().getFormatNames();
     }
 
     /**
@@ -84,7 +82,7 @@ public interface ConfigurationFormat{
      * @return a matching configuration format, or {@code null} if no matching format could be determined.
      */
     public static ConfigurationFormat from(Resource resource){
-        return ServiceContext.getInstance().getSingleton(ConfigurationFormatSpi.class).getFormat(resource);
+        return SpiSingletons.CONFIGURATION_FORMAT_SPI.get().getFormat(resource);
 
     }
 
@@ -95,7 +93,7 @@ public interface ConfigurationFormat{
      * @return a format instance for reading configuration fromMap a {@code .properties} file, never null.
      */
     public static ConfigurationFormat getPropertiesFormat(){
-        return ServiceContext.getInstance().getSingleton(ConfigurationFormatSpi.class).getPropertiesFormat();
+        return SpiSingletons.CONFIGURATION_FORMAT_SPI.get().getPropertiesFormat();
     }
 
     /**
@@ -105,7 +103,7 @@ public interface ConfigurationFormat{
      * @return a format instance for reading configuration fromMap a {@code .xml} properties file, never null.
      */
     public static ConfigurationFormat getXmlPropertiesFormat(){
-        return ServiceContext.getInstance().getSingleton(ConfigurationFormatSpi.class).getXmlPropertiesFormat();
+        return SpiSingletons.CONFIGURATION_FORMAT_SPI.get().getXmlPropertiesFormat();
     }
 
 }
@@ -19,36 +19,98 @@
 package org.apache.tamaya.core.properties;
 
 import org.apache.tamaya.*;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
+ * Property source delegating to a separate {@link org.apache.tamaya.PropertySource} per isolation key, as returned
+ * by the isolation key supplier. The delegates are created lazily, each key on its own, so building the delegate
+ * of one context does not block accesses to the other contexts. The cache can be bounded by size (the entries
+ * accessed least recently are evicted first) and by idle time. If the isolation keys are themselves the scope
+ * of the context, e.g. class loaders, they can be held weakly and compared by identity, so undeployed contexts
+ * are released as soon as their key is collected.
+ * <p>
+ * Callbacks registered for updates are kept by this property source and notified of the changes published by any
+ * of its delegates, so they survive the eviction and recreation of the delegates.
+ * <p>
+ * Note that the map supplier must not access this property source itself.
+ * <p>
  * Created by Anatole on 12.04.2014.
  */
-class ContextualPropertySource implements PropertySource {
+public class ContextualPropertySource implements PropertySource, ConfigMetrics.MeteredCache {
 
-    private volatile Map<String,PropertySource> cachedMaps = new ConcurrentHashMap<>();
+    /** The cached delegates, by isolation key (or {@link WeakKey} if weak keys are used). */
+    private final ConcurrentHashMap<Object,Entry> cachedMaps = new ConcurrentHashMap<>();
+    /** Queue of the weak keys collected, null if keys are held strongly. */
+    private final ReferenceQueue<Object> releasedKeys;
 
-    private Supplier<PropertySource> mapSupplier;
-    private Supplier<String> isolationKeySupplier;
-    private String name;
+    private final Supplier<PropertySource> mapSupplier;
+    private final Supplier<?> isolationKeySupplier;
+    private final String name;
+    /** The maximal number of cached delegates, or 0 for unbounded. */
+    private final int maxSize;
+    /** The maximal idle time of a cached delegate in nanoseconds, or 0 for infinite. */
+    private final long maxIdleNanos;
+    /** The time after which the next idle sweep is due. */
+    private volatile long nextSweep;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    /** The callbacks registered, notified of the changes of all delegates. */
+    private final List<ConfigChangeSetCallback> callbacks = new CopyOnWriteArrayList<>();
+    /** Callback registered with each delegate, forwarding its changes to the callbacks registered. */
+    private final ConfigChangeSetCallback forwarder = this::publish;
 
 
     /**
-     * Creates a new contextual PropertyMap. Contextual maps delegate to different instances current PropertyMap depending
-     * on the keys returned fromMap the isolationP
+     * Creates a new contextual PropertyMap with an unbounded cache. Contextual maps delegate to different instances
+     * of PropertyMap depending on the keys returned fromMap the isolationKeySupplier.
      *
-     * @param mapSupplier
-     * @param isolationKeySupplier
+     * @param mapSupplier the supplier creating new provider instances, not null.
+     * @param isolationKeySupplier the supplier providing contextual keys based on the current environment, not null.
      */
-    public ContextualPropertySource(String name, Supplier<PropertySource> mapSupplier, Supplier<String> isolationKeySupplier){
+    public ContextualPropertySource(String name, Supplier<PropertySource> mapSupplier, Supplier<?> isolationKeySupplier){
+        this(name, mapSupplier, isolationKeySupplier, 0, 0, TimeUnit.MILLISECONDS, false);
+    }
+
+    /**
+     * Creates a new contextual PropertyMap with a bounded cache.
+     *
+     * @param mapSupplier the supplier creating new provider instances, not null.
+     * @param isolationKeySupplier the supplier providing contextual keys based on the current environment, not null.
+     * @param maxSize the maximal number of cached delegates, or 0 for unbounded.
+     * @param maxIdleTime the time after which a delegate not accessed is evicted, or 0 for infinite.
+     * @param unit the unit of {@code maxIdleTime}, not null.
+     * @param weakKeys if true, the isolation keys are held weakly and compared by identity.
+     */
+    public ContextualPropertySource(String name, Supplier<PropertySource> mapSupplier, Supplier<?> isolationKeySupplier,
+                                    int maxSize, long maxIdleTime, TimeUnit unit, boolean weakKeys){
         this.name = Optional.ofNullable(name).orElse("<noname>");
-        Objects.requireNonNull(mapSupplier);
-        Objects.requireNonNull(isolationKeySupplier);
-        this.mapSupplier = mapSupplier;
-        this.isolationKeySupplier = isolationKeySupplier;
+        this.mapSupplier = Objects.requireNonNull(mapSupplier);
+        this.isolationKeySupplier = Objects.requireNonNull(isolationKeySupplier);
+        if(maxSize<0 || maxIdleTime<0){
+            throw new IllegalArgumentException("maxSize and maxIdleTime must not be negative.");
+        }
+        this.maxSize = maxSize;
+        this.maxIdleNanos = unit.toNanos(maxIdleTime);
+        this.releasedKeys = weakKeys?new ReferenceQueue<>():null;
+        this.nextSweep = System.nanoTime() + this.maxIdleNanos;
+        ConfigMetrics.getInstance().registerCache(this);
     }
 
     /**
@@ -59,24 +121,119 @@ class ContextualPropertySource implements PropertySource {
      * @return the current contextual PropertyMap.
      */
     protected PropertySource getContextualMap(){
-        String environmentKey = this.isolationKeySupplier.get();
+        Object environmentKey = this.isolationKeySupplier.get();
         if(environmentKey == null){
             return PropertySource.EMPTY_PROPERTYSOURCE;
         }
-        PropertySource map = this.cachedMaps.get(environmentKey);
+        Entry entry = this.cachedMaps.get(toCacheKey(environmentKey, null));
+        if(entry != null){
+            hits.increment();
+            touch(entry);
+            return entry.source;
+        }
+        entry = this.cachedMaps.computeIfAbsent(toCacheKey(environmentKey, releasedKeys), this::createEntry);
+        if(entry == null){
+            return PropertySource.EMPTY_PROPERTYSOURCE;
+        }
+        expungeReleasedKeys();
+        if(maxSize > 0 && this.cachedMaps.size() > maxSize){
+            evictLeastRecentlyUsed(entry);
+        }
+        return entry.source;
+    }
+
+    /**
+     * Builds the delegate for the given key, called within {@code computeIfAbsent}, so accesses waiting for the
+     * delegate built concurrently are not counted as misses.
+     */
+    private Entry createEntry(Object key){
+        misses.increment();
+        long start = System.nanoTime();
+        PropertySource map = this.mapSupplier.get();
+        long end = System.nanoTime();
+        loads.increment();
+        buildNanos.add(end - start);
         if(map == null){
-            synchronized(cachedMaps){
-                map = this.cachedMaps.get(environmentKey);
-                if(map == null){
-                    map = this.mapSupplier.get();
-                    if(map == null){
-                        return PropertySource.EMPTY_PROPERTYSOURCE;
-                    }
-                    this.cachedMaps.put(environmentKey, map);
+            return null;
+        }
+        map.registerForUpdate(forwarder);
+        return new Entry(key, map, end);
+    }
+
+    private void publish(ConfigChangeSet changeSet){
+        for(ConfigChangeSetCallback callback:this.callbacks){
+            callback.onChange(changeSet);
+        }
+    }
+
+    /**
+     * Evaluates the key used within the cache, the key itself or a weak key, if weak keys are enabled.
+     *
+     * @param environmentKey the key returned by the isolation key supplier, not null.
+     * @param queue the queue a weak key is registered with, null for lookups only.
+     */
+    private Object toCacheKey(Object environmentKey, ReferenceQueue<Object> queue){
+        return releasedKeys == null ? environmentKey : new WeakKey(environmentKey, queue);
+    }
+
+    /**
+     * Records the access time of the given entry and evicts the idle entries, if a sweep is due.
+     */
+    private void touch(Entry entry){
+        if(maxSize > 0 || maxIdleNanos > 0){
+            long now = System.nanoTime();
+            entry.lastAccess = now;
+            if(maxIdleNanos > 0 && now - nextSweep > 0){
+                nextSweep = now + maxIdleNanos;
+                evictIdle(now);
+            }
+        }
+    }
+
+    private void evictIdle(long now){
+        for(Entry entry:this.cachedMaps.values()){
+            if(now - entry.lastAccess > maxIdleNanos){
+                evict(entry);
+            }
+        }
+    }
+
+    private void evictLeastRecentlyUsed(Entry keep){
+        if(maxIdleNanos > 0){
+            evictIdle(System.nanoTime());
+        }
+        while(this.cachedMaps.size() > maxSize){
+            Entry eldest = null;
+            for(Entry entry:this.cachedMaps.values()){
+                if(entry != keep && (eldest == null || entry.lastAccess - eldest.lastAccess < 0)){
+                    eldest = entry;
+                }
+            }
+            if(eldest == null){
+                return;
+            }
+            evict(eldest);
+        }
+    }
+
+    private void evict(Entry entry){
+        if(this.cachedMaps.remove(entry.key, entry)){
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes the entries of all weak keys collected meanwhile.
+     */
+    private void expungeReleasedKeys(){
+        if(releasedKeys != null){
+            Reference<?> ref;
+            while((ref = releasedKeys.poll()) != null){
+                if(this.cachedMaps.remove(ref) != null){
+                    evictions.increment();
                 }
             }
         }
-        return map;
     }
 
     @Override
@@ -100,8 +257,9 @@ class ContextualPropertySource implements PropertySource {
      * @param key the target environment key as returned by the environment key supplier, not null.
      * @return the corresponding PropertyMap, or null.
      */
-    public PropertySource getCachedMap(String key){
-        return this.cachedMaps.get(key);
+    public PropertySource getCachedMap(Object key){
+        Entry entry = this.cachedMaps.get(toCacheKey(key, null));
+        return entry == null ? null : entry.source;
     }
 
     /**
@@ -109,8 +267,62 @@ class ContextualPropertySource implements PropertySource {
      *
      * @return the set current cached map keys, never null.
      */
-    public Set<String> getCachedMapKeys(){
-        return this.cachedMaps.keySet();
+    public Set<Object> getCachedMapKeys(){
+        expungeReleasedKeys();
+        return this.cachedMaps.values().stream().map(Entry::getIsolationKey).filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Removes the cached PropertyMap of the given environment key, e.g. when the corresponding tenant or
+     * deployment is shut down. The map is recreated on the next access within this context.
+     *
+     * @param key the target environment key as returned by the environment key supplier, not null.
+     */
+    public void invalidate(Object key){
+        Entry entry = this.cachedMaps.remove(toCacheKey(key, null));
+        if(entry != null){
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes all cached PropertyMap instances.
+     */
+    public void invalidateAll(){
+        for(Entry entry:this.cachedMaps.values()){
+            evict(entry);
+        }
+    }
+
+    /**
+     * Access the statistics of the contextual cache.
+     *
+     * @return a snapshot of the cache statistics, never null.
+     */
+    public CacheStats getCacheStats(){
+        expungeReleasedKeys();
+        return new CacheStats(hits.sum(), misses.sum(), loads.sum(), evictions.sum(), buildNanos.sum(), this.cachedMaps.size());
+    }
+
+    @Override
+    public long getHitCount(){
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount(){
+        return misses.sum();
+    }
+
+    @Override
+    public long getEvictionCount(){
+        return evictions.sum();
+    }
+
+    @Override
+    public int getSize(){
+        return this.cachedMaps.size();
     }
 
     /**
@@ -118,7 +330,7 @@ class ContextualPropertySource implements PropertySource {
      *
      * @return the environment key supplier instance, not null.
      */
-    public Supplier<String> getIsolationKeySupplier(){
+    public Supplier<?> getIsolationKeySupplier(){
         return this.isolationKeySupplier;
     }
 
@@ -131,12 +343,169 @@ class ContextualPropertySource implements PropertySource {
         return this.mapSupplier;
     }
 
+    @Override
+    public void update(ConfigChangeSet changeSet){
+        getContextualMap().update(changeSet);
+    }
+
+    @Override
+    public void registerForUpdate(ConfigChangeSetCallback callback){
+        this.callbacks.add(Objects.requireNonNull(callback));
+    }
+
+    @Override
+    public void removeForUpdate(ConfigChangeSetCallback callback){
+        this.callbacks.remove(callback);
+    }
+
     @Override
     public String toString(){
         return "ContextualMap{" +
-                "cachedMaps(key)=" + cachedMaps.keySet() +
+                "cachedMaps(key)=" + getCachedMapKeys() +
                 ", mapSupplier=" + mapSupplier +
                 ", isolationKeySupplier=" + isolationKeySupplier +
+                ", maxSize=" + maxSize +
+                ", maxIdleTime=" + TimeUnit.NANOSECONDS.toMillis(maxIdleNanos) + "ms" +
+                ", weakKeys=" + (releasedKeys != null) +
                 '}';
     }
+
+    /**
+     * Cached delegate, with its last access time.
+     */
+    private static final class Entry {
+        final Object key;
+        final PropertySource source;
+        volatile long lastAccess;
+
+        Entry(Object key, PropertySource source, long lastAccess){
+            this.key = key;
+            this.source = source;
+            this.lastAccess = lastAccess;
+        }
+
+        Object getIsolationKey(){
+            return key instanceof WeakKey ? ((WeakKey) key).get() : key;
+        }
+    }
+
+    /**
+     * Weak, identity based isolation key.
+     */
+    private static final class WeakKey extends WeakReference<Object> {
+        private final int hash;
+
+        WeakKey(Object key, ReferenceQueue<Object> queue){
+            super(key, queue);
+            this.hash = System.identityHashCode(key);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(this == o){
+                return true;
+            }
+            if(!(o instanceof WeakKey)){
+                return false;
+            }
+            Object key = get();
+            return key != null && key == ((WeakKey) o).get();
+        }
+    }
+
+    /**
+     * Immutable snapshot of the statistics of a {@link ContextualPropertySource}.
+     */
+    public static final class CacheStats {
+        private final long hitCount;
+        private final long missCount;
+        private final long loadCount;
+        private final long evictionCount;
+        private final long totalBuildTime;
+        private final int size;
+
+        CacheStats(long hitCount, long missCount, long loadCount, long evictionCount, long totalBuildTime, int size){
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.loadCount = loadCount;
+            this.evictionCount = evictionCount;
+            this.totalBuildTime = totalBuildTime;
+            this.size = size;
+        }
+
+        /**
+         * @return the number of accesses served from the cache.
+         */
+        public long getHitCount(){
+            return hitCount;
+        }
+
+        /**
+         * @return the number of accesses that required a delegate to be built, concurrent accesses waiting for
+         * the same delegate are counted once.
+         */
+        public long getMissCount(){
+            return missCount;
+        }
+
+        /**
+         * @return the number of delegates built.
+         */
+        public long getLoadCount(){
+            return loadCount;
+        }
+
+        /**
+         * @return the ratio of hits to all accesses, or 1.0 if there were no accesses yet.
+         */
+        public double getHitRate(){
+            long total = hitCount + missCount;
+            return total == 0 ? 1.0 : (double) hitCount / total;
+        }
+
+        /**
+         * @return the number of delegates evicted or invalidated.
+         */
+        public long getEvictionCount(){
+            return evictionCount;
+        }
+
+        /**
+         * @return the total time spent building delegates, in nanoseconds.
+         */
+        public long getTotalBuildTime(){
+            return totalBuildTime;
+        }
+
+        /**
+         * @return the average time spent building a delegate, in nanoseconds.
+         */
+        public long getAverageBuildTime(){
+            return loadCount == 0 ? 0 : totalBuildTime / loadCount;
+        }
+
+        /**
+         * @return the number of delegates currently cached.
+         */
+        public int getSize(){
+            return size;
+        }
+
+        @Override
+        public String toString(){
+            return "CacheStats{" +
+                    "hitCount=" + hitCount +
+                    ", missCount=" + missCount +
+                    ", hitRate=" + getHitRate() +
+                    ", evictionCount=" + evictionCount +
+                    ", averageBuildTime=" + getAverageBuildTime() + "ns" +
+                    ", size=" + size +
+                    '}';
+        }
+    }
 }
@@ -49,33 +49,31 @@ final class PathBasedPropertySource extends AbstractPropertySource {
 
     private void init() {
         List<String> sources = new ArrayList<>();
-        List<String> effectivePaths = new ArrayList<>();
-        paths.forEach((path) -> {
-            effectivePaths.add(path);
-            for (Resource res : ServiceContext.getInstance().getSingleton(ResourceLoader.class).getResources(path)) {
-                ConfigurationFormat format = ConfigurationFormat.from(res);
-                if (format != null) {
-                    try {
-                        Map<String, String> read = format.readConfiguration(res);
-                        sources.add(res.toString());
-                        read.forEach((k, v) -> {
-                            String valueToAdd = aggregationPolicy.aggregate(k,properties.get(k),v);
-                            if(valueToAdd==null) {
-                                properties.remove(k);
-                            }
-                            else{
-                                properties.put(k, valueToAdd);
-                            }
-                        });
-                    }
-                    catch(ConfigException e){
-                        throw e;
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                    }
+        List<String> effectivePaths = new ArrayList<>(paths);
+        // all paths are resolved at once, so the resources are located in a single pass
+        for (Resource res : ServiceContext.getInstance().getSingleton(ResourceLoader.class).getResources(paths)) {
+            ConfigurationFormat format = ConfigurationFormat.from(res);
+            if (format != null) {
+                try {
+                    Map<String, String> read = format.readConfiguration(res);
+                    sources.add(res.toString());
+                    read.forEach((k, v) -> {
+                        String valueToAdd = aggregationPolicy.aggregate(k,properties.get(k),v);
+                        if(valueToAdd==null) {
+                            properties.remove(k);
+                        }
+                        else{
+                            properties.put(k, valueToAdd);
+                        }
+                    });
+                }
+                catch(ConfigException e){
+                    throw e;
+                } catch (Exception e) {
+                    e.printStackTrace();
                 }
             }
-        });
+        }
 //        metaInfo = MetaInfoBuilder.of(getMetaInfo())
 //                .setSourceExpressions(new String[effectivePaths.size()])
 //                .set("sources", sources.toString()).build();
@@ -23,6 +23,7 @@ import org.apache.tamaya.PropertySource;
 import java.beans.PropertyChangeEvent;
 import java.util.*;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Models a set current changes to be applied to a configuration/property provider.  Such a set can be applied
@@ -71,7 +72,34 @@ public final class PropertyChangeSetBuilder {
      * @return the builder for chaining.
      */
     public PropertyChangeSetBuilder addChanges(PropertySource newState) {
-        compare(newState, this.source).forEach((c) -> this.delta.put(c.getPropertyName(), c));
+        PropertySourceDiff.compare(newState, this.source).forEach((c) -> this.delta.put(c.getPropertyName(), c));
+        return this;
+    }
+
+    /**
+     * Merges the changes of an already existing change set into this builder. If a key was already changed,
+     * the old value recorded first is kept and combined with the new value of the given change set. Changes
+     * that cancel each other out are dropped.
+     *
+     * @param changeSet the change set to be merged, not null.
+     * @return the builder for chaining.
+     */
+    public PropertyChangeSetBuilder addChanges(PropertyChangeSet changeSet) {
+        for (PropertyChangeEvent evt : changeSet.getEvents()) {
+            PropertyChangeEvent existing = this.delta.get(evt.getPropertyName());
+            if (existing == null) {
+                this.delta.put(evt.getPropertyName(), evt);
+                continue;
+            }
+            Object oldValue = existing.getOldValue();
+            Object newValue = evt.getNewValue();
+            if (Objects.equals(oldValue, newValue)) {
+                this.delta.remove(evt.getPropertyName());
+            } else {
+                this.delta.put(evt.getPropertyName(),
+                        new PropertyChangeEvent(this.source, evt.getPropertyName(), oldValue, newValue));
+            }
+        }
         return this;
     }
 
@@ -307,31 +335,15 @@ public final class PropertyChangeSetBuilder {
 
     /**
      * Compares the two property config/configurations and creates a collection current all changes
-     * that must be appied to render {@code map1} into {@code map2}.
+     * that must be appied to render {@code map2} into {@code map1}.
      *
-     * @param map1 the source map, not null.
-     * @param map2 the target map, not null.
+     * @param map1 the target state, not null.
+     * @param map2 the base state, not null.
      * @return a collection current change events, never null.
+     * @see org.apache.tamaya.core.properties.PropertySourceDiff
      */
     public static Collection<PropertyChangeEvent> compare(PropertySource map1, PropertySource map2) {
-        List<PropertyChangeEvent> changes = new ArrayList<>();
-        for (Map.Entry<String, String> en : map1.getProperties().entrySet()) {
-            Optional<String> val = map2.get(en.getKey());
-            if (!val.isPresent()) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), null, en.getValue()));
-            } else if (!val.get().equals(en.getValue())) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), val.get(), en.getValue()));
-            }
-        }
-        for (Map.Entry<String, String> en : map2.getProperties().entrySet()) {
-            Optional<String> val = map1.get(en.getKey());
-            if (!val.isPresent()) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), null, en.getValue()));
-            } else if (!val.equals(Optional.ofNullable(en.getValue()))) {
-                changes.add(new PropertyChangeEvent(map1, en.getKey(), val.get(), en.getValue()));
-            }
-        }
-        return changes;
+        return PropertySourceDiff.compare(map1, map2).collect(Collectors.toList());
     }
 
     /*
@@ -24,6 +24,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -423,7 +424,7 @@ public final class PropertySourceBuilder {
      * @param isolationKeySupplier the supplier providing contextual keys based on the current environment.
      */
     public PropertySourceBuilder addContextual(Supplier<PropertySource> mapSupplier,
-                                                 Supplier<String> isolationKeySupplier) {
+                                                 Supplier<?> isolationKeySupplier) {
         String name = this.currentName;
         if (currentName == null) {
             name = "<contextual> -> map="+mapSupplier+",isolationKeySupplier="+isolationKeySupplier;
@@ -431,6 +432,28 @@ public final class PropertySourceBuilder {
         return addProviders(PropertySourceFactory.contextual(name, mapSupplier, isolationKeySupplier));
     }
 
+    /**
+     * Creates a new contextual {@link org.apache.tamaya.PropertySource} with a bounded cache of the contextual
+     * instances.
+     *
+     * @param mapSupplier          the supplier creating new provider instances
+     * @param isolationKeySupplier the supplier providing contextual keys based on the current environment.
+     * @param maxSize the maximal number of cached instances, or 0 for unbounded.
+     * @param maxIdleTime the time after which an instance not accessed is evicted, or 0 for infinite.
+     * @param unit the unit of {@code maxIdleTime}, not null.
+     * @param weakKeys if true, the isolation keys are held weakly and compared by identity.
+     */
+    public PropertySourceBuilder addContextual(Supplier<PropertySource> mapSupplier,
+                                                 Supplier<?> isolationKeySupplier, int maxSize,
+                                                 long maxIdleTime, TimeUnit unit, boolean weakKeys) {
+        String name = this.currentName;
+        if (currentName == null) {
+            name = "<contextual> -> map="+mapSupplier+",isolationKeySupplier="+isolationKeySupplier;
+        }
+        return addProviders(PropertySourceFactory.contextual(name, mapSupplier, isolationKeySupplier, maxSize,
+                maxIdleTime, unit, weakKeys));
+    }
+
     /**
      * Replaces all keys in the current provider by the given map.
      *
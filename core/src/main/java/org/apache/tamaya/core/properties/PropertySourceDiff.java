@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.properties;
+
+import org.apache.tamaya.PropertySource;
+
+import java.beans.PropertyChangeEvent;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Diff engine that evaluates the changes between two states of a {@link org.apache.tamaya.PropertySource}.
+ * <p>
+ * Two property sources are compared with a hash join over their property maps, which costs a single lookup per
+ * key and only sorts the changes found.
+ * <p>
+ * Callers that compare the same state repeatedly, e.g. providers keeping their last loaded state, can take a
+ * {@link Snapshot} instead. Snapshots are compared using a merge-join over their sorted keys. Hereby consecutive
+ * keys sharing the same area (the part before the first '.') are grouped, and groups with the same size and content
+ * hash are skipped as a whole, without visiting their entries. The content hash combines two independent 64 bit
+ * hashes, so an unchanged area is only assumed by mistake with a probability of about 2^-128 per area. Values are
+ * compared by reference before falling back to {@code equals}.
+ * The change events are created lazily, when the resulting stream is consumed.
+ */
+public final class PropertySourceDiff {
+
+    /** FNV-1a 64 bit offset basis. */
+    private static final long HASH_OFFSET = 0xcbf29ce484222325L;
+    /** FNV-1a 64 bit prime. */
+    private static final long HASH_PRIME = 0x100000001b3L;
+    /** Seed of the second hash. */
+    private static final long HASH2_SEED = 0x243f6a8885a308d3L;
+    /** Multiplier of the second hash, the 64 bit golden ratio. */
+    private static final long HASH2_MULTIPLIER = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Private singleton constructor.
+     */
+    private PropertySourceDiff() {
+    }
+
+    /**
+     * Creates an immutable, sorted snapshot of the current state of the given property source.
+     *
+     * @param propertySource the property source, not null.
+     * @return the snapshot, never null.
+     */
+    public static Snapshot snapshot(PropertySource propertySource) {
+        return new Snapshot(propertySource, propertySource.getProperties());
+    }
+
+    /**
+     * Compares the two property sources and evaluates all changes that must be applied to render {@code oldState}
+     * into {@code newState}. The events created have {@code newState} as their source.
+     *
+     * @param newState the new (target) state, not null.
+     * @param oldState the old (base) state, not null.
+     * @return a stream of change events, in key order, never null.
+     */
+    public static Stream<PropertyChangeEvent> compare(PropertySource newState, PropertySource oldState) {
+        Map<String, String> newMap = newState.getProperties();
+        Map<String, String> oldMap = oldState.getProperties();
+        if (newMap == oldMap) {
+            return Stream.empty();
+        }
+        List<PropertyChangeEvent> changes = new ArrayList<>();
+        int added = 0;
+        for (Map.Entry<String, String> en : newMap.entrySet()) {
+            String newValue = en.getValue();
+            String oldValue = oldMap.get(en.getKey());
+            if (oldValue == null && !oldMap.containsKey(en.getKey())) {
+                changes.add(new PropertyChangeEvent(newState, en.getKey(), null, newValue));
+                added++;
+            } else if (!Objects.equals(newValue, oldValue)) {
+                changes.add(new PropertyChangeEvent(newState, en.getKey(), oldValue, newValue));
+            }
+        }
+        // all keys of the old state are still present, unless some of them were removed
+        if (newMap.size() - added != oldMap.size()) {
+            for (Map.Entry<String, String> en : oldMap.entrySet()) {
+                if (!newMap.containsKey(en.getKey())) {
+                    changes.add(new PropertyChangeEvent(newState, en.getKey(), en.getValue(), null));
+                }
+            }
+        }
+        changes.sort(Comparator.comparing(PropertyChangeEvent::getPropertyName));
+        return changes.stream();
+    }
+
+    /**
+     * Compares the two snapshots and evaluates all changes that must be applied to render {@code oldState}
+     * into {@code newState}. The events created have the property source of {@code newState} as their source.
+     *
+     * @param newState the new (target) state, not null.
+     * @param oldState the old (base) state, not null.
+     * @return a lazily evaluated stream of change events, in key order, never null.
+     */
+    public static Stream<PropertyChangeEvent> compare(Snapshot newState, Snapshot oldState) {
+        Objects.requireNonNull(newState);
+        Objects.requireNonNull(oldState);
+        if (newState == oldState || newState.keys.length == oldState.keys.length
+                && newState.hash == oldState.hash && newState.hash2 == oldState.hash2) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(new DiffSpliterator(newState, oldState), false);
+    }
+
+    private static long hash(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= HASH_PRIME;
+        }
+        // separator, so "ab"+"c" and "a"+"bc" differ.
+        hash ^= 0xffff;
+        return hash * HASH_PRIME;
+    }
+
+    /**
+     * Second hash, independent of the FNV-1a hash, so equal areas can be trusted without comparing their entries.
+     */
+    private static long hash2(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash + value.charAt(i)) * HASH2_MULTIPLIER;
+            hash ^= hash >>> 29;
+        }
+        hash = (hash + value.length()) * HASH2_MULTIPLIER;
+        return hash ^ (hash >>> 32);
+    }
+
+    private static int areaLength(String key) {
+        int index = key.indexOf('.');
+        return index < 0 ? key.length() : index;
+    }
+
+    private static boolean sameArea(String key1, String key2) {
+        int len = areaLength(key1);
+        return areaLength(key2) == len && key1.regionMatches(0, key2, 0, len);
+    }
+
+    /**
+     * Immutable and sorted snapshot of a property source's state, including the content hashes of its areas.
+     */
+    public static final class Snapshot {
+        /** The underlying property source. */
+        private final PropertySource propertySource;
+        /** The sorted keys. */
+        private final String[] keys;
+        /** The values, with the same index as the keys. */
+        private final String[] values;
+        /** The start index of each group of consecutive keys sharing the same area. */
+        private final int[] areaStarts;
+        /** The content hash of each area group. */
+        private final long[] areaHashes;
+        /** The second content hash of each area group. */
+        private final long[] areaHashes2;
+        /** The overall content hash. */
+        private final long hash;
+        /** The second overall content hash. */
+        private final long hash2;
+
+        private Snapshot(PropertySource propertySource, Map<String, String> properties) {
+            this.propertySource = Objects.requireNonNull(propertySource);
+            SortedMap<String, String> sorted;
+            if (properties instanceof SortedMap && ((SortedMap<String, String>) properties).comparator() == null) {
+                sorted = (SortedMap<String, String>) properties;
+            } else {
+                sorted = new TreeMap<>(properties);
+            }
+            int size = sorted.size();
+            this.keys = new String[size];
+            this.values = new String[size];
+            int[] starts = new int[size];
+            long[] hashes = new long[size];
+            long[] hashes2 = new long[size];
+            int areas = 0;
+            int index = 0;
+            long total = HASH_OFFSET;
+            long total2 = HASH2_SEED;
+            for (Map.Entry<String, String> en : sorted.entrySet()) {
+                String key = en.getKey();
+                String value = en.getValue();
+                if (index == 0 || !sameArea(keys[index - 1], key)) {
+                    starts[areas] = index;
+                    hashes[areas] = HASH_OFFSET;
+                    hashes2[areas] = HASH2_SEED;
+                    areas++;
+                }
+                keys[index] = key;
+                values[index] = value;
+                hashes[areas - 1] = hash(hash(hashes[areas - 1], key), String.valueOf(value));
+                hashes2[areas - 1] = hash2(hash2(hashes2[areas - 1], key), String.valueOf(value));
+                index++;
+            }
+            this.areaStarts = Arrays.copyOf(starts, areas);
+            this.areaHashes = Arrays.copyOf(hashes, areas);
+            this.areaHashes2 = Arrays.copyOf(hashes2, areas);
+            for (int area = 0; area < areas; area++) {
+                total = (total ^ this.areaHashes[area]) * HASH_PRIME;
+                total2 = (total2 + this.areaHashes2[area]) * HASH2_MULTIPLIER;
+                total2 ^= total2 >>> 29;
+            }
+            this.hash = total;
+            this.hash2 = total2;
+        }
+
+        /**
+         * Access the property source this snapshot was taken from.
+         *
+         * @return the property source, never null.
+         */
+        public PropertySource getPropertySource() {
+            return propertySource;
+        }
+
+        /**
+         * Access the number of entries in this snapshot.
+         *
+         * @return the number of entries.
+         */
+        public int size() {
+            return keys.length;
+        }
+
+        private int areaEnd(int area) {
+            return area + 1 < areaStarts.length ? areaStarts[area + 1] : keys.length;
+        }
+
+        @Override
+        public String toString() {
+            return "PropertySourceDiff.Snapshot{" +
+                    "propertySource=" + propertySource.getName() +
+                    ", size=" + keys.length +
+                    ", areas=" + areaStarts.length +
+                    '}';
+        }
+    }
+
+    /**
+     * Spliterator performing the merge-join of two snapshots, creating the change events on demand.
+     */
+    private static final class DiffSpliterator extends Spliterators.AbstractSpliterator<PropertyChangeEvent> {
+        private final Snapshot newState;
+        private final Snapshot oldState;
+        /** Current entry and area positions in the new state. */
+        private int newIndex, newArea;
+        /** Current entry and area positions in the old state. */
+        private int oldIndex, oldArea;
+
+        DiffSpliterator(Snapshot newState, Snapshot oldState) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.newState = newState;
+            this.oldState = oldState;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super PropertyChangeEvent> action) {
+            String[] newKeys = newState.keys;
+            String[] oldKeys = oldState.keys;
+            while (newIndex < newKeys.length || oldIndex < oldKeys.length) {
+                skipUnchangedAreas();
+                PropertyChangeEvent evt = null;
+                if (newIndex >= newKeys.length) {
+                    if (oldIndex >= oldKeys.length) {
+                        return false;
+                    }
+                    evt = removed(oldIndex++);
+                } else if (oldIndex >= oldKeys.length) {
+                    evt = added(newIndex++);
+                } else {
+                    int order = newKeys[newIndex].compareTo(oldKeys[oldIndex]);
+                    if (order < 0) {
+                        evt = added(newIndex++);
+                    } else if (order > 0) {
+                        evt = removed(oldIndex++);
+                    } else {
+                        String newValue = newState.values[newIndex];
+                        String oldValue = oldState.values[oldIndex];
+                        if (newValue != oldValue && (newValue == null || !newValue.equals(oldValue))) {
+                            evt = new PropertyChangeEvent(newState.propertySource, newKeys[newIndex], oldValue, newValue);
+                        }
+                        newIndex++;
+                        oldIndex++;
+                    }
+                }
+                advanceAreas();
+                if (evt != null) {
+                    action.accept(evt);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private PropertyChangeEvent added(int index) {
+            return new PropertyChangeEvent(newState.propertySource, newState.keys[index], null, newState.values[index]);
+        }
+
+        private PropertyChangeEvent removed(int index) {
+            return new PropertyChangeEvent(newState.propertySource, oldState.keys[index], oldState.values[index], null);
+        }
+
+        private void advanceAreas() {
+            while (newArea + 1 < newState.areaStarts.length && newState.areaStarts[newArea + 1] <= newIndex) {
+                newArea++;
+            }
+            while (oldArea + 1 < oldState.areaStarts.length && oldState.areaStarts[oldArea + 1] <= oldIndex) {
+                oldArea++;
+            }
+        }
+
+        /**
+         * Skips all area groups, that start at the current positions and have the same size and content hashes in
+         * both states, without visiting their entries.
+         */
+        private void skipUnchangedAreas() {
+            while (newArea < newState.areaStarts.length && oldArea < oldState.areaStarts.length
+                    && newState.areaStarts[newArea] == newIndex && oldState.areaStarts[oldArea] == oldIndex) {
+                int newEnd = newState.areaEnd(newArea);
+                int oldEnd = oldState.areaEnd(oldArea);
+                if (newEnd - newIndex != oldEnd - oldIndex
+                        || newState.areaHashes[newArea] != oldState.areaHashes[oldArea]
+                        || newState.areaHashes2[newArea] != oldState.areaHashes2[oldArea]) {
+                    return;
+                }
+                newIndex = newEnd;
+                oldIndex = oldEnd;
+                newArea++;
+                oldArea++;
+            }
+        }
+    }
+
+}
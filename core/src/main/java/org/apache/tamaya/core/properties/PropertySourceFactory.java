@@ -22,6 +22,7 @@ import java.net.URL;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -219,13 +220,37 @@ public final class PropertySourceFactory {
      * @param isolationKeySupplier the supplier providing contextual keys based on the current environment.
      */
     public static PropertySource contextual(String name, Supplier<PropertySource> mapSupplier,
-                                              Supplier<String> isolationKeySupplier) {
+                                              Supplier<?> isolationKeySupplier) {
         if(name==null){
             name ="<Contextual> mapSupplier="+mapSupplier+", isolationKeyProvider="+isolationKeySupplier;
         }
         return new ContextualPropertySource(name, mapSupplier, isolationKeySupplier);
     }
 
+    /**
+     * Creates a new contextual {@link org.apache.tamaya.PropertySource} with a bounded cache of the contextual
+     * instances. Use {@code weakKeys} for isolation keys that scope the context themselves, e.g. class loaders, so
+     * the instances of undeployed contexts are released with their key.
+     *
+     * @param name the base name instance, not null.
+     * @param mapSupplier          the supplier creating new provider instances
+     * @param isolationKeySupplier the supplier providing contextual keys based on the current environment.
+     * @param maxSize the maximal number of cached instances, or 0 for unbounded.
+     * @param maxIdleTime the time after which an instance not accessed is evicted, or 0 for infinite.
+     * @param unit the unit of {@code maxIdleTime}, not null.
+     * @param weakKeys if true, the isolation keys are held weakly and compared by identity.
+     * @see ContextualPropertySource#getCacheStats()
+     */
+    public static PropertySource contextual(String name, Supplier<PropertySource> mapSupplier,
+                                              Supplier<?> isolationKeySupplier, int maxSize,
+                                              long maxIdleTime, TimeUnit unit, boolean weakKeys) {
+        if(name==null){
+            name ="<Contextual> mapSupplier="+mapSupplier+", isolationKeyProvider="+isolationKeySupplier;
+        }
+        return new ContextualPropertySource(name, mapSupplier, isolationKeySupplier, maxSize, maxIdleTime, unit,
+                weakKeys);
+    }
+
 
     /**
      * Creates a filtered {@link org.apache.tamaya.PropertySource} (a view) current a given base {@link }PropertyMap}. The filter hereby is
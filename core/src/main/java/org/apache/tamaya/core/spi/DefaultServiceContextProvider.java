@@ -19,6 +19,7 @@
 package org.apache.tamaya.core.spi;
 
 import org.apache.tamaya.spi.ServiceContext;
+import org.apache.tamaya.spi.ServiceIndex;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,7 +28,9 @@ import java.util.logging.Logger;
 
 /**
  * This class implements the (default) {@link org.apache.tamaya.spi.ServiceContext} interface and hereby uses the JDK
- * {@link java.util.ServiceLoader} to load the services required.
+ * {@link java.util.ServiceLoader} to load the services required. Service types listed in the build time
+ * {@link org.apache.tamaya.spi.ServiceIndex} are created from the index, merged with the implementations of
+ * modules built without the index. All services are sorted by the runtime ordinals.
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
 class DefaultServiceContextProvider implements ServiceContext {
@@ -35,6 +38,11 @@ class DefaultServiceContextProvider implements ServiceContext {
 	private final ConcurrentHashMap<Class, List<Object>> servicesLoaded = new ConcurrentHashMap<>();
     /** Singletons. */
     private final ConcurrentHashMap<Class, Optional<?>> singletons = new ConcurrentHashMap<>();
+    /** The class loader used for loading the services. */
+    private final ClassLoader classLoader = Optional.ofNullable(Thread.currentThread().getContextClassLoader())
+            .orElse(DefaultServiceContextProvider.class.getClassLoader());
+    /** The build time service index, read once. */
+    private final ServiceIndex serviceIndex = ServiceIndex.load(classLoader);
     /** Comparator for ordering of multiple services found. */
     private DefaultServiceComparator serviceComparator;
 
@@ -90,8 +98,13 @@ class DefaultServiceContextProvider implements ServiceContext {
     private <T> List<? extends T> loadServices(final Class<T> serviceType, final List<? extends T> defaultList) {
         try {
             List<T> services = new ArrayList<>();
-            for (T t : ServiceLoader.load(serviceType)) {
-                services.add(t);
+            if(serviceIndex.contains(serviceType)){
+                services.addAll(serviceIndex.createServices(serviceType, classLoader));
+            }
+            else {
+                for (T t : ServiceLoader.load(serviceType, classLoader)) {
+                    services.add(t);
+                }
             }
             if(services.isEmpty()){
                 services.addAll(defaultList);
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.config;
+
+import org.apache.tamaya.ConfigChangeSet;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.DynamicValue;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DefaultConfigurationSpi}.
+ */
+public class DefaultConfigurationSpiTest {
+
+    @Test
+    public void testReloadUpdatesDynamicValues() {
+        ReloadingTestConfigProvider.VALUES.clear();
+        ReloadingTestConfigProvider.VALUES.put("a", "1");
+        ReloadingTestConfigProvider.VALUES.put("b", "2");
+        DefaultConfigurationSpi spi = new DefaultConfigurationSpi();
+        spi.reload("reloading");
+        Configuration config = spi.getConfiguration("reloading");
+        DynamicValue<Integer> a = config.getDynamicValue("a", Integer.class);
+        DynamicValue<Integer> b = config.getDynamicValue("b", Integer.class);
+        DynamicValue<Integer> c = config.getDynamicValue("c", Integer.class);
+        assertEquals(Integer.valueOf(1), a.get());
+        ReloadingTestConfigProvider.VALUES.put("a", "10");
+        ReloadingTestConfigProvider.VALUES.remove("b");
+        ReloadingTestConfigProvider.VALUES.put("c", "3");
+        spi.reload("reloading");
+        assertSame(config, spi.getConfiguration("reloading"));
+        assertEquals("10", config.get("a").get());
+        assertEquals(Integer.valueOf(10), a.get());
+        assertFalse(b.isPresent());
+        assertEquals(Integer.valueOf(3), c.get());
+    }
+
+    @Test
+    public void testReloadPublishesChangesOnly() {
+        ReloadingTestConfigProvider.VALUES.clear();
+        ReloadingTestConfigProvider.VALUES.put("a", "1");
+        ReloadingTestConfigProvider.VALUES.put("b", "2");
+        DefaultConfigurationSpi spi = new DefaultConfigurationSpi();
+        spi.reload("reloading");
+        Configuration config = spi.getConfiguration("reloading");
+        List<ConfigChangeSet> changes = new ArrayList<>();
+        config.registerForUpdate(changes::add);
+        spi.reload("reloading");
+        assertTrue(changes.isEmpty());
+        ReloadingTestConfigProvider.VALUES.put("b", "20");
+        spi.reload("reloading");
+        assertEquals(1, changes.size());
+        assertEquals(1, changes.get(0).getUpdatedSize());
+        assertTrue(changes.get(0).isUpdated("b"));
+        assertEquals("20", changes.get(0).getNewValue("b"));
+    }
+
+}
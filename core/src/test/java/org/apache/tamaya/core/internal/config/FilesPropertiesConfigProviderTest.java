@@ -21,6 +21,7 @@ package org.apache.tamaya.core.internal.config;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -33,6 +34,8 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 
 import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+import org.apache.tamaya.core.metrics.LatencyHistogram;
 import org.apache.tamaya.core.spi.ConfigurationProviderSpi;
 import org.junit.Before;
 import org.junit.Test;
@@ -74,6 +77,21 @@ public class FilesPropertiesConfigProviderTest {
 
 	    }
 
+	@Test
+	public void shouldRecordWatcherUpdates() throws Exception {
+	    Configuration configuration = configurationProvider.getConfiguration();
+	    LatencyHistogram histogram = ConfigMetrics.getInstance().getReloadHistograms().get("files.configuration");
+	    long count = histogram == null ? 0 : histogram.getCount();
+	    createPropertiesFile("recorded.properties", "recorded=true");
+	    long deadline = System.currentTimeMillis() + 10000L;
+	    while (!configuration.get("recorded").isPresent() && System.currentTimeMillis() < deadline) {
+	        Thread.sleep(10L);
+	    }
+	    assertEquals(configuration.get("recorded").get(), "true");
+	    histogram = ConfigMetrics.getInstance().getReloadHistograms().get("files.configuration");
+	    assertTrue(histogram.getCount() > count);
+	}
+
     private void createPropertiesFile(String fileName, String context) throws URISyntaxException,
             FileNotFoundException, IOException {
         URL resource = FilesPropertiesConfigProviderTest.class.getResource("/META-INF/configuration/");
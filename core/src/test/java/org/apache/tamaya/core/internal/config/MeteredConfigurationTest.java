@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.config;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+import org.apache.tamaya.core.metrics.HotKeyProfiler;
+import org.apache.tamaya.core.metrics.LatencyHistogram;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MeteredConfiguration} and the metrics recorded by {@link DefaultConfigurationSpi}.
+ */
+public class MeteredConfigurationTest {
+
+    private final ConfigMetrics metrics = ConfigMetrics.getInstance();
+
+    @Test
+    public void testLookupsCounted() {
+        Configuration config = MeteredConfiguration.of("MeteredConfigurationTest.lookups", createConfig());
+        ConfigMetrics.LookupCounters counters = metrics.getLookupCounters("MeteredConfigurationTest.lookups");
+        assertEquals("1", config.get("a").get());
+        assertEquals(Integer.valueOf(1), config.get("a", Integer.class).get());
+        assertEquals(Integer.valueOf(2), config.getAdapted("a", v -> Integer.parseInt(v) + 1).get());
+        assertFalse(config.get("b").isPresent());
+        assertFalse(config.get("b", Integer.class).isPresent());
+        assertEquals(3, counters.getHitCount());
+        assertEquals(2, counters.getMissCount());
+    }
+
+    @Test
+    public void testLookupsProfiledWithType() {
+        Configuration config = MeteredConfiguration.of("MeteredConfigurationTest.profiled", createConfig());
+        HotKeyProfiler profiler = metrics.getHotKeyProfiler();
+        double sampleRate = profiler.getSampleRate();
+        profiler.setSampleRate(1.0);
+        try {
+            profiler.reset();
+            config.get("a", Integer.class);
+            config.getAdapted("a", Integer::parseInt);
+            Map<String, Long> types = profiler.getTopKeys(1).get(0).getTypes();
+            assertEquals(2, types.size());
+            assertEquals(Long.valueOf(1), types.get(Integer.class.getName()));
+            assertEquals(Long.valueOf(1), types.get("<adapter>"));
+        } finally {
+            profiler.setSampleRate(sampleRate);
+            profiler.reset();
+        }
+    }
+
+    @Test
+    public void testWrappedOnce() {
+        Configuration config = MeteredConfiguration.of("MeteredConfigurationTest.wrapped", createConfig());
+        assertTrue(config instanceof MeteredConfiguration);
+        assertSame(config, MeteredConfiguration.of("MeteredConfigurationTest.wrapped", config));
+        assertEquals("metered", config.getName());
+    }
+
+    @Test
+    public void testConfigurationAccessesCounted() {
+        DefaultConfigurationSpi spi = new DefaultConfigurationSpi();
+        long loads = metrics.getConfigCacheLoadCount();
+        long hits = metrics.getConfigCacheHitCount();
+        spi.getConfiguration();
+        spi.getConfiguration("test");
+        assertEquals(loads + 2, metrics.getConfigCacheLoadCount());
+        assertEquals(hits, metrics.getConfigCacheHitCount());
+        spi.getConfiguration();
+        spi.getConfiguration();
+        spi.getConfiguration("test");
+        assertEquals(loads + 2, metrics.getConfigCacheLoadCount());
+        assertEquals(hits + 3, metrics.getConfigCacheHitCount());
+    }
+
+    @Test
+    public void testReloadRecordedByConfigurationName() {
+        DefaultConfigurationSpi spi = new DefaultConfigurationSpi();
+        spi.getConfiguration("test");
+        LatencyHistogram histogram = metrics.getReloadHistograms().get("test");
+        long count = histogram == null ? 0 : histogram.getCount();
+        spi.reload("test");
+        assertEquals(count + 1, metrics.getReloadHistograms().get("test").getCount());
+        assertFalse(metrics.getReloadHistograms().containsKey("config:test"));
+    }
+
+    private static Configuration createConfig() {
+        Map<String, String> map = new HashMap<>();
+        map.put("a", "1");
+        return Configuration.from(PropertySourceBuilder.of("metered").addMap(map).build());
+    }
+
+}
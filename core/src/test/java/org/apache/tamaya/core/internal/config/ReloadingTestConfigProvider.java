@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.config;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.apache.tamaya.core.spi.ConfigurationProviderSpi;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provider of the configuration {@code reloading}, reading the values of {@link #VALUES} on each reload.
+ */
+public class ReloadingTestConfigProvider implements ConfigurationProviderSpi{
+
+    /** The values of the next configuration loaded. */
+    static final Map<String,String> VALUES = new ConcurrentHashMap<>();
+
+    private volatile Configuration config = load();
+
+    private static Configuration load(){
+        return Configuration.from(PropertySourceBuilder.of("reloading").addMap(VALUES).build());
+    }
+
+    @Override
+    public String getConfigName(){
+        return "reloading";
+    }
+
+    @Override
+    public Configuration getConfiguration(){
+        return config;
+    }
+
+    @Override
+    public void reload() {
+        config = load();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.inject;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.annotation.ConfiguredProperty;
+import org.apache.tamaya.annotation.LoadPolicy;
+import org.apache.tamaya.annotation.WithLoadPolicy;
+import org.apache.tamaya.core.properties.PropertyChangeSet;
+import org.apache.tamaya.core.properties.PropertyChangeSetBuilder;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConfiguredType} and {@link ConfiguredField}.
+ */
+public class ConfiguredTypeTest {
+
+    @Test
+    public void testApplyChangesOnlyReinjectsAffectedFields(){
+        ConfiguredType type = new ConfiguredType(ManagedBean.class);
+        ManagedBean bean = new ManagedBean();
+        type.configure(bean, defaultConfig("1"));
+        assertEquals("1", bean.a);
+        assertEquals("1", bean.b);
+        type.applyChanges(bean, change("changed", "a"), defaultConfig("2"));
+        assertEquals("2", bean.a);
+        assertEquals("1", bean.b);
+        type.applyChanges(bean, change("changed", ManagedBean.class.getName() + ".b"), defaultConfig("3"));
+        assertEquals("2", bean.a);
+        assertEquals("3", bean.b);
+        type.applyChanges(bean, change("changed", "unknown"), defaultConfig("4"));
+        assertEquals("2", bean.a);
+        assertEquals("3", bean.b);
+    }
+
+    @Test
+    public void testApplyChangesIgnoresOverriddenConfiguration(){
+        ConfiguredType type = new ConfiguredType(ManagedBean.class);
+        ManagedBean bean = new ManagedBean();
+        type.configure(bean, defaultConfig("1"));
+        type.applyChanges(bean, change("default", "a"), defaultConfig("2"));
+        assertEquals("1", bean.a);
+    }
+
+    @Test
+    public void testFieldsWithInitialLoadPolicyAreNotReinjected(){
+        ConfiguredType type = new ConfiguredType(InitialBean.class);
+        InitialBean bean = new InitialBean();
+        type.configure(bean, defaultConfig("1"));
+        type.applyChanges(bean, change("changed", "a"), defaultConfig("2"));
+        assertEquals("1", bean.a);
+    }
+
+    @Test
+    public void testMatchesKeyWithoutConfiguredProperty() throws Exception{
+        ConfiguredField field = new ConfiguredField(ManagedBean.class.getDeclaredField("a"));
+        assertTrue(field.isUpdatable());
+        assertTrue(field.matchesKey("default", "a"));
+        assertTrue(field.matchesKey("default", ManagedBean.class.getName() + ".a"));
+        assertFalse(field.matchesKey("default", "b"));
+        assertFalse(field.matchesKey("other", "a"));
+    }
+
+    @Test
+    public void testMatchesKeyWithConfiguredProperty() throws Exception{
+        ConfiguredField field = new ConfiguredField(OtherConfigBean.class.getDeclaredField("x"));
+        assertFalse(field.isUpdatable());
+        assertTrue(field.matchesKey("other", "x.key"));
+        assertFalse(field.matchesKey("default", "x.key"));
+        assertFalse(field.matchesKey("other", "x"));
+        assertEquals(1, field.getConfiguredKeys().size());
+    }
+
+    private static Configuration defaultConfig(String value){
+        Map<String, String> map = new HashMap<>();
+        map.put("a", value);
+        map.put(ManagedBean.class.getName() + ".b", value);
+        return Configuration.from(PropertySourceBuilder.of("default").addMap(map).build());
+    }
+
+    private static PropertyChangeSet change(String sourceName, String key){
+        return PropertyChangeSetBuilder.of(PropertySourceBuilder.of(sourceName).build())
+                .put(key, "changed").build();
+    }
+
+    @WithLoadPolicy(LoadPolicy.MANAGED)
+    static class ManagedBean{
+        String a;
+        String b;
+    }
+
+    static class InitialBean{
+        String a;
+    }
+
+    static class OtherConfigBean{
+        @ConfiguredProperty(config = "other", keys = "[x.key]")
+        String x;
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.inject;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link InjectionIndex}. The types are compiled into a separate classes directory, so they are loaded
+ * by a class loader of their own, together with the index written for them.
+ */
+public class InjectionIndexTest {
+
+    @After
+    public void tearDown() {
+        System.clearProperty(InjectionIndex.DISABLED_PROPERTY);
+    }
+
+    @Test
+    public void testDescriptorOfIndexedType() throws Exception {
+        ClassLoader classLoader = createModule("idx.Bean=field:a, setter:setB,callback:changed,unknown:c,malformed\n",
+                "idx.Bean", "package idx; public class Bean { String a; }");
+        InjectionIndex.Descriptor descriptor = InjectionIndex.getDescriptor(classLoader.loadClass("idx.Bean"));
+        assertNotNull(descriptor);
+        assertTrue(descriptor.isConfigured());
+        assertEquals(Arrays.asList("a"), descriptor.fields);
+        assertEquals(Arrays.asList("setB"), descriptor.setters);
+        assertEquals(Arrays.asList("changed"), descriptor.callbacks);
+    }
+
+    @Test
+    public void testTypeMissingInIndexIsNotConfigured() throws Exception {
+        ClassLoader classLoader = createModule("idx.Bean=field:a\n",
+                "idx.Bean", "package idx; public class Bean { String a; }",
+                "idx.Annotated", "package idx;\n"
+                        + "public class Annotated { @org.apache.tamaya.annotation.ConfiguredProperty String a; }");
+        Class<?> type = classLoader.loadClass("idx.Annotated");
+        assertSame(InjectionIndex.Descriptor.NOT_CONFIGURED, InjectionIndex.getDescriptor(type));
+        assertFalse(ConfiguredType.isConfigured(type));
+        assertTrue(ConfiguredType.isConfigured(classLoader.loadClass("idx.Bean")));
+    }
+
+    @Test
+    public void testTypeMissingInIndexIsScannedWhenConfigured() throws Exception {
+        ClassLoader classLoader = createModule("idx.Bean=field:a\n",
+                "idx.Bean", "package idx; public class Bean { String a; }",
+                "idx.Plain", "package idx; public class Plain { public String a; }");
+        Class<?> type = classLoader.loadClass("idx.Plain");
+        assertSame(InjectionIndex.Descriptor.NOT_CONFIGURED, InjectionIndex.getDescriptor(type));
+        Object instance = type.newInstance();
+        new ConfiguredType(type).configure(instance, Configuration.from(
+                PropertySourceBuilder.of("default").addMap(Collections.singletonMap("a", "value")).build()));
+        assertEquals("value", type.getField("a").get(instance));
+    }
+
+    @Test
+    public void testDisabledPropertyReadOncePerClassLoader() throws Exception {
+        ClassLoader classLoader = createModule("idx.Bean=field:a\n",
+                "idx.Bean", "package idx; public class Bean { String a; }");
+        Class<?> type = classLoader.loadClass("idx.Bean");
+        assertNotNull(InjectionIndex.getDescriptor(type));
+        System.setProperty(InjectionIndex.DISABLED_PROPERTY, "true");
+        assertNotNull(InjectionIndex.getDescriptor(type));
+    }
+
+    @Test
+    public void testDisabledIndexScansTypes() throws Exception {
+        ClassLoader classLoader = createModule("idx.Bean=field:a\n",
+                "idx.Annotated", "package idx;\n"
+                        + "public class Annotated { @org.apache.tamaya.annotation.ConfiguredProperty String a; }",
+                "idx.Plain", "package idx; public class Plain { String a; }");
+        System.setProperty(InjectionIndex.DISABLED_PROPERTY, "true");
+        Class<?> type = classLoader.loadClass("idx.Annotated");
+        assertNull(InjectionIndex.getDescriptor(type));
+        assertTrue(ConfiguredType.isConfigured(type));
+        assertFalse(ConfiguredType.isConfigured(classLoader.loadClass("idx.Plain")));
+    }
+
+    @Test
+    public void testTypesOfModulesWithoutIndexAreScanned() throws Exception {
+        ClassLoader classLoader = createModule(null,
+                "idx.Annotated", "package idx;\n"
+                        + "public class Annotated { @org.apache.tamaya.annotation.ConfiguredProperty String a; }");
+        Class<?> type = classLoader.loadClass("idx.Annotated");
+        assertNull(InjectionIndex.getDescriptor(type));
+        assertTrue(ConfiguredType.isConfigured(type));
+    }
+
+    /**
+     * Compiles the given types into a new classes directory and writes the given index into it.
+     *
+     * @param index the index content, or null, for not writing an index.
+     * @param sources pairs of type names and sources.
+     * @return a class loader loading the types compiled, never null.
+     */
+    private ClassLoader createModule(String index, String... sources) throws Exception {
+        Path classesDir = Files.createTempDirectory("classes");
+        List<String> args = new ArrayList<>(Arrays.asList("-d", classesDir.toString(),
+                "-cp", System.getProperty("java.class.path")));
+        for (int i = 0; i < sources.length; i += 2) {
+            Path file = classesDir.resolve(sources[i].replace('.', File.separatorChar) + ".java");
+            Files.createDirectories(file.getParent());
+            Files.write(file, sources[i + 1].getBytes(StandardCharsets.UTF_8));
+            args.add(file.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, args.toArray(new String[args.size()])));
+        if (index != null) {
+            Path indexFile = classesDir.resolve(InjectionIndex.INDEX_LOCATION);
+            Files.createDirectories(indexFile.getParent());
+            Files.write(indexFile, index.getBytes(StandardCharsets.UTF_8));
+        }
+        return new URLClassLoader(new URL[]{classesDir.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+}
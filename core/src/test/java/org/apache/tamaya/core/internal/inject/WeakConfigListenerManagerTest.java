@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.inject;
+
+import org.apache.tamaya.PropertySource;
+import org.apache.tamaya.core.properties.PropertyChangeSet;
+import org.apache.tamaya.core.properties.PropertyChangeSetBuilder;
+import org.apache.tamaya.core.properties.PropertySourceBuilder;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link WeakConfigListenerManager}.
+ */
+public class WeakConfigListenerManagerTest {
+
+    private final PropertySource source = createSource();
+
+    @Test
+    public void testListenersOnlyReceiveChangesOfTheirKeys() {
+        WeakConfigListenerManager manager = new WeakConfigListenerManager(Runnable::run);
+        Object instanceA = new Object();
+        Object instanceB = new Object();
+        Object instanceAll = new Object();
+        List<String> received = new ArrayList<>();
+        manager.registerConsumer(instanceA, Collections.singleton("a"), (i, c) -> received.add("a"));
+        manager.registerConsumer(instanceB, Arrays.asList("b", "c"), (i, c) -> received.add("b"));
+        manager.registerConsumer(instanceAll, c -> received.add("all"));
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("a", "changed").build());
+        assertEquals(Arrays.asList("a", "all"), sorted(received));
+        received.clear();
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("c", "changed").put("x", "new").build());
+        assertEquals(Arrays.asList("all", "b"), sorted(received));
+        received.clear();
+        manager.unregisterConsumer(instanceB);
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("b", "changed").build());
+        assertEquals(Collections.singletonList("all"), received);
+    }
+
+    @Test
+    public void testChangesQueuedAreCoalesced() {
+        List<Runnable> tasks = new ArrayList<>();
+        WeakConfigListenerManager manager = new WeakConfigListenerManager(tasks::add);
+        Object instance = new Object();
+        List<PropertyChangeSet> received = new ArrayList<>();
+        manager.registerConsumer(instance, Arrays.asList("a", "b"), (i, c) -> received.add(c));
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("a", "1").build());
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("a", "2").put("b", "2").build());
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("b", "b").build());
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+        assertTrue(tasks.isEmpty());
+        assertEquals(1, received.size());
+        PropertyChangeSet change = received.get(0);
+        // the change of b was reverted, the old value of a is the one before the first change
+        assertEquals(1, change.getEvents().size());
+        assertEquals("a", change.getEvents().iterator().next().getOldValue());
+        assertEquals("2", change.getEvents().iterator().next().getNewValue());
+    }
+
+    @Test
+    public void testFailingListenerDoesNotAffectOthers() {
+        WeakConfigListenerManager manager = new WeakConfigListenerManager(Runnable::run);
+        Object failing = new Object();
+        Object instance = new Object();
+        List<String> received = new ArrayList<>();
+        manager.registerConsumer(failing, Collections.singleton("a"), (i, c) -> {
+            throw new IllegalStateException("test");
+        });
+        manager.registerConsumer(instance, Collections.singleton("a"), (i, c) -> received.add("a"));
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("a", "1").build());
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("a", "2").build());
+        assertEquals(Arrays.asList("a", "a"), received);
+    }
+
+    @Test
+    public void testDeliveryOnDedicatedThreadInPublishOrder() throws Exception {
+        WeakConfigListenerManager manager = WeakConfigListenerManager.of();
+        Object instance = new Object();
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(2);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        List<Object> values = Collections.synchronizedList(new ArrayList<>());
+        manager.registerConsumer(instance, Collections.singleton("ordered"), (i, c) -> {
+            try {
+                blocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            threadName.set(Thread.currentThread().getName());
+            c.getEvents().forEach(e -> values.add(e.getNewValue()));
+            delivered.countDown();
+        });
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("ordered", "1").build());
+        // the listener blocking does not block the publishing thread
+        Thread.sleep(100L);
+        manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("ordered", "2").build());
+        blocked.countDown();
+        assertTrue(delivered.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("1", "2"), values);
+        assertEquals("tamaya-config-listeners", threadName.get());
+        assertFalse(Thread.currentThread().getName().equals(threadName.get()));
+        manager.unregisterConsumer(instance);
+    }
+
+    @Test
+    public void testConcurrentRegistrationsAreNotLost() throws Exception {
+        WeakConfigListenerManager manager = new WeakConfigListenerManager(Runnable::run);
+        AtomicBoolean running = new AtomicBoolean(true);
+        // keeps emptying and removing the registrations of key a
+        Thread churn = new Thread(() -> {
+            while (running.get()) {
+                Object instance = new Object();
+                manager.registerConsumer(instance, Collections.singleton("a"), (o, c) -> { });
+                manager.unregisterConsumer(instance);
+            }
+        });
+        churn.start();
+        try {
+            Set<Object> received = ConcurrentHashMap.newKeySet();
+            for (int i = 0; i < 20000; i++) {
+                Object instance = new Object();
+                manager.registerConsumer(instance, Collections.singleton("a"), (o, c) -> received.add(o));
+                manager.publishChangeEvent(PropertyChangeSetBuilder.of(source).put("a", "changed").build());
+                assertTrue("registration " + i + " lost", received.remove(instance));
+                manager.unregisterConsumer(instance);
+            }
+        } finally {
+            running.set(false);
+            churn.join();
+        }
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> result = new ArrayList<>(values);
+        Collections.sort(result);
+        return result;
+    }
+
+    private static PropertySource createSource() {
+        Map<String, String> map = new HashMap<>();
+        map.put("a", "a");
+        map.put("b", "b");
+        map.put("c", "c");
+        map.put("ordered", "0");
+        return PropertySourceBuilder.of("test").addMap(map).build();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.resources.io;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AntPathPattern}, comparing it to the uncompiled matching of {@link AntPathMatcher}.
+ */
+public class AntPathPatternTest {
+
+    private static final String[] PATTERN_SEGMENTS = {"a", "b", "ab", "**", "*", "*.xml", "a*", "?b", "a?*b", "*a*",
+            "x{y}", " a", "META-INF", "cfg", "*.properties"};
+    private static final String[] PATH_SEGMENTS = {"a", "b", "ab", "abb", "aab", "x.xml", "b.xml", "META-INF", "cfg",
+            "c.properties", ".properties", " a ", "  ", "xy", "*"};
+
+    @Test
+    public void testSuffixPattern(){
+        AntPathPattern pattern = new AntPathMatcher().compile("**/*.properties");
+        assertTrue(pattern.matches("a.properties"));
+        assertTrue(pattern.matches("META-INF/cfg/default/a.properties"));
+        assertTrue(pattern.matches("META-INF/cfg/default/a.properties/"));
+        assertTrue(pattern.matches(".properties"));
+        assertFalse(pattern.matches("META-INF/cfg/default/a.xml"));
+        assertFalse(pattern.matches("a.properties/b"));
+        assertFalse(pattern.matches("/a.properties"));
+        assertFalse(pattern.matches(""));
+    }
+
+    @Test
+    public void testMatchWithOffset(){
+        AntPathPattern pattern = new AntPathMatcher().compile("*/*.xml");
+        String entry = "META-INF/cfg/default/a.xml";
+        assertTrue(pattern.matches(entry, "META-INF/cfg/".length()));
+        assertFalse(pattern.matches(entry, "META-INF/".length()));
+        assertFalse(pattern.matches(entry));
+    }
+
+    @Test
+    public void testMatchStart(){
+        AntPathPattern pattern = new AntPathMatcher().compile("/root/*/cfg/**/*.ini");
+        assertTrue(pattern.matchesStart("/root/"));
+        assertTrue(pattern.matchesStart("/root/a/cfg/"));
+        assertTrue(pattern.matchesStart("/root/a/cfg/b/c/"));
+        assertFalse(pattern.matchesStart("/other/"));
+        assertFalse(pattern.matchesStart("/root/a/b/"));
+    }
+
+    @Test
+    public void testSameResultsAsUncompiledMatching(){
+        Random random = new Random(42L);
+        for (boolean trimTokens : new boolean[]{true, false}) {
+            AntPathMatcher matcher = new AntPathMatcher();
+            matcher.setTrimTokens(trimTokens);
+            for (int i = 0; i < 20000; i++) {
+                String pattern = randomPath(random, PATTERN_SEGMENTS, 5);
+                String path = randomPath(random, PATH_SEGMENTS, 6);
+                AntPathPattern compiled = new AntPathPattern(pattern, '/', trimTokens);
+                assertEquals(pattern + " ~ " + path, matcher.doMatch(pattern, path, true, null),
+                        compiled.matches(path));
+                assertEquals(pattern + " ~ " + path + " (start)", matcher.doMatch(pattern, path, false, null),
+                        compiled.matchesStart(path));
+            }
+        }
+    }
+
+    private static String randomPath(Random random, String[] segments, int maxSegments){
+        StringBuilder b = new StringBuilder();
+        if (random.nextInt(4) == 0) {
+            b.append('/');
+        }
+        int count = random.nextInt(maxSegments);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                b.append(random.nextInt(10) == 0 ? "//" : "/");
+            }
+            b.append(segments[random.nextInt(segments.length)]);
+        }
+        if (random.nextInt(5) == 0) {
+            b.append('/');
+        }
+        return b.toString();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.resources.io;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link JarFilePool}.
+ */
+public class JarFilePoolTest {
+
+    @Test
+    public void testHandlesAreShared() throws Exception {
+        JarFilePool pool = new JarFilePool(4, 60_000L);
+        String jarFileUrl = createJar().toURI().toURL().toExternalForm();
+        try (JarFilePool.Handle handle1 = pool.acquire(jarFileUrl);
+             JarFilePool.Handle handle2 = pool.acquire(jarFileUrl)) {
+            assertSame(handle1.getJarFile(), handle2.getJarFile());
+        }
+        assertEquals(1, pool.getMissCount());
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getSize());
+        pool.clear();
+        assertEquals(0, pool.getSize());
+    }
+
+    @Test
+    public void testIdleJarFilesAreEvicted() throws Exception {
+        JarFilePool pool = new JarFilePool(2, 100L);
+        JarFilePool.Handle inUse = pool.acquire(createJar().toURI().toURL().toExternalForm());
+        for (int i = 0; i < 3; i++) {
+            pool.acquire(createJar().toURI().toURL().toExternalForm()).close();
+        }
+        assertEquals(2, pool.getSize());
+        assertEquals(2, pool.getEvictionCount());
+        for (int i = 0; i < 50 && pool.getSize() > 1; i++) {
+            Thread.sleep(100L);
+        }
+        // the jar file in use is never closed
+        assertEquals(1, pool.getSize());
+        assertTrue(inUse.getJarFile().getEntry("test/a.properties") != null);
+        inUse.close();
+    }
+
+    @Test
+    public void testReadEntries() throws Exception {
+        JarFilePool pool = new JarFilePool(4, 60_000L);
+        String jarUrl = "jar:" + createJar().toURI().toURL().toExternalForm() + "!/";
+        assertFalse(pool.isPooled(new URL(jarUrl)));
+        URL entryUrl = new URL(jarUrl + "test/a.properties");
+        assertTrue(pool.isPooled(entryUrl));
+        try (InputStream is = pool.getInputStream(entryUrl)) {
+            byte[] data = new byte[64];
+            int read = is.read(data);
+            assertEquals("a=b", new String(data, 0, read, StandardCharsets.UTF_8));
+        }
+        assertEquals(3L, pool.getEntry(entryUrl).getSize());
+        assertNull(pool.getEntry(new URL(jarUrl + "test/missing.properties")));
+        try {
+            pool.getInputStream(new URL(jarUrl + "test/missing.properties"));
+            fail("FileNotFoundException expected.");
+        } catch (FileNotFoundException e) {
+            // expected
+        }
+        assertEquals(1, pool.getMissCount());
+        assertEquals(3, pool.getHitCount());
+        pool.clear();
+        assertEquals(0, pool.getSize());
+    }
+
+    private static File createJar() throws IOException {
+        File file = File.createTempFile("tamaya-pool", ".jar");
+        file.deleteOnExit();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            out.putNextEntry(new JarEntry("test/"));
+            out.putNextEntry(new JarEntry("test/a.properties"));
+            out.write("a=b".getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return file;
+    }
+}
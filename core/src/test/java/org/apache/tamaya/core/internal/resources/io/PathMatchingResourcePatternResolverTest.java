@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.internal.resources.io;
+
+import org.apache.tamaya.core.resource.Resource;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link PathMatchingResourcePatternResolver}.
+ */
+public class PathMatchingResourcePatternResolverTest {
+
+    private PathMatchingResourcePatternResolver resolver =
+            new PathMatchingResourcePatternResolver(getClass().getClassLoader());
+
+    @Test
+    public void testMultiplePatternsResolveSameAsSinglePatterns() throws Exception {
+        List<String> patterns = Arrays.asList(
+                "classpath:META-INF/config/*.xml",
+                "classpath:META-INF/config/*.ini",
+                "classpath:META-INF/**/*.properties",
+                "classpath:ucs/**/*.ini",
+                "classpath:org/junit/*.class",
+                "classpath:org/junit/**/Assert*.class",
+                "classpath:META-INF/config.properties",
+                "META-INF/configuration/*.xml");
+        Map<String, Resource[]> resources = resolver.getResources(patterns);
+        assertEquals(patterns, Arrays.asList(resources.keySet().toArray()));
+        for (String pattern : patterns) {
+            assertArrayEquals(pattern, resolver.getResources(pattern), resources.get(pattern));
+        }
+        assertTrue(resources.get("classpath:org/junit/*.class").length > 0);
+        assertEquals(1, resources.get("META-INF/configuration/*.xml").length);
+    }
+
+    @Test
+    public void testRetrieveMatchingFiles() throws Exception {
+        File rootDir = Files.createTempDirectory("tamaya-resolver").toFile();
+        createFile(rootDir, "cfg/default/a.properties");
+        createFile(rootDir, "cfg/default/sub/b.properties");
+        createFile(rootDir, "cfg/default/sub/c.xml");
+        createFile(rootDir, "cfg/other/d.properties");
+        createFile(rootDir, "e.properties");
+        assertEquals(files(rootDir, "cfg/default/a.properties", "cfg/default/sub/b.properties"),
+                resolver.retrieveMatchingFiles(rootDir, "cfg/default/**/*.properties"));
+        assertEquals(files(rootDir, "cfg/default/a.properties", "cfg/default/sub/b.properties", "cfg/other/d.properties",
+                "e.properties"), resolver.retrieveMatchingFiles(rootDir, "**/*.properties"));
+        assertEquals(files(rootDir, "cfg/default/sub/b.properties", "cfg/default/sub/c.xml", "cfg/default/sub"),
+                resolver.retrieveMatchingFiles(rootDir, "cfg/*/sub/**"));
+        assertEquals(files(rootDir), resolver.retrieveMatchingFiles(rootDir, "missing/**/*.properties"));
+    }
+
+    @Test
+    public void testMultiplePatternsInJarWithEncodedPaths() throws Exception {
+        // spaces in the file path, spaces and non-ASCII characters in the entry paths, all encoded in the jar URLs
+        File dir = Files.createTempDirectory("tamaya resolver").toFile();
+        dir.deleteOnExit();
+        File jar = new File(dir, "config a.jar");
+        jar.deleteOnExit();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (String entry : Arrays.asList("conf dir/", "conf dir/\u00fc/", "conf dir/\u00fc/a.properties",
+                    "conf dir/\u00fc/b.xml", "other/", "other/c.properties")) {
+                out.putNextEntry(new JarEntry(entry));
+                out.closeEntry();
+            }
+        }
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{jar.toURI().toURL()}, null)) {
+            PathMatchingResourcePatternResolver jarResolver = new PathMatchingResourcePatternResolver(classLoader);
+            List<String> patterns = Arrays.asList(
+                    "classpath:conf dir/\u00fc/*.properties",
+                    "classpath:conf dir/\u00fc/*.xml",
+                    "classpath:other/*.properties");
+            Map<String, Resource[]> resources = jarResolver.getResources(patterns);
+            for (String pattern : patterns) {
+                assertEquals(pattern, 1, resources.get(pattern).length);
+                assertArrayEquals(pattern, jarResolver.getResources(pattern), resources.get(pattern));
+            }
+            assertTrue(resources.get(patterns.get(0))[0].getURL().toExternalForm().endsWith("a.properties"));
+        }
+    }
+
+    private static void createFile(File rootDir, String path) throws IOException {
+        File file = new File(rootDir, path);
+        file.getParentFile().mkdirs();
+        file.createNewFile();
+        file.deleteOnExit();
+        for (File dir = file.getParentFile(); !dir.equals(rootDir); dir = dir.getParentFile()) {
+            dir.deleteOnExit();
+        }
+        rootDir.deleteOnExit();
+    }
+
+    private static Set<File> files(File rootDir, String... paths) {
+        Set<File> files = new LinkedHashSet<>();
+        for (String path : paths) {
+            files.add(new File(rootDir, path));
+        }
+        return files;
+    }
+
+}
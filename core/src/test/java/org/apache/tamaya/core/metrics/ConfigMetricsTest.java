@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConfigMetrics}. The metrics are shared, so the tests only assert on the changes they cause.
+ */
+public class ConfigMetricsTest {
+
+    private final ConfigMetrics metrics = ConfigMetrics.getInstance();
+
+    @Test
+    public void testLookupCounters() {
+        ConfigMetrics.LookupCounters counters = metrics.getLookupCounters("ConfigMetricsTest.lookups");
+        assertSame(counters, metrics.getLookupCounters("ConfigMetricsTest.lookups"));
+        assertSame(counters, metrics.getLookupCounters().get("ConfigMetricsTest.lookups"));
+        counters.hit();
+        counters.hit();
+        counters.miss();
+        assertEquals(2, counters.getHitCount());
+        assertEquals(1, counters.getMissCount());
+        assertEquals(3, counters.getLookupCount());
+        assertEquals("ConfigMetricsTest.lookups", counters.getConfigName());
+    }
+
+    @Test
+    public void testConfigCacheCounts() {
+        long hits = metrics.getConfigCacheHitCount();
+        long loads = metrics.getConfigCacheLoadCount();
+        metrics.recordConfigCacheHit();
+        metrics.recordConfigCacheHit();
+        metrics.recordConfigCacheLoad();
+        assertEquals(hits + 2, metrics.getConfigCacheHitCount());
+        assertEquals(loads + 1, metrics.getConfigCacheLoadCount());
+    }
+
+    @Test
+    public void testReloadsByConfigurationName() {
+        metrics.recordReload("ConfigMetricsTest.reload", 1000);
+        metrics.recordReload("ConfigMetricsTest.reload", 3000);
+        LatencyHistogram histogram = metrics.getReloadHistograms().get("ConfigMetricsTest.reload");
+        assertEquals(2, histogram.getCount());
+        assertEquals(3000, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void testCachesRegistered() {
+        TestCache cache = new TestCache();
+        metrics.registerCache(cache);
+        assertTrue(metrics.getCaches().contains(cache));
+    }
+
+    @Test
+    public void testReset() {
+        ConfigMetrics.LookupCounters counters = metrics.getLookupCounters("ConfigMetricsTest.reset");
+        counters.hit();
+        metrics.recordReload("ConfigMetricsTest.reset", 1000);
+        metrics.recordConfigCacheHit();
+        metrics.reset();
+        assertEquals(0, counters.getLookupCount());
+        assertEquals(0, metrics.getReloadHistograms().get("ConfigMetricsTest.reset").getCount());
+        assertEquals(0, metrics.getConfigCacheHitCount());
+        assertFalse(metrics.getReloadHistograms().isEmpty());
+    }
+
+    private static final class TestCache implements ConfigMetrics.MeteredCache {
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public long getHitCount() {
+            return 0;
+        }
+
+        @Override
+        public long getMissCount() {
+            return 0;
+        }
+
+        @Override
+        public long getEvictionCount() {
+            return 0;
+        }
+
+        @Override
+        public int getSize() {
+            return 0;
+        }
+    }
+
+}
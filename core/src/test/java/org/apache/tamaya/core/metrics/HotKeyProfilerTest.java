@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.metrics;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link HotKeyProfiler}.
+ */
+public class HotKeyProfilerTest {
+
+    @Test
+    public void testTopKeys() {
+        HotKeyProfiler profiler = new HotKeyProfiler(4, 1.0);
+        for (int i = 0; i < 3; i++) {
+            profiler.sample("a", String.class);
+        }
+        profiler.sample("b", Integer.class);
+        profiler.sample("a", Integer.class);
+        List<HotKeyProfiler.HotKey> top = profiler.getTopKeys(10);
+        assertEquals(2, top.size());
+        HotKeyProfiler.HotKey hotKey = top.get(0);
+        assertEquals("a", hotKey.getKey());
+        assertEquals(4, hotKey.getCount());
+        assertEquals(0, hotKey.getError());
+        assertEquals(Long.valueOf(3), hotKey.getTypes().get(String.class.getName()));
+        assertEquals(Long.valueOf(1), hotKey.getTypes().get(Integer.class.getName()));
+        assertEquals(Long.valueOf(4), hotKey.getCallers().get(HotKeyProfilerTest.class.getName()));
+        assertEquals(1, profiler.getTopKeys(1).size());
+    }
+
+    @Test
+    public void testEvictsMinimum() {
+        HotKeyProfiler profiler = new HotKeyProfiler(2, 1.0);
+        profiler.record("a", "t", "c", 3);
+        profiler.record("b", "t", "c", 1);
+        profiler.record("c", "t", "c", 1);
+        List<HotKeyProfiler.HotKey> top = profiler.getTopKeys(10);
+        assertEquals(2, top.size());
+        assertEquals("a", top.get(0).getKey());
+        assertEquals(3, top.get(0).getCount());
+        // c inherits the count of b as error
+        assertEquals("c", top.get(1).getKey());
+        assertEquals(2, top.get(1).getCount());
+        assertEquals(1, top.get(1).getError());
+    }
+
+    @Test
+    public void testErrorBound() {
+        HotKeyProfiler profiler = new HotKeyProfiler(8, 1.0);
+        Map<String, Long> reads = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            // skewed distribution: few keys read often, many keys rarely
+            String key = "key" + (int) Math.floor(Math.pow(random.nextDouble(), 4) * 100);
+            reads.merge(key, 1L, Long::sum);
+            profiler.record(key, "t", "c", 1);
+        }
+        List<HotKeyProfiler.HotKey> top = profiler.getTopKeys(8);
+        assertEquals(8, top.size());
+        for (HotKeyProfiler.HotKey hotKey : top) {
+            long actual = reads.get(hotKey.getKey());
+            assertTrue(hotKey + " underestimates " + actual, hotKey.getCount() >= actual);
+            assertTrue(hotKey + " exceeds error bound for " + actual, hotKey.getCount() - hotKey.getError() <= actual);
+            // the overestimation never exceeds reads / capacity
+            assertTrue(hotKey.getError() <= 10000 / 8);
+        }
+        assertEquals("key0", top.get(0).getKey());
+    }
+
+    @Test
+    public void testSamplesWeighted() {
+        HotKeyProfiler profiler = new HotKeyProfiler(4, 0.25);
+        assertEquals(0.25, profiler.getSampleRate(), 0.0);
+        for (int i = 0; i < 4000; i++) {
+            profiler.sample("a", String.class);
+        }
+        HotKeyProfiler.HotKey hotKey = profiler.getTopKeys(1).get(0);
+        assertEquals(0, hotKey.getCount() % 4);
+        assertTrue(hotKey.toString(), hotKey.getCount() > 3200 && hotKey.getCount() < 4800);
+        assertEquals(Long.valueOf(hotKey.getCount()), hotKey.getTypes().get(String.class.getName()));
+    }
+
+    @Test
+    public void testConcurrentReadsCounted() throws Exception {
+        HotKeyProfiler profiler = new HotKeyProfiler(4, 1.0);
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 1001; j++) {
+                    profiler.record("a", "t", "c", 1);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(4004, profiler.getTopKeys(1).get(0).getCount());
+        profiler.record("b", "t", "c", 1);
+        profiler.reset();
+        assertTrue(profiler.getTopKeys(10).isEmpty());
+    }
+
+    @Test
+    public void testOffByDefault() {
+        HotKeyProfiler profiler = new HotKeyProfiler(4, 0.0);
+        profiler.sample("a", String.class);
+        assertTrue(profiler.getTopKeys(10).isEmpty());
+        profiler.setSampleRate(1.0);
+        profiler.sample("a", null);
+        assertEquals(Long.valueOf(1), profiler.getTopKeys(1).get(0).getTypes().get("<adapter>"));
+        profiler.reset();
+        assertTrue(profiler.getTopKeys(10).isEmpty());
+        assertEquals(1.0, profiler.getSampleRate(), 0.0);
+    }
+
+    @Test
+    public void testDetailsBounded() {
+        HotKeyProfiler profiler = new HotKeyProfiler(4, 1.0);
+        for (int i = 0; i < 10; i++) {
+            profiler.record("a", "type" + i, "c", 1);
+        }
+        Map<String, Long> types = profiler.getTopKeys(1).get(0).getTypes();
+        assertEquals(9, types.size());
+        assertEquals(Long.valueOf(2), types.get("<other>"));
+        assertFalse(types.containsKey("type9"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSampleRate() {
+        new HotKeyProfiler(4, 0.0).setSampleRate(1.5);
+    }
+
+}
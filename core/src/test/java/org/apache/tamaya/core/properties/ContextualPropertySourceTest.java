@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.properties;
+
+import org.apache.tamaya.ConfigChangeSet;
+import org.apache.tamaya.ConfigChangeSetBuilder;
+import org.apache.tamaya.PropertySource;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ContextualPropertySource}.
+ */
+public class ContextualPropertySourceTest {
+
+    private final AtomicReference<Object> context = new AtomicReference<>();
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private final Supplier<PropertySource> mapSupplier = () -> PropertySourceBuilder.of("context")
+            .addMap(Collections.singletonMap("context", String.valueOf(context.get())))
+            .addMap(Collections.singletonMap("build", String.valueOf(builds.incrementAndGet()))).build();
+
+    @Test
+    public void testDelegatePerContext() {
+        ContextualPropertySource source = new ContextualPropertySource("test", mapSupplier, context::get);
+        context.set("a");
+        assertEquals("a", source.get("context").get());
+        context.set("b");
+        assertEquals("b", source.get("context").get());
+        context.set("a");
+        assertEquals("a", source.get("context").get());
+        assertEquals(2, builds.get());
+        ContextualPropertySource.CacheStats stats = source.getCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(2, stats.getLoadCount());
+        assertEquals(2, stats.getSize());
+        context.set(null);
+        assertSame(PropertySource.EMPTY_PROPERTYSOURCE, source.getContextualMap());
+    }
+
+    @Test
+    public void testConcurrentMissCountedOnce() throws Exception {
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ContextualPropertySource source = new ContextualPropertySource("test", () -> {
+            building.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return mapSupplier.get();
+        }, () -> "key");
+        Thread first = new Thread(source::getContextualMap);
+        first.start();
+        assertTrue(building.await(10, TimeUnit.SECONDS));
+        Thread second = new Thread(source::getContextualMap);
+        second.start();
+        Thread.sleep(50);
+        release.countDown();
+        first.join();
+        second.join();
+        ContextualPropertySource.CacheStats stats = source.getCacheStats();
+        assertEquals(1, stats.getLoadCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() throws Exception {
+        ContextualPropertySource source = new ContextualPropertySource("test", mapSupplier, context::get,
+                2, 0, TimeUnit.MILLISECONDS, false);
+        access(source, "a");
+        access(source, "b");
+        access(source, "a");
+        access(source, "c");
+        assertEquals(2, source.getSize());
+        assertNull(source.getCachedMap("b"));
+        assertEquals(new HashSet<>(Arrays.asList("a", "c")), source.getCachedMapKeys());
+        assertEquals(1, source.getEvictionCount());
+    }
+
+    @Test
+    public void testIdleEntriesEvicted() throws Exception {
+        ContextualPropertySource source = new ContextualPropertySource("test", mapSupplier, context::get,
+                0, 50, TimeUnit.MILLISECONDS, false);
+        access(source, "a");
+        access(source, "b");
+        Thread.sleep(100);
+        // a hit triggers the sweep, the entry accessed is kept
+        access(source, "b");
+        assertEquals(Collections.singleton("b"), source.getCachedMapKeys());
+        assertEquals(1, source.getEvictionCount());
+    }
+
+    @Test
+    public void testWeakKeysComparedByIdentity() {
+        ContextualPropertySource source = new ContextualPropertySource("test", mapSupplier, context::get,
+                0, 0, TimeUnit.MILLISECONDS, true);
+        String key = new String("key");
+        PropertySource delegate = access(source, key);
+        assertSame(delegate, access(source, key));
+        assertNotSame(delegate, access(source, new String("key")));
+        assertSame(delegate, source.getCachedMap(key));
+    }
+
+    @Test
+    public void testWeakKeysReleased() throws Exception {
+        ContextualPropertySource source = new ContextualPropertySource("test", mapSupplier, context::get,
+                0, 0, TimeUnit.MILLISECONDS, true);
+        access(source, new Object());
+        context.set(null);
+        for (int i = 0; i < 50 && source.getCacheStats().getSize() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, source.getCacheStats().getSize());
+        assertTrue(source.getCachedMapKeys().isEmpty());
+        assertEquals(1, source.getEvictionCount());
+    }
+
+    @Test
+    public void testInvalidate() {
+        ContextualPropertySource source = new ContextualPropertySource("test", mapSupplier, context::get);
+        access(source, "a");
+        access(source, "b");
+        source.invalidate("a");
+        assertNull(source.getCachedMap("a"));
+        assertEquals(1, source.getEvictionCount());
+        assertEquals("3", access(source, "a").get("build").get());
+        source.invalidateAll();
+        assertEquals(0, source.getSize());
+        assertEquals(3, source.getEvictionCount());
+        assertEquals(3, source.getMissCount());
+    }
+
+    private PropertySource access(ContextualPropertySource source, Object key) {
+        context.set(key);
+        try {
+            // distinct access times, even with a coarse clock
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return source.getContextualMap();
+    }
+
+
+    @Test
+    public void testCallbacksSurviveInvalidation() {
+        ContextualPropertySource source = new ContextualPropertySource("test", () -> new MapBasedPropertySource(
+                "context", Collections.singletonMap("build", String.valueOf(builds.incrementAndGet()))), context::get);
+        List<ConfigChangeSet> changes = new ArrayList<>();
+        context.set("a");
+        source.registerForUpdate(changes::add);
+        assertEquals("1", source.get("build").get());
+        source.invalidate("a");
+        ConfigChangeSet changeSet = ConfigChangeSetBuilder.of(source).put("context", "changed").build();
+        source.update(changeSet);
+        assertEquals(2, builds.get());
+        assertEquals(Collections.singletonList(changeSet), changes);
+        context.set("b");
+        source.update(changeSet);
+        assertEquals(2, changes.size());
+    }
+}
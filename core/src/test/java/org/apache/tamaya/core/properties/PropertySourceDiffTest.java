@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.core.properties;
+
+import org.apache.tamaya.PropertySource;
+import org.junit.Test;
+
+import java.beans.PropertyChangeEvent;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link PropertySourceDiff}.
+ */
+public class PropertySourceDiffTest {
+
+    @Test
+    public void testCompareEqual(){
+        Map<String,String> map = createMap(1000);
+        PropertySource source1 = PropertySourceBuilder.of("test1").addMap(map).build();
+        PropertySource source2 = PropertySourceBuilder.of("test2").addMap(map).build();
+        assertEquals(0, PropertySourceDiff.compare(source1, source2).count());
+    }
+
+    @Test
+    public void testCompareChanges(){
+        Map<String,String> oldMap = createMap(1000);
+        Map<String,String> newMap = new HashMap<>(oldMap);
+        newMap.put("area5.key5", "changed");
+        newMap.put("area7.new", "added");
+        newMap.remove("area3.key3");
+        PropertySource oldState = PropertySourceBuilder.of("old").addMap(oldMap).build();
+        PropertySource newState = PropertySourceBuilder.of("new").addMap(newMap).build();
+        List<PropertyChangeEvent> changes = PropertySourceDiff.compare(newState, oldState).collect(Collectors.toList());
+        assertEquals(3, changes.size());
+        assertEquals("area3.key3", changes.get(0).getPropertyName());
+        assertEquals("value3", changes.get(0).getOldValue());
+        assertNull(changes.get(0).getNewValue());
+        assertEquals("area5.key5", changes.get(1).getPropertyName());
+        assertEquals("value5", changes.get(1).getOldValue());
+        assertEquals("changed", changes.get(1).getNewValue());
+        assertEquals("area7.new", changes.get(2).getPropertyName());
+        assertNull(changes.get(2).getOldValue());
+        assertEquals("added", changes.get(2).getNewValue());
+    }
+
+    @Test
+    public void testCompareSnapshots(){
+        Map<String,String> map = createMap(100);
+        PropertySourceDiff.Snapshot oldState = PropertySourceDiff.snapshot(
+                PropertySourceBuilder.of("test").addMap(map).build());
+        map.put("area1.key1", "changed");
+        PropertySourceDiff.Snapshot newState = PropertySourceDiff.snapshot(
+                PropertySourceBuilder.of("test").addMap(map).build());
+        assertEquals(1, PropertySourceDiff.compare(newState, oldState).count());
+        assertTrue(PropertySourceDiff.compare(newState, newState).count() == 0);
+    }
+
+    @Test
+    public void testCompareSnapshotsWithSingleHashCollision() throws Exception{
+        Map<String,String> map = createMap(100);
+        PropertySourceDiff.Snapshot oldState = PropertySourceDiff.snapshot(
+                PropertySourceBuilder.of("test").addMap(map).build());
+        map.put("area1.key1", "changed");
+        PropertySourceDiff.Snapshot newState = PropertySourceDiff.snapshot(
+                PropertySourceBuilder.of("test").addMap(map).build());
+        // simulate colliding first hashes, the second hash still detects the changed area
+        copyHashes(newState, oldState, "areaHashes", "hash");
+        List<PropertyChangeEvent> changes = PropertySourceDiff.compare(newState, oldState).collect(Collectors.toList());
+        assertEquals(1, changes.size());
+        assertEquals("area1.key1", changes.get(0).getPropertyName());
+        assertEquals("changed", changes.get(0).getNewValue());
+    }
+
+    @Test
+    public void testAreasWithEqualHashesAreSkipped() throws Exception{
+        Map<String,String> map = createMap(100);
+        PropertySourceDiff.Snapshot oldState = PropertySourceDiff.snapshot(
+                PropertySourceBuilder.of("test").addMap(map).build());
+        map.put("area1.key1", "changed");
+        map.put("area2.key2", "changed");
+        PropertySourceDiff.Snapshot newState = PropertySourceDiff.snapshot(
+                PropertySourceBuilder.of("test").addMap(map).build());
+        // areas with the same hashes are trusted to be equal, their entries are not visited
+        Field areaHashes = PropertySourceDiff.Snapshot.class.getDeclaredField("areaHashes");
+        Field areaHashes2 = PropertySourceDiff.Snapshot.class.getDeclaredField("areaHashes2");
+        areaHashes.setAccessible(true);
+        areaHashes2.setAccessible(true);
+        ((long[]) areaHashes.get(oldState))[1] = ((long[]) areaHashes.get(newState))[1];
+        ((long[]) areaHashes2.get(oldState))[1] = ((long[]) areaHashes2.get(newState))[1];
+        List<PropertyChangeEvent> changes = PropertySourceDiff.compare(newState, oldState).collect(Collectors.toList());
+        assertEquals(1, changes.size());
+        assertEquals("area2.key2", changes.get(0).getPropertyName());
+    }
+
+    @Test
+    public void testCompareSourcesAndSnapshotsEqually(){
+        Map<String,String> oldMap = createMap(1000);
+        Map<String,String> newMap = new HashMap<>(oldMap);
+        newMap.put("area5.key5", "changed");
+        newMap.put("area7.new", "added");
+        newMap.remove("area3.key3");
+        newMap.remove("area3.key13");
+        PropertySource oldState = PropertySourceBuilder.of("old").addMap(oldMap).build();
+        PropertySource newState = PropertySourceBuilder.of("new").addMap(newMap).build();
+        List<String> fromSources = PropertySourceDiff.compare(newState, oldState)
+                .map(c -> c.getPropertyName() + '=' + c.getOldValue() + "->" + c.getNewValue())
+                .collect(Collectors.toList());
+        List<String> fromSnapshots = PropertySourceDiff.compare(PropertySourceDiff.snapshot(newState),
+                PropertySourceDiff.snapshot(oldState))
+                .map(c -> c.getPropertyName() + '=' + c.getOldValue() + "->" + c.getNewValue())
+                .collect(Collectors.toList());
+        assertEquals(4, fromSources.size());
+        assertEquals(fromSources, fromSnapshots);
+    }
+
+    private static void copyHashes(PropertySourceDiff.Snapshot from, PropertySourceDiff.Snapshot to,
+                                   String areaHashesField, String hashField) throws Exception{
+        Field areaHashes = PropertySourceDiff.Snapshot.class.getDeclaredField(areaHashesField);
+        areaHashes.setAccessible(true);
+        long[] toHashes = (long[]) areaHashes.get(to);
+        System.arraycopy(areaHashes.get(from), 0, toHashes, 0, toHashes.length);
+        Field hash = PropertySourceDiff.Snapshot.class.getDeclaredField(hashField);
+        hash.setAccessible(true);
+        hash.setLong(to, hash.getLong(from));
+    }
+
+    private Map<String,String> createMap(int size){
+        Map<String,String> map = new HashMap<>();
+        for(int i=0;i<size;i++){
+            map.put("area" + (i%10) + ".key" + i, "value" + i);
+        }
+        return map;
+    }
+
+}
@@ -18,35 +18,74 @@
  */
 package org.apache.tamaya.integration.cdi;
 
+import org.apache.tamaya.annotation.ConfiguredProperties;
+import org.apache.tamaya.annotation.ConfiguredProperty;
+import org.apache.tamaya.annotation.DefaultAreas;
+import org.apache.tamaya.annotation.LoadPolicy;
+import org.apache.tamaya.annotation.ObservesConfigChange;
+import org.apache.tamaya.annotation.WithLoadPolicy;
 import org.apache.tamaya.core.internal.inject.ConfigurationInjector;
 import org.apache.tamaya.core.internal.inject.ConfiguredType;
 
 import javax.enterprise.context.spi.CreationalContext;
 import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Produces;
 import javax.enterprise.inject.Vetoed;
 import javax.enterprise.inject.spi.*;
+import javax.inject.Inject;
 import java.util.*;
 
 /**
  * CDI portable extension that integrates {@link org.apache.tamaya.core.internal.inject.ConfigurationInjector}
  * with CDI by adding configuration features to CDI (config enable CDI beans).
+ * <p>
+ * Members annotated with {@code @Inject} and {@link org.apache.tamaya.annotation.ConfiguredProperty} are
+ * CDI injection points, served by the {@link ConfiguredPropertyProducer}. All other configured members are
+ * injected by the {@link org.apache.tamaya.core.internal.inject.ConfigurationInjector} after CDI injection. Injection
+ * points with a {@link LoadPolicy#MANAGED} or {@link LoadPolicy#SILENT} load policy are configured by the injector as
+ * well, so they are reinjected on changes.
  */
 @Vetoed
 public final class ConfigurationExtension implements Extension {
 
+    /**
+     * Registers the configuration annotations as qualifiers, with all members nonbinding.
+     *
+     * @param bbd the event.
+     * @param beanManager the bean manager.
+     */
+    public void registerQualifiers(final @Observes BeforeBeanDiscovery bbd, BeanManager beanManager) {
+        bbd.addQualifier(new NonbindingAnnotatedType<>(beanManager.createAnnotatedType(ConfiguredProperty.class)));
+        bbd.addQualifier(new NonbindingAnnotatedType<>(beanManager.createAnnotatedType(ConfiguredProperties.class)));
+    }
+
+    /**
+     * Wraps the injection targets of configured beans. Types of modules compiled with the injection index
+     * (see {@code org.apache.tamaya.buildtools.InjectionIndexProcessor}) are checked and registered without
+     * scanning their members for annotations.
+     *
+     * @param pit the injection target event.
+     * @param <T> the bean type.
+     */
     public <T> void initializeConfiguredFields(final @Observes ProcessInjectionTarget<T> pit) {
         final AnnotatedType<T> at = pit.getAnnotatedType();
-        if (!ConfiguredType.isConfigured(at.getJavaClass())) {
+        if (!ConfiguredType.isConfigured(at.getJavaClass()) || !requiresInjector(at)) {
             return;
         }
-//        final ConfiguredType configuredType = ConfigurationInjector.registerType(at.getJavaClass());
-
         final InjectionTarget<T> it = pit.getInjectionTarget();
         InjectionTarget<T> wrapped = new InjectionTarget<T>() {
+            /** The configured type, registered on first injection. */
+            private volatile ConfiguredType configuredType;
+
             @Override
             public void inject(T instance, CreationalContext<T> ctx) {
                 it.inject(instance, ctx);
-                ConfigurationInjector.configure(instance);
+                ConfiguredType type = this.configuredType;
+                if (type == null) {
+                    type = ConfigurationInjector.registerType(at.getJavaClass());
+                    this.configuredType = type;
+                }
+                type.configure(instance);
             }
 
             @Override
@@ -77,5 +116,48 @@ public final class ConfigurationExtension implements Extension {
         pit.setInjectionTarget(wrapped);
     }
 
+    /**
+     * Checks if a configured type has members not served by the {@link ConfiguredPropertyProducer}, i.e. if the
+     * type has default areas, configured members that are no injection points nor producers, configured fields to
+     * be reinjected on changes, or methods observing configuration changes, which are only registered by the
+     * injector.
+     *
+     * @param at the annotated type, not null.
+     * @return true, if instances must be configured by the {@link ConfigurationInjector}.
+     */
+    private static boolean requiresInjector(AnnotatedType<?> at) {
+        if (at.isAnnotationPresent(DefaultAreas.class)) {
+            return true;
+        }
+        for (AnnotatedField<?> field : at.getFields()) {
+            if (isConfigured(field) && (!field.isAnnotationPresent(Inject.class) || isUpdatable(at, field))) {
+                return true;
+            }
+        }
+        for (AnnotatedMethod<?> method : at.getMethods()) {
+            if (method.isAnnotationPresent(ObservesConfigChange.class)) {
+                return true;
+            }
+            if (isConfigured(method) && !method.isAnnotationPresent(Produces.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConfigured(Annotated annotated) {
+        return annotated.isAnnotationPresent(ConfiguredProperty.class)
+                || annotated.isAnnotationPresent(ConfiguredProperties.class);
+    }
+
+    private static boolean isUpdatable(AnnotatedType<?> at, AnnotatedField<?> field) {
+        WithLoadPolicy loadPolicy = field.getAnnotation(WithLoadPolicy.class);
+        if (loadPolicy == null) {
+            loadPolicy = at.getAnnotation(WithLoadPolicy.class);
+        }
+        return loadPolicy != null
+                && (loadPolicy.value() == LoadPolicy.MANAGED || loadPolicy.value() == LoadPolicy.SILENT);
+    }
+
 
 }
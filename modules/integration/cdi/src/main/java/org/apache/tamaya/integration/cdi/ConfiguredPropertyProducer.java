@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import org.apache.tamaya.annotation.ConfiguredProperties;
+import org.apache.tamaya.annotation.ConfiguredProperty;
+import org.apache.tamaya.annotation.DefaultValue;
+import org.apache.tamaya.annotation.WithPropertyAdapter;
+import org.apache.tamaya.core.internal.inject.ConfiguredValueResolver;
+
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.inject.Produces;
+import javax.enterprise.inject.spi.Annotated;
+import javax.enterprise.inject.spi.InjectionPoint;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CDI producers for injection points annotated with {@link org.apache.tamaya.annotation.ConfiguredProperty}, e.g.
+ * <pre>
+ * &#64;Inject
+ * &#64;ConfiguredProperty(keys="a.b.c")
+ * private Integer value;
+ * </pre>
+ * Keys, configurations and property adapter of an injection point are resolved once and cached, so creating a
+ * bean only performs the value lookups. The configuration annotations are registered as qualifiers with nonbinding
+ * members by the {@link ConfigurationExtension}, so these producers match all configured injection points.
+ * Since the repeated form of {@link ConfiguredProperty} is represented by its container, the producers are
+ * qualified with both annotations.
+ */
+@ApplicationScoped
+public class ConfiguredPropertyProducer {
+
+    /**
+     * The resolvers, per annotated injection point. The annotations are read from the {@link Annotated}, which may
+     * differ for the same member, e.g. for an inherited field or when an extension replaced the annotated type.
+     */
+    private final Map<Annotated, ConfiguredValueResolver<?>> resolvers = new ConcurrentHashMap<>();
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public String getString(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, String.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public Boolean getBoolean(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, Boolean.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public Integer getInteger(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, Integer.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public Long getLong(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, Long.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public Float getFloat(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, Float.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public Double getDouble(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, Double.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public BigInteger getBigInteger(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, BigInteger.class);
+    }
+
+    @Produces
+    @ConfiguredProperty
+    @ConfiguredProperties({})
+    public BigDecimal getBigDecimal(InjectionPoint injectionPoint) {
+        return resolve(injectionPoint, BigDecimal.class);
+    }
+
+    /**
+     * Resolves the configured value of an injection point.
+     *
+     * @param injectionPoint the injection point, not null.
+     * @param type the target type, not null.
+     * @param <T> the target type.
+     * @return the configured value, or null.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T resolve(InjectionPoint injectionPoint, Class<T> type) {
+        ConfiguredValueResolver<?> resolver = resolvers.get(injectionPoint.getAnnotated());
+        if (resolver == null) {
+            resolver = createResolver(injectionPoint, type);
+            ConfiguredValueResolver<?> previous = resolvers.putIfAbsent(injectionPoint.getAnnotated(), resolver);
+            if (previous != null) {
+                resolver = previous;
+            }
+        }
+        return (T) resolver.resolve();
+    }
+
+    private static <T> ConfiguredValueResolver<T> createResolver(InjectionPoint injectionPoint, Class<T> type) {
+        Annotated annotated = injectionPoint.getAnnotated();
+        List<ConfiguredProperty> properties = new ArrayList<>();
+        ConfiguredProperty property = annotated.getAnnotation(ConfiguredProperty.class);
+        if (property != null) {
+            properties.add(property);
+        }
+        ConfiguredProperties container = annotated.getAnnotation(ConfiguredProperties.class);
+        if (container != null) {
+            properties.addAll(Arrays.asList(container.value()));
+        }
+        return new ConfiguredValueResolver<>(injectionPoint.getMember(), properties,
+                annotated.getAnnotation(DefaultValue.class), annotated.getAnnotation(WithPropertyAdapter.class), type);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import javax.enterprise.inject.spi.AnnotatedConstructor;
+import javax.enterprise.inject.spi.AnnotatedField;
+import javax.enterprise.inject.spi.AnnotatedMethod;
+import javax.enterprise.inject.spi.AnnotatedParameter;
+import javax.enterprise.inject.spi.AnnotatedType;
+import javax.enterprise.util.AnnotationLiteral;
+import javax.enterprise.util.Nonbinding;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Annotation type view, that declares all members of the annotation {@link javax.enterprise.util.Nonbinding}.
+ * Used for registering Tamaya's configuration annotations as CDI qualifiers, so the injection points match the
+ * configuration producers regardless of the keys and configurations declared.
+ *
+ * @param <A> the annotation type.
+ */
+final class NonbindingAnnotatedType<A extends Annotation> implements AnnotatedType<A> {
+
+    private static final Nonbinding NONBINDING = new NonbindingLiteral();
+
+    private final AnnotatedType<A> delegate;
+    private final Set<AnnotatedMethod<? super A>> methods = new HashSet<>();
+
+    /**
+     * Creates a new view.
+     *
+     * @param delegate the annotation type as created by the {@link javax.enterprise.inject.spi.BeanManager},
+     *                 not null.
+     */
+    NonbindingAnnotatedType(AnnotatedType<A> delegate) {
+        this.delegate = Objects.requireNonNull(delegate);
+        for (AnnotatedMethod<? super A> method : delegate.getMethods()) {
+            methods.add(new NonbindingMethod<>(method));
+        }
+    }
+
+    @Override
+    public Class<A> getJavaClass() {
+        return delegate.getJavaClass();
+    }
+
+    @Override
+    public Set<AnnotatedConstructor<A>> getConstructors() {
+        return delegate.getConstructors();
+    }
+
+    @Override
+    public Set<AnnotatedMethod<? super A>> getMethods() {
+        return Collections.unmodifiableSet(methods);
+    }
+
+    @Override
+    public Set<AnnotatedField<? super A>> getFields() {
+        return delegate.getFields();
+    }
+
+    @Override
+    public Type getBaseType() {
+        return delegate.getBaseType();
+    }
+
+    @Override
+    public Set<Type> getTypeClosure() {
+        return delegate.getTypeClosure();
+    }
+
+    @Override
+    public <T extends Annotation> T getAnnotation(Class<T> annotationType) {
+        return delegate.getAnnotation(annotationType);
+    }
+
+    @Override
+    public Set<Annotation> getAnnotations() {
+        return delegate.getAnnotations();
+    }
+
+    @Override
+    public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+        return delegate.isAnnotationPresent(annotationType);
+    }
+
+    /**
+     * Annotation member, additionally annotated with {@link javax.enterprise.util.Nonbinding}.
+     */
+    private static final class NonbindingMethod<X> implements AnnotatedMethod<X> {
+        private final AnnotatedMethod<X> delegate;
+        private final Set<Annotation> annotations;
+
+        NonbindingMethod(AnnotatedMethod<X> delegate) {
+            this.delegate = delegate;
+            Set<Annotation> annots = new HashSet<>(delegate.getAnnotations());
+            annots.add(NONBINDING);
+            this.annotations = Collections.unmodifiableSet(annots);
+        }
+
+        @Override
+        public Method getJavaMember() {
+            return delegate.getJavaMember();
+        }
+
+        @Override
+        public List<AnnotatedParameter<X>> getParameters() {
+            return delegate.getParameters();
+        }
+
+        @Override
+        public boolean isStatic() {
+            return delegate.isStatic();
+        }
+
+        @Override
+        public AnnotatedType<X> getDeclaringType() {
+            return delegate.getDeclaringType();
+        }
+
+        @Override
+        public Type getBaseType() {
+            return delegate.getBaseType();
+        }
+
+        @Override
+        public Set<Type> getTypeClosure() {
+            return delegate.getTypeClosure();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Annotation> T getAnnotation(Class<T> annotationType) {
+            if (Nonbinding.class.equals(annotationType)) {
+                return (T) NONBINDING;
+            }
+            return delegate.getAnnotation(annotationType);
+        }
+
+        @Override
+        public Set<Annotation> getAnnotations() {
+            return annotations;
+        }
+
+        @Override
+        public boolean isAnnotationPresent(Class<? extends Annotation> annotationType) {
+            return Nonbinding.class.equals(annotationType) || delegate.isAnnotationPresent(annotationType);
+        }
+    }
+
+    @SuppressWarnings("all")
+    private static final class NonbindingLiteral extends AnnotationLiteral<Nonbinding> implements Nonbinding {
+        private static final long serialVersionUID = 1L;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import org.apache.deltaspike.cdise.api.CdiContainer;
+import org.apache.deltaspike.cdise.api.CdiContainerLoader;
+import org.apache.deltaspike.cdise.api.ContextControl;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.Instance;
+import javax.enterprise.inject.spi.CDI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the creation of request scoped configured beans with OpenWebBeans, comparing injection by the
+ * {@link ConfiguredPropertyProducer} with injection by the {@code ConfigurationInjector}. Each invocation starts
+ * a request context, creates the bean and stops the context again. Run with {@code main}, since it is no unit
+ * test.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfiguredPropertyInjectionBenchmark {
+
+    private CdiContainer container;
+    private ContextControl contextControl;
+    private Instance<ProducerConfiguredBean> producerConfiguredBeans;
+    private Instance<InjectorConfiguredBean> injectorConfiguredBeans;
+
+    @Setup
+    public void setup() {
+        System.setProperty("tamaya.benchmark.int", "42");
+        System.setProperty("tamaya.benchmark.double", "1234.5678");
+        System.setProperty("tamaya.benchmark.boolean", "true");
+        container = CdiContainerLoader.getCdiContainer();
+        container.boot();
+        contextControl = container.getContextControl();
+        contextControl.startContexts();
+        producerConfiguredBeans = CDI.current().select(ProducerConfiguredBean.class);
+        injectorConfiguredBeans = CDI.current().select(InjectorConfiguredBean.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        contextControl.stopContexts();
+        container.shutdown();
+    }
+
+    @Benchmark
+    public Object producerInjection() {
+        contextControl.startContext(RequestScoped.class);
+        try {
+            return producerConfiguredBeans.get().getDoubleValue();
+        } finally {
+            contextControl.stopContext(RequestScoped.class);
+        }
+    }
+
+    @Benchmark
+    public Object injectorInjection() {
+        contextControl.startContext(RequestScoped.class);
+        try {
+            return injectorConfiguredBeans.get().getDoubleValue();
+        } finally {
+            contextControl.stopContext(RequestScoped.class);
+        }
+    }
+
+    public static void main(String... args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ConfiguredPropertyInjectionBenchmark.class.getSimpleName()).build())
+                .run();
+    }
+}
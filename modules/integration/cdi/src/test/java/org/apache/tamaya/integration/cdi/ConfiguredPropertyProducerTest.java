@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import org.apache.deltaspike.cdise.api.CdiContainer;
+import org.apache.deltaspike.cdise.api.CdiContainerLoader;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.internal.inject.WeakConfigListenerManager;
+import org.apache.tamaya.core.properties.PropertyChangeSetBuilder;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.enterprise.context.RequestScoped;
+import javax.enterprise.inject.spi.CDI;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link ConfiguredPropertyProducer}, injecting {@link ProducerConfiguredBean} instances.
+ */
+public class ConfiguredPropertyProducerTest {
+
+    private static CdiContainer container;
+
+    @BeforeClass
+    public static void setup() {
+        System.setProperty("tamaya.benchmark.double", "1234.5678");
+        System.setProperty("tamaya.benchmark.boolean", "true");
+        container = CdiContainerLoader.getCdiContainer();
+        container.boot();
+        container.getContextControl().startContexts();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        container.getContextControl().stopContexts();
+        container.shutdown();
+        System.clearProperty("tamaya.benchmark.double");
+        System.clearProperty("tamaya.benchmark.boolean");
+    }
+
+    @Test
+    public void testProducerInjection() {
+        ProducerConfiguredBean bean = CDI.current().select(ProducerConfiguredBean.class).get();
+        assertEquals(System.getProperty("java.version"), bean.getJavaVersion());
+        assertEquals(Integer.valueOf(5), bean.getIntValue());
+        assertEquals(1234.5678, bean.getDoubleValue(), 0.0);
+        assertEquals(Boolean.TRUE, bean.getBooleanValue());
+    }
+
+    @Test
+    public void testValuesAreResolvedPerBean() {
+        System.setProperty("tamaya.benchmark.int", "42");
+        try {
+            container.getContextControl().stopContext(RequestScoped.class);
+            container.getContextControl().startContext(RequestScoped.class);
+            assertEquals(Integer.valueOf(42), CDI.current().select(ProducerConfiguredBean.class).get().getIntValue());
+        } finally {
+            System.clearProperty("tamaya.benchmark.int");
+            container.getContextControl().stopContext(RequestScoped.class);
+            container.getContextControl().startContext(RequestScoped.class);
+        }
+        assertEquals(Integer.valueOf(5), CDI.current().select(ProducerConfiguredBean.class).get().getIntValue());
+    }
+
+    @Test
+    public void testManagedInjectionPointsAreReinjected() throws Exception {
+        System.setProperty("tamaya.cdi.managed", "initial");
+        try {
+            ManagedProducerConfiguredBean bean = CDI.current().select(ManagedProducerConfiguredBean.class).get();
+            assertEquals("initial", bean.getManagedValue());
+            System.setProperty("tamaya.cdi.managed", "changed");
+            WeakConfigListenerManager.of().publishChangeEvent(PropertyChangeSetBuilder.of(Configuration.current())
+                    .put("tamaya.cdi.managed", "changed").build());
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (!"changed".equals(bean.getManagedValue()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10L);
+            }
+            assertEquals("changed", bean.getManagedValue());
+        } finally {
+            System.clearProperty("tamaya.cdi.managed");
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.cdi;
+
+import org.apache.tamaya.annotation.ConfiguredProperty;
+import org.apache.tamaya.annotation.DefaultValue;
+
+import javax.enterprise.context.RequestScoped;
+import javax.inject.Inject;
+
+/**
+ * Request scoped bean configured by the {@link ConfiguredPropertyProducer}, used by
+ * {@link ConfiguredPropertyInjectionBenchmark}.
+ */
+@RequestScoped
+public class ProducerConfiguredBean {
+
+    @Inject
+    @ConfiguredProperty(keys = "[java.version]")
+    private String javaVersion;
+
+    @Inject
+    @ConfiguredProperty(keys = "[tamaya.benchmark.int]")
+    @DefaultValue("5")
+    private Integer intValue;
+
+    @Inject
+    @ConfiguredProperty(keys = "[tamaya.benchmark.missing]")
+    @ConfiguredProperty(keys = "[tamaya.benchmark.double]")
+    private Double doubleValue;
+
+    @Inject
+    @ConfiguredProperty(keys = "[tamaya.benchmark.boolean]")
+    private Boolean booleanValue;
+
+    public String getJavaVersion() {
+        return javaVersion;
+    }
+
+    public Integer getIntValue() {
+        return intValue;
+    }
+
+    public Double getDoubleValue() {
+        return doubleValue;
+    }
+
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the statistics of a {@link org.apache.tamaya.core.metrics.ConfigMetrics.MeteredCache}.
+ */
+public final class CacheStatistics {
+
+    private final String name;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+
+    @ConstructorProperties({"name", "hitCount", "missCount", "evictionCount", "size"})
+    public CacheStatistics(String name, long hitCount, long missCount, long evictionCount, int size) {
+        this.name = name;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+    }
+
+    /**
+     * Creates a snapshot of the given cache.
+     *
+     * @param cache the cache, not null.
+     * @return the new snapshot, never null.
+     */
+    public static CacheStatistics of(ConfigMetrics.MeteredCache cache) {
+        return new CacheStatistics(cache.getName(), cache.getHitCount(), cache.getMissCount(),
+                cache.getEvictionCount(), cache.getSize());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "name='" + name + '\'' +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", evictionCount=" + evictionCount +
+                ", size=" + size +
+                '}';
+    }
+}
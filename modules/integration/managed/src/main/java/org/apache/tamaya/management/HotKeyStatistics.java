@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import org.apache.tamaya.core.metrics.HotKeyProfiler;
+
+import java.beans.ConstructorProperties;
+import java.util.Map;
+
+/**
+ * Snapshot of a key read frequently, as estimated by the {@link org.apache.tamaya.core.metrics.HotKeyProfiler}.
+ */
+public final class HotKeyStatistics {
+
+    private final String key;
+    private final long count;
+    private final long error;
+    private final Map<String, Long> callers;
+    private final Map<String, Long> types;
+
+    @ConstructorProperties({"key", "count", "error", "callers", "types"})
+    public HotKeyStatistics(String key, long count, long error, Map<String, Long> callers, Map<String, Long> types) {
+        this.key = key;
+        this.count = count;
+        this.error = error;
+        this.callers = callers;
+        this.types = types;
+    }
+
+    /**
+     * Creates a snapshot of the given hot key.
+     *
+     * @param hotKey the hot key, not null.
+     * @return the new snapshot, never null.
+     */
+    public static HotKeyStatistics of(HotKeyProfiler.HotKey hotKey) {
+        return new HotKeyStatistics(hotKey.getKey(), hotKey.getCount(), hotKey.getError(), hotKey.getCallers(),
+                hotKey.getTypes());
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    public Map<String, Long> getCallers() {
+        return callers;
+    }
+
+    public Map<String, Long> getTypes() {
+        return types;
+    }
+
+    @Override
+    public String toString() {
+        return "HotKeyStatistics{" +
+                "key='" + key + '\'' +
+                ", count=" + count +
+                ", error=" + error +
+                ", callers=" + callers +
+                ", types=" + types +
+                '}';
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import org.apache.tamaya.core.metrics.LatencyHistogram;
+
+import java.beans.ConstructorProperties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of a {@link org.apache.tamaya.core.metrics.LatencyHistogram}, with all durations in microseconds.
+ * Percentiles are upper bounds, as resolved by the histogram's buckets.
+ */
+public final class LatencyStatistics {
+
+    private final long count;
+    private final long meanMicros;
+    private final long p50Micros;
+    private final long p90Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorProperties({"count", "meanMicros", "p50Micros", "p90Micros", "p99Micros", "maxMicros"})
+    public LatencyStatistics(long count, long meanMicros, long p50Micros, long p90Micros, long p99Micros,
+                             long maxMicros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    /**
+     * Creates a snapshot of the given histogram.
+     *
+     * @param histogram the histogram, not null.
+     * @return the new snapshot, never null.
+     */
+    public static LatencyStatistics of(LatencyHistogram histogram) {
+        return new LatencyStatistics(histogram.getCount(),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getMeanNanos()),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getPercentileNanos(50)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getPercentileNanos(90)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getPercentileNanos(99)),
+                TimeUnit.NANOSECONDS.toMicros(histogram.getMaxNanos()));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP90Micros() {
+        return p90Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyStatistics{" +
+                "count=" + count +
+                ", meanMicros=" + meanMicros +
+                ", p50Micros=" + p50Micros +
+                ", p90Micros=" + p90Micros +
+                ", p99Micros=" + p99Micros +
+                ", maxMicros=" + maxMicros +
+                '}';
+    }
+}
@@ -18,78 +18,332 @@
  */
 package org.apache.tamaya.se;
 
+import org.apache.tamaya.ConfigChangeSet;
 import org.apache.tamaya.ConfigException;
-import org.apache.tamaya.AggregationPolicy;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.ConfigurationFunctions;
+import org.apache.tamaya.core.properties.AggregationPolicy;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+import org.apache.tamaya.spi.ConfigurationSpi;
+import org.apache.tamaya.spi.ServiceSingleton;
 
-import java.util.Map;
-import java.util.Set;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 /**
+ * MBean implementation for accessing configuration data, backed by the {@link org.apache.tamaya.spi.ConfigurationSpi}
+ * in place. The environment parameters are not evaluated, the configurations are resolved for the context
+ * of the caller.
+ * <p>
+ * For the paged accessors the keys of a configuration are sorted once and kept, until the configuration publishes
+ * a change or returns a different set of keys, so browsing a large configuration page by page only costs a binary
+ * search and the entries of the page requested.
  * Created by Anatole on 24.11.2014.
  */
 public class ManagedConfig implements ManagedConfigMBean{
+
+    /** The object name used by {@link #register()}. */
+    public static final String OBJECT_NAME = "org.apache.tamaya.managed:type=ManagedConfig";
+
+    private static final ServiceSingleton<ConfigurationSpi> CONFIGURATION_SPI =
+            ServiceSingleton.of(ConfigurationSpi.class);
+
+    /** The sorted keys, per configuration name. */
+    private final Map<String, KeyIndex> keyIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Registers a new instance with the platform MBean server, if not yet registered.
+     * @return the object name, never null.
+     * @throws ConfigException if the registration failed.
+     */
+    public static ObjectName register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new ManagedConfig(), name);
+            }
+            return name;
+        } catch (InstanceAlreadyExistsException e) {
+            return toObjectName(OBJECT_NAME);
+        } catch (JMException e) {
+            throw new ConfigException("Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    private static ObjectName toObjectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (JMException e) {
+            throw new ConfigException("Invalid object name: " + name, e);
+        }
+    }
+
     @Override
     public Set<String> getConfigurationNames() {
-        return null;
+        return new TreeSet<>(CONFIGURATION_SPI.get().getConfigurationNames());
     }
 
     @Override
     public String getConfigurationInfo(String configName) {
-        return null;
+        ConfigurationSpi spi = CONFIGURATION_SPI.get();
+        StringBuilder b = new StringBuilder("{\n");
+        b.append("  \"name\": \"").append(escape(configName)).append("\",\n");
+        b.append("  \"available\": ").append(spi.isConfigurationAvailable(configName)).append(",\n");
+        b.append("  \"loaded\": ").append(spi.isConfigurationLoaded(configName));
+        if (spi.isConfigurationLoaded(configName)) {
+            Configuration config = spi.getConfiguration(configName);
+            b.append(",\n  \"size\": ").append(getKeyIndex(configName).keys.length);
+            b.append(",\n  \"areas\": ").append(config.query(ConfigurationFunctions.getAreas()).size());
+        }
+        return b.append("\n}").toString();
     }
 
     @Override
     public boolean isConfigurationAvailable(String configName, String envType, String context) {
-        return false;
+        return CONFIGURATION_SPI.get().isConfigurationAvailable(configName);
     }
 
     @Override
     public boolean isConfigurationLoaded(String configName, String envType, String context) {
-        return false;
+        return CONFIGURATION_SPI.get().isConfigurationLoaded(configName);
     }
 
     @Override
     public Map<String, String> getConfiguration(String configName, String envType, String context) throws ConfigException {
-        return null;
+        return new TreeMap<>(getConfiguration(configName).getProperties());
     }
 
     @Override
     public Map<String, String> getRecursiveConfigValues(String area, String configName, String envType, String context) throws ConfigException {
-        return null;
+        return new TreeMap<>(getConfiguration(configName)
+                .with(ConfigurationFunctions.selectAreaRecursive(area, false)).getProperties());
     }
 
     @Override
     public Map<String, String> getConfigValues(String area, String configName, String envType, String context) throws ConfigException {
-        return null;
+        return new TreeMap<>(getConfiguration(configName)
+                .with(ConfigurationFunctions.selectArea(area, false)).getProperties());
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The configurations provided only publish the change sets passed to
+     * {@link Configuration#update(ConfigChangeSet)}, without applying them, so updating would
+     * only trigger change events for values that never changed. Updates are therefore not supported.
+     *
+     * @throws ConfigException always, if the configuration exists, because it is not mutable.
+     */
     @Override
     public Map<String, String> updateConfiguration(String configName, String envType, String context, Map<String, String> values, AggregationPolicy aggregationPolicy) throws ConfigException {
-        return null;
+        getConfiguration(configName);
+        throw new ConfigException("Configuration is not mutable: " + configName);
     }
 
     @Override
     public String getConfigurationInfo(String configName, String envType, String context) {
-        return null;
+        return getConfigurationInfo(configName);
     }
 
     @Override
     public Set<String> getAreas(String configName, String envType, String context) {
-        return null;
+        return new TreeSet<>(getConfiguration(configName).query(ConfigurationFunctions.getAreas()));
     }
 
     @Override
     public Set<String> getTransitiveAreas(String configName, String envType, String context) {
-        return null;
+        return new TreeSet<>(getConfiguration(configName).query(ConfigurationFunctions.getTransitiveAreas()));
     }
 
     @Override
     public boolean isAreaExisting(String area, String configName, String envType, String context) {
-        return false;
+        return getConfiguration(configName).query(ConfigurationFunctions.containsArea(area));
     }
 
     @Override
     public boolean isAreaEmpty(String area, String configName, String envType, String context) {
-        return false;
+        return getConfiguration(configName).with(ConfigurationFunctions.selectArea(area)).isEmpty();
+    }
+
+    @Override
+    public int getConfigEntryCount(String configName, String keyPrefix, String keyPattern) {
+        KeyIndex index = getKeyIndex(configName);
+        int start = index.getStart(keyPrefix);
+        int end = index.getEnd(keyPrefix);
+        Predicate<String> filter = toFilter(keyPattern);
+        if (filter == null) {
+            return end - start;
+        }
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (filter.test(index.keys[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<String> getConfigKeys(String configName, String keyPrefix, String keyPattern, int offset, int limit) {
+        KeyIndex index = getKeyIndex(configName);
+        List<String> keys = new ArrayList<>();
+        forEachKey(index, keyPrefix, keyPattern, offset, limit, keys::add);
+        return keys;
+    }
+
+    @Override
+    public Map<String, String> getConfigEntries(String configName, String keyPrefix, String keyPattern, int offset,
+                                                int limit) {
+        KeyIndex index = getKeyIndex(configName);
+        Map<String, String> entries = new LinkedHashMap<>();
+        Map<String, String> properties = index.properties;
+        forEachKey(index, keyPrefix, keyPattern, offset, limit, k -> entries.put(k, properties.get(k)));
+        return entries;
+    }
+
+    private void forEachKey(KeyIndex index, String keyPrefix, String keyPattern, int offset, int limit,
+                            Consumer<String> consumer) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative.");
+        }
+        int start = index.getStart(keyPrefix);
+        int end = index.getEnd(keyPrefix);
+        Predicate<String> filter = toFilter(keyPattern);
+        if (filter == null) {
+            for (int i = start + offset; i < end && i - start - offset < limit; i++) {
+                consumer.accept(index.keys[i]);
+            }
+            return;
+        }
+        int skipped = 0;
+        int count = 0;
+        for (int i = start; i < end && count < limit; i++) {
+            if (filter.test(index.keys[i])) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    consumer.accept(index.keys[i]);
+                    count++;
+                }
+            }
+        }
+    }
+
+    private static Predicate<String> toFilter(String keyPattern) {
+        if (keyPattern == null || keyPattern.isEmpty()) {
+            return null;
+        }
+        try {
+            return Pattern.compile(keyPattern).asPredicate();
+        } catch (PatternSyntaxException e) {
+            throw new ConfigException("Invalid key pattern: " + keyPattern, e);
+        }
+    }
+
+    private Configuration getConfiguration(String configName) {
+        ConfigurationSpi spi = CONFIGURATION_SPI.get();
+        if (!spi.isConfigurationAvailable(configName)) {
+            throw new ConfigException("No such config: " + configName);
+        }
+        return spi.getConfiguration(configName);
+    }
+
+    /**
+     * Access the sorted keys of a configuration, rebuilt only if the configuration was replaced, published a change
+     * or its keys changed.
+     */
+    private KeyIndex getKeyIndex(String configName) {
+        Configuration config = getConfiguration(configName);
+        Map<String, String> properties = config.getProperties();
+        KeyIndex index = keyIndexes.get(configName);
+        if (index == null || !index.isValid(config, properties)) {
+            index = new KeyIndex(config, properties);
+            KeyIndex previous = keyIndexes.put(configName, index);
+            if (previous != null) {
+                previous.release();
+            }
+        }
+        return index;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * Sorted keys of a configuration. The index is invalidated by the changes the configuration publishes. Since
+     * not all configurations publish their changes, the keys of the current property map are compared as well,
+     * when the configuration returns another map or the number of keys changed.
+     */
+    private static final class KeyIndex implements ConfigChangeSetCallback {
+        final Configuration config;
+        volatile Map<String, String> properties;
+        final String[] keys;
+        private volatile boolean changed;
+
+        KeyIndex(Configuration config, Map<String, String> properties) {
+            this.config = config;
+            this.properties = properties;
+            config.registerForUpdate(this);
+            this.keys = properties.keySet().toArray(new String[properties.size()]);
+            Arrays.sort(this.keys);
+        }
+
+        @Override
+        public void onChange(ConfigChangeSet changeSet) {
+            this.changed = true;
+        }
+
+        /**
+         * Checks if the index still matches the given configuration and its current properties, adopting the
+         * properties, if they contain the same keys.
+         */
+        boolean isValid(Configuration config, Map<String, String> properties) {
+            if (changed || this.config != config || properties.size() != keys.length) {
+                return false;
+            }
+            if (properties != this.properties) {
+                for (String key : keys) {
+                    if (!properties.containsKey(key)) {
+                        return false;
+                    }
+                }
+                this.properties = properties;
+            }
+            return true;
+        }
+
+        /** Stops listening for changes, after the index was replaced. */
+        void release() {
+            config.removeForUpdate(this);
+        }
+
+        /** The index of the first key starting with the prefix. */
+        int getStart(String prefix) {
+            if (prefix == null || prefix.isEmpty()) {
+                return 0;
+            }
+            int pos = Arrays.binarySearch(keys, prefix);
+            return pos < 0 ? -pos - 1 : pos;
+        }
+
+        /** The index after the last key starting with the prefix. */
+        int getEnd(String prefix) {
+            if (prefix == null || prefix.isEmpty()) {
+                return keys.length;
+            }
+            int pos = Arrays.binarySearch(keys, prefix + Character.MAX_VALUE);
+            return pos < 0 ? -pos - 1 : pos;
+        }
     }
 }
@@ -20,13 +20,16 @@ package org.apache.tamaya.se;
 
 
 import org.apache.tamaya.ConfigException;
-import org.apache.tamaya.AggregationPolicy;
+import org.apache.tamaya.core.properties.AggregationPolicy;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 /**
- * Managed bean interface for accessing environment data.
+ * Managed bean interface for accessing configuration data. Large configurations should be browsed using the
+ * paged accessors, e.g. {@link #getConfigEntries(String, String, String, int, int)}, which return only the
+ * requested page of the entries, ordered by key.
  */
 public interface ManagedConfigMBean {
     /**
@@ -114,7 +117,7 @@ public interface ManagedConfigMBean {
      * @param envContext        the environment context, not null.
      * @param values            the values to be changed.
      * @param aggregationPolicy the aggregation Policy to be used.
-     * @return the configuration after the changesd have been applied.
+     * @return the values of the keys changed, after the changes have been applied.
      * @throws org.apache.tamaya.ConfigException If the configuration is not yet loaded, or not
      *                                           mutable.
      */
@@ -173,4 +176,39 @@ public interface ManagedConfigMBean {
      */
     public boolean isAreaEmpty(String area, String configName, String envType, String envContext);
 
+    /**
+     * Counts the entries of a configuration matching the given filter.
+     * @param configName the configuration name, not null.
+     * @param keyPrefix the prefix the keys must start with, or null.
+     * @param keyPattern a regular expression the keys must match, or null.
+     * @return the number of entries matching.
+     * @throws org.apache.tamaya.ConfigException If the configuration is not available or the pattern is invalid.
+     */
+    public int getConfigEntryCount(String configName, String keyPrefix, String keyPattern);
+
+    /**
+     * Accesses a page of the keys of a configuration matching the given filter, ordered by key.
+     * @param configName the configuration name, not null.
+     * @param keyPrefix the prefix the keys must start with, or null.
+     * @param keyPattern a regular expression the keys must match, or null.
+     * @param offset the number of matching keys to be skipped.
+     * @param limit the maximal number of keys returned.
+     * @return the keys of the page, never null.
+     * @throws org.apache.tamaya.ConfigException If the configuration is not available or the pattern is invalid.
+     */
+    public List<String> getConfigKeys(String configName, String keyPrefix, String keyPattern, int offset, int limit);
+
+    /**
+     * Accesses a page of the entries of a configuration matching the given filter, ordered by key.
+     * @param configName the configuration name, not null.
+     * @param keyPrefix the prefix the keys must start with, or null.
+     * @param keyPattern a regular expression the keys must match, or null.
+     * @param offset the number of matching entries to be skipped.
+     * @param limit the maximal number of entries returned.
+     * @return the entries of the page, never null.
+     * @throws org.apache.tamaya.ConfigException If the configuration is not available or the pattern is invalid.
+     */
+    public Map<String, String> getConfigEntries(String configName, String keyPrefix, String keyPattern, int offset,
+                                                int limit);
+
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.core.metrics.ConfigMetrics;
+import org.apache.tamaya.core.metrics.HotKeyProfiler;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MXBean implementation publishing the {@link org.apache.tamaya.core.metrics.ConfigMetrics}. Nothing is recorded
+ * by this bean itself, it only reads the counters on access, so registering it has no effect on the lookup path.
+ */
+public class ManagedConfigMetrics implements ManagedConfigMetricsMXBean {
+
+    /** The object name used by {@link #register()}. */
+    public static final String OBJECT_NAME = "org.apache.tamaya.managed:type=ManagedConfigMetrics";
+    /** The highest hot key sample rate applied through JMX, i.e. one of ten reads. */
+    public static final double MAX_HOT_KEY_SAMPLE_RATE = 0.1;
+
+    private final ConfigMetrics metrics;
+
+    public ManagedConfigMetrics() {
+        this(ConfigMetrics.getInstance());
+    }
+
+    ManagedConfigMetrics(ConfigMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers a new instance with the platform MBean server, if not yet registered.
+     *
+     * @return the object name registered, never null.
+     * @throws org.apache.tamaya.ConfigException if registration fails.
+     */
+    public static ObjectName register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new ManagedConfigMetrics(), name);
+            }
+            return name;
+        } catch (InstanceAlreadyExistsException e) {
+            return toObjectName();
+        } catch (JMException e) {
+            throw new ConfigException("Failed to register " + OBJECT_NAME, e);
+        }
+    }
+
+    private static ObjectName toObjectName() {
+        try {
+            return new ObjectName(OBJECT_NAME);
+        } catch (JMException e) {
+            throw new ConfigException("Invalid object name: " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return metrics.isEnabled();
+    }
+
+    @Override
+    public long getLookupCount() {
+        return getLookupHitCount() + getLookupMissCount();
+    }
+
+    @Override
+    public long getLookupHitCount() {
+        long count = 0;
+        for (ConfigMetrics.LookupCounters counters : metrics.getLookupCounters().values()) {
+            count += counters.getHitCount();
+        }
+        return count;
+    }
+
+    @Override
+    public long getLookupMissCount() {
+        long count = 0;
+        for (ConfigMetrics.LookupCounters counters : metrics.getLookupCounters().values()) {
+            count += counters.getMissCount();
+        }
+        return count;
+    }
+
+    @Override
+    public double getLookupHitRate() {
+        long hits = getLookupHitCount();
+        long total = hits + getLookupMissCount();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public Map<String, Long> getLookupCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        metrics.getLookupCounters().forEach((name, counters) -> counts.put(name, counters.getLookupCount()));
+        return counts;
+    }
+
+    @Override
+    public long getConfigCacheHitCount() {
+        return metrics.getConfigCacheHitCount();
+    }
+
+    @Override
+    public long getConfigCacheLoadCount() {
+        return metrics.getConfigCacheLoadCount();
+    }
+
+    @Override
+    public Map<String, LatencyStatistics> getReloadStatistics() {
+        Map<String, LatencyStatistics> stats = new LinkedHashMap<>();
+        metrics.getReloadHistograms().forEach((name, histogram) -> stats.put(name, LatencyStatistics.of(histogram)));
+        return stats;
+    }
+
+    @Override
+    public LatencyStatistics getListenerDispatchStatistics() {
+        return LatencyStatistics.of(metrics.getListenerDispatchHistogram());
+    }
+
+    @Override
+    public List<CacheStatistics> getCacheStatistics() {
+        List<CacheStatistics> stats = new ArrayList<>();
+        for (ConfigMetrics.MeteredCache cache : metrics.getCaches()) {
+            stats.add(CacheStatistics.of(cache));
+        }
+        stats.sort(Comparator.comparing(CacheStatistics::getName));
+        return stats;
+    }
+
+    @Override
+    public double getHotKeySampleRate() {
+        return metrics.getHotKeyProfiler().getSampleRate();
+    }
+
+    @Override
+    public void setHotKeySampleRate(double sampleRate) {
+        metrics.getHotKeyProfiler().setSampleRate(Math.min(sampleRate, MAX_HOT_KEY_SAMPLE_RATE));
+    }
+
+    @Override
+    public List<HotKeyStatistics> getHotKeys(int count) {
+        List<HotKeyStatistics> stats = new ArrayList<>();
+        for (HotKeyProfiler.HotKey hotKey : metrics.getHotKeyProfiler().getTopKeys(count)) {
+            stats.add(HotKeyStatistics.of(hotKey));
+        }
+        return stats;
+    }
+
+    @Override
+    public String dumpHotKeys(int count) {
+        return metrics.getHotKeyProfiler().dump(count);
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+}
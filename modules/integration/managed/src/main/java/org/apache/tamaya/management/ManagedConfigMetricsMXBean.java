@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Managed bean interface for accessing the runtime metrics of the configuration system, as collected by
+ * {@link org.apache.tamaya.core.metrics.ConfigMetrics}. All values are snapshots taken on access.
+ */
+public interface ManagedConfigMetricsMXBean {
+
+    /**
+     * Checks if metrics are recorded, see {@code tamaya.metrics.enabled}.
+     *
+     * @return true, if metrics are enabled.
+     */
+    boolean isEnabled();
+
+    /**
+     * @return the number of lookups on all configurations.
+     */
+    long getLookupCount();
+
+    /**
+     * @return the number of lookups on all configurations returning a value.
+     */
+    long getLookupHitCount();
+
+    /**
+     * @return the number of lookups on all configurations returning no value.
+     */
+    long getLookupMissCount();
+
+    /**
+     * @return the ratio of lookups returning a value, or 0 if no lookups were done.
+     */
+    double getLookupHitRate();
+
+    /**
+     * Access the number of lookups per configuration.
+     *
+     * @return the lookup counts, by configuration name, never null.
+     */
+    Map<String, Long> getLookupCounts();
+
+    /**
+     * @return the number of configuration accesses served by the configuration cache.
+     */
+    long getConfigCacheHitCount();
+
+    /**
+     * @return the number of configurations loaded on access.
+     */
+    long getConfigCacheLoadCount();
+
+    /**
+     * Access the durations of reloads, per reloaded configuration.
+     *
+     * @return the reload statistics, by configuration name, never null.
+     */
+    Map<String, LatencyStatistics> getReloadStatistics();
+
+    /**
+     * Access the durations of dispatching change events to a single listener.
+     *
+     * @return the dispatch statistics, never null.
+     */
+    LatencyStatistics getListenerDispatchStatistics();
+
+    /**
+     * Access the statistics of the caches registered, e.g. contextual property sources.
+     *
+     * @return the cache statistics, never null.
+     */
+    List<CacheStatistics> getCacheStatistics();
+
+    /**
+     * Access the fraction of reads recorded by the hot key profiler.
+     *
+     * @return the sample rate, 0 if the profiler is off.
+     */
+    double getHotKeySampleRate();
+
+    /**
+     * Sets the fraction of reads recorded by the hot key profiler. Since each read recorded evaluates a stack
+     * trace, rates above {@link ManagedConfigMetrics#MAX_HOT_KEY_SAMPLE_RATE} are lowered to that rate.
+     *
+     * @param sampleRate the sample rate, between 0 (off) and 1.
+     */
+    void setHotKeySampleRate(double sampleRate);
+
+    /**
+     * Access the keys read most frequently, along with their callers and the types requested.
+     *
+     * @param count the maximal number of keys returned.
+     * @return the keys, ordered by estimated reads descending, never null.
+     */
+    List<HotKeyStatistics> getHotKeys(int count);
+
+    /**
+     * Creates a readable report of the keys read most frequently.
+     *
+     * @param count the maximal number of keys reported.
+     * @return the report, never null.
+     */
+    String dumpHotKeys(int count);
+
+    /**
+     * Resets all counters, histograms and hot keys, the statistics of caches are not affected.
+     */
+    void reset();
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import org.apache.tamaya.ConfigChangeSet;
+import org.apache.tamaya.ConfigChangeSetBuilder;
+import org.apache.tamaya.ConfigException;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the paged accessors of {@link ManagedConfig}.
+ */
+public class ManagedConfigTest {
+
+    private static final String NAME = TestConfigProvider.CONFIG_NAME;
+
+    private ManagedConfig managedConfig = new ManagedConfig();
+
+    @Before
+    public void setUp() {
+        for (int i = 0; i < 10; i++) {
+            TestConfigProvider.PROPERTIES.put("a.key" + i, "a" + i);
+            TestConfigProvider.PROPERTIES.put("b.key" + i, "b" + i);
+        }
+        TestConfigProvider.PROPERTIES.put("c", "c");
+    }
+
+    @After
+    public void tearDown() {
+        TestConfigProvider.PROPERTIES.clear();
+        TestConfigProvider.copyProperties = false;
+    }
+
+    @Test
+    public void testPaging() {
+        assertEquals(21, managedConfig.getConfigEntryCount(NAME, null, null));
+        assertEquals(Arrays.asList("a.key0", "a.key1", "a.key2"), managedConfig.getConfigKeys(NAME, null, null, 0, 3));
+        assertEquals(Arrays.asList("a.key3", "a.key4", "a.key5"), managedConfig.getConfigKeys(NAME, null, null, 3, 3));
+        assertEquals(Arrays.asList("b.key9", "c"), managedConfig.getConfigKeys(NAME, null, null, 19, 3));
+        assertEquals(Collections.emptyList(), managedConfig.getConfigKeys(NAME, null, null, 21, 3));
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("b.key8", "b8");
+        expected.put("b.key9", "b9");
+        assertEquals(expected, managedConfig.getConfigEntries(NAME, null, null, 18, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeOffset() {
+        managedConfig.getConfigKeys(NAME, null, null, -1, 3);
+    }
+
+    @Test
+    public void testPrefix() {
+        assertEquals(10, managedConfig.getConfigEntryCount(NAME, "b.", null));
+        assertEquals(Arrays.asList("b.key2", "b.key3"), managedConfig.getConfigKeys(NAME, "b.", null, 2, 2));
+        assertEquals(Arrays.asList("c"), managedConfig.getConfigKeys(NAME, "c", null, 0, 10));
+        assertEquals(0, managedConfig.getConfigEntryCount(NAME, "d", null));
+        assertEquals(Collections.emptyList(), managedConfig.getConfigKeys(NAME, "a.key9x", null, 0, 10));
+    }
+
+    @Test
+    public void testPattern() {
+        assertEquals(2, managedConfig.getConfigEntryCount(NAME, null, "^a\\.key[12]"));
+        assertEquals(4, managedConfig.getConfigEntryCount(NAME, null, "key[12]"));
+        assertEquals(Arrays.asList("a.key2", "b.key1"), managedConfig.getConfigKeys(NAME, null, "key[12]", 1, 2));
+        assertEquals(Arrays.asList("b.key1", "b.key2"), managedConfig.getConfigKeys(NAME, "b.", "key[12]", 0, 10));
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("a.key2", "a2");
+        assertEquals(expected, managedConfig.getConfigEntries(NAME, "a.", "2", 0, 10));
+    }
+
+    @Test(expected = ConfigException.class)
+    public void testInvalidPattern() {
+        managedConfig.getConfigEntryCount(NAME, null, "[");
+    }
+
+    @Test
+    public void testIndexInvalidatedByPublishedChanges() {
+        assertEquals(21, managedConfig.getConfigEntryCount(NAME, null, null));
+        // replaces a key in place, keeping the number of keys
+        TestConfigProvider.PROPERTIES.remove("c");
+        TestConfigProvider.PROPERTIES.put("a.new", "n");
+        Configuration config = Configuration.current(NAME);
+        config.update(ConfigChangeSetBuilder.of(config).remove("c").put("a.new", "n").build());
+        assertEquals(Arrays.asList("a.key9", "a.new", "b.key0"), managedConfig.getConfigKeys(NAME, null, null, 9, 3));
+        assertEquals(0, managedConfig.getConfigEntryCount(NAME, "c", null));
+    }
+
+    @Test
+    public void testIndexInvalidatedByChangedKeys() {
+        assertEquals(21, managedConfig.getConfigEntryCount(NAME, null, null));
+        TestConfigProvider.PROPERTIES.put("d", "d");
+        assertEquals(Arrays.asList("c", "d"), managedConfig.getConfigKeys(NAME, null, null, 20, 3));
+        TestConfigProvider.copyProperties = true;
+        TestConfigProvider.PROPERTIES.put("a.key5", "changed");
+        assertEquals(Collections.singletonMap("a.key5", "changed"), managedConfig.getConfigEntries(NAME, "a.key5", null, 0, 1));
+        TestConfigProvider.PROPERTIES.remove("d");
+        TestConfigProvider.PROPERTIES.put("e", "e");
+        assertEquals(Arrays.asList("c", "e"), managedConfig.getConfigKeys(NAME, null, null, 20, 3));
+    }
+
+    @Test
+    public void testUpdateNotSupported() {
+        Configuration config = Configuration.current(NAME);
+        List<ConfigChangeSet> changes = new ArrayList<>();
+        ConfigChangeSetCallback callback = changes::add;
+        config.registerForUpdate(callback);
+        try {
+            managedConfig.updateConfiguration(NAME, null, null, Collections.singletonMap("c", "changed"), null);
+            fail("ConfigException expected.");
+        } catch (ConfigException e) {
+            // expected
+        } finally {
+            config.removeForUpdate(callback);
+        }
+        assertTrue(changes.isEmpty());
+        assertEquals("c", config.get("c").get());
+    }
+}
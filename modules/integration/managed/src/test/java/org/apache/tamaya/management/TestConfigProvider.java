@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.se;
+
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.core.properties.AbstractPropertySource;
+import org.apache.tamaya.core.spi.ConfigurationProviderSpi;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Provides the configuration browsed by {@link ManagedConfigTest}, backed by a property map the tests replace or
+ * change in place.
+ */
+public class TestConfigProvider implements ConfigurationProviderSpi {
+
+    /** The name of the configuration provided. */
+    static final String CONFIG_NAME = "managed.test";
+
+    /** The properties of the configuration. */
+    static final Map<String, String> PROPERTIES = new TreeMap<>();
+
+    /** If set, the configuration returns a new copy of the properties on each access. */
+    static volatile boolean copyProperties;
+
+    private final Configuration config = Configuration.from(new AbstractPropertySource(CONFIG_NAME) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Map<String, String> getProperties() {
+            return copyProperties ? new TreeMap<>(PROPERTIES) : PROPERTIES;
+        }
+    });
+
+    @Override
+    public String getConfigName() {
+        return CONFIG_NAME;
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        return config;
+    }
+
+    @Override
+    public void reload() {
+    }
+}
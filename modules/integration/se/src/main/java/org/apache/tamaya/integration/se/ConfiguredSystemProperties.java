@@ -25,25 +25,47 @@ import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.beans.PropertyChangeEvent;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.logging.Logger;
 
+import org.apache.tamaya.ConfigChangeSet;
 import org.apache.tamaya.Configuration;
-import org.apache.tamaya.Environment;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
 
 /**
  * Properties implementation class that can be applied as current System properties by calling
  * {@link ConfiguredSystemProperties#install()}. The system properties will
  * then behave contextually depending on the current runtime configuration active.
+ * <p>
+ * The context of a thread is resolved once and cached, until the thread's context class loader changes or the
+ * contexts are reset. The properties of a context are a read-through view on the configuration, shared by all
+ * contexts using the same configuration and refreshed atomically when the configuration publishes a
+ * {@link org.apache.tamaya.ConfigChangeSet}. Changes are kept in a small per-context overlay, reads do not lock.
+ * The collection views returned by {@link #keySet()}, {@link #entrySet()} and {@link #values()} are live views on
+ * the properties of the context current when they are created, changes applied through them are visible in that
+ * context.
  */
 public class ConfiguredSystemProperties extends Properties {
 
@@ -51,17 +73,40 @@ public class ConfiguredSystemProperties extends Properties {
 
 	private static final Logger LOG = Logger.getLogger(ConfiguredSystemProperties.class.getName());
     private Properties initialProperties;
-    private static volatile Map<String, Properties> contextualProperties = new ConcurrentHashMap<>();
+    private static volatile Map<String, ContextProperties> contextualProperties = new ConcurrentHashMap<>();
+    /** Evaluates the current context id, by default the configured {@code context.id}. */
     private static volatile Supplier<String> contextProvider = () ->
-            Environment.current().get("context.id").orElse("<system>");
-
+            Configuration.current().get("context.id").orElse("<system>");
+    /** Incremented whenever resolved contexts become invalid, e.g. the context provider was changed. */
+    private static final AtomicInteger generation = new AtomicInteger();
+    /** The context resolved last by the current thread. */
+    private static final ThreadLocal<ContextBinding> currentContext = new ThreadLocal<>();
+    /**
+     * The context used by the current thread while it resolves the context id or creates the properties of a
+     * context. It is discarded when the resolution completes.
+     */
+    private static final ThreadLocal<ContextProperties> creatingContext = new ThreadLocal<>();
+    /** Marker for entries removed within a context. */
+    private static final Object REMOVED = new Object();
 
-    private final Object LOCK = new Object();
+    /**
+     * The view on the initial system properties, visible while a context is resolved, e.g. when the configuration
+     * reads the system properties.
+     */
+    private final ConfigView initialView;
+    /**
+     * The views on the configurations used by the contexts, shared by all contexts using the same configuration.
+     * Configurations are only weakly referenced, the views are evicted when their configuration was collected.
+     */
+    private final Map<ConfigurationKey, ConfigView> configViews = new HashMap<>();
+    /** Queue of configurations garbage collected. */
+    private final ReferenceQueue<Configuration> clearedConfigurations = new ReferenceQueue<>();
 
 
     private ConfiguredSystemProperties(Properties initialProperties) {
         super(initialProperties);
         this.initialProperties = initialProperties;
+        this.initialView = new ConfigView(null);
     }
 
     public static void install() {
@@ -87,124 +132,135 @@ public class ConfiguredSystemProperties extends Properties {
 
     @Override
     public String getProperty(String key) {
-        return getContextualProperties().getProperty(key);
+        return getContext().getProperty(key);
     }
 
     @Override
     public String getProperty(String key, String defaultValue) {
-        return getContextualProperties().getProperty(key, defaultValue);
+        String value = getContext().getProperty(key);
+        return value == null ? defaultValue : value;
     }
 
     @Override
     public Enumeration<?> propertyNames() {
-        return getContextualProperties().propertyNames();
+        return Collections.enumeration(getContext().keySet());
     }
 
     @Override
     public Set<String> stringPropertyNames() {
-        return getContextualProperties().stringPropertyNames();
+        Set<String> names = new TreeSet<>();
+        for (Map.Entry<Object, Object> en : getContext().entrySet()) {
+            if (en.getKey() instanceof String && en.getValue() instanceof String) {
+                names.add((String) en.getKey());
+            }
+        }
+        return Collections.unmodifiableSet(names);
     }
 
     @Override
-    public synchronized int size() {
-        return getContextualProperties().size();
+    public int size() {
+        return getContext().size();
     }
 
     @Override
-    public synchronized Enumeration<Object> keys() {
-        return getContextualProperties().keys();
+    public Enumeration<Object> keys() {
+        return Collections.enumeration(getContext().keySet());
     }
 
     @Override
-    public synchronized Enumeration<Object> elements() {
-        return getContextualProperties().elements();
+    public Enumeration<Object> elements() {
+        return Collections.enumeration(getContext().values());
     }
 
     @Override
-    public synchronized boolean contains(Object value) {
-        return getContextualProperties().contains(value);
+    public boolean contains(Object value) {
+        return getContext().containsValue(value);
     }
 
     @Override
     public boolean containsValue(Object value) {
-        return getContextualProperties().containsValue(value);
+        return getContext().containsValue(value);
     }
 
     @Override
-    public synchronized boolean containsKey(Object key) {
-        return getContextualProperties().containsKey(key);
+    public boolean containsKey(Object key) {
+        return getContext().containsKey(key);
     }
 
     @Override
-    public synchronized Object get(Object key) {
-        return getContextualProperties().get(key);
+    public Object get(Object key) {
+        return getContext().get(key);
     }
 
     @Override
-    public synchronized Object clone() {
-        return getContextualProperties().clone();
+    public Object clone() {
+        return getContextualProperties();
     }
 
     @Override
     public Set<Object> keySet() {
-        return getContextualProperties().keySet();
+        return getContext().keySet();
     }
 
     @Override
     public Set<Map.Entry<Object, Object>> entrySet() {
-        return getContextualProperties().entrySet();
+        return getContext().entrySet();
     }
 
     @Override
     public Collection<Object> values() {
-        return getContextualProperties().values();
+        return getContext().values();
     }
 
 
     @Override
     public Object getOrDefault(Object key, Object defaultValue) {
-        return getContextualProperties().getOrDefault(key, defaultValue);
+        return getContext().getOrDefault(key, defaultValue);
     }
 
     @Override
     public void forEach(BiConsumer<? super Object, ? super Object> action) {
-        getContextualProperties().forEach(action);
+        getContext().forEach(action);
     }
 
 
     @Override
     public Object computeIfAbsent(Object key, Function<? super Object, ?> mappingFunction) {
-        return getContextualProperties().computeIfAbsent(key, mappingFunction);
+        return modify(props -> props.computeIfAbsent(key, mappingFunction));
     }
 
     @Override
-    public synchronized Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
-        return getContextualProperties().computeIfPresent(key, remappingFunction);
+    public Object computeIfPresent(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        return modify(props -> props.computeIfPresent(key, remappingFunction));
     }
 
     @Override
-    public synchronized Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
-        return getContextualProperties().compute(key, remappingFunction);
+    public Object compute(Object key, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+        return modify(props -> props.compute(key, remappingFunction));
     }
 
     @Override
     public String toString() {
-        return getContextualProperties().toString();
+        return getContext().toString();
     }
 
     @Override
-    public synchronized Object setProperty(String key, String value) {
-        return getContextualProperties().setProperty(key, value);
+    public Object setProperty(String key, String value) {
+        return modify(props -> props.put(key, value));
     }
 
     @Override
-    public synchronized void load(Reader reader) throws IOException {
-        getContextualProperties().load(reader);
+    public void load(Reader reader) throws IOException {
+        Properties loaded = new Properties();
+        loaded.load(reader);
+        putAll(loaded);
     }
 
     @Override
-    public synchronized void load(InputStream inStream) throws IOException {
-        getContextualProperties().load(inStream);
+    public void load(InputStream inStream) throws IOException {
+        Properties loaded = new Properties();
+        loaded.load(inStream);
+        putAll(loaded);
     }
 
     @SuppressWarnings("deprecation")
@@ -225,7 +281,9 @@ public class ConfiguredSystemProperties extends Properties {
 
     @Override
     public void loadFromXML(InputStream in) throws IOException {
-        getContextualProperties().loadFromXML(in);
+        Properties loaded = new Properties();
+        loaded.loadFromXML(in);
+        putAll(loaded);
     }
 
     @Override
@@ -250,67 +308,76 @@ public class ConfiguredSystemProperties extends Properties {
 
     @Override
     public boolean isEmpty() {
-        return getContextualProperties().isEmpty();
+        return getContext().isEmpty();
     }
 
     @Override
     public Object put(Object key, Object value) {
-        return getContextualProperties().put(key, value);
+        return modify(props -> props.put(key, value));
     }
 
     @Override
     public Object remove(Object key) {
-        return getContextualProperties().remove(key);
+        return modify(props -> props.remove(key));
     }
 
     @Override
     public void putAll(Map<?, ?> t) {
-        getContextualProperties().putAll(t);
+        modify(props -> {
+            props.putAll(t);
+            return null;
+        });
     }
 
     @Override
     public void clear() {
-        getContextualProperties().clear();
+        modify(props -> {
+            props.clear();
+            return null;
+        });
     }
 
     @Override
     public boolean equals(Object o) {
-        return getContextualProperties().equals(o);
+        return getContext().equals(o);
     }
 
     @Override
     public int hashCode() {
-        return getContextualProperties().hashCode();
+        return getContext().hashCode();
     }
 
     @Override
     public void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
-        getContextualProperties().replaceAll(function);
+        modify(props -> {
+            props.replaceAll(function);
+            return null;
+        });
     }
 
     @Override
     public Object putIfAbsent(Object key, Object value) {
-        return getContextualProperties().putIfAbsent(key, value);
+        return modify(props -> props.putIfAbsent(key, value));
     }
 
     @Override
     public boolean remove(Object key, Object value) {
-        return getContextualProperties().remove(key, value);
+        return modify(props -> props.remove(key, value));
     }
 
     @Override
     public boolean replace(Object key, Object oldValue, Object newValue) {
-        return getContextualProperties().replace(key, oldValue, newValue);
+        return modify(props -> props.replace(key, oldValue, newValue));
     }
 
     @Override
     public Object replace(Object key, Object value) {
-        return getContextualProperties().replace(key, value);
+        return modify(props -> props.replace(key, value));
     }
 
     @Override
     public Object merge(Object key, Object value, BiFunction<? super Object, ? super Object, ?> remappingFunction) {
-        return getContextualProperties().merge(key, value, remappingFunction);
+        return modify(props -> props.merge(key, value, remappingFunction));
     }
 
     public Properties getInitialProperties() {
@@ -324,30 +391,429 @@ public class ConfiguredSystemProperties extends Properties {
     public static void resetProperties() {
         String contextId = contextProvider == null ? "" : contextProvider.get();
         contextualProperties.remove(contextId);
+        generation.incrementAndGet();
     }
 
+    /**
+     * Sets the supplier evaluating the current context id. Contexts resolved so far are evaluated again.
+     *
+     * @param provider the new context provider, or null, for using one shared context.
+     */
+    public static void setContextProvider(Supplier<String> provider) {
+        contextProvider = provider;
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Creates a copy of the properties visible in the current context.
+     *
+     * @return a new Properties instance, never null.
+     */
     protected Properties getContextualProperties() {
-        String contextId = contextProvider == null ? "" : contextProvider.get();
-        Properties props = ConfiguredSystemProperties.contextualProperties.get(contextId);
-        if (props == null) {
-            synchronized (LOCK) {
-                props = ConfiguredSystemProperties.contextualProperties.get(contextId);
-                if (props == null) {
-                    props = createNewProperties();
-                    contextualProperties.put(contextId, props);
+        return getContext().toProperties();
+    }
+
+    /**
+     * Evaluates the context of the current thread. The context resolved is cached per thread, as long as the
+     * thread's context class loader does not change and no contexts were reset, so the context provider is only
+     * called, when the context may have changed. While the context is resolved, e.g. when the context provider or
+     * the configuration read the system properties, the initial system properties are visible. Changes applied
+     * meanwhile only live until the resolution completes, they are neither visible to other threads nor to later
+     * resolutions.
+     *
+     * @return the current context, never null.
+     */
+    private ContextProperties getContext() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        int currentGeneration = generation.get();
+        ContextBinding binding = currentContext.get();
+        if (binding != null && binding.matches(classLoader, currentGeneration)) {
+            return binding.context;
+        }
+        ContextProperties resolvingContext = creatingContext.get();
+        if (resolvingContext != null) {
+            return resolvingContext;
+        }
+        String contextId;
+        ContextProperties context;
+        creatingContext.set(new ContextProperties(initialView));
+        try {
+            contextId = contextProvider == null ? "" : contextProvider.get();
+            context = contextualProperties.get(contextId);
+            if (context == null) {
+                context = new ContextProperties(getConfigView(Configuration.current()));
+                ContextProperties previous = contextualProperties.putIfAbsent(contextId, context);
+                if (previous != null) {
+                    context = previous;
                 }
             }
+        } finally {
+            creatingContext.remove();
         }
-        return props;
+        currentContext.set(new ContextBinding(classLoader, currentGeneration, context));
+        return context;
     }
 
-    protected Properties createNewProperties() {
-        Properties props = new Properties(initialProperties);
-        Configuration config = Configuration.current();
-        Map<String, String> configMap = config.getProperties();
-        for (Map.Entry<String, String> en : configMap.entrySet()) {
-            props.put(en.getKey(), en.getValue());
+    /**
+     * Access the view shared by all contexts using the given configuration, evicting the views of configurations
+     * collected meanwhile.
+     *
+     * @param config the configuration, or null.
+     * @return the view, never null.
+     */
+    ConfigView getConfigView(Configuration config) {
+        if (config == null) {
+            return new ConfigView(null);
+        }
+        synchronized (configViews) {
+            for (Reference<?> ref = clearedConfigurations.poll(); ref != null; ref = clearedConfigurations.poll()) {
+                configViews.remove(ref);
+            }
+            ConfigView view = configViews.get(new ConfigurationKey(config, null));
+            if (view == null) {
+                view = new ConfigView(config);
+                configViews.put(new ConfigurationKey(config, clearedConfigurations), view);
+            }
+            return view;
+        }
+    }
+
+    /**
+     * Access the number of configuration views currently held, including views of configurations collected but not
+     * yet evicted.
+     *
+     * @return the number of views.
+     */
+    int getConfigViewCount() {
+        synchronized (configViews) {
+            return configViews.size();
+        }
+    }
+
+    /**
+     * Applies a change to the current context's properties.
+     *
+     * @param change the change, not null.
+     * @param <R>    the result type.
+     * @return the change's result.
+     */
+    private <R> R modify(Function<Map<Object, Object>, R> change) {
+        ContextProperties context = getContext();
+        synchronized (context) {
+            return change.apply(context);
+        }
+    }
+
+    /**
+     * Read-through view on a configuration, together with the initial system properties. The view is an immutable
+     * snapshot, that is replaced atomically, when the configuration publishes changes.
+     */
+    private final class ConfigView implements ConfigChangeSetCallback {
+        private volatile Map<Object, Object> values;
+
+        ConfigView(Configuration config) {
+            Map<Object, Object> initialValues = new HashMap<>(initialProperties);
+            if (config != null) {
+                initialValues.putAll(config.getProperties());
+                config.registerForUpdate(this);
+            }
+            this.values = Collections.unmodifiableMap(initialValues);
+        }
+
+        @Override
+        public synchronized void onChange(ConfigChangeSet changeSet) {
+            Map<Object, Object> newValues = new HashMap<>(values);
+            for (PropertyChangeEvent change : changeSet.getEvents()) {
+                String key = change.getPropertyName();
+                Object initialValue = initialProperties.get(key);
+                if (change.getNewValue() != null) {
+                    newValues.put(key, change.getNewValue().toString());
+                } else if (initialValue != null) {
+                    newValues.put(key, initialValue);
+                } else {
+                    newValues.remove(key);
+                }
+            }
+            this.values = Collections.unmodifiableMap(newValues);
+        }
+    }
+
+    /**
+     * The properties of a context: the shared view on the configuration, overlaid by the changes applied within
+     * the context. Reads do not lock, changes are synchronized on the context. Entries removed within the context
+     * are overlaid with the {@link #REMOVED} marker, so they stay hidden when the configuration publishes a new
+     * value for them.
+     */
+    private final class ContextProperties extends AbstractMap<Object, Object> {
+        private final ConfigView base;
+        private final Map<Object, Object> overrides = new ConcurrentHashMap<>();
+        private final Set<Map.Entry<Object, Object>> entrySet = new EntrySet();
+        private volatile boolean cleared;
+
+        ContextProperties(ConfigView base) {
+            this.base = base;
+        }
+
+        String getProperty(String key) {
+            Object value = get(key);
+            return value instanceof String ? (String) value : null;
+        }
+
+        @Override
+        public Object get(Object key) {
+            Object value = overrides.get(key);
+            if (value == REMOVED) {
+                return null;
+            }
+            if (value != null || cleared) {
+                return value;
+            }
+            return base.values.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        /**
+         * Evaluates the number of properties visible, only visiting the entries changed within the context.
+         *
+         * @return the number of properties.
+         */
+        @Override
+        public int size() {
+            boolean baseVisible = !cleared;
+            Map<Object, Object> values = base.values;
+            int size = baseVisible ? values.size() : 0;
+            for (Map.Entry<Object, Object> en : overrides.entrySet()) {
+                boolean inBase = baseVisible && values.containsKey(en.getKey());
+                if (en.getValue() == REMOVED) {
+                    if (inBase) {
+                        size--;
+                    }
+                } else if (!inBase) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public synchronized Object put(Object key, Object value) {
+            Object previous = get(key);
+            overrides.put(key, Objects.requireNonNull(value));
+            return previous;
+        }
+
+        @Override
+        public synchronized Object remove(Object key) {
+            Object previous = get(key);
+            if (previous != null) {
+                overrides.put(key, REMOVED);
+            }
+            return previous;
+        }
+
+        @Override
+        public synchronized void clear() {
+            overrides.clear();
+            cleared = true;
+        }
+
+        @Override
+        public synchronized void replaceAll(BiFunction<? super Object, ? super Object, ?> function) {
+            for (Map.Entry<Object, Object> en : toProperties().entrySet()) {
+                put(en.getKey(), function.apply(en.getKey(), en.getValue()));
+            }
+        }
+
+        @Override
+        public Set<Map.Entry<Object, Object>> entrySet() {
+            return entrySet;
+        }
+
+        /**
+         * Creates a copy of all properties visible in this context.
+         *
+         * @return a new Properties instance, never null.
+         */
+        Properties toProperties() {
+            Properties props = new Properties();
+            if (!cleared) {
+                props.putAll(base.values);
+            }
+            overrides.forEach((key, value) -> {
+                if (value == REMOVED) {
+                    props.remove(key);
+                } else {
+                    props.put(key, value);
+                }
+            });
+            return props;
+        }
+
+        /**
+         * Live view on the entries of the context. Changes applied through the view, its iterator or its entries
+         * are applied to the context.
+         */
+        private final class EntrySet extends AbstractSet<Map.Entry<Object, Object>> {
+
+            @Override
+            public Iterator<Map.Entry<Object, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return ContextProperties.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> en = (Map.Entry<?, ?>) o;
+                Object value = get(en.getKey());
+                return value != null && value.equals(en.getValue());
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return o instanceof Map.Entry
+                        && ContextProperties.this.remove(((Map.Entry<?, ?>) o).getKey(), ((Map.Entry<?, ?>) o).getValue());
+            }
+
+            @Override
+            public void clear() {
+                ContextProperties.this.clear();
+            }
+        }
+
+        /**
+         * Iterates the entries changed within the context first, followed by the entries of the configuration view
+         * not overlaid. Entries changed while iterating the configuration view are therefore never returned twice.
+         */
+        private final class EntryIterator implements Iterator<Map.Entry<Object, Object>> {
+            private final Iterator<Map.Entry<Object, Object>> overridden = overrides.entrySet().iterator();
+            private final Iterator<Map.Entry<Object, Object>> inherited = cleared
+                    ? Collections.emptyIterator() : base.values.entrySet().iterator();
+            private Map.Entry<Object, Object> next;
+            private Object lastKey;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && overridden.hasNext()) {
+                    Map.Entry<Object, Object> en = overridden.next();
+                    if (en.getValue() != REMOVED) {
+                        next = new ContextEntry(en.getKey(), en.getValue());
+                    }
+                }
+                while (next == null && inherited.hasNext()) {
+                    Map.Entry<Object, Object> en = inherited.next();
+                    if (!overrides.containsKey(en.getKey())) {
+                        next = new ContextEntry(en.getKey(), en.getValue());
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Map.Entry<Object, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<Object, Object> en = next;
+                next = null;
+                lastKey = en.getKey();
+                return en;
+            }
+
+            @Override
+            public void remove() {
+                if (lastKey == null) {
+                    throw new IllegalStateException();
+                }
+                ContextProperties.this.remove(lastKey);
+                lastKey = null;
+            }
+        }
+
+        /**
+         * Entry of the context, writing its value through to the context.
+         */
+        private final class ContextEntry extends SimpleEntry<Object, Object> {
+            private static final long serialVersionUID = 1L;
+
+            ContextEntry(Object key, Object value) {
+                super(key, value);
+            }
+
+            @Override
+            public Object setValue(Object value) {
+                put(getKey(), value);
+                return super.setValue(value);
+            }
+        }
+    }
+
+    /**
+     * The context resolved by a thread, valid for the given class loader and generation.
+     */
+    private static final class ContextBinding {
+        final WeakReference<ClassLoader> classLoader;
+        final int generation;
+        final ContextProperties context;
+
+        ContextBinding(ClassLoader classLoader, int generation, ContextProperties context) {
+            this.classLoader = classLoader == null ? null : new WeakReference<>(classLoader);
+            this.generation = generation;
+            this.context = context;
+        }
+
+        boolean matches(ClassLoader classLoader, int generation) {
+            if (this.generation != generation) {
+                return false;
+            }
+            if (this.classLoader == null) {
+                return classLoader == null;
+            }
+            return classLoader != null && this.classLoader.get() == classLoader;
+        }
+    }
+
+    /**
+     * Weak key comparing configurations by identity.
+     */
+    private static final class ConfigurationKey extends WeakReference<Configuration> {
+        private final int hash;
+
+        ConfigurationKey(Configuration configuration, ReferenceQueue<Configuration> queue) {
+            super(Objects.requireNonNull(configuration), queue);
+            this.hash = System.identityHashCode(configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ConfigurationKey)) {
+                return false;
+            }
+            Configuration configuration = get();
+            return configuration != null && configuration == ((ConfigurationKey) obj).get();
         }
-        return props;
     }
 }
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.integration.se;
+
+import org.apache.tamaya.ConfigChangeSetBuilder;
+import org.apache.tamaya.Configuration;
+import org.apache.tamaya.spi.ConfigChangeSetCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link ConfiguredSystemProperties}.
+ */
+public class ConfiguredSystemPropertiesTest {
+
+    private Properties props;
+
+    @Before
+    public void setUp(){
+        System.setProperty("cst.a", "a");
+        System.setProperty("cst.b", "b");
+        ConfiguredSystemProperties.install();
+        ConfiguredSystemProperties.setContextProvider(() -> "test");
+        props = System.getProperties();
+    }
+
+    @After
+    public void tearDown(){
+        ConfiguredSystemProperties.resetProperties();
+        ConfiguredSystemProperties.uninstall();
+        System.clearProperty("cst.a");
+        System.clearProperty("cst.b");
+    }
+
+    @Test
+    public void testViewIsRefreshedOnChange(){
+        props.setProperty("cst.b", "local");
+        ConfigChangeSetCallback view = ((ConfiguredSystemProperties) props).getConfigView(Configuration.current());
+        view.onChange(ConfigChangeSetBuilder.of(Configuration.current())
+                .put("cst.a", "z").put("cst.b", "z").put("cst.new", "n").build());
+        assertEquals("z", System.getProperty("cst.a"));
+        assertEquals("local", System.getProperty("cst.b"));
+        assertEquals("n", System.getProperty("cst.new"));
+        view.onChange(ConfigChangeSetBuilder.of(Configuration.current()).remove("cst.a", "cst.new").build());
+        assertEquals("a", System.getProperty("cst.a"));
+        assertNull(System.getProperty("cst.new"));
+        assertFalse(props.containsKey("cst.new"));
+    }
+
+    @Test
+    public void testChangesWhileResolvingAreDiscarded(){
+        ConfiguredSystemProperties.setContextProvider(() -> {
+            System.clearProperty("cst.a");
+            return "test";
+        });
+        assertEquals("a", System.getProperty("cst.a"));
+        String[] seen = new String[1];
+        ConfiguredSystemProperties.setContextProvider(() -> {
+            seen[0] = System.getProperty("cst.a");
+            return "test";
+        });
+        assertEquals("a", System.getProperty("cst.a"));
+        assertEquals("a", seen[0]);
+    }
+
+    @Test
+    public void testRemovedEntriesAreHidden(){
+        int size = props.size();
+        assertEquals("a", props.remove("cst.a"));
+        assertNull(props.getProperty("cst.a"));
+        assertFalse(props.containsKey("cst.a"));
+        assertFalse(props.keySet().contains("cst.a"));
+        assertFalse(props.stringPropertyNames().contains("cst.a"));
+        assertEquals(size - 1, props.size());
+        assertNull(props.remove("cst.a"));
+        assertEquals(size - 1, props.size());
+        props.setProperty("cst.a", "c");
+        assertEquals("c", props.getProperty("cst.a"));
+        assertEquals(size, props.size());
+    }
+
+    @Test
+    public void testOverridesAreCountedOnce(){
+        int size = props.size();
+        props.setProperty("cst.a", "c");
+        assertEquals("c", props.get("cst.a"));
+        assertEquals(size, props.size());
+        props.setProperty("cst.new", "n");
+        assertEquals(size + 1, props.size());
+        int count = 0;
+        for (Map.Entry<Object, Object> en : props.entrySet()) {
+            if ("cst.a".equals(en.getKey())) {
+                assertEquals("c", en.getValue());
+                count++;
+            }
+        }
+        assertEquals(1, count);
+        assertEquals(props.size(), props.keySet().size());
+    }
+
+    @Test
+    public void testChangesAreLocalToContext(){
+        props.setProperty("cst.a", "c");
+        props.remove("cst.b");
+        ConfiguredSystemProperties.setContextProvider(() -> "other");
+        assertEquals("a", props.getProperty("cst.a"));
+        assertEquals("b", props.getProperty("cst.b"));
+        ConfiguredSystemProperties.resetProperties();
+        ConfiguredSystemProperties.setContextProvider(() -> "test");
+        assertEquals("c", props.getProperty("cst.a"));
+        assertNull(props.getProperty("cst.b"));
+    }
+
+    @Test
+    public void testClear(){
+        props.clear();
+        assertTrue(props.isEmpty());
+        assertNull(props.getProperty("cst.a"));
+        props.setProperty("cst.a", "c");
+        assertEquals(1, props.size());
+        assertEquals("c", props.getProperty("cst.a"));
+    }
+
+    @Test
+    public void testViewsWriteThrough(){
+        assertTrue(props.keySet().remove("cst.a"));
+        assertNull(props.getProperty("cst.a"));
+        assertTrue(props.values().remove("b"));
+        assertNull(props.getProperty("cst.b"));
+        props.setProperty("cst.c", "c");
+        for (Map.Entry<Object, Object> en : props.entrySet()) {
+            if ("cst.c".equals(en.getKey())) {
+                en.setValue("d");
+            }
+        }
+        assertEquals("d", props.getProperty("cst.c"));
+        for (Iterator<Object> it = props.keySet().iterator(); it.hasNext(); ) {
+            if ("cst.c".equals(it.next())) {
+                it.remove();
+            }
+        }
+        assertFalse(props.containsKey("cst.c"));
+    }
+
+    @Test
+    public void testCloneIsDetached(){
+        Properties copy = (Properties) props.clone();
+        assertEquals("a", copy.getProperty("cst.a"));
+        props.setProperty("cst.a", "c");
+        assertEquals("a", copy.getProperty("cst.a"));
+        assertEquals(props.size(), copy.size());
+    }
+
+    @Test
+    public void testConfigurationViewIsShared(){
+        ConfiguredSystemProperties installed = (ConfiguredSystemProperties) props;
+        props.getProperty("cst.a");
+        ConfiguredSystemProperties.setContextProvider(() -> "other");
+        props.getProperty("cst.a");
+        assertEquals(1, installed.getConfigViewCount());
+        ConfiguredSystemProperties.resetProperties();
+    }
+}
@@ -24,7 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.WeakHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -46,8 +46,8 @@ public class ClassLoaderDependentApplicationEnvironmentProvider implements Envir
 
     private static  final Logger LOG = Logger.getLogger(ClassLoaderDependentApplicationEnvironmentProvider.class.getName());
 
-    private Map<ClassLoader, Map<String,String>> environments = new ConcurrentHashMap<>();
-    private Map<ClassLoader, Boolean> environmentAvailable = new ConcurrentHashMap<>();
+    private Map<ClassLoader, Map<String,String>> environments = Collections.synchronizedMap(new WeakHashMap<>());
+    private Map<ClassLoader, Boolean> environmentAvailable = Collections.synchronizedMap(new WeakHashMap<>());
 
     @Override
     public boolean isActive() {
@@ -56,8 +56,8 @@ public class ClassLoaderDependentApplicationEnvironmentProvider implements Envir
             return false;
         }
         Boolean available = this.environmentAvailable.get(cl);
-        if(available!=null && !available){
-            return false;
+        if(available!=null){
+            return available;
         }
         List<Resource> propertyUris = ServiceContext.getInstance().getSingleton(ResourceLoader.class).getResources(cl,
                 "classpath:META-INF/env/application.properties", "classpath:META-INF/env/application.xml", "classpath:META-INF/env/application.ini");
@@ -98,4 +98,10 @@ public class ClassLoaderDependentApplicationEnvironmentProvider implements Envir
         this.environments.put(cl, data);
         return data;
     }
+
+    @Override
+    public void refresh() {
+        this.environments.clear();
+        this.environmentAvailable.clear();
+    }
 }
@@ -28,7 +28,6 @@ import org.apache.tamaya.core.resource.ResourceLoader;
 
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,8 +46,8 @@ public class ClassLoaderDependentEarEnvironmentProvider implements EnvironmentPr
 
 //    private static final String EARID_PROP = "environment.earId";
 
-    private Map<ClassLoader, Map<String,String>> environments = new ConcurrentHashMap<>();
-    private Map<ClassLoader, Boolean> environmentAvailable = new ConcurrentHashMap<>();
+    private Map<ClassLoader, Map<String,String>> environments = Collections.synchronizedMap(new WeakHashMap<>());
+    private Map<ClassLoader, Boolean> environmentAvailable = Collections.synchronizedMap(new WeakHashMap<>());
 
     @Override
     public boolean isActive() {
@@ -57,8 +56,8 @@ public class ClassLoaderDependentEarEnvironmentProvider implements EnvironmentPr
             return false;
         }
         Boolean available = this.environmentAvailable.get(cl);
-        if(available!=null && !available){
-            return false;
+        if(available!=null){
+            return available;
         }
         List<Resource> propertyUris = ServiceContext.getInstance().getSingleton(ResourceLoader.class).getResources(cl,
                 "classpath:META-INF/env/ear.properties", "classpath:META-INF/env/ear.xml", "classpath:META-INF/env/ear.ini");
@@ -105,4 +104,9 @@ public class ClassLoaderDependentEarEnvironmentProvider implements EnvironmentPr
         return data;
     }
 
+    @Override
+    public void refresh() {
+        this.environments.clear();
+        this.environmentAvailable.clear();
+    }
 }
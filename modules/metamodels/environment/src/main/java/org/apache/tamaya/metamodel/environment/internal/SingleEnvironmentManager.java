@@ -25,7 +25,11 @@ import org.apache.tamaya.metamodel.environment.spi.EnvironmentProvider;
 import org.apache.tamaya.metamodel.environment.spi.EnvironmentSpi;
 import org.apache.tamaya.spi.ServiceContext;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service for accessing {@link org.apache.tamaya.metamodel.environment.Environment}. Environments are used to
@@ -35,13 +39,32 @@ import java.util.*;
  * <li>thread safe,
  * <li>and behaves contextual.
  * </ul>
+ * The environments are built once per context class loader and cached, until the class loader is released or
+ * the environments are refreshed by calling {@link #refresh()}. Refreshing replaces the whole cache, so environments
+ * still being built from the data read before the refresh never end up in the cache used afterwards.
  */
 public class SingleEnvironmentManager implements EnvironmentSpi {
 
-    private final List<EnvironmentProvider> environmentProviders = loadEnvironmentProviders();
-    private Environment rootEnvironment = getCurrentEnvironment();
+    private final List<EnvironmentProvider> environmentProviders;
+    /** The environments cached, replaced on refresh. */
+    private volatile EnvironmentCache cache = new EnvironmentCache();
+    private Environment rootEnvironment;
 
-    private List<EnvironmentProvider> loadEnvironmentProviders() {
+    public SingleEnvironmentManager(){
+        this(loadEnvironmentProviders());
+    }
+
+    /**
+     * Creates a manager using the given providers.
+     *
+     * @param environmentProviders the providers, not null.
+     */
+    SingleEnvironmentManager(List<EnvironmentProvider> environmentProviders){
+        this.environmentProviders = environmentProviders;
+        this.rootEnvironment = getCurrentEnvironment();
+    }
+
+    private static List<EnvironmentProvider> loadEnvironmentProviders() {
         List<EnvironmentProvider> providerList = new ArrayList<>();
         for(EnvironmentProvider prov: ServiceContext.getInstance().getServices(EnvironmentProvider.class)){
             providerList.add(prov);
@@ -51,20 +74,131 @@ public class SingleEnvironmentManager implements EnvironmentSpi {
 
     @Override
     public Environment getCurrentEnvironment(){
+        EnvironmentCache current = cache;
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if(cl==null){
+            Environment env = current.systemEnvironment;
+            if(env==null){
+                env = buildEnvironment();
+                current.systemEnvironment = env;
+            }
+            return env;
+        }
+        CachedEnvironment last = current.lastEnvironment;
+        if(last!=null && last.key.get()==cl){
+            return last.environment;
+        }
+        current.expungeReleasedLoaders();
+        LoaderKey key = new LoaderKey(cl, current.releasedLoaders);
+        Environment env = current.environments.get(key);
+        if(env==null){
+            env = buildEnvironment();
+            Environment previous = current.environments.putIfAbsent(key, env);
+            if(previous!=null){
+                env = previous;
+            }
+        }
+        current.lastEnvironment = new CachedEnvironment(key, env);
+        return env;
+    }
+
+    @Override
+    public Environment getRootEnvironment(){
+        return rootEnvironment;
+    }
+
+    /**
+     * Drops all cached environments and refreshes the providers, so the environments are rebuilt on next access.
+     */
+    @Override
+    public void refresh(){
+        environmentProviders.forEach(EnvironmentProvider::refresh);
+        cache = new EnvironmentCache();
+    }
+
+    /**
+     * Evicts the environments of the class loaders collected and accesses the number of environments still cached
+     * per class loader.
+     *
+     * @return the number of environments.
+     */
+    int getEnvironmentCount(){
+        EnvironmentCache current = cache;
+        current.expungeReleasedLoaders();
+        return current.environments.size();
+    }
+
+    private Environment buildEnvironment(){
         EnvironmentBuilder b = EnvironmentBuilder.of();
         for(EnvironmentProvider prov: environmentProviders){
             if(prov.isActive()){
-                if(prov.isActive()){
-                    b.setAll(prov.getEnvironmentData());
-                }
+                b.setAll(prov.getEnvironmentData());
             }
         }
         return b.build();
     }
 
-    @Override
-    public Environment getRootEnvironment(){
-        return rootEnvironment;
+    /**
+     * The environments built since the last refresh.
+     */
+    private static final class EnvironmentCache{
+        /** The environments, per context class loader. */
+        final ConcurrentHashMap<LoaderKey, Environment> environments = new ConcurrentHashMap<>();
+        /** Queue of the class loaders collected. */
+        final ReferenceQueue<ClassLoader> releasedLoaders = new ReferenceQueue<>();
+        /** The environment of threads without context class loader. */
+        volatile Environment systemEnvironment;
+        /** The environment accessed last, the fast path for the common case of a single class loader. */
+        volatile CachedEnvironment lastEnvironment;
+
+        void expungeReleasedLoaders(){
+            Reference<? extends ClassLoader> ref;
+            while((ref = releasedLoaders.poll())!=null){
+                environments.remove(ref);
+            }
+        }
+    }
+
+    /**
+     * An environment together with the key of its class loader.
+     */
+    private static final class CachedEnvironment{
+        final LoaderKey key;
+        final Environment environment;
+
+        CachedEnvironment(LoaderKey key, Environment environment){
+            this.key = key;
+            this.environment = environment;
+        }
+    }
+
+    /**
+     * Weak, identity based key of a class loader.
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader>{
+        private final int hash;
+
+        LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue){
+            super(classLoader, queue);
+            this.hash = System.identityHashCode(classLoader);
+        }
+
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o){
+            if(this==o){
+                return true;
+            }
+            if(!(o instanceof LoaderKey)){
+                return false;
+            }
+            ClassLoader classLoader = get();
+            return classLoader!=null && classLoader==((LoaderKey)o).get();
+        }
     }
 
 }
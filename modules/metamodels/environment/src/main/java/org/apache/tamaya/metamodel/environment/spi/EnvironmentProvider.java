@@ -41,4 +41,11 @@ public interface EnvironmentProvider {
      */
     Map<String,String> getEnvironmentData();
 
+    /**
+     * Drops any environment data cached by this provider, so it is evaluated again on next access.
+     */
+    default void refresh(){
+        // nothing cached by default
+    }
+
 }
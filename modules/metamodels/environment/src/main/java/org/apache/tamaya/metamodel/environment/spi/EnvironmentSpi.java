@@ -46,4 +46,11 @@ public interface EnvironmentSpi {
      */
     Environment getRootEnvironment();
 
+    /**
+     * Drops any environments cached, so they are evaluated again on next access. By default nothing is cached.
+     */
+    default void refresh(){
+        // nothing cached by default
+    }
+
 }
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tamaya.metamodel.environment.internal;
+
+import org.apache.tamaya.metamodel.environment.Environment;
+import org.apache.tamaya.metamodel.environment.spi.EnvironmentProvider;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SingleEnvironmentManager}.
+ */
+public class SingleEnvironmentManagerTest {
+
+    @Test
+    public void testEnvironmentsCachedPerClassLoader() throws Exception{
+        CountingProvider provider = new CountingProvider();
+        SingleEnvironmentManager manager = new SingleEnvironmentManager(Collections.singletonList(provider));
+        Environment env = manager.getCurrentEnvironment();
+        assertSame(env, manager.getCurrentEnvironment());
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            Environment other = manager.getCurrentEnvironment();
+            assertNotSame(env, other);
+            assertSame(other, manager.getCurrentEnvironment());
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+        assertSame(env, manager.getCurrentEnvironment());
+        assertEquals(2, provider.builds.get());
+    }
+
+    @Test
+    public void testRefreshRebuildsEnvironments(){
+        CountingProvider provider = new CountingProvider();
+        SingleEnvironmentManager manager = new SingleEnvironmentManager(Collections.singletonList(provider));
+        Environment env = manager.getCurrentEnvironment();
+        assertEquals("1", env.get("build").get());
+        manager.refresh();
+        Environment refreshed = manager.getCurrentEnvironment();
+        assertNotSame(env, refreshed);
+        assertEquals("2", refreshed.get("build").get());
+        assertSame(refreshed, manager.getCurrentEnvironment());
+        assertSame(env, manager.getRootEnvironment());
+    }
+
+    @Test
+    public void testEnvironmentBuiltBeforeRefreshIsNotCached() throws Exception{
+        CountingProvider provider = new CountingProvider();
+        SingleEnvironmentManager manager = new SingleEnvironmentManager(Collections.singletonList(provider));
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch refreshed = new CountDownLatch(1);
+        provider.onBuild = () -> {
+            building.countDown();
+            try {
+                refreshed.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AtomicReference<Environment> stale = new AtomicReference<>();
+        Thread thread = new Thread(() -> stale.set(manager.getCurrentEnvironment()));
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            thread.setContextClassLoader(loader);
+            thread.start();
+            assertTrue(building.await(10, TimeUnit.SECONDS));
+            provider.onBuild = null;
+            manager.refresh();
+            refreshed.countDown();
+            thread.join(10000);
+            ClassLoader original = Thread.currentThread().getContextClassLoader();
+            Thread.currentThread().setContextClassLoader(loader);
+            try {
+                Environment env = manager.getCurrentEnvironment();
+                assertNotSame(stale.get(), env);
+                assertEquals("3", env.get("build").get());
+            } finally {
+                Thread.currentThread().setContextClassLoader(original);
+            }
+        }
+    }
+
+    @Test
+    public void testReleasedClassLoadersAreEvicted() throws Exception{
+        SingleEnvironmentManager manager = new SingleEnvironmentManager(Collections.singletonList(new CountingProvider()));
+        int count = manager.getEnvironmentCount();
+        accessWithNewClassLoader(manager);
+        assertEquals(count + 1, manager.getEnvironmentCount());
+        for (int i = 0; i < 50 && manager.getEnvironmentCount() > count; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(count, manager.getEnvironmentCount());
+    }
+
+    private static void accessWithNewClassLoader(SingleEnvironmentManager manager) throws Exception{
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            Thread.currentThread().setContextClassLoader(loader);
+            manager.getCurrentEnvironment();
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    /**
+     * Provider counting the environments built.
+     */
+    private static final class CountingProvider implements EnvironmentProvider{
+        final AtomicInteger builds = new AtomicInteger();
+        volatile Runnable onBuild;
+
+        @Override
+        public boolean isActive(){
+            return true;
+        }
+
+        @Override
+        public Map<String, String> getEnvironmentData(){
+            Map<String, String> data = Collections.singletonMap("build", String.valueOf(builds.incrementAndGet()));
+            Runnable action = onBuild;
+            if (action != null) {
+                action.run();
+            }
+            return data;
+        }
+    }
+}